@@ -0,0 +1,3 @@
+call scripts\compile.bat
+echo "All benchmarks running ..."
+ant benchmark
\ No newline at end of file
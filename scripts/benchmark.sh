@@ -0,0 +1,7 @@
+#!/bin/sh
+
+cd $(dirname $0)/..
+sh scripts/compile.sh
+
+echo "All benchmarks running ..."
+ant benchmark
@@ -5,6 +5,14 @@ import math_physics.physics.*;
 
 /**
  * Représente un noeud-arbre à huit branches de l'algorithme de Barnes-Hut.
+ * Chaque noeud est un objet : le simulateur utilise plutôt
+ * <code>LinearOctree</code>, qui suit les mêmes règles sans créer d'objet.
+ * <p>
+ * Un noeud divisé est accepté (son centre de gravité attire le corps) si le
+ * corps n'est pas dans sa boîte et si s / d ≤ Théta, avec s le plus grand côté
+ * de la boîte et d la distance du corps au centre de gravité. Cette condition
+ * est comparée sous la forme d<sup>2</sup> ≥ (s / Théta)<sup>2</sup>, le
+ * second membre étant calculé une fois par noeud.
  */
 public class BHTree {
     /**
@@ -14,11 +22,28 @@ public class BHTree {
     private double THETA;
 
     /**
-     * Correspond à un corps. Si l'attribut est à <em>null</em>, alors il n'y a pas
-     * de corps stocké et donc le noeud-arbre n'est pas une feuille. Sinon, le
-     * noeud-arbre est une feuille et on stocke le corps associé à cette feuille.
+     * Correspond au carré du rayon d'ouverture du noeud-arbre : en dessous, ses
+     * fils sont parcourus.
      */
-    private GenericObject body = null;
+    private double openingRadius2;
+
+    /**
+     * Formules physiques partagées par tous les noeuds-arbres.
+     */
+    private static final Formula FORMULA = new Formula();
+
+    /**
+     * Correspond au stockage du corps. Si l'attribut est à <em>null</em>, alors il
+     * n'y a pas de corps stocké et donc le noeud-arbre n'est pas une feuille.
+     * Sinon, le noeud-arbre est une feuille et on stocke le corps associé à cette
+     * feuille (stockage et case).
+     */
+    private ParticleStore store = null;
+
+    /**
+     * Correspond à la case du corps dans son stockage.
+     */
+    private int slot = -1;
 
     /**
      * Correspond au centre de gravité (centre de la masse) du noeud-arbre.
@@ -88,14 +113,15 @@ public class BHTree {
      */
     public BHTree(Octal box, double theta) {
         this.box = box;
-        this.THETA = theta;
+        this.setTheta(theta);
         this.COM = new CenterOfMass(0, this.box.getCenter());
     }
 
     @Override
     public String toString() {
-        return "BHTree[Body=" + this.body + ", " + this.box.toString() + "](" + this.NWB + "," + this.NWF + ","
-                + this.NEB + "," + this.NEF + "," + this.SWB + "," + this.SWF + "," + this.SEB + "," + this.SEF + ")";
+        return "BHTree[Body=" + (this.store == null ? null : this.slot) + ", " + this.box.toString() + "]("
+                + this.NWB + "," + this.NWF + "," + this.NEB + "," + this.NEF + "," + this.SWB + "," + this.SWF + ","
+                + this.SEB + "," + this.SEF + ")";
     }
 
     /**
@@ -117,12 +143,25 @@ public class BHTree {
     }
 
     /**
-     * Permet de remplacer la valeur du Théta.
+     * Permet de remplacer la valeur du Théta du noeud-arbre et de tous ses
+     * sous-arbres.
      * 
      * @param newTheta Nouvelle valeur pour le Théta
      */
     public void setTheta(double newTheta) {
         this.THETA = newTheta;
+        double size = Math.max(this.box.getWidth(), Math.max(this.box.getHeight(), this.box.getDeepness()));
+        this.openingRadius2 = size * size / (newTheta * newTheta);
+        if (this.boxDivided()) {
+            this.NWB.setTheta(newTheta);
+            this.NWF.setTheta(newTheta);
+            this.NEB.setTheta(newTheta);
+            this.NEF.setTheta(newTheta);
+            this.SWB.setTheta(newTheta);
+            this.SWF.setTheta(newTheta);
+            this.SEB.setTheta(newTheta);
+            this.SEF.setTheta(newTheta);
+        }
     }
 
     /**
@@ -140,59 +179,75 @@ public class BHTree {
      * @param bodyToInsert Corps à insérer
      */
     public void insertion(GenericObject bodyToInsert) {
+        this.insertion(bodyToInsert.getStore(), bodyToInsert.getSlot());
+    }
+
+    /**
+     * Permet d'insérer un corps d'un stockage dans le noeud-arbre.
+     * 
+     * @param bodyStore Stockage contenant le corps à insérer
+     * @param bodySlot  Case du corps à insérer
+     */
+    public void insertion(ParticleStore bodyStore, int bodySlot) {
+        double mass = bodyStore.getMass(bodySlot);
+        Vector3D position = new Vector3D(bodyStore.getXPosition(bodySlot), bodyStore.getYPosition(bodySlot),
+                bodyStore.getZPosition(bodySlot));
         // S'il n'y a aucun corps et qu'il n'y a pas de fils
-        if (this.body == null && !this.boxDivided()) {
-            this.body = bodyToInsert;
-            this.COM = new CenterOfMass(bodyToInsert.getMass(), bodyToInsert.getPosition());
+        if (this.store == null && !this.boxDivided()) {
+            this.store = bodyStore;
+            this.slot = bodySlot;
+            this.COM = new CenterOfMass(mass, position);
         } else { // S'il y a déjà un corps à la racine de l'arbre
             if (!this.boxDivided()) { // Si le noeud-arbre ne contient pas encore de fils
                 this.divideBox();
-                this.putBodyInBHTree(this.body);
+                this.putBodyInBHTree(this.store, this.slot);
             }
-            Formula F = new Formula();
-            this.COM = F.centerOfMass(this.COM.mass, bodyToInsert.getMass(), this.COM.position,
-                    bodyToInsert.getPosition());
-            this.putBodyInBHTree(bodyToInsert);
+            this.COM = FORMULA.centerOfMass(this.COM.mass, mass, this.COM.position, position);
+            this.putBodyInBHTree(bodyStore, bodySlot);
         }
     }
 
     /**
      * Permet d'insérer un corps dans les sous-arbres du noeud-arbre actuel.
      * 
-     * @param bodyToInsert Corps à insérer
+     * @param bodyStore Stockage contenant le corps à insérer
+     * @param bodySlot  Case du corps à insérer
      */
-    private void putBodyInBHTree(GenericObject bodyToInsert) {
-        if (this.box.NWB().contains(bodyToInsert)) {
-            this.NWB.insertion(bodyToInsert);
-        } else if (this.box.NWF().contains(bodyToInsert)) {
-            this.NWF.insertion(bodyToInsert);
-        } else if (this.box.NEB().contains(bodyToInsert)) {
-            this.NEB.insertion(bodyToInsert);
-        } else if (this.box.NEF().contains(bodyToInsert)) {
-            this.NEF.insertion(bodyToInsert);
-        } else if (this.box.SWB().contains(bodyToInsert)) {
-            this.SWB.insertion(bodyToInsert);
-        } else if (this.box.SWF().contains(bodyToInsert)) {
-            this.SWF.insertion(bodyToInsert);
-        } else if (this.box.SEB().contains(bodyToInsert)) {
-            this.SEB.insertion(bodyToInsert);
-        } else if (this.box.SEF().contains(bodyToInsert)) {
-            this.SEF.insertion(bodyToInsert);
+    private void putBodyInBHTree(ParticleStore bodyStore, int bodySlot) {
+        double x = bodyStore.getXPosition(bodySlot);
+        double y = bodyStore.getYPosition(bodySlot);
+        double z = bodyStore.getZPosition(bodySlot);
+        if (this.box.NWB().contains(x, y, z)) {
+            this.NWB.insertion(bodyStore, bodySlot);
+        } else if (this.box.NWF().contains(x, y, z)) {
+            this.NWF.insertion(bodyStore, bodySlot);
+        } else if (this.box.NEB().contains(x, y, z)) {
+            this.NEB.insertion(bodyStore, bodySlot);
+        } else if (this.box.NEF().contains(x, y, z)) {
+            this.NEF.insertion(bodyStore, bodySlot);
+        } else if (this.box.SWB().contains(x, y, z)) {
+            this.SWB.insertion(bodyStore, bodySlot);
+        } else if (this.box.SWF().contains(x, y, z)) {
+            this.SWF.insertion(bodyStore, bodySlot);
+        } else if (this.box.SEB().contains(x, y, z)) {
+            this.SEB.insertion(bodyStore, bodySlot);
+        } else if (this.box.SEF().contains(x, y, z)) {
+            this.SEF.insertion(bodyStore, bodySlot);
         }
     }
 
     /**
-     * Permet de créer les huit fils pour le noeud-arbre.
+     * Permet de créer les huit fils pour le noeud-arbre (avec le même Théta).
      */
     private void divideBox() {
-        this.NWB = new BHTree(this.box.NWB());
-        this.NWF = new BHTree(this.box.NWF());
-        this.NEB = new BHTree(this.box.NEB());
-        this.NEF = new BHTree(this.box.NEF());
-        this.SWB = new BHTree(this.box.SWB());
-        this.SWF = new BHTree(this.box.SWF());
-        this.SEF = new BHTree(this.box.SEF());
-        this.SEB = new BHTree(this.box.SEB());
+        this.NWB = new BHTree(this.box.NWB(), this.THETA);
+        this.NWF = new BHTree(this.box.NWF(), this.THETA);
+        this.NEB = new BHTree(this.box.NEB(), this.THETA);
+        this.NEF = new BHTree(this.box.NEF(), this.THETA);
+        this.SWB = new BHTree(this.box.SWB(), this.THETA);
+        this.SWF = new BHTree(this.box.SWF(), this.THETA);
+        this.SEF = new BHTree(this.box.SEF(), this.THETA);
+        this.SEB = new BHTree(this.box.SEB(), this.THETA);
     }
 
     /**
@@ -202,35 +257,48 @@ public class BHTree {
      * @param bodyToUpdate Corps à mettre à jour
      */
     public void updateForceAboutObject(GenericObject bodyToUpdate) {
-        if (this.body != null) {
-            // Si l'arbre contient un corps
-            if (this.boxDivided()) {
-                if (this.body != bodyToUpdate) {
-                    // Si le corps à mettre à jour est différent du corps contenu dans le noeud
-                    // actuel de l'arbre
-                    Vector3D boxDimension = this.box.getDimensions();
-                    double distance = this.body.getPosition().distanceFromOtherVector(bodyToUpdate.getPosition());
-                    if (boxDimension.divide(distance).compareMatrix(ConditionOperator.LE, THETA)) {
-                        // Si l'objet est trop loin du centre de gravité
-                        bodyToUpdate.addForce(this.COM);
-                    } else {
-                        this.NWB.updateForceAboutObject(bodyToUpdate);
-                        this.NWF.updateForceAboutObject(bodyToUpdate);
-                        this.NEB.updateForceAboutObject(bodyToUpdate);
-                        this.NEF.updateForceAboutObject(bodyToUpdate);
-                        this.SWB.updateForceAboutObject(bodyToUpdate);
-                        this.SWF.updateForceAboutObject(bodyToUpdate);
-                        this.SEF.updateForceAboutObject(bodyToUpdate);
-                        this.SEB.updateForceAboutObject(bodyToUpdate);
-                    }
-                }
-            } else {
-                if (this.body != bodyToUpdate) {
-                    // Si le corps à mettre à jour est différent du corps contenu dans le noeud
-                    // actuel de l'arbre
-                    bodyToUpdate.addForce(this.body);
-                }
+        this.updateForceAboutObject(bodyToUpdate.getStore(), bodyToUpdate.getSlot());
+    }
+
+    /**
+     * Permet de mettre à jour les forces exercées sur un corps d'un stockage par le
+     * centre de gravité (ajoutées directement à son accélération).
+     * 
+     * @param bodyStore Stockage contenant le corps à mettre à jour
+     * @param bodySlot  Case du corps à mettre à jour
+     */
+    public void updateForceAboutObject(ParticleStore bodyStore, int bodySlot) {
+        if (this.store == null) {
+            return; // Noeud vide
+        }
+        if (!this.boxDivided()) {
+            // Feuille : attraction de son corps, sauf si c'est le corps à mettre à jour
+            if (this.store != bodyStore || this.slot != bodySlot) {
+                FORMULA.addAcceleration(bodyStore, bodySlot, this.store.getMass(this.slot),
+                        this.store.getXPosition(this.slot), this.store.getYPosition(this.slot),
+                        this.store.getZPosition(this.slot));
             }
+            return;
+        }
+        double x = bodyStore.getXPosition(bodySlot);
+        double y = bodyStore.getYPosition(bodySlot);
+        double z = bodyStore.getZPosition(bodySlot);
+        double dx = this.COM.position.getX() - x;
+        double dy = this.COM.position.getY() - y;
+        double dz = this.COM.position.getZ() - z;
+        if (dx * dx + dy * dy + dz * dz >= this.openingRadius2 && !this.box.contains(x, y, z)) {
+            // Si l'objet est assez loin du centre de gravité
+            FORMULA.addAcceleration(bodyStore, bodySlot, this.COM.mass, this.COM.position.getX(),
+                    this.COM.position.getY(), this.COM.position.getZ());
+        } else {
+            this.NWB.updateForceAboutObject(bodyStore, bodySlot);
+            this.NWF.updateForceAboutObject(bodyStore, bodySlot);
+            this.NEB.updateForceAboutObject(bodyStore, bodySlot);
+            this.NEF.updateForceAboutObject(bodyStore, bodySlot);
+            this.SWB.updateForceAboutObject(bodyStore, bodySlot);
+            this.SWF.updateForceAboutObject(bodyStore, bodySlot);
+            this.SEF.updateForceAboutObject(bodyStore, bodySlot);
+            this.SEB.updateForceAboutObject(bodyStore, bodySlot);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,181 @@
+package barnes_hut;
+
+import java.util.concurrent.*;
+
+import math_physics.physics.*;
+
+/**
+ * Méthode de calcul des forces par l'arbre de Barnes-Hut de
+ * <code>LinearOctree</code> : les corps sont triés selon leur code de Morton,
+ * l'arbre est construit à partir des codes triés puis parcouru pour chaque corps
+ * (ou chaque groupe de corps). L'arbre peut aussi être réajusté d'un pas à
+ * l'autre au lieu d'être reconstruit.
+ */
+public class BarnesHutSolver implements ForceSolver {
+    /**
+     * Nom de la méthode.
+     */
+    public static final String NAME = "Barnes-Hut";
+
+    /**
+     * Correspond à l'arbre, dont la réserve de noeuds est réutilisée à chaque
+     * calcul.
+     */
+    private final LinearOctree tree;
+
+    /**
+     * Correspond au fait que l'arbre est réajusté d'un pas à l'autre au lieu
+     * d'être reconstruit.
+     */
+    private boolean incremental = false;
+
+    /**
+     * Constructeur de la méthode avec un nouvel arbre.
+     */
+    public BarnesHutSolver() {
+        this(new LinearOctree());
+    }
+
+    /**
+     * Constructeur de la méthode.
+     * 
+     * @param tree Arbre utilisé (ses paramètres restent modifiables)
+     */
+    public BarnesHutSolver(LinearOctree tree) {
+        this.tree = tree;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * Permet de récupérer l'arbre utilisé.
+     * 
+     * @return Arbre de Barnes-Hut
+     */
+    public LinearOctree getTree() {
+        return this.tree;
+    }
+
+    /**
+     * Permet de savoir si l'arbre est réajusté d'un pas à l'autre.
+     * 
+     * @return Booléen : true si l'arbre est réajusté, false s'il est reconstruit
+     *         à chaque pas
+     */
+    public boolean getIncremental() {
+        return this.incremental;
+    }
+
+    /**
+     * Permet de choisir si l'arbre est réajusté d'un pas à l'autre (seuls les
+     * corps sortis de leur feuille sont déplacés) au lieu d'être reconstruit ;
+     * il est reconstruit lorsque trop de corps ont changé de feuille.
+     * 
+     * @param newValue true pour réajuster l'arbre
+     */
+    public void setIncremental(boolean newValue) {
+        this.incremental = newValue;
+    }
+
+    /**
+     * Permet de savoir si l'arbre du dernier calcul peut être réajusté pour le
+     * stockage.
+     * 
+     * @param store Stockage contenant les corps
+     * @return true si l'arbre peut être réajusté au lieu d'être reconstruit
+     */
+    private boolean canRefit(ParticleStore store) {
+        return this.incremental && this.tree.store == store && this.tree.canRefit(LinearOctree.DEFAULT_REFIT_FRACTION);
+    }
+
+    /**
+     * Permet de trier les corps selon leur code de Morton dans une boîte ajustée
+     * à leurs positions, sauf si l'arbre du pas précédent peut être réajusté
+     * (aucun ordre n'est alors proposé).
+     * 
+     * @param store Stockage contenant les corps
+     * @param pool  Groupe de threads (<em>null</em> pour un tri séquentiel)
+     * @return Cases des corps dans l'ordre des codes, ou <em>null</em> si l'arbre
+     *         peut être réajusté
+     */
+    @Override
+    public int[] sortBodies(ParticleStore store, ForkJoinPool pool) {
+        if (this.canRefit(store)) {
+            return null;
+        }
+        return pool == null ? this.tree.sortByMortonCode(store) : this.tree.sortByMortonCode(store, pool);
+    }
+
+    /**
+     * Permet de préparer l'arbre avant le calcul des accélérations : il est
+     * construit à partir des codes triés par <code>sortBodies</code> si le
+     * stockage vient d'être réordonné, et sinon réajusté si possible ou
+     * construit après un tri qui ne réordonne pas le stockage.
+     * 
+     * @param store     Stockage contenant les corps
+     * @param reordered true si le stockage vient d'être réordonné selon l'ordre
+     *                  renvoyé par <code>sortBodies</code>
+     * @param pool      Groupe de threads (<em>null</em> pour un calcul
+     *                  séquentiel)
+     */
+    private void prepareTree(ParticleStore store, boolean reordered, ForkJoinPool pool) {
+        if (!reordered) {
+            if (this.incremental && this.tree.store == store
+                    && this.tree.refit(LinearOctree.DEFAULT_REFIT_FRACTION)) {
+                return;
+            }
+            // Corps triés sans réordonner le stockage
+            if (pool == null) {
+                this.tree.sortByMortonCode(store);
+            } else {
+                this.tree.sortByMortonCode(store, pool);
+            }
+        }
+        // Construction des noeuds de l'arbre à partir des codes triés
+        if (pool == null) {
+            this.tree.buildSorted(reordered);
+        } else {
+            this.tree.buildSorted(reordered, pool);
+        }
+    }
+
+    @Override
+    public void computeAccelerations(ParticleStore store, ForkJoinPool pool) {
+        this.computeAccelerations(store, false, pool);
+    }
+
+    @Override
+    public void computeAccelerations(ParticleStore store, boolean reordered, ForkJoinPool pool) {
+        this.prepareTree(store, reordered, pool);
+        // Calcul de toutes les accélérations à partir du même arbre (qui n'est plus
+        // que lu)
+        if (pool == null) {
+            this.tree.computeAccelerations();
+        } else {
+            this.tree.computeAccelerations(pool);
+        }
+    }
+
+    /**
+     * Permet de remplacer l'accélération de certains corps seulement : l'arbre
+     * est construit (ou réajusté) avec tous les corps, mais seuls les corps
+     * cibles le parcourent.
+     * 
+     * @param store   Stockage contenant les corps
+     * @param targets Cases des corps à mettre à jour
+     * @param count   Nombre de corps à mettre à jour (début du tableau)
+     * @param pool    Groupe de threads (<em>null</em> pour un calcul séquentiel)
+     */
+    @Override
+    public void computeAccelerations(ParticleStore store, int[] targets, int count, ForkJoinPool pool) {
+        this.prepareTree(store, false, pool);
+        if (pool == null) {
+            this.tree.computeAccelerations(targets, count);
+        } else {
+            this.tree.computeAccelerations(targets, count, pool);
+        }
+    }
+}
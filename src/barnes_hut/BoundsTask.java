@@ -0,0 +1,78 @@
+package barnes_hut;
+
+import java.util.concurrent.*;
+
+import math_physics.physics.*;
+
+/**
+ * Tâche calculant une réduction sur les positions d'une plage de corps pour la
+ * boîte de la racine d'un <code>LinearOctree</code>. Chaque tâche écrit dans
+ * ses propres valeurs, qui sont combinées avec celles de l'autre moitié une
+ * fois les deux terminées.
+ */
+final class BoundsTask extends RecursiveAction {
+    /**
+     * Ajout d'un numéro <em>serialVersionUID</em> pour la tâche.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Correspond à l'arbre dont la boîte est calculée.
+     */
+    private final LinearOctree tree;
+
+    /**
+     * Correspond au stockage contenant les corps.
+     */
+    private final ParticleStore store;
+
+    /**
+     * Correspond au fait d'ignorer les corps échappés.
+     */
+    private final boolean filter;
+
+    /**
+     * Correspond à la première case de la plage.
+     */
+    private final int start;
+
+    /**
+     * Correspond à la case qui suit la dernière case de la plage.
+     */
+    private final int end;
+
+    /**
+     * Correspond au résultat de la réduction sur la plage.
+     */
+    final double[] values = new double[11];
+
+    /**
+     * Constructeur de la tâche.
+     * 
+     * @param tree   Arbre dont la boîte est calculée
+     * @param store  Stockage contenant les corps
+     * @param filter true pour ignorer les corps échappés
+     * @param start  Première case de la plage
+     * @param end    Case qui suit la dernière case de la plage
+     */
+    BoundsTask(LinearOctree tree, ParticleStore store, boolean filter, int start, int end) {
+        this.tree = tree;
+        this.store = store;
+        this.filter = filter;
+        this.start = start;
+        this.end = end;
+    }
+
+    @Override
+    protected void compute() {
+        if (this.end - this.start > LinearOctree.BOUNDS_GRAIN) {
+            int middle = (this.start + this.end) >>> 1;
+            BoundsTask low = new BoundsTask(this.tree, this.store, this.filter, this.start, middle);
+            BoundsTask high = new BoundsTask(this.tree, this.store, this.filter, middle, this.end);
+            invokeAll(low, high);
+            LinearOctree.combine(low.values, high.values, this.values);
+        } else {
+            this.tree.reduceRange(this.store, this.filter, this.start, this.end, this.values);
+        }
+    }
+}
@@ -0,0 +1,905 @@
+package barnes_hut;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import math_physics.physics.*;
+
+/**
+ * Méthode multipolaire rapide (<em>Fast Multipole Method</em>) en coordonnées
+ * cartésiennes sur l'arbre adaptatif de <code>LinearOctree</code>. Chaque
+ * noeud reçoit un développement multipolaire de son potentiel, tronqué à
+ * l'ordre <em>p</em> et calculé autour de son centre de gravité (des corps
+ * pour les feuilles, puis des fils vers la racine par translation). Les paires
+ * de noeuds assez éloignés l'un de l'autre échangent ensuite leurs
+ * développements : le multipôle du noeud source devient un développement local
+ * (série de Taylor) autour du centre du noeud cible, sans passer par ses corps
+ * ; seules les paires de feuilles voisines sont calculées par sommation
+ * directe. Les développements locaux sont enfin translatés des noeuds vers
+ * leurs fils, puis évalués pour chaque corps des feuilles.
+ * <p>
+ * Les paires sont trouvées par un parcours simultané de l'arbre cible et de
+ * l'arbre source (<em>dual tree walk</em>) : deux noeuds de rayons
+ * r<sub>A</sub> et r<sub>B</sub> interagissent par leurs développements si
+ * (r<sub>A</sub> + r<sub>B</sub>) &lt; Théta d, avec d la distance entre leurs
+ * centres ; sinon le plus grand des deux est ouvert. Chaque paire n'est
+ * parcourue qu'une fois et sert dans les deux sens (les dérivées de 1/r sont
+ * les mêmes au signe près). Le nombre d'interactions
+ * croît alors comme N (et non N log N comme Barnes-Hut), et l'erreur diminue
+ * lorsque l'ordre augmente.
+ * <p>
+ * Le potentiel 1/r est développé avec des multi-indices <em>k</em> =
+ * (k<sub>x</sub>, k<sub>y</sub>, k<sub>z</sub>) d'ordre total |k| ≤ p : le
+ * multipôle d'un noeud de centre z est Q<sub>k</sub> = somme(m (z -
+ * x)<sup>k</sup> / k!) et le développement local L<sub>n</sub> = somme(Q<sub>k</sub>
+ * D<sub>n+k</sub>(R)), où D<sub>k</sub> sont les dérivées de 1/r calculées par
+ * la récurrence de McMurchie et Davidson.
+ */
+public class FastMultipoleMethod implements ForceSolver {
+    /**
+     * Nom de la méthode.
+     */
+    public static final String NAME = "Méthode multipolaire rapide";
+
+    /**
+     * Ordre des développements par défaut.
+     */
+    public static final int DEFAULT_ORDER = 4;
+
+    /**
+     * Ordre maximal des développements.
+     */
+    public static final int MAX_ORDER = 12;
+
+    /**
+     * Valeur par défaut du Théta du critère d'acceptation des paires de noeuds.
+     */
+    public static final double DEFAULT_THETA = 0.7;
+
+    /**
+     * Nombre maximal de corps par feuille par défaut.
+     */
+    public static final int DEFAULT_LEAF_CAPACITY = 64;
+
+    /**
+     * Correspond à l'arbre dont les noeuds portent les développements.
+     */
+    private final LinearOctree tree = new LinearOctree();
+
+    /**
+     * Correspond au noyau de sommation directe entre feuilles voisines.
+     */
+    private final InteractionListKernel kernel = InteractionListKernel.fastest();
+
+    /**
+     * Correspond à l'ordre des développements.
+     */
+    private int order;
+
+    /**
+     * Correspond au Théta du critère d'acceptation des paires de noeuds.
+     */
+    private double theta;
+
+    /**
+     * Correspond au nombre de multi-indices d'ordre inférieur ou égal à l'ordre
+     * des développements (nombre de coefficients par noeud).
+     */
+    private int size;
+
+    /**
+     * Correspond, pour chaque multi-index, à l'axe dont la composante est
+     * diminuée par les récurrences (premier axe non nul).
+     */
+    private int[] axis;
+
+    /**
+     * Correspond, pour chaque multi-index, à sa composante sur cet axe.
+     */
+    private int[] component;
+
+    /**
+     * Correspond, pour chaque multi-index, à l'indice du multi-index diminué de 1
+     * sur cet axe.
+     */
+    private int[] previous;
+
+    /**
+     * Correspond, pour chaque multi-index, à l'indice du multi-index diminué de 2
+     * sur cet axe (-1 si la composante est inférieure à 2).
+     */
+    private int[] previous2;
+
+    /**
+     * Correspond à l'ordre total de chaque multi-index.
+     */
+    private int[] degree;
+
+    /**
+     * Correspond aux produits des translations (multi-index k, multi-index j ≤ k
+     * et indice de k - j) : Q<sub>k</sub> += Q<sub>j</sub> s<sup>k-j</sup> / (k -
+     * j)! pour les multipôles, L<sub>j</sub> += L<sub>k</sub> s<sup>k-j</sup> / (k -
+     * j)! pour les développements locaux.
+     */
+    private int[] shiftHigh;
+
+    /**
+     * Correspond aux multi-indices j des produits des translations.
+     */
+    private int[] shiftLow;
+
+    /**
+     * Correspond aux indices de k - j des produits des translations.
+     */
+    private int[] shiftDelta;
+
+    /**
+     * Correspond, pour chaque multi-index n du développement local, au premier
+     * des produits de la conversion d'un multipôle qui lui sont ajoutés :
+     * L<sub>n</sub> += Q<sub>k</sub> D<sub>n+k</sub> (les produits de n sont
+     * consécutifs). Les termes dipolaires (|k| = 1) sont omis : ils sont nuls
+     * autour du centre de gravité.
+     */
+    private int[] convertStart;
+
+    /**
+     * Correspond aux multi-indices k du multipôle des produits de la conversion.
+     */
+    private int[] convertMultipole;
+
+    /**
+     * Correspond aux indices de n + k des produits de la conversion.
+     */
+    private int[] convertDerivative;
+
+    /**
+     * Correspond aux signes (-1)<sup>|n+k|</sup> des produits de la conversion
+     * dans le sens inverse.
+     */
+    private double[] convertSign;
+
+    /**
+     * Correspond, pour chaque axe et chaque multi-index m d'ordre inférieur à
+     * l'ordre des développements, à l'indice de m augmenté de 1 sur cet axe
+     * (dérivée d'un développement local).
+     */
+    private int[][] gradient;
+
+    /**
+     * Correspond aux multipôles des noeuds (<em>size</em> coefficients par
+     * noeud).
+     */
+    private double[] multipoles = new double[0];
+
+    /**
+     * Correspond aux développements locaux des noeuds (<em>size</em>
+     * coefficients par noeud).
+     */
+    private double[] locals = new double[0];
+
+    /**
+     * Correspond au rayon de chaque noeud : plus grande distance entre son centre
+     * de gravité et l'un de ses corps.
+     */
+    private double[] radius = new double[0];
+
+    /**
+     * Correspond aux dérivées auxiliaires R<sup>(j)</sup><sub>k</sub> de 1/r
+     * (<em>size</em> coefficients pour chaque j de 0 à l'ordre).
+     */
+    private double[] derivatives;
+
+    /**
+     * Correspond aux monômes w<sup>k</sup> / k! d'un vecteur.
+     */
+    private double[] monomials;
+
+    /**
+     * Correspond aux accélérations des corps sur l'axe des X (sans le facteur
+     * <em>G</em>).
+     */
+    private double[] accelerationX = new double[0];
+
+    /**
+     * Correspond aux accélérations des corps sur l'axe des Y.
+     */
+    private double[] accelerationY = new double[0];
+
+    /**
+     * Correspond aux accélérations des corps sur l'axe des Z.
+     */
+    private double[] accelerationZ = new double[0];
+
+    /**
+     * Correspond à la pile des paires de noeuds restant à parcourir (cible puis
+     * source).
+     */
+    private int[] pairs = new int[256];
+
+    /**
+     * Correspond aux positions des corps d'une feuille source sur l'axe des X.
+     */
+    private double[] sourceX = new double[64];
+
+    /**
+     * Correspond aux positions des corps d'une feuille source sur l'axe des Y.
+     */
+    private double[] sourceY = new double[64];
+
+    /**
+     * Correspond aux positions des corps d'une feuille source sur l'axe des Z.
+     */
+    private double[] sourceZ = new double[64];
+
+    /**
+     * Correspond aux masses des corps d'une feuille source.
+     */
+    private double[] sourceMass = new double[64];
+
+    /**
+     * Correspond aux sommes calculées par le noyau de sommation directe.
+     */
+    private final double[] sum = new double[3];
+
+    /**
+     * Correspond au nombre de conversions de multipôles en développements locaux
+     * lors du dernier calcul.
+     */
+    private long conversionCount;
+
+    /**
+     * Correspond au nombre de paires de feuilles sommées directement lors du
+     * dernier calcul.
+     */
+    private long directCount;
+
+    /**
+     * Constructeur de la méthode avec l'ordre et le Théta par défaut.
+     */
+    public FastMultipoleMethod() {
+        this(DEFAULT_ORDER, DEFAULT_THETA);
+    }
+
+    /**
+     * Constructeur de la méthode.
+     * 
+     * @param order Ordre des développements
+     * @param theta Théta du critère d'acceptation des paires de noeuds
+     * @throws IllegalArgumentException Levé lorsque l'ordre n'est pas entre 1 et
+     *                                  <em>MAX_ORDER</em> ou que Théta n'est pas
+     *                                  entre 0 et 1 (exclus)
+     */
+    public FastMultipoleMethod(int order, double theta) throws IllegalArgumentException {
+        this.setOrder(order);
+        this.setTheta(theta);
+        this.tree.setLeafCapacity(DEFAULT_LEAF_CAPACITY);
+        // La boîte de la racine contient tous les corps : aucun n'est hors de l'arbre
+        this.tree.setEscapeFactor(Double.POSITIVE_INFINITY);
+    }
+
+    @Override
+    public String toString() {
+        return "FastMultipoleMethod(ordre " + this.order + ", Théta " + this.theta + ")";
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * Permet de récupérer l'ordre des développements.
+     * 
+     * @return Ordre des développements
+     */
+    public int getOrder() {
+        return this.order;
+    }
+
+    /**
+     * Permet de remplacer l'ordre des développements : l'erreur diminue
+     * lorsqu'il augmente, mais chaque conversion coûte environ
+     * p<sup>6</sup> / 720 opérations.
+     * 
+     * @param newOrder Nouvel ordre des développements
+     * @throws IllegalArgumentException Levé lorsque l'ordre n'est pas entre 1 et
+     *                                  <em>MAX_ORDER</em>
+     */
+    public void setOrder(int newOrder) throws IllegalArgumentException {
+        if (newOrder < 1 || newOrder > MAX_ORDER) {
+            throw new IllegalArgumentException("L'ordre doit être compris entre 1 et " + MAX_ORDER + " !");
+        }
+        this.order = newOrder;
+        this.buildTables();
+    }
+
+    /**
+     * Permet de récupérer le Théta du critère d'acceptation des paires de noeuds.
+     * 
+     * @return Théta
+     */
+    public double getTheta() {
+        return this.theta;
+    }
+
+    /**
+     * Permet de remplacer le Théta du critère d'acceptation des paires de noeuds.
+     * 
+     * @param newTheta Nouveau Théta
+     * @throws IllegalArgumentException Levé lorsque Théta n'est pas entre 0 et 1
+     *                                  (exclus)
+     */
+    public void setTheta(double newTheta) throws IllegalArgumentException {
+        if (!(newTheta > 0 && newTheta < 1)) {
+            throw new IllegalArgumentException("Théta doit être compris entre 0 et 1 (exclus) !");
+        }
+        this.theta = newTheta;
+    }
+
+    /**
+     * Permet de récupérer le nombre maximal de corps par feuille.
+     * 
+     * @return Nombre maximal de corps par feuille
+     */
+    public int getLeafCapacity() {
+        return this.tree.getLeafCapacity();
+    }
+
+    /**
+     * Permet de remplacer le nombre maximal de corps par feuille.
+     * 
+     * @param newCapacity Nouveau nombre maximal de corps par feuille
+     * @throws IllegalArgumentException Levé lorsque le nombre n'est pas
+     *                                  strictement positif
+     */
+    public void setLeafCapacity(int newCapacity) throws IllegalArgumentException {
+        this.tree.setLeafCapacity(newCapacity);
+    }
+
+    /**
+     * Permet de récupérer le nombre de conversions de multipôles en
+     * développements locaux lors du dernier calcul.
+     * 
+     * @return Nombre de conversions
+     */
+    public long getConversionCount() {
+        return this.conversionCount;
+    }
+
+    /**
+     * Permet de récupérer le nombre de paires de feuilles sommées directement lors
+     * du dernier calcul.
+     * 
+     * @return Nombre de paires de feuilles
+     */
+    public long getDirectCount() {
+        return this.directCount;
+    }
+
+    /**
+     * Permet de trier les corps d'un stockage selon leur code de Morton dans une
+     * boîte contenant tous les corps, avant <code>computeAccelerations</code>.
+     * 
+     * @param store Stockage contenant les corps
+     * @return Cases des corps dans l'ordre des codes (voir
+     *         <code>LinearOctree.sortByMortonCode</code>)
+     */
+    public int[] sortByMortonCode(ParticleStore store) {
+        return this.tree.sortByMortonCode(store);
+    }
+
+    @Override
+    public int[] sortBodies(ParticleStore store, ForkJoinPool pool) {
+        return this.sortByMortonCode(store);
+    }
+
+    /**
+     * Permet de remplacer l'accélération de tous les corps d'un stockage par les
+     * attractions calculées par la méthode multipolaire, sans tri préalable : le
+     * stockage n'est pas réordonné. Le calcul est séquentiel : le groupe de
+     * threads n'est pas utilisé.
+     * 
+     * @param store Stockage contenant les corps
+     * @param pool  Groupe de threads (ignoré)
+     */
+    @Override
+    public void computeAccelerations(ParticleStore store, ForkJoinPool pool) {
+        this.computeAccelerations(store, false, pool);
+    }
+
+    /**
+     * Permet de remplacer l'accélération de tous les corps d'un stockage par les
+     * attractions calculées par la méthode multipolaire. Si le stockage n'a pas
+     * été réordonné selon l'ordre renvoyé par <code>sortBodies</code>, les corps
+     * sont triés sans le réordonner. Le calcul est séquentiel : le groupe de
+     * threads n'est pas utilisé.
+     * 
+     * @param store     Stockage contenant les corps
+     * @param reordered true si le stockage vient d'être réordonné selon l'ordre
+     *                  renvoyé par <code>sortBodies</code>
+     * @param pool      Groupe de threads (ignoré)
+     */
+    @Override
+    public void computeAccelerations(ParticleStore store, boolean reordered, ForkJoinPool pool) {
+        if (!reordered) {
+            this.sortByMortonCode(store);
+        }
+        this.computeAccelerations(reordered);
+    }
+
+    /**
+     * Permet de remplacer l'accélération de tous les corps par les attractions
+     * calculées par la méthode multipolaire, à partir des codes triés par
+     * <code>sortByMortonCode</code>.
+     * 
+     * @param storeReordered true si le stockage a été réordonné selon le tableau
+     *                       renvoyé par le tri, false s'il est resté tel quel
+     */
+    public void computeAccelerations(boolean storeReordered) {
+        LinearOctree tree = this.tree;
+        tree.buildSorted(storeReordered);
+        ParticleStore store = tree.store;
+        int bodies = store.size();
+        if (this.accelerationX.length < bodies) {
+            this.accelerationX = new double[bodies];
+            this.accelerationY = new double[bodies];
+            this.accelerationZ = new double[bodies];
+        }
+        Arrays.fill(this.accelerationX, 0, bodies, 0);
+        Arrays.fill(this.accelerationY, 0, bodies, 0);
+        Arrays.fill(this.accelerationZ, 0, bodies, 0);
+        this.conversionCount = 0;
+        this.directCount = 0;
+        if (bodies == 0 || tree.body[0] < 0) {
+            return;
+        }
+        int nodes = tree.nodeCount;
+        if (this.radius.length < nodes) {
+            int capacity = Math.max(nodes, 2 * this.radius.length);
+            this.radius = new double[capacity];
+            this.multipoles = new double[capacity * this.size];
+            this.locals = new double[capacity * this.size];
+        }
+        Arrays.fill(this.locals, 0, nodes * this.size, 0);
+        this.upward(0);
+        this.traverse();
+        this.downward(0);
+        for (int i = 0; i < bodies; i++) {
+            store.setAcceleration(i, Constants.G * this.accelerationX[i], Constants.G * this.accelerationY[i],
+                    Constants.G * this.accelerationZ[i]);
+        }
+    }
+
+    /**
+     * Permet de calculer les multipôles et les rayons d'un noeud non vide et de
+     * son sous-arbre : directement à partir des corps pour une feuille, par
+     * translation des multipôles des fils sinon.
+     * 
+     * @param node Noeud non vide
+     */
+    private void upward(int node) {
+        LinearOctree tree = this.tree;
+        ParticleStore store = tree.store;
+        int size = this.size;
+        int offset = node * size;
+        double[] q = this.multipoles;
+        Arrays.fill(q, offset, offset + size, 0);
+        double cX = tree.comX[node];
+        double cY = tree.comY[node];
+        double cZ = tree.comZ[node];
+        double r = 0;
+        int first = tree.firstChild[node];
+        if (first < 0) {
+            // Feuille : Q_k = somme(m (z - x)^k / k!)
+            for (int other = tree.body[node]; other >= 0; other = tree.nextBody[other]) {
+                double wX = cX - store.getXPosition(other);
+                double wY = cY - store.getYPosition(other);
+                double wZ = cZ - store.getZPosition(other);
+                r = Math.max(r, Math.sqrt(wX * wX + wY * wY + wZ * wZ));
+                double m = store.getMass(other);
+                double[] mono = this.monomials(wX, wY, wZ);
+                for (int k = 0; k < size; k++) {
+                    q[offset + k] += m * mono[k];
+                }
+            }
+        } else {
+            // Noeud divisé : translation des multipôles des fils vers son centre
+            for (int child = first; child < first + 8; child++) {
+                if (tree.body[child] < 0) {
+                    continue; // Fils vide
+                }
+                this.upward(child);
+                double sX = cX - tree.comX[child];
+                double sY = cY - tree.comY[child];
+                double sZ = cZ - tree.comZ[child];
+                r = Math.max(r, Math.sqrt(sX * sX + sY * sY + sZ * sZ) + this.radius[child]);
+                double[] mono = this.monomials(sX, sY, sZ);
+                int childOffset = child * size;
+                for (int t = 0; t < this.shiftHigh.length; t++) {
+                    q[offset + this.shiftHigh[t]] += q[childOffset + this.shiftLow[t]] * mono[this.shiftDelta[t]];
+                }
+            }
+        }
+        this.radius[node] = r;
+    }
+
+    /**
+     * Permet de parcourir simultanément l'arbre cible et l'arbre source : chaque
+     * paire de noeuds assez éloignés convertit le multipôle de chacun en
+     * développement local de l'autre, chaque paire de feuilles voisines est
+     * sommée directement dans les deux sens, et les autres paires sont découpées
+     * en ouvrant le plus grand des deux noeuds. Les fils d'un même noeud ne sont
+     * appariés qu'une fois.
+     */
+    private void traverse() {
+        LinearOctree tree = this.tree;
+        double theta2 = this.theta * this.theta;
+        int[] pairs = this.pairs;
+        int top = 0;
+        pairs[top++] = 0;
+        pairs[top++] = 0;
+        while (top > 0) {
+            int source = pairs[--top];
+            int target = pairs[--top];
+            int targetFirst = tree.firstChild[target];
+            int sourceFirst = tree.firstChild[source];
+            if (top + 128 > pairs.length) {
+                pairs = Arrays.copyOf(pairs, 2 * pairs.length);
+                this.pairs = pairs;
+            }
+            if (target == source) {
+                if (targetFirst < 0) {
+                    this.direct(target, source);
+                    continue;
+                }
+                // Un noeud avec lui-même : chaque paire de ses fils une seule fois
+                for (int a = targetFirst; a < targetFirst + 8; a++) {
+                    if (tree.body[a] < 0) {
+                        continue;
+                    }
+                    for (int b = a; b < targetFirst + 8; b++) {
+                        if (tree.body[b] >= 0) {
+                            pairs[top++] = a;
+                            pairs[top++] = b;
+                        }
+                    }
+                }
+                continue;
+            }
+            double dX = tree.comX[target] - tree.comX[source];
+            double dY = tree.comY[target] - tree.comY[source];
+            double dZ = tree.comZ[target] - tree.comZ[source];
+            double d2 = dX * dX + dY * dY + dZ * dZ;
+            double r = this.radius[target] + this.radius[source];
+            if (r * r < theta2 * d2) {
+                this.convert(target, source, dX, dY, dZ);
+            } else if (targetFirst < 0 && sourceFirst < 0) {
+                this.direct(target, source);
+                this.direct(source, target);
+            } else if (sourceFirst < 0 || (targetFirst >= 0 && this.radius[target] >= this.radius[source])) {
+                // On ouvre la cible
+                for (int a = targetFirst; a < targetFirst + 8; a++) {
+                    if (tree.body[a] >= 0) {
+                        pairs[top++] = a;
+                        pairs[top++] = source;
+                    }
+                }
+            } else {
+                // On ouvre la source
+                for (int b = sourceFirst; b < sourceFirst + 8; b++) {
+                    if (tree.body[b] >= 0) {
+                        pairs[top++] = target;
+                        pairs[top++] = b;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Permet d'ajouter au développement local de chacun de deux noeuds éloignés le
+     * multipôle de l'autre : L<sub>n</sub> += Q<sub>k</sub> D<sub>n+k</sub>(R)
+     * pour la cible, et les mêmes dérivées changées de signe selon la parité de
+     * |n + k| pour la source, puisque D<sub>n+k</sub>(-R) = (-1)<sup>|n+k|</sup>
+     * D<sub>n+k</sub>(R).
+     * 
+     * @param target Noeud cible
+     * @param source Noeud source
+     * @param rX     Vecteur du centre de la source au centre de la cible sur
+     *               l'axe des X
+     * @param rY     Vecteur sur l'axe des Y
+     * @param rZ     Vecteur sur l'axe des Z
+     */
+    private void convert(int target, int source, double rX, double rY, double rZ) {
+        double[] d = this.derivatives(rX, rY, rZ);
+        double[] q = this.multipoles;
+        double[] l = this.locals;
+        int targetOffset = target * this.size;
+        int sourceOffset = source * this.size;
+        int[] start = this.convertStart;
+        int[] multipole = this.convertMultipole;
+        int[] derivative = this.convertDerivative;
+        double[] sign = this.convertSign;
+        // Les sommes de chaque coefficient restent dans des variables locales
+        for (int n = 0, t = 0; n < this.size; n++) {
+            double toTarget = 0;
+            double toSource = 0;
+            for (int end = start[n + 1]; t < end; t++) {
+                double value = d[derivative[t]];
+                toTarget += q[sourceOffset + multipole[t]] * value;
+                toSource += sign[t] * q[targetOffset + multipole[t]] * value;
+            }
+            l[targetOffset + n] += toTarget;
+            l[sourceOffset + n] += toSource;
+        }
+        this.conversionCount += 2;
+    }
+
+    /**
+     * Permet d'ajouter aux accélérations des corps d'une feuille cible les
+     * attractions des corps d'une feuille source (le corps lui-même est ignoré
+     * lorsque les deux feuilles sont la même).
+     * 
+     * @param target Feuille cible
+     * @param source Feuille source
+     */
+    private void direct(int target, int source) {
+        LinearOctree tree = this.tree;
+        ParticleStore store = tree.store;
+        int count = 0;
+        for (int other = tree.body[source]; other >= 0; other = tree.nextBody[other]) {
+            if (count == this.sourceX.length) {
+                this.sourceX = Arrays.copyOf(this.sourceX, 2 * count);
+                this.sourceY = Arrays.copyOf(this.sourceY, 2 * count);
+                this.sourceZ = Arrays.copyOf(this.sourceZ, 2 * count);
+                this.sourceMass = Arrays.copyOf(this.sourceMass, 2 * count);
+            }
+            this.sourceX[count] = store.getXPosition(other);
+            this.sourceY[count] = store.getYPosition(other);
+            this.sourceZ[count] = store.getZPosition(other);
+            this.sourceMass[count] = store.getMass(other);
+            count++;
+        }
+        double[] sum = this.sum;
+        for (int member = tree.body[target]; member >= 0; member = tree.nextBody[member]) {
+            sum[0] = 0;
+            sum[1] = 0;
+            sum[2] = 0;
+            this.kernel.accumulate(this.sourceX, this.sourceY, this.sourceZ, this.sourceMass, count,
+                    store.getXPosition(member), store.getYPosition(member), store.getZPosition(member), sum);
+            this.accelerationX[member] += sum[0];
+            this.accelerationY[member] += sum[1];
+            this.accelerationZ[member] += sum[2];
+        }
+        this.directCount++;
+    }
+
+    /**
+     * Permet de translater le développement local d'un noeud non vide vers ses
+     * fils, puis de l'évaluer pour chaque corps des feuilles de son sous-arbre :
+     * l'accélération est le gradient du développement, G somme(L<sub>m+e</sub>
+     * w<sup>m</sup> / m!).
+     * 
+     * @param node Noeud non vide
+     */
+    private void downward(int node) {
+        LinearOctree tree = this.tree;
+        int size = this.size;
+        int offset = node * size;
+        double[] l = this.locals;
+        double cX = tree.comX[node];
+        double cY = tree.comY[node];
+        double cZ = tree.comZ[node];
+        int first = tree.firstChild[node];
+        if (first < 0) {
+            ParticleStore store = tree.store;
+            int[] gradientX = this.gradient[0];
+            int[] gradientY = this.gradient[1];
+            int[] gradientZ = this.gradient[2];
+            for (int member = tree.body[node]; member >= 0; member = tree.nextBody[member]) {
+                double[] mono = this.monomials(store.getXPosition(member) - cX, store.getYPosition(member) - cY,
+                        store.getZPosition(member) - cZ);
+                double aX = 0;
+                double aY = 0;
+                double aZ = 0;
+                for (int m = 0; m < gradientX.length; m++) {
+                    aX += l[offset + gradientX[m]] * mono[m];
+                    aY += l[offset + gradientY[m]] * mono[m];
+                    aZ += l[offset + gradientZ[m]] * mono[m];
+                }
+                this.accelerationX[member] += aX;
+                this.accelerationY[member] += aY;
+                this.accelerationZ[member] += aZ;
+            }
+            return;
+        }
+        for (int child = first; child < first + 8; child++) {
+            if (tree.body[child] < 0) {
+                continue; // Fils vide
+            }
+            // L'_j += L_k (c' - c)^(k-j) / (k-j)!
+            double[] mono = this.monomials(tree.comX[child] - cX, tree.comY[child] - cY, tree.comZ[child] - cZ);
+            int childOffset = child * size;
+            for (int t = 0; t < this.shiftHigh.length; t++) {
+                l[childOffset + this.shiftLow[t]] += l[offset + this.shiftHigh[t]] * mono[this.shiftDelta[t]];
+            }
+            this.downward(child);
+        }
+    }
+
+    /**
+     * Permet de calculer les monômes w<sup>k</sup> / k! d'un vecteur pour tous
+     * les multi-indices (tableau partagé).
+     * 
+     * @param wX Composante du vecteur sur l'axe des X
+     * @param wY Composante du vecteur sur l'axe des Y
+     * @param wZ Composante du vecteur sur l'axe des Z
+     * @return Monômes, dans l'ordre des multi-indices
+     */
+    private double[] monomials(double wX, double wY, double wZ) {
+        double[] mono = this.monomials;
+        mono[0] = 1;
+        for (int k = 1; k < this.size; k++) {
+            int a = this.axis[k];
+            double w = a == 0 ? wX : a == 1 ? wY : wZ;
+            mono[k] = mono[this.previous[k]] * w / this.component[k];
+        }
+        return mono;
+    }
+
+    /**
+     * Permet de calculer les dérivées D<sub>k</sub> de 1/r en un point pour tous
+     * les multi-indices par la récurrence de McMurchie et Davidson :
+     * R<sup>(j)</sup><sub>0</sub> = (-1)<sup>j</sup> (2j - 1)!! /
+     * r<sup>2j+1</sup> et R<sup>(j)</sup><sub>k+e</sub> = X
+     * R<sup>(j+1)</sup><sub>k</sub> + k<sub>e</sub> R<sup>(j+1)</sup><sub>k-e</sub>,
+     * avec D<sub>k</sub> = R<sup>(0)</sup><sub>k</sub>.
+     * 
+     * @param rX Composante du point sur l'axe des X
+     * @param rY Composante du point sur l'axe des Y
+     * @param rZ Composante du point sur l'axe des Z
+     * @return Dérivées (les <em>size</em> premières valeurs du tableau partagé)
+     */
+    private double[] derivatives(double rX, double rY, double rZ) {
+        double[] r = this.derivatives;
+        int size = this.size;
+        int p = this.order;
+        double r2 = rX * rX + rY * rY + rZ * rZ;
+        double inverse2 = 1 / r2;
+        r[0] = Math.sqrt(inverse2);
+        for (int j = 1; j <= p; j++) {
+            r[j * size] = -(2 * j - 1) * r[(j - 1) * size] * inverse2;
+        }
+        for (int k = 1; k < size; k++) {
+            int a = this.axis[k];
+            double w = a == 0 ? rX : a == 1 ? rY : rZ;
+            int low = this.previous[k];
+            int low2 = this.previous2[k];
+            double coefficient = this.component[k] - 1;
+            for (int j = 0, max = p - this.degree[k]; j <= max; j++) {
+                int next = (j + 1) * size;
+                double value = w * r[next + low];
+                if (low2 >= 0) {
+                    value += coefficient * r[next + low2];
+                }
+                r[j * size + k] = value;
+            }
+        }
+        return r;
+    }
+
+    /**
+     * Permet de construire les tables des multi-indices et des produits des
+     * opérations pour l'ordre courant. Les multi-indices sont rangés par ordre
+     * total croissant : ceux d'ordre inférieur ou égal à <em>q</em> sont les
+     * (q + 1)(q + 2)(q + 3) / 6 premiers.
+     */
+    private void buildTables() {
+        int p = this.order;
+        int size = (p + 1) * (p + 2) * (p + 3) / 6;
+        this.size = size;
+        int[][] index = new int[p + 1][(p + 1) * (p + 1)];
+        int[] kx = new int[size];
+        int[] ky = new int[size];
+        int[] kz = new int[size];
+        this.axis = new int[size];
+        this.component = new int[size];
+        this.previous = new int[size];
+        this.previous2 = new int[size];
+        this.degree = new int[size];
+        int n = 0;
+        for (int t = 0; t <= p; t++) {
+            for (int a = t; a >= 0; a--) {
+                for (int b = t - a; b >= 0; b--) {
+                    int c = t - a - b;
+                    index[a][b * (p + 1) + c] = n;
+                    kx[n] = a;
+                    ky[n] = b;
+                    kz[n] = c;
+                    this.degree[n] = t;
+                    n++;
+                }
+            }
+        }
+        for (int k = 1; k < size; k++) {
+            int[] d = { kx[k], ky[k], kz[k] };
+            int a = d[0] > 0 ? 0 : d[1] > 0 ? 1 : 2;
+            this.axis[k] = a;
+            this.component[k] = d[a];
+            d[a]--;
+            this.previous[k] = index[d[0]][d[1] * (p + 1) + d[2]];
+            if (d[a] > 0) {
+                d[a]--;
+                this.previous2[k] = index[d[0]][d[1] * (p + 1) + d[2]];
+            } else {
+                this.previous2[k] = -1;
+            }
+        }
+
+        // Translations : paires (k, j) avec j ≤ k composante par composante
+        int shifts = 0;
+        for (int k = 0; k < size; k++) {
+            for (int j = 0; j < size; j++) {
+                if (kx[j] <= kx[k] && ky[j] <= ky[k] && kz[j] <= kz[k]) {
+                    shifts++;
+                }
+            }
+        }
+        this.shiftHigh = new int[shifts];
+        this.shiftLow = new int[shifts];
+        this.shiftDelta = new int[shifts];
+        shifts = 0;
+        for (int k = 0; k < size; k++) {
+            for (int j = 0; j < size; j++) {
+                if (kx[j] <= kx[k] && ky[j] <= ky[k] && kz[j] <= kz[k]) {
+                    this.shiftHigh[shifts] = k;
+                    this.shiftLow[shifts] = j;
+                    this.shiftDelta[shifts] = index[kx[k] - kx[j]][(ky[k] - ky[j]) * (p + 1) + kz[k] - kz[j]];
+                    shifts++;
+                }
+            }
+        }
+
+        // Conversions : paires (n, k) d'ordre total au plus p, sans dipôle
+        int conversions = 0;
+        for (int l = 0; l < size; l++) {
+            for (int k = 0; k < size; k++) {
+                if (this.degree[k] != 1 && this.degree[l] + this.degree[k] <= p) {
+                    conversions++;
+                }
+            }
+        }
+        this.convertStart = new int[size + 1];
+        this.convertMultipole = new int[conversions];
+        this.convertDerivative = new int[conversions];
+        this.convertSign = new double[conversions];
+        conversions = 0;
+        for (int l = 0; l < size; l++) {
+            this.convertStart[l] = conversions;
+            for (int k = 0; k < size; k++) {
+                if (this.degree[k] != 1 && this.degree[l] + this.degree[k] <= p) {
+                    this.convertMultipole[conversions] = k;
+                    this.convertDerivative[conversions] = index[kx[l] + kx[k]][(ky[l] + ky[k]) * (p + 1) + kz[l]
+                            + kz[k]];
+                    this.convertSign[conversions] = (this.degree[l] + this.degree[k]) % 2 == 0 ? 1 : -1;
+                    conversions++;
+                }
+            }
+        }
+        this.convertStart[size] = conversions;
+
+        // Gradient : multi-indices d'ordre au plus p - 1 augmentés sur chaque axe
+        int lower = p * (p + 1) * (p + 2) / 6;
+        this.gradient = new int[3][lower];
+        for (int m = 0; m < lower; m++) {
+            this.gradient[0][m] = index[kx[m] + 1][ky[m] * (p + 1) + kz[m]];
+            this.gradient[1][m] = index[kx[m]][(ky[m] + 1) * (p + 1) + kz[m]];
+            this.gradient[2][m] = index[kx[m]][ky[m] * (p + 1) + kz[m] + 1];
+        }
+        this.derivatives = new double[(p + 1) * size];
+        this.monomials = new double[size];
+        this.multipoles = new double[0];
+        this.locals = new double[0];
+        this.radius = new double[0];
+    }
+}
@@ -0,0 +1,67 @@
+package barnes_hut;
+
+import java.util.concurrent.*;
+
+/**
+ * Tâche traitant une partie des sous-arbres d'un <code>LinearOctree</code>
+ * construits en parallèle : compte leurs noeuds, puis les construit.
+ */
+final class FrontierTask extends RecursiveAction {
+    /**
+     * Ajout d'un numéro <em>serialVersionUID</em> pour la tâche.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Correspond à l'arbre construit.
+     */
+    private final LinearOctree tree;
+
+    /**
+     * Correspond au fait que la tâche compte les noeuds (true) ou construit les
+     * sous-arbres (false).
+     */
+    private final boolean counting;
+
+    /**
+     * Correspond au premier sous-arbre traité.
+     */
+    private final int start;
+
+    /**
+     * Correspond au sous-arbre qui suit le dernier sous-arbre traité.
+     */
+    private final int end;
+
+    /**
+     * Constructeur de la tâche.
+     * 
+     * @param tree     Arbre construit
+     * @param counting true pour compter les noeuds, false pour construire
+     * @param start    Premier sous-arbre traité
+     * @param end      Sous-arbre qui suit le dernier sous-arbre traité
+     */
+    FrontierTask(LinearOctree tree, boolean counting, int start, int end) {
+        this.tree = tree;
+        this.counting = counting;
+        this.start = start;
+        this.end = end;
+    }
+
+    @Override
+    protected void compute() {
+        if (this.end - this.start > 1) {
+            int middle = (this.start + this.end) >>> 1;
+            invokeAll(new FrontierTask(this.tree, this.counting, this.start, middle),
+                    new FrontierTask(this.tree, this.counting, middle, this.end));
+            return;
+        }
+        int[] frontier = this.tree.frontier;
+        int f = 5 * this.start;
+        if (this.counting) {
+            frontier[f + 4] = this.tree.countNodes(frontier[f + 1], frontier[f + 2], frontier[f + 3]);
+        } else {
+            this.tree.buildRange(frontier[f], frontier[f + 1], frontier[f + 2], frontier[f + 3], frontier[f + 4]);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package barnes_hut;
+
+import java.util.concurrent.*;
+
+/**
+ * Tâche calculant les accélérations des corps d'une plage de groupes d'un
+ * <code>LinearOctree</code>.
+ */
+final class GroupTask extends RecursiveAction {
+    /**
+     * Ajout d'un numéro <em>serialVersionUID</em> pour la tâche.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Correspond à l'arbre parcouru.
+     */
+    private final LinearOctree tree;
+
+    /**
+     * Correspond au premier groupe de la plage.
+     */
+    private final int start;
+
+    /**
+     * Correspond au groupe qui suit le dernier groupe de la plage.
+     */
+    private final int end;
+
+    /**
+     * Constructeur de la tâche.
+     * 
+     * @param tree  Arbre parcouru
+     * @param start Premier groupe de la plage
+     * @param end   Groupe qui suit le dernier groupe de la plage
+     */
+    GroupTask(LinearOctree tree, int start, int end) {
+        this.tree = tree;
+        this.start = start;
+        this.end = end;
+    }
+
+    @Override
+    protected void compute() {
+        if (this.end - this.start > LinearOctree.GROUP_GRAIN) {
+            int middle = (this.start + this.end) >>> 1;
+            invokeAll(new GroupTask(this.tree, this.start, middle), new GroupTask(this.tree, middle, this.end));
+        } else {
+            GroupWalker walker = this.tree.groupWalkers.get();
+            for (int g = this.start; g < this.end; g++) {
+                walker.walk(this.tree.groups[g]);
+            }
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package barnes_hut;
+
+import java.util.*;
+
+import math_physics.physics.*;
+
+/**
+ * Parcours d'un <code>LinearOctree</code> calculant l'attraction exercée sur un
+ * groupe de corps voisins (les corps d'un sous-arbre). L'arbre n'est parcouru
+ * qu'une fois pour tout le groupe : les noeuds acceptés pour chaque corps du
+ * groupe et les corps des feuilles ouvertes forment une liste d'interactions
+ * commune, évaluée ensuite pour chaque corps du groupe par le noyau de listes.
+ * Chaque thread utilise son propre parcours.
+ */
+final class GroupWalker {
+    /**
+     * Correspond à l'arbre parcouru.
+     */
+    private final LinearOctree tree;
+
+    /**
+     * Correspond à la pile des noeuds restant à parcourir.
+     */
+    private int[] stack = new int[64];
+
+    /**
+     * Correspond aux cases des corps du groupe.
+     */
+    private int[] members = new int[16];
+
+    /**
+     * Correspond aux positions des sources de la liste sur l'axe des X.
+     */
+    private double[] sourceX = new double[256];
+
+    /**
+     * Correspond aux positions des sources de la liste sur l'axe des Y.
+     */
+    private double[] sourceY = new double[256];
+
+    /**
+     * Correspond aux positions des sources de la liste sur l'axe des Z.
+     */
+    private double[] sourceZ = new double[256];
+
+    /**
+     * Correspond aux masses des sources de la liste.
+     */
+    private double[] sourceMass = new double[256];
+
+    /**
+     * Correspond au nombre de sources de la liste.
+     */
+    private int sourceCount;
+
+    /**
+     * Correspond aux noeuds acceptés de la liste (pour la correction
+     * quadripolaire).
+     */
+    private int[] cells = new int[64];
+
+    /**
+     * Correspond au nombre de noeuds acceptés de la liste.
+     */
+    private int cellCount;
+
+    /**
+     * Correspond aux sommes des accélérations sur les trois axes.
+     */
+    private final double[] sum = new double[3];
+
+    /**
+     * Correspond à la correction quadripolaire d'un noeud accepté (x, y, z).
+     */
+    private final double[] correction = new double[3];
+
+    /**
+     * Constructeur du parcours.
+     * 
+     * @param tree Arbre parcouru
+     */
+    GroupWalker(LinearOctree tree) {
+        this.tree = tree;
+    }
+
+    /**
+     * Permet de remplacer l'accélération des corps d'un groupe par les
+     * attractions exercées par les noeuds de l'arbre.
+     * 
+     * @param group Noeud dont le sous-arbre contient les corps du groupe
+     */
+    void walk(int group) {
+        LinearOctree tree = this.tree;
+        ParticleStore store = tree.store;
+        int[] stack = this.stack;
+        int top = 0;
+        // Boîte englobant les corps du groupe
+        int memberCount = 0;
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double minZ = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        double maxZ = Double.NEGATIVE_INFINITY;
+        // Le critère d'erreur relative compare à la plus petite accélération du
+        // pas précédent dans le groupe
+        double previous = Double.POSITIVE_INFINITY;
+        stack[top++] = group;
+        while (top > 0) {
+            int node = stack[--top];
+            if (tree.body[node] < 0) {
+                continue; // Noeud vide
+            }
+            int first = tree.firstChild[node];
+            if (first >= 0) {
+                if (top + 8 > stack.length) {
+                    stack = Arrays.copyOf(stack, 2 * stack.length);
+                    this.stack = stack;
+                }
+                for (int k = 7; k >= 0; k--) {
+                    stack[top++] = first + k;
+                }
+                continue;
+            }
+            for (int member = tree.body[node]; member >= 0; member = tree.nextBody[member]) {
+                if (memberCount == this.members.length) {
+                    this.members = Arrays.copyOf(this.members, 2 * memberCount);
+                }
+                this.members[memberCount++] = member;
+                double x = store.getXPosition(member);
+                double y = store.getYPosition(member);
+                double z = store.getZPosition(member);
+                minX = Math.min(minX, x);
+                minY = Math.min(minY, y);
+                minZ = Math.min(minZ, z);
+                maxX = Math.max(maxX, x);
+                maxY = Math.max(maxY, y);
+                maxZ = Math.max(maxZ, z);
+                if (tree.criterion == OpeningCriterion.RELATIVE_ERROR) {
+                    double aX = store.getXAcceleration(member);
+                    double aY = store.getYAcceleration(member);
+                    double aZ = store.getZAcceleration(member);
+                    previous = Math.min(previous, Math.sqrt(aX * aX + aY * aY + aZ * aZ));
+                }
+            }
+        }
+        if (tree.criterion != OpeningCriterion.RELATIVE_ERROR) {
+            previous = 0;
+        }
+        double groupX = 0.5 * (minX + maxX);
+        double groupY = 0.5 * (minY + maxY);
+        double groupZ = 0.5 * (minZ + maxZ);
+        double halfX = 0.5 * (maxX - minX);
+        double halfY = 0.5 * (maxY - minY);
+        double halfZ = 0.5 * (maxZ - minZ);
+        double split = tree.splitScale;
+        boolean quadrupole = tree.useQuadrupole && split == 0;
+        double cutoff2 = tree.cutoff2();
+        this.sourceCount = 0;
+        this.cellCount = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            int nodeBody = tree.body[node];
+            if (nodeBody < 0) {
+                continue; // Noeud vide
+            }
+            if (split > 0 && tree.outOfReach(node, groupX, groupY, groupZ, halfX, halfY, halfZ, cutoff2)) {
+                continue; // Boîte du noeud entièrement hors de portée de tout le groupe
+            }
+            int first = tree.firstChild[node];
+            if (first >= 0 || tree.count[node] > 1) {
+                // Distance du centre de gravité au corps du groupe le plus proche
+                double cX = tree.comX[node];
+                double cY = tree.comY[node];
+                double cZ = tree.comZ[node];
+                double dx = Math.max(0, Math.max(minX - cX, cX - maxX));
+                double dy = Math.max(0, Math.max(minY - cY, cY - maxY));
+                double dz = Math.max(0, Math.max(minZ - cZ, cZ - maxZ));
+                double d2 = dx * dx + dy * dy + dz * dz;
+                if (!tree.mustOpen(node, d2, previous, groupX, groupY, groupZ, halfX, halfY, halfZ)) {
+                    // Noeud assez loin de tout le groupe : son centre de gravité
+                    // rejoint la liste
+                    this.addSource(cX, cY, cZ, tree.mass[node]);
+                    if (quadrupole) {
+                        if (this.cellCount == this.cells.length) {
+                            this.cells = Arrays.copyOf(this.cells, 2 * this.cellCount);
+                        }
+                        this.cells[this.cellCount++] = node;
+                    }
+                    continue;
+                }
+                if (first >= 0) {
+                    // Noeud trop proche : on parcourt ses fils
+                    if (top + 8 > stack.length) {
+                        stack = Arrays.copyOf(stack, 2 * stack.length);
+                        this.stack = stack;
+                    }
+                    for (int k = 7; k >= 0; k--) {
+                        stack[top++] = first + k;
+                    }
+                    continue;
+                }
+            }
+            // Feuille ouverte : ses corps rejoignent la liste
+            for (int other = nodeBody; other >= 0; other = tree.nextBody[other]) {
+                this.addBody(other);
+            }
+        }
+        // Corps en dehors de la boîte de la racine
+        for (int i = 0; i < tree.outsideCount; i++) {
+            this.addBody(tree.outside[i]);
+        }
+
+        // Évaluation de la liste pour chaque corps du groupe
+        double[] sum = this.sum;
+        double[] correction = this.correction;
+        for (int m = 0; m < memberCount; m++) {
+            int member = this.members[m];
+            double x = store.getXPosition(member);
+            double y = store.getYPosition(member);
+            double z = store.getZPosition(member);
+            sum[0] = 0;
+            sum[1] = 0;
+            sum[2] = 0;
+            if (split > 0) {
+                tree.listKernel.accumulateShortRange(this.sourceX, this.sourceY, this.sourceZ, this.sourceMass,
+                        this.sourceCount, x, y, z, split, sum);
+            } else {
+                tree.listKernel.accumulate(this.sourceX, this.sourceY, this.sourceZ, this.sourceMass,
+                        this.sourceCount, x, y, z, sum);
+            }
+            double sumX = Constants.G * sum[0];
+            double sumY = Constants.G * sum[1];
+            double sumZ = Constants.G * sum[2];
+            for (int c = 0; c < this.cellCount; c++) {
+                int node = this.cells[c];
+                double dx = tree.comX[node] - x;
+                double dy = tree.comY[node] - y;
+                double dz = tree.comZ[node] - z;
+                double d2 = dx * dx + dy * dy + dz * dz;
+                tree.quadrupole(node, dx, dy, dz, d2, Math.sqrt(d2), correction);
+                sumX += correction[0];
+                sumY += correction[1];
+                sumZ += correction[2];
+            }
+            store.setAcceleration(member, sumX, sumY, sumZ);
+        }
+    }
+
+    /**
+     * Permet d'ajouter un corps du stockage à la liste d'interactions.
+     * 
+     * @param slot Case du corps
+     */
+    private void addBody(int slot) {
+        ParticleStore store = this.tree.store;
+        this.addSource(store.getXPosition(slot), store.getYPosition(slot), store.getZPosition(slot),
+                store.getMass(slot));
+    }
+
+    /**
+     * Permet d'ajouter une masse ponctuelle à la liste d'interactions.
+     * 
+     * @param x Position de la source sur l'axe des X
+     * @param y Position de la source sur l'axe des Y
+     * @param z Position de la source sur l'axe des Z
+     * @param m Masse de la source
+     */
+    private void addSource(double x, double y, double z, double m) {
+        int count = this.sourceCount;
+        if (count == this.sourceX.length) {
+            this.sourceX = Arrays.copyOf(this.sourceX, 2 * count);
+            this.sourceY = Arrays.copyOf(this.sourceY, 2 * count);
+            this.sourceZ = Arrays.copyOf(this.sourceZ, 2 * count);
+            this.sourceMass = Arrays.copyOf(this.sourceMass, 2 * count);
+        }
+        this.sourceX[count] = x;
+        this.sourceY[count] = y;
+        this.sourceZ[count] = z;
+        this.sourceMass[count] = m;
+        this.sourceCount = count + 1;
+    }
+}
@@ -0,0 +1,73 @@
+package barnes_hut;
+
+/**
+ * Représente un noyau évaluant une liste d'interactions : l'attraction d'une
+ * suite de masses ponctuelles (corps ou centres de gravité de noeuds acceptés)
+ * sur un point. Une même liste, construite une fois pour un groupe de corps
+ * voisins, est évaluée pour chaque corps du groupe.
+ */
+public interface InteractionListKernel {
+    /**
+     * Permet de récupérer le nom du noyau (affichage et bancs d'essai).
+     * 
+     * @return Nom du noyau
+     */
+    String getName();
+
+    /**
+     * Permet d'ajouter aux sommes l'attraction des sources d'une liste sur un
+     * point : somme de m (p - x) / |p - x|<sup>3</sup>, sans le facteur
+     * <em>G</em>. Une source à distance nulle (le corps lui-même) est ignorée.
+     * 
+     * @param xs     Positions des sources sur l'axe des X
+     * @param ys     Positions des sources sur l'axe des Y
+     * @param zs     Positions des sources sur l'axe des Z
+     * @param masses Masses des sources
+     * @param count  Nombre de sources de la liste
+     * @param x      Position du point attiré sur l'axe des X
+     * @param y      Position du point attiré sur l'axe des Y
+     * @param z      Position du point attiré sur l'axe des Z
+     * @param sum    Sommes sur les trois axes
+     */
+    void accumulate(double[] xs, double[] ys, double[] zs, double[] masses, int count, double x, double y, double z,
+            double[] sum);
+
+    /**
+     * Permet d'ajouter aux sommes la partie à courte portée de l'attraction des
+     * sources d'une liste sur un point : chaque terme de <code>accumulate</code>
+     * est multiplié par <code>ShortRangeForce.factor(|p - x|, splitScale)</code>.
+     * 
+     * @param xs         Positions des sources sur l'axe des X
+     * @param ys         Positions des sources sur l'axe des Y
+     * @param zs         Positions des sources sur l'axe des Z
+     * @param masses     Masses des sources
+     * @param count      Nombre de sources de la liste
+     * @param x          Position du point attiré sur l'axe des X
+     * @param y          Position du point attiré sur l'axe des Y
+     * @param z          Position du point attiré sur l'axe des Z
+     * @param splitScale Échelle de séparation des forces (strictement positive)
+     * @param sum        Sommes sur les trois axes
+     */
+    void accumulateShortRange(double[] xs, double[] ys, double[] zs, double[] masses, int count, double x, double y,
+            double z, double splitScale, double[] sum);
+
+    /**
+     * Permet de récupérer le noyau le plus rapide disponible sur la JVM courante :
+     * le noyau vectoriel (SIMD) lorsque le module <em>jdk.incubator.vector</em>
+     * est chargé, le noyau scalaire sinon.
+     * 
+     * @return Noyau d'évaluation des listes d'interactions
+     */
+    static InteractionListKernel fastest() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                // Chargement par réflexion : la classe ne doit pas être liée sans le module
+                return (InteractionListKernel) Class.forName("barnes_hut.VectorInteractionListKernel")
+                        .getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // Module présent mais inutilisable : on se replie sur le noyau scalaire
+            }
+        }
+        return new ScalarInteractionListKernel();
+    }
+}
@@ -0,0 +1,2279 @@
+package barnes_hut;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import math_physics.math.*;
+import math_physics.physics.*;
+
+/**
+ * Arbre à huit branches de l'algorithme de Barnes-Hut stocké dans des tableaux
+ * primitifs : chaque noeud est un indice dans les tableaux (premier fils, corps
+ * stocké, masse, centre de gravité, centre et dimensions de la boîte). Les huit
+ * fils d'un noeud sont rangés côte à côte, il suffit donc de connaître l'indice
+ * du premier. Les tableaux forment une réserve de noeuds qui est vidée (et non
+ * recréée) à chaque construction : en régime établi, construire l'arbre et
+ * calculer les forces n'alloue plus aucun objet.
+ * <p>
+ * L'insertion et le calcul des forces suivent les mêmes règles que
+ * <code>BHTree</code>. Après chaque construction, un seuil d'ouverture est
+ * calculé pour chaque noeud selon le critère choisi : le parcours n'a plus qu'à
+ * le comparer au carré de la distance, sans racine carrée. Les fils sont
+ * numérotés par bits : bit 0 pour l'Est (X supérieur au centre), bit 1 pour le
+ * Nord (Y) et bit 2 pour l'Avant (Z).
+ * <p>
+ * Une feuille contient jusqu'à <em>leafCapacity</em> corps, chaînés par le
+ * tableau <em>nextBody</em> : elle n'est divisée que lorsqu'elle déborde, ce qui
+ * réduit le nombre de noeuds et la profondeur des parcours. Au-delà de
+ * <em>MAX_DEPTH</em> niveaux, les feuilles ne sont plus divisées (corps
+ * confondus). Une feuille ouverte est calculée par sommation directe sur ses
+ * corps ; après le tri des corps selon leur code de Morton, ils sont voisins en
+ * mémoire.
+ * <p>
+ * Entre deux pas, l'arbre peut être réajusté au lieu d'être reconstruit : seuls
+ * les corps sortis de leur feuille sont réinsérés, puis les masses et centres
+ * de gravité sont recalculés des feuilles vers la racine.
+ * <p>
+ * La boîte de la racine peut être calculée à chaque tri à partir des positions
+ * des corps (minimum et maximum sur chaque axe, éventuellement en parallèle),
+ * avec une marge. Les corps partis très loin (au-delà de <em>escapeFactor</em>
+ * fois le rayon quadratique moyen autour du barycentre des positions)
+ * n'agrandissent pas la boîte : comme tous les corps en dehors de la boîte de
+ * la racine, leurs attractions sont sommées directement.
+ * <p>
+ * L'arbre peut aussi être construit sans insertion depuis la racine : chaque
+ * corps reçoit un code de Morton (ordre en Z) de 63 bits qui entrelace ses
+ * coordonnées, les codes sont triés par base (<em>radix sort</em>) puis les
+ * noeuds sont créés en découpant la liste triée, trois bits par niveau. Les
+ * corps proches dans l'espace sont alors voisins dans la liste triée, et
+ * peuvent aussi être rangés dans cet ordre en mémoire. Cette construction peut
+ * être parallélisée : les sous-arbres des premiers niveaux sont construits en
+ * même temps, chacun dans une plage de la réserve qui lui est réservée.
+ * <p>
+ * Une fois l'arbre construit, il n'est plus que lu : le calcul des forces peut
+ * donc aussi être réparti entre plusieurs threads, chacun parcourant l'arbre
+ * avec sa propre pile et ses propres sommes.
+ * <p>
+ * Les forces peuvent aussi être calculées par groupes : l'arbre est parcouru
+ * une seule fois pour tous les corps d'un petit sous-arbre, les noeuds acceptés
+ * et les corps des feuilles ouvertes forment une liste d'interactions commune,
+ * évaluée ensuite pour chaque corps du groupe par un noyau vectoriel.
+ * <p>
+ * Chaque noeud peut aussi garder son moment quadripolaire (tenseur sans trace
+ * calculé par rapport à son centre de gravité) : un noeud accepté attire alors
+ * le corps avec une correction quadripolaire en plus de l'attraction de sa
+ * masse, ce qui permet d'utiliser un Théta plus grand pour la même précision.
+ * <p>
+ * Avec une échelle de séparation non nulle, l'arbre ne calcule que la partie à
+ * courte portée de l'attraction (méthode TreePM, voir
+ * <code>TreeParticleMesh</code>) : chaque terme est multiplié par
+ * <code>ShortRangeForce.factor</code> et les noeuds plus loin que
+ * <em>SHORT_RANGE_CUTOFF</em> échelles ne sont pas parcourus.
+ */
+public class LinearOctree {
+    /**
+     * Nombre de noeuds pouvant être stockés par défaut avant d'agrandir les
+     * tableaux.
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * Nombre de niveaux décrits par un code de Morton (21 bits par axe).
+     */
+    public static final int MORTON_LEVELS = 21;
+
+    /**
+     * Profondeur maximale de l'arbre : au-delà, une feuille n'est plus divisée
+     * même si elle déborde (corps confondus ou presque).
+     */
+    public static final int MAX_DEPTH = MORTON_LEVELS;
+
+    /**
+     * Nombre maximal de corps par feuille par défaut.
+     */
+    public static final int DEFAULT_LEAF_CAPACITY = 8;
+
+    /**
+     * Fraction par défaut des corps sortis de leur feuille au-delà de laquelle
+     * l'arbre doit être reconstruit plutôt que réajusté.
+     */
+    public static final double DEFAULT_REFIT_FRACTION = 0.1;
+
+    /**
+     * Nombre de cellules par axe au dernier niveau d'un code de Morton.
+     */
+    private static final long MORTON_CELLS = 1L << MORTON_LEVELS;
+
+    /**
+     * Code attribué aux corps en dehors de la boîte de la racine (trié après tous
+     * les autres codes).
+     */
+    private static final long OUTSIDE = -1L;
+
+    /**
+     * Nombre de bits traités à chaque passe du tri par base.
+     */
+    private static final int RADIX_BITS = 11;
+
+    /**
+     * Nombre de niveaux construits séquentiellement avant de construire les
+     * sous-arbres en parallèle (jusqu'à 8<sup>3</sup> = 512 sous-arbres, assez
+     * pour équilibrer les threads même si les corps sont regroupés).
+     */
+    public static final int PARALLEL_LEVELS = 3;
+
+    /**
+     * Nombre de corps cibles en dessous duquel une tâche du calcul parallèle des
+     * forces n'est plus découpée. Les corps étant triés selon leur code de
+     * Morton, les corps d'une même tâche parcourent à peu près les mêmes noeuds.
+     */
+    public static final int WALK_GRAIN = 256;
+
+    /**
+     * Tolérance par défaut du critère d'erreur relative (fraction de
+     * l'accélération du corps).
+     */
+    public static final double DEFAULT_ERROR_TOLERANCE = 0.005;
+
+    /**
+     * Marge par défaut ajoutée autour des corps dans la boîte de la racine
+     * (fraction de sa taille de chaque côté).
+     */
+    public static final double DEFAULT_PADDING = 0.01;
+
+    /**
+     * Nombre par défaut de rayons quadratiques moyens au-delà duquel un corps est
+     * considéré comme échappé et n'agrandit plus la boîte de la racine.
+     */
+    public static final double DEFAULT_ESCAPE_FACTOR = 10;
+
+    /**
+     * Nombre de corps en dessous duquel une tâche du calcul parallèle de la boîte
+     * de la racine n'est plus découpée.
+     */
+    public static final int BOUNDS_GRAIN = 4096;
+
+    /**
+     * Nombre de groupes en dessous duquel une tâche du calcul parallèle des
+     * forces par groupes n'est plus découpée.
+     */
+    public static final int GROUP_GRAIN = 32;
+
+    /**
+     * Nombre maximal de corps par défaut d'un groupe du calcul des forces par
+     * groupes.
+     */
+    public static final int DEFAULT_GROUP_SIZE = 128;
+
+    /**
+     * Nombre d'échelles de séparation au-delà duquel la partie à courte portée
+     * de l'attraction est négligée (elle vaut alors moins de 2 % de l'attraction
+     * complète).
+     */
+    public static final double SHORT_RANGE_CUTOFF = 4.5;
+
+    /**
+     * Correspond à une valeur permettant la vérification de la distance d'un objet
+     * au centre de gravité d'un noeud.
+     */
+    private double theta;
+
+    /**
+     * Correspond au critère d'ouverture des noeuds.
+     */
+    OpeningCriterion criterion = OpeningCriterion.BARNES_HUT;
+
+    /**
+     * Correspond à la tolérance du critère d'erreur relative.
+     */
+    private double errorTolerance = DEFAULT_ERROR_TOLERANCE;
+
+    /**
+     * Correspond au nombre maximal de corps par feuille.
+     */
+    private int leafCapacity = DEFAULT_LEAF_CAPACITY;
+
+    /**
+     * Correspond au stockage contenant les corps de l'arbre.
+     */
+    ParticleStore store;
+
+    /**
+     * Correspond au nombre de noeuds utilisés dans la réserve.
+     */
+    int nodeCount = 0;
+
+    /**
+     * Correspond à l'indice du premier fils de chaque noeud (-1 pour une
+     * feuille).
+     */
+    int[] firstChild;
+
+    /**
+     * Correspond à la case du premier corps de chaque feuille (-1 si elle est
+     * vide). Un noeud divisé garde la case d'un de ses corps, ce qui indique
+     * seulement qu'il n'est pas vide.
+     */
+    int[] body;
+
+    /**
+     * Correspond au nombre de corps de chaque feuille.
+     */
+    int[] count;
+
+    /**
+     * Correspond, pour chaque case du stockage, à la case du corps suivant dans
+     * la même feuille (-1 pour le dernier).
+     */
+    int[] nextBody = new int[0];
+
+    /**
+     * Correspond à la masse totale de chaque noeud.
+     */
+    double[] mass;
+
+    /**
+     * Correspond aux centres de gravité sur l'axe des X.
+     */
+    double[] comX;
+
+    /**
+     * Correspond aux centres de gravité sur l'axe des Y.
+     */
+    double[] comY;
+
+    /**
+     * Correspond aux centres de gravité sur l'axe des Z.
+     */
+    double[] comZ;
+
+    /**
+     * Correspond aux centres des boîtes sur l'axe des X.
+     */
+    private double[] centerX;
+
+    /**
+     * Correspond aux centres des boîtes sur l'axe des Y.
+     */
+    private double[] centerY;
+
+    /**
+     * Correspond aux centres des boîtes sur l'axe des Z.
+     */
+    private double[] centerZ;
+
+    /**
+     * Correspond aux dimensions des boîtes sur l'axe des X (largeur).
+     */
+    private double[] sizeX;
+
+    /**
+     * Correspond aux dimensions des boîtes sur l'axe des Y (hauteur).
+     */
+    private double[] sizeY;
+
+    /**
+     * Correspond aux dimensions des boîtes sur l'axe des Z (profondeur).
+     */
+    private double[] sizeZ;
+
+    /**
+     * Correspond au seuil d'ouverture de chaque noeud divisé ou feuille de
+     * plusieurs corps : carré du rayon en
+     * dessous duquel le noeud est ouvert (critères <code>BARNES_HUT</code> et
+     * <code>BMAX</code>), ou G M s<sup>2</sup> / tolérance (critère
+     * <code>RELATIVE_ERROR</code>).
+     */
+    private double[] opening;
+
+    /**
+     * Correspond au fait que les moments quadripolaires sont calculés et utilisés.
+     */
+    boolean useQuadrupole = false;
+
+    /**
+     * Correspond au fait que les forces sont calculées par groupes (un parcours et
+     * une liste d'interactions par groupe de corps voisins) plutôt que corps par
+     * corps.
+     */
+    private boolean useGroups = false;
+
+    /**
+     * Correspond au nombre maximal de corps d'un groupe.
+     */
+    private int groupSize = DEFAULT_GROUP_SIZE;
+
+    /**
+     * Correspond à l'échelle de séparation des forces (0 : attraction complète).
+     */
+    double splitScale = 0;
+
+    /**
+     * Correspond au noyau évaluant les listes d'interactions des groupes.
+     */
+    final InteractionListKernel listKernel = InteractionListKernel.fastest();
+
+    /**
+     * Correspond aux composantes XX des moments quadripolaires (la composante ZZ
+     * vaut -XX - YY car le tenseur est sans trace).
+     */
+    private double[] quadXX;
+
+    /**
+     * Correspond aux composantes XY des moments quadripolaires.
+     */
+    private double[] quadXY;
+
+    /**
+     * Correspond aux composantes XZ des moments quadripolaires.
+     */
+    private double[] quadXZ;
+
+    /**
+     * Correspond aux composantes YY des moments quadripolaires.
+     */
+    private double[] quadYY;
+
+    /**
+     * Correspond aux composantes YZ des moments quadripolaires.
+     */
+    private double[] quadYZ;
+
+    /**
+     * Correspond au parcours utilisé par le calcul séquentiel des forces.
+     */
+    private final TreeWalker walker = new TreeWalker(this);
+
+    /**
+     * Correspond au parcours propre à chaque thread du calcul parallèle des
+     * forces.
+     */
+    final ThreadLocal<TreeWalker> walkers = ThreadLocal.withInitial(() -> new TreeWalker(this));
+
+    /**
+     * Correspond au parcours par groupes utilisé par le calcul séquentiel des
+     * forces.
+     */
+    private final GroupWalker groupWalker = new GroupWalker(this);
+
+    /**
+     * Correspond au parcours par groupes propre à chaque thread du calcul
+     * parallèle des forces.
+     */
+    final ThreadLocal<GroupWalker> groupWalkers = ThreadLocal.withInitial(() -> new GroupWalker(this));
+
+    /**
+     * Correspond aux noeuds racines des groupes de corps voisins.
+     */
+    int[] groups = new int[0];
+
+    /**
+     * Correspond au nombre de groupes.
+     */
+    private int groupCount = 0;
+
+    /**
+     * Correspond au nombre de corps du sous-arbre de chaque noeud (calculé pour
+     * former les groupes).
+     */
+    private int[] subtreeCount = new int[0];
+
+    /**
+     * Correspond aux cases des corps en dehors de la boîte de la racine (ils ne
+     * sont dans aucun fils et chaque parcours les somme directement).
+     */
+    int[] outside = new int[16];
+
+    /**
+     * Correspond au nombre de corps en dehors de la boîte de la racine.
+     */
+    int outsideCount = 0;
+
+    /**
+     * Correspond à la marge ajoutée autour des corps dans la boîte de la racine.
+     */
+    private double padding = DEFAULT_PADDING;
+
+    /**
+     * Correspond au nombre de rayons quadratiques moyens au-delà duquel un corps
+     * n'agrandit plus la boîte de la racine.
+     */
+    private double escapeFactor = DEFAULT_ESCAPE_FACTOR;
+
+    /**
+     * Correspond au centre de la sphère au-delà de laquelle un corps est échappé
+     * sur l'axe des X (barycentre des positions).
+     */
+    private double escapeX;
+
+    /**
+     * Correspond au centre de la sphère des corps non échappés sur l'axe des Y.
+     */
+    private double escapeY;
+
+    /**
+     * Correspond au centre de la sphère des corps non échappés sur l'axe des Z.
+     */
+    private double escapeZ;
+
+    /**
+     * Correspond au carré du rayon de la sphère des corps non échappés.
+     */
+    private double escapeRadius2 = Double.POSITIVE_INFINITY;
+
+    /**
+     * Correspond au résultat de la dernière réduction sur les positions (minimum
+     * et maximum sur chaque axe, nombre de corps, sommes des positions et de
+     * leurs carrés).
+     */
+    private final double[] bounds = new double[11];
+
+    /**
+     * Correspond aux cases des corps à réinsérer lors d'un réajustement.
+     */
+    private int[] moved = new int[0];
+
+    /**
+     * Correspond au nombre de noeuds après la dernière construction complète.
+     */
+    private int builtNodeCount = 0;
+
+    /**
+     * Correspond aux codes de Morton triés.
+     */
+    private long[] keys = new long[0];
+
+    /**
+     * Correspond au tableau de travail des codes pendant le tri.
+     */
+    private long[] keyScratch = new long[0];
+
+    /**
+     * Correspond aux cases des corps dans l'ordre des codes triés.
+     */
+    private int[] order = new int[0];
+
+    /**
+     * Correspond au tableau de travail des cases pendant le tri.
+     */
+    private int[] orderScratch = new int[0];
+
+    /**
+     * Correspond aux compteurs du tri par base.
+     */
+    private final int[] radixCount = new int[1 << RADIX_BITS];
+
+    /**
+     * Correspond au nombre de corps triés.
+     */
+    private int sortedCount = 0;
+
+    /**
+     * Correspond au fait que le stockage a été réordonné selon les codes triés
+     * (le <em>i</em>-ème corps trié est alors dans la case <em>i</em>).
+     */
+    private boolean storeSorted = false;
+
+    /**
+     * Correspond au nombre de sous-arbres construits en parallèle.
+     */
+    private int frontierCount = 0;
+
+    /**
+     * Correspond, pour chaque sous-arbre construit en parallèle, à son noeud
+     * racine, son niveau, sa plage dans la liste triée et le premier noeud de la
+     * plage de la réserve qui lui est réservée (5 entiers par sous-arbre).
+     */
+    final int[] frontier = new int[5 << (3 * PARALLEL_LEVELS)];
+
+    /**
+     * Constructeur de l'arbre.
+     */
+    public LinearOctree() {
+        this(0.5);
+    }
+
+    /**
+     * Constructeur de l'arbre.
+     * 
+     * @param theta Valeur permettant de vérifier une distance d'un objet du centre
+     *              de gravité d'un noeud
+     */
+    public LinearOctree(double theta) {
+        this.theta = theta;
+        this.allocate(DEFAULT_CAPACITY);
+    }
+
+    @Override
+    public String toString() {
+        return "LinearOctree(" + this.nodeCount + "/" + this.getCapacity() + " noeuds)";
+    }
+
+    /**
+     * Permet de récupérer la valeur actuelle du Théta.
+     * 
+     * @return Valeur du Théta
+     */
+    public double getTheta() {
+        return this.theta;
+    }
+
+    /**
+     * Permet de remplacer la valeur du Théta. Le changement est pris en compte à
+     * la prochaine construction.
+     * 
+     * @param newTheta Nouvelle valeur pour le Théta
+     */
+    public void setTheta(double newTheta) {
+        this.theta = newTheta;
+    }
+
+    /**
+     * Permet de récupérer le critère d'ouverture des noeuds.
+     * 
+     * @return Critère d'ouverture
+     */
+    public OpeningCriterion getOpeningCriterion() {
+        return this.criterion;
+    }
+
+    /**
+     * Permet de choisir le critère d'ouverture des noeuds. Le changement est pris
+     * en compte à la prochaine construction.
+     * 
+     * @param newCriterion Nouveau critère d'ouverture
+     */
+    public void setOpeningCriterion(OpeningCriterion newCriterion) {
+        this.criterion = newCriterion;
+    }
+
+    /**
+     * Permet de récupérer la tolérance du critère d'erreur relative.
+     * 
+     * @return Tolérance (fraction de l'accélération du corps)
+     */
+    public double getErrorTolerance() {
+        return this.errorTolerance;
+    }
+
+    /**
+     * Permet de remplacer la tolérance du critère d'erreur relative. Le
+     * changement est pris en compte à la prochaine construction.
+     * 
+     * @param newTolerance Nouvelle tolérance (fraction de l'accélération du corps)
+     * @throws IllegalArgumentException Levé lorsque la tolérance n'est pas
+     *                                  strictement positive
+     */
+    public void setErrorTolerance(double newTolerance) throws IllegalArgumentException {
+        if (!(newTolerance > 0)) {
+            throw new IllegalArgumentException("La tolérance doit être strictement positive !");
+        }
+        this.errorTolerance = newTolerance;
+    }
+
+    /**
+     * Permet de récupérer le nombre maximal de corps par feuille.
+     * 
+     * @return Nombre maximal de corps par feuille
+     */
+    public int getLeafCapacity() {
+        return this.leafCapacity;
+    }
+
+    /**
+     * Permet de remplacer le nombre maximal de corps par feuille. Le changement
+     * est pris en compte à la prochaine construction (1 redonne une feuille par
+     * corps, comme <code>BHTree</code>).
+     * 
+     * @param newCapacity Nouveau nombre maximal de corps par feuille
+     * @throws IllegalArgumentException Levé lorsque le nombre n'est pas
+     *                                  strictement positif
+     */
+    public void setLeafCapacity(int newCapacity) throws IllegalArgumentException {
+        if (newCapacity < 1) {
+            throw new IllegalArgumentException("Une feuille doit pouvoir contenir au moins un corps !");
+        }
+        this.leafCapacity = newCapacity;
+    }
+
+    /**
+     * Permet de savoir si les moments quadripolaires sont calculés et utilisés.
+     * 
+     * @return Booléen : true si la correction quadripolaire est utilisée
+     */
+    public boolean getUseQuadrupole() {
+        return this.useQuadrupole;
+    }
+
+    /**
+     * Permet de choisir si les moments quadripolaires sont calculés et utilisés.
+     * Le changement est pris en compte à la prochaine construction.
+     * 
+     * @param newValue true pour utiliser la correction quadripolaire
+     */
+    public void setUseQuadrupole(boolean newValue) {
+        this.useQuadrupole = newValue;
+    }
+
+    /**
+     * Permet de savoir si les forces sont calculées par groupes.
+     * 
+     * @return Booléen : true si l'arbre est parcouru une fois pour tous les corps
+     *         d'un groupe
+     */
+    public boolean getUseGroups() {
+        return this.useGroups;
+    }
+
+    /**
+     * Permet de choisir si <code>computeAccelerations</code> calcule les forces
+     * par groupes : l'arbre est parcouru une fois par groupe de corps voisins au
+     * lieu d'une fois par corps, et la liste d'interactions obtenue est évaluée
+     * pour chaque corps du groupe par un noyau vectoriel. Un noeud n'est accepté
+     * que s'il satisfait le critère d'ouverture pour le corps du groupe le plus
+     * proche : les forces sont au moins aussi précises que corps par corps.
+     * 
+     * @param newValue true pour calculer les forces par groupes
+     */
+    public void setUseGroups(boolean newValue) {
+        this.useGroups = newValue;
+    }
+
+    /**
+     * Permet de récupérer le nombre maximal de corps d'un groupe.
+     * 
+     * @return Nombre maximal de corps d'un groupe
+     */
+    public int getGroupSize() {
+        return this.groupSize;
+    }
+
+    /**
+     * Permet de remplacer le nombre maximal de corps d'un groupe. Les groupes sont
+     * les plus grands sous-arbres qui ne dépassent pas ce nombre (ou les feuilles
+     * plus grandes) : un groupe plus grand partage son parcours entre plus de
+     * corps, mais accepte moins de noeuds.
+     * 
+     * @param newSize Nouveau nombre maximal de corps d'un groupe
+     * @throws IllegalArgumentException Levé lorsque le nombre n'est pas
+     *                                  strictement positif
+     */
+    public void setGroupSize(int newSize) throws IllegalArgumentException {
+        if (newSize < 1) {
+            throw new IllegalArgumentException("Un groupe doit pouvoir contenir au moins un corps !");
+        }
+        this.groupSize = newSize;
+    }
+
+    /**
+     * Permet de récupérer l'échelle de séparation des forces.
+     * 
+     * @return Échelle de séparation (0 si l'attraction complète est calculée)
+     */
+    public double getSplitScale() {
+        return this.splitScale;
+    }
+
+    /**
+     * Permet de remplacer l'échelle de séparation des forces : avec une échelle
+     * non nulle, seule la partie à courte portée de l'attraction est calculée
+     * (celle à longue portée l'est sur une grille). La correction quadripolaire
+     * n'est alors pas appliquée.
+     * 
+     * @param newScale Nouvelle échelle de séparation (0 pour l'attraction
+     *                 complète)
+     * @throws IllegalArgumentException Levé lorsque l'échelle est négative
+     */
+    public void setSplitScale(double newScale) throws IllegalArgumentException {
+        if (!(newScale >= 0)) {
+            throw new IllegalArgumentException("L'échelle de séparation ne peut pas être négative !");
+        }
+        this.splitScale = newScale;
+    }
+
+    /**
+     * Permet de récupérer le noyau évaluant les listes d'interactions des
+     * groupes.
+     * 
+     * @return Noyau des listes d'interactions
+     */
+    public InteractionListKernel getListKernel() {
+        return this.listKernel;
+    }
+
+    /**
+     * Permet de récupérer la marge ajoutée autour des corps dans la boîte de la
+     * racine.
+     * 
+     * @return Marge (fraction de la taille de la boîte de chaque côté)
+     */
+    public double getPadding() {
+        return this.padding;
+    }
+
+    /**
+     * Permet de remplacer la marge ajoutée autour des corps dans la boîte de la
+     * racine. Une marge évite qu'un corps sorte de la boîte dès le pas suivant
+     * lorsque l'arbre est réajusté.
+     * 
+     * @param newPadding Nouvelle marge (fraction de la taille de la boîte de
+     *                   chaque côté)
+     * @throws IllegalArgumentException Levé lorsque la marge est négative
+     */
+    public void setPadding(double newPadding) throws IllegalArgumentException {
+        if (!(newPadding >= 0)) {
+            throw new IllegalArgumentException("La marge ne peut pas être négative !");
+        }
+        this.padding = newPadding;
+    }
+
+    /**
+     * Permet de récupérer le nombre de rayons quadratiques moyens au-delà duquel
+     * un corps n'agrandit plus la boîte de la racine.
+     * 
+     * @return Nombre de rayons (infini si tous les corps sont dans la boîte)
+     */
+    public double getEscapeFactor() {
+        return this.escapeFactor;
+    }
+
+    /**
+     * Permet de remplacer le nombre de rayons quadratiques moyens (autour du
+     * barycentre des positions) au-delà duquel un corps n'agrandit plus la boîte
+     * de la racine. Le barycentre et le rayon sont ceux des positions, sans les
+     * masses : un corps lourd parti loin ne les entraîne pas avec lui. Ces corps
+     * échappés sont sommés directement par chaque parcours : ils gardent des
+     * forces exactes sans étirer l'arbre des autres corps.
+     * 
+     * @param newFactor Nouveau nombre de rayons (infini pour que la boîte
+     *                  contienne toujours tous les corps)
+     * @throws IllegalArgumentException Levé lorsque le nombre est inférieur à 1
+     */
+    public void setEscapeFactor(double newFactor) throws IllegalArgumentException {
+        if (!(newFactor >= 1)) {
+            throw new IllegalArgumentException("Le nombre de rayons doit être au moins égal à 1 !");
+        }
+        this.escapeFactor = newFactor;
+    }
+
+    /**
+     * Permet de récupérer la boîte de la racine.
+     * 
+     * @return Boîte de la racine (null si l'arbre n'a jamais été construit)
+     */
+    public Octal getRootBox() {
+        if (this.nodeCount == 0) {
+            return null;
+        }
+        return new Octal(new Vector3D(this.centerX[0], this.centerY[0], this.centerZ[0]), this.sizeX[0],
+                this.sizeY[0], this.sizeZ[0]);
+    }
+
+    /**
+     * Permet de récupérer le nombre de corps en dehors de la boîte de la racine.
+     * 
+     * @return Nombre de corps sommés directement
+     */
+    public int getOutsideCount() {
+        return this.outsideCount;
+    }
+
+    /**
+     * Permet de récupérer le nombre de noeuds de l'arbre.
+     * 
+     * @return Nombre de noeuds
+     */
+    public int getNodeCount() {
+        return this.nodeCount;
+    }
+
+    /**
+     * Permet de récupérer le nombre de noeuds pouvant être stockés sans agrandir
+     * les tableaux.
+     * 
+     * @return Capacité de la réserve de noeuds
+     */
+    public int getCapacity() {
+        return this.firstChild.length;
+    }
+
+    /**
+     * Permet de vérifier si la racine de l'arbre est divisée ou non.
+     * 
+     * @return Booléen : true si elle est divisée, false sinon.
+     */
+    public boolean boxDivided() {
+        return this.nodeCount > 0 && this.firstChild[0] >= 0;
+    }
+
+    /**
+     * Permet de récupérer la masse totale des corps insérés dans l'arbre.
+     * 
+     * @return Masse totale
+     */
+    public double getTotalMass() {
+        return this.nodeCount == 0 ? 0 : this.mass[0];
+    }
+
+    /**
+     * Permet de vider l'arbre et de définir la boîte de sa racine (la réserve de
+     * noeuds est conservée).
+     * 
+     * @param bodyStore Stockage contenant les corps qui seront insérés
+     * @param box       Boîte associée à la racine
+     */
+    public void reset(ParticleStore bodyStore, Octal box) {
+        this.reset(bodyStore, box.getCenter().getX(), box.getCenter().getY(), box.getCenter().getZ(),
+                box.getWidth(), box.getHeight(), box.getDeepness());
+    }
+
+    /**
+     * Permet de vider l'arbre et de définir la boîte de sa racine (la réserve de
+     * noeuds est conservée).
+     * 
+     * @param bodyStore Stockage contenant les corps qui seront insérés
+     * @param x         Centre de la boîte sur l'axe des X
+     * @param y         Centre de la boîte sur l'axe des Y
+     * @param z         Centre de la boîte sur l'axe des Z
+     * @param width     Largeur de la boîte
+     * @param height    Hauteur de la boîte
+     * @param deepness  Profondeur de la boîte
+     */
+    public void reset(ParticleStore bodyStore, double x, double y, double z, double width, double height,
+            double deepness) {
+        this.store = bodyStore;
+        this.nodeCount = 1;
+        this.initNode(0, x, y, z, width, height, deepness);
+        this.outsideCount = 0;
+        if (this.nextBody.length < bodyStore.size()) {
+            this.nextBody = new int[Math.max(bodyStore.size(), 2 * this.nextBody.length)];
+        }
+    }
+
+    /**
+     * Permet de construire l'arbre contenant tous les corps d'un stockage.
+     * 
+     * @param bodyStore Stockage contenant les corps à insérer
+     * @param box       Boîte associée à la racine
+     */
+    public void build(ParticleStore bodyStore, Octal box) {
+        this.reset(bodyStore, box);
+        for (int i = 0, size = bodyStore.size(); i < size; i++) {
+            this.insertion(i);
+        }
+        this.finishBuild();
+    }
+
+    /**
+     * Permet d'insérer un corps du stockage dans l'arbre.
+     * 
+     * @param bodySlot Case du corps à insérer
+     */
+    public void insertion(int bodySlot) {
+        if (bodySlot >= this.nextBody.length) {
+            this.nextBody = Arrays.copyOf(this.nextBody, Math.max(bodySlot + 1, 2 * this.nextBody.length));
+        }
+        this.insertion(0, 0, bodySlot);
+    }
+
+    /**
+     * Permet d'insérer un corps du stockage dans le sous-arbre d'un noeud. Une
+     * feuille pleine est divisée et ses corps descendent dans ses fils, sauf au
+     * niveau <em>MAX_DEPTH</em> où elle garde tous ses corps.
+     * 
+     * @param node     Noeud dans lequel le corps est inséré
+     * @param level    Niveau du noeud (0 pour la racine)
+     * @param bodySlot Case du corps à insérer
+     */
+    private void insertion(int node, int level, int bodySlot) {
+        double m = this.store.getMass(bodySlot);
+        double x = this.store.getXPosition(bodySlot);
+        double y = this.store.getYPosition(bodySlot);
+        double z = this.store.getZPosition(bodySlot);
+        while (node >= 0) {
+            if (this.firstChild[node] < 0) {
+                if (this.body[node] < 0) {
+                    // Feuille vide : le corps y est stocké
+                    this.body[node] = bodySlot;
+                    this.count[node] = 1;
+                    this.nextBody[bodySlot] = -1;
+                    this.mass[node] = m;
+                    this.comX[node] = x;
+                    this.comY[node] = y;
+                    this.comZ[node] = z;
+                    return;
+                }
+                if (this.count[node] < this.leafCapacity || level == MAX_DEPTH) {
+                    // Feuille non pleine : le corps est ajouté en tête de sa liste
+                    this.nextBody[bodySlot] = this.body[node];
+                    this.body[node] = bodySlot;
+                    this.count[node]++;
+                    this.addToCenterOfMass(node, m, x, y, z);
+                    return;
+                }
+                // Feuille pleine : elle est divisée et ses corps descendent dans ses fils
+                this.divideBox(node);
+                for (int other = this.body[node]; other >= 0;) {
+                    int next = this.nextBody[other];
+                    int child = this.childContaining(node, this.store.getXPosition(other),
+                            this.store.getYPosition(other), this.store.getZPosition(other));
+                    if (child >= 0) {
+                        this.insertion(child, level + 1, other);
+                    } else {
+                        this.addOutside(other);
+                    }
+                    other = next;
+                }
+            }
+            this.addToCenterOfMass(node, m, x, y, z);
+            node = this.childContaining(node, x, y, z);
+            level++;
+        }
+        this.addOutside(bodySlot); // Seule la racine peut ne pas contenir le corps
+    }
+
+    /**
+     * Permet de noter un corps en dehors de la boîte de la racine.
+     * 
+     * @param bodySlot Case du corps
+     */
+    private void addOutside(int bodySlot) {
+        if (this.outsideCount == this.outside.length) {
+            this.outside = Arrays.copyOf(this.outside, 2 * this.outside.length);
+        }
+        this.outside[this.outsideCount++] = bodySlot;
+    }
+
+    /**
+     * Permet de savoir si l'arbre peut être réajusté (voir <code>refit</code>)
+     * sans le modifier.
+     * 
+     * @param maxMovedFraction Fraction des corps sortis de leur feuille au-delà
+     *                         de laquelle le réajustement est refusé
+     * @return true si <code>refit</code> réajusterait l'arbre, false s'il doit
+     *         être reconstruit
+     */
+    public boolean canRefit(double maxMovedFraction) {
+        return this.leavingCount(maxMovedFraction) >= 0;
+    }
+
+    /**
+     * Permet de compter les corps sortis de leur feuille (ou revenus dans la
+     * boîte de la racine) depuis la construction de l'arbre.
+     * 
+     * @param maxMovedFraction Fraction des corps sortis de leur feuille au-delà
+     *                         de laquelle le réajustement est refusé
+     * @return Nombre de corps sortis, ou -1 si le réajustement est refusé
+     */
+    private int leavingCount(double maxMovedFraction) {
+        if (this.nodeCount == 0 || this.nodeCount > 2 * this.builtNodeCount) {
+            return -1;
+        }
+        int total = this.outsideCount;
+        int leaving = 0;
+        for (int node = 0; node < this.nodeCount; node++) {
+            if (this.firstChild[node] < 0) {
+                for (int other = this.body[node]; other >= 0; other = this.nextBody[other]) {
+                    total++;
+                    if (!this.boxContains(node, other)) {
+                        leaving++;
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < this.outsideCount; i++) {
+            if (this.boxContains(0, this.outside[i])) {
+                leaving++;
+            }
+        }
+        if (total != this.store.size() || leaving > maxMovedFraction * total) {
+            return -1;
+        }
+        return leaving;
+    }
+
+    /**
+     * Permet de réajuster l'arbre après un déplacement des corps du stockage (les
+     * corps doivent être restés dans les mêmes cases) au lieu de le
+     * reconstruire. Les corps encore dans la boîte de leur feuille y restent,
+     * les autres sont retirés de leur feuille et réinsérés depuis la racine ;
+     * les masses, centres de gravité, seuils d'ouverture et moments sont ensuite
+     * recalculés des feuilles vers la racine. Les boîtes des noeuds ne changent
+     * pas. Le réajustement est refusé, et l'arbre laissé tel quel, si le nombre
+     * de corps a changé, si trop de corps sont sortis de leur feuille ou si les
+     * divisions successives ont doublé le nombre de noeuds depuis la dernière
+     * construction : il faut alors reconstruire l'arbre.
+     * 
+     * @param maxMovedFraction Fraction des corps sortis de leur feuille au-delà
+     *                         de laquelle le réajustement est refusé
+     * @return true si l'arbre a été réajusté, false s'il doit être reconstruit
+     */
+    public boolean refit(double maxMovedFraction) {
+        int leaving = this.leavingCount(maxMovedFraction);
+        if (leaving < 0) {
+            return false;
+        }
+        // Les corps sortis sont retirés de leur feuille
+        if (this.moved.length < leaving) {
+            this.moved = new int[Math.max(leaving, 2 * this.moved.length)];
+        }
+        int movedCount = 0;
+        for (int node = 0; node < this.nodeCount; node++) {
+            if (this.firstChild[node] < 0 && this.body[node] >= 0) {
+                int head = -1;
+                int tail = -1;
+                int kept = 0;
+                for (int other = this.body[node]; other >= 0;) {
+                    int next = this.nextBody[other];
+                    if (this.boxContains(node, other)) {
+                        if (tail < 0) {
+                            head = other;
+                        } else {
+                            this.nextBody[tail] = other;
+                        }
+                        tail = other;
+                        kept++;
+                    } else {
+                        this.moved[movedCount++] = other;
+                    }
+                    other = next;
+                }
+                if (tail >= 0) {
+                    this.nextBody[tail] = -1;
+                }
+                this.body[node] = head;
+                this.count[node] = kept;
+            }
+        }
+        int stillOutside = 0;
+        for (int i = 0; i < this.outsideCount; i++) {
+            int other = this.outside[i];
+            if (this.boxContains(0, other)) {
+                this.moved[movedCount++] = other;
+            } else {
+                this.outside[stillOutside++] = other;
+            }
+        }
+        this.outsideCount = stillOutside;
+        // Les réinsertions ne dépendent que de la structure de l'arbre : les masses
+        // sont recalculées une seule fois ensuite
+        for (int i = 0; i < movedCount; i++) {
+            this.insertion(this.moved[i]);
+        }
+        this.refitNode(0);
+        for (int i = 0; i < this.outsideCount; i++) {
+            int other = this.outside[i];
+            this.addToCenterOfMass(0, this.store.getMass(other), this.store.getXPosition(other),
+                    this.store.getYPosition(other), this.store.getZPosition(other));
+            if (this.body[0] < 0) {
+                this.body[0] = other; // La racine (divisée) n'est pas vide
+            }
+        }
+        if (this.outsideCount > 0) {
+            this.nodeData(0);
+        }
+        return true;
+    }
+
+    /**
+     * Permet de recalculer la masse, le centre de gravité, le seuil d'ouverture
+     * et le moment quadripolaire d'un noeud et de son sous-arbre à partir des
+     * corps de ses feuilles.
+     * 
+     * @param node Noeud à recalculer
+     */
+    private void refitNode(int node) {
+        int first = this.firstChild[node];
+        if (first < 0) {
+            double m = 0;
+            double x = 0;
+            double y = 0;
+            double z = 0;
+            for (int other = this.body[node]; other >= 0; other = this.nextBody[other]) {
+                double bodyMass = this.store.getMass(other);
+                m += bodyMass;
+                x += this.store.getXPosition(other) * bodyMass;
+                y += this.store.getYPosition(other) * bodyMass;
+                z += this.store.getZPosition(other) * bodyMass;
+            }
+            this.mass[node] = m;
+            if (this.count[node] == 1) {
+                int other = this.body[node];
+                this.comX[node] = this.store.getXPosition(other);
+                this.comY[node] = this.store.getYPosition(other);
+                this.comZ[node] = this.store.getZPosition(other);
+            } else if (this.count[node] > 1) {
+                this.comX[node] = x / m;
+                this.comY[node] = y / m;
+                this.comZ[node] = z / m;
+            }
+            this.nodeData(node);
+            return;
+        }
+        boolean empty = true;
+        for (int child = first; child < first + 8; child++) {
+            this.refitNode(child);
+            empty &= this.body[child] < 0;
+        }
+        if (empty) {
+            this.body[node] = -1; // Tous ses corps sont partis
+            this.mass[node] = 0;
+        } else {
+            this.summarize(node);
+            this.nodeData(node);
+        }
+    }
+
+    /**
+     * Permet d'ajouter un corps à la masse et au centre de gravité d'un noeud.
+     * 
+     * @param node Noeud à mettre à jour
+     * @param m    Masse du corps
+     * @param x    Position du corps sur l'axe des X
+     * @param y    Position du corps sur l'axe des Y
+     * @param z    Position du corps sur l'axe des Z
+     */
+    private void addToCenterOfMass(int node, double m, double x, double y, double z) {
+        double sumMass = this.mass[node] + m;
+        this.comX[node] = (this.comX[node] * this.mass[node] + x * m) / sumMass;
+        this.comY[node] = (this.comY[node] * this.mass[node] + y * m) / sumMass;
+        this.comZ[node] = (this.comZ[node] * this.mass[node] + z * m) / sumMass;
+        this.mass[node] = sumMass;
+    }
+
+    /**
+     * Permet de vider l'arbre puis de trier les corps d'un stockage selon leur
+     * code de Morton dans la boîte de la racine. Les corps en dehors de la boîte
+     * sont placés à la fin.
+     * 
+     * @param bodyStore Stockage contenant les corps à trier
+     * @param x         Centre de la boîte sur l'axe des X
+     * @param y         Centre de la boîte sur l'axe des Y
+     * @param z         Centre de la boîte sur l'axe des Z
+     * @param width     Largeur de la boîte
+     * @param height    Hauteur de la boîte
+     * @param deepness  Profondeur de la boîte
+     * @return Cases des corps dans l'ordre des codes (tableau partagé, valable
+     *         jusqu'au prochain tri, au moins <code>bodyStore.size()</code>
+     *         éléments)
+     */
+    public int[] sortByMortonCode(ParticleStore bodyStore, double x, double y, double z, double width,
+            double height, double deepness) {
+        this.reset(bodyStore, x, y, z, width, height, deepness);
+        int size = bodyStore.size();
+        if (this.keys.length < size) {
+            this.keys = new long[size];
+            this.keyScratch = new long[size];
+            this.order = new int[size];
+            this.orderScratch = new int[size];
+        }
+        double lowX = x - width / 2;
+        double lowY = y - height / 2;
+        double lowZ = z - deepness / 2;
+        for (int i = 0; i < size; i++) {
+            double px = bodyStore.getXPosition(i);
+            double py = bodyStore.getYPosition(i);
+            double pz = bodyStore.getZPosition(i);
+            // Mêmes bornes que Octal.contains
+            if (px <= lowX + width && px > lowX && py <= lowY + height && py > lowY && pz <= lowZ + deepness
+                    && pz > lowZ) {
+                this.keys[i] = spread(cell(px - lowX, width)) | spread(cell(py - lowY, height)) << 1
+                        | spread(cell(pz - lowZ, deepness)) << 2;
+            } else {
+                this.keys[i] = OUTSIDE;
+            }
+            this.order[i] = i;
+        }
+        this.sortedCount = size;
+        this.radixSort(size);
+        return this.order;
+    }
+
+    /**
+     * Permet de trier les corps d'un stockage selon leur code de Morton dans une
+     * boîte de la racine calculée à partir de leurs positions (voir
+     * <code>sortByMortonCode(ParticleStore, ForkJoinPool)</code>).
+     * 
+     * @param bodyStore Stockage contenant les corps à trier
+     * @return Cases des corps dans l'ordre des codes (tableau partagé, valable
+     *         jusqu'au prochain tri, au moins <code>bodyStore.size()</code>
+     *         éléments)
+     */
+    public int[] sortByMortonCode(ParticleStore bodyStore) {
+        return this.sortByMortonCode(bodyStore, null);
+    }
+
+    /**
+     * Permet de trier les corps d'un stockage selon leur code de Morton dans une
+     * boîte de la racine calculée à partir de leurs positions. Un premier passage
+     * calcule les bornes de tous les corps, le barycentre et le rayon quadratique
+     * moyen des positions ; si un corps est à plus de <em>escapeFactor</em>
+     * rayons du barycentre, un second passage calcule les bornes des seuls corps
+     * non échappés. La boîte est le plus petit cube contenant ces bornes, agrandi
+     * de la marge ; les corps échappés sont en dehors et sommés directement. Les
+     * passages sur les positions sont répartis entre les threads du groupe s'il
+     * est donné.
+     * 
+     * @param bodyStore Stockage contenant les corps à trier
+     * @param pool      Groupe de threads qui calcule la boîte (null pour le
+     *                  thread courant)
+     * @return Cases des corps dans l'ordre des codes (tableau partagé, valable
+     *         jusqu'au prochain tri, au moins <code>bodyStore.size()</code>
+     *         éléments)
+     */
+    public int[] sortByMortonCode(ParticleStore bodyStore, ForkJoinPool pool) {
+        double[] v = this.bounds;
+        double x = 0;
+        double y = 0;
+        double z = 0;
+        double size = 0;
+        if (bodyStore.size() > 0) {
+            // Bornes de tous les corps, barycentre et rayon quadratique moyen des
+            // positions (sommes calculées par rapport au premier corps pour limiter
+            // les erreurs d'arrondi)
+            this.escapeX = bodyStore.getXPosition(0);
+            this.escapeY = bodyStore.getYPosition(0);
+            this.escapeZ = bodyStore.getZPosition(0);
+            this.escapeRadius2 = Double.POSITIVE_INFINITY;
+            this.reduce(bodyStore, false, pool);
+            if (this.escapeFactor != Double.POSITIVE_INFINITY) {
+                double n = v[6];
+                double mX = v[7] / n;
+                double mY = v[8] / n;
+                double mZ = v[9] / n;
+                double radius2 = Math.max(0, v[10] / n - (mX * mX + mY * mY + mZ * mZ));
+                double cX = this.escapeX + mX;
+                double cY = this.escapeY + mY;
+                double cZ = this.escapeZ + mZ;
+                // Le coin des bornes le plus éloigné du barycentre : s'il est dans la
+                // sphère, aucun corps n'est échappé et les bornes sont déjà les bonnes
+                double fX = Math.max(v[3] - cX, cX - v[0]);
+                double fY = Math.max(v[4] - cY, cY - v[1]);
+                double fZ = Math.max(v[5] - cZ, cZ - v[2]);
+                double cutoff2 = this.escapeFactor * this.escapeFactor * radius2;
+                if (fX * fX + fY * fY + fZ * fZ > cutoff2) {
+                    // Bornes des corps qui ne sont pas échappés
+                    this.escapeX = cX;
+                    this.escapeY = cY;
+                    this.escapeZ = cZ;
+                    this.escapeRadius2 = cutoff2;
+                    this.reduce(bodyStore, true, pool);
+                }
+            }
+            if (v[0] <= v[3]) {
+                x = 0.5 * (v[0] + v[3]);
+                y = 0.5 * (v[1] + v[4]);
+                z = 0.5 * (v[2] + v[5]);
+                size = Math.max(v[3] - v[0], Math.max(v[4] - v[1], v[5] - v[2])) * (1 + 2 * this.padding);
+                if (size == 0) {
+                    size = 1; // Corps confondus
+                }
+                // Les bornes inférieures sont exclues de la boîte : on l'agrandit
+                // jusqu'à ce que les arrondis laissent tous ces corps à l'intérieur
+                double step = Math.ulp(size + Math.abs(x) + Math.abs(y) + Math.abs(z));
+                while (!(v[0] > x - size / 2 && v[1] > y - size / 2 && v[2] > z - size / 2
+                        && v[3] <= x - size / 2 + size && v[4] <= y - size / 2 + size
+                        && v[5] <= z - size / 2 + size)) {
+                    size += 2 * step;
+                }
+            }
+        }
+        if (size == 0) {
+            size = 1; // Aucun corps
+        }
+        return this.sortByMortonCode(bodyStore, x, y, z, size, size, size);
+    }
+
+    /**
+     * Permet de calculer une réduction sur les positions de tous les corps
+     * (résultat dans <em>bounds</em>).
+     * 
+     * @param bodyStore Stockage contenant les corps
+     * @param filter    true pour les bornes des seuls corps non échappés, false
+     *                  pour les bornes de tous les corps et les sommes
+     * @param pool      Groupe de threads (null pour le thread courant)
+     */
+    private void reduce(ParticleStore bodyStore, boolean filter, ForkJoinPool pool) {
+        int size = bodyStore.size();
+        if (pool == null || size <= BOUNDS_GRAIN) {
+            this.reduceRange(bodyStore, filter, 0, size, this.bounds);
+        } else {
+            BoundsTask task = new BoundsTask(this, bodyStore, filter, 0, size);
+            pool.invoke(task);
+            System.arraycopy(task.values, 0, this.bounds, 0, this.bounds.length);
+        }
+    }
+
+    /**
+     * Permet de calculer une réduction sur les positions d'une plage de corps :
+     * le minimum puis le maximum sur chaque axe, suivis (sans filtre) du nombre de
+     * corps, des sommes des positions et de la somme des carrés des distances
+     * (par rapport au premier corps). Avec le filtre, seules les bornes des corps
+     * non échappés sont calculées.
+     * 
+     * @param bodyStore Stockage contenant les corps
+     * @param filter    true pour ignorer les corps échappés
+     * @param start     Première case de la plage
+     * @param end       Case qui suit la dernière case de la plage
+     * @param values    Tableau recevant le résultat (11 valeurs)
+     */
+    void reduceRange(ParticleStore bodyStore, boolean filter, int start, int end, double[] values) {
+        double refX = this.escapeX;
+        double refY = this.escapeY;
+        double refZ = this.escapeZ;
+        double radius2 = this.escapeRadius2;
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double minZ = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        double maxZ = Double.NEGATIVE_INFINITY;
+        double sumX = 0;
+        double sumY = 0;
+        double sumZ = 0;
+        double sum2 = 0;
+        for (int i = start; i < end; i++) {
+            double px = bodyStore.getXPosition(i);
+            double py = bodyStore.getYPosition(i);
+            double pz = bodyStore.getZPosition(i);
+            double dx = px - refX;
+            double dy = py - refY;
+            double dz = pz - refZ;
+            double d2 = dx * dx + dy * dy + dz * dz;
+            if (filter && d2 > radius2) {
+                continue; // Corps échappé
+            }
+            minX = Math.min(minX, px);
+            minY = Math.min(minY, py);
+            minZ = Math.min(minZ, pz);
+            maxX = Math.max(maxX, px);
+            maxY = Math.max(maxY, py);
+            maxZ = Math.max(maxZ, pz);
+            sumX += dx;
+            sumY += dy;
+            sumZ += dz;
+            sum2 += d2;
+        }
+        values[0] = minX;
+        values[1] = minY;
+        values[2] = minZ;
+        values[3] = maxX;
+        values[4] = maxY;
+        values[5] = maxZ;
+        values[6] = end - start;
+        values[7] = sumX;
+        values[8] = sumY;
+        values[9] = sumZ;
+        values[10] = sum2;
+    }
+
+    /**
+     * Permet de combiner les réductions de deux plages de corps.
+     * 
+     * @param low    Résultat de la première plage
+     * @param high   Résultat de la seconde plage
+     * @param values Tableau recevant le résultat combiné
+     */
+    static void combine(double[] low, double[] high, double[] values) {
+        for (int k = 0; k < values.length; k++) {
+            if (k < 3) {
+                values[k] = Math.min(low[k], high[k]);
+            } else if (k < 6) {
+                values[k] = Math.max(low[k], high[k]);
+            } else {
+                values[k] = low[k] + high[k];
+            }
+        }
+    }
+
+    /**
+     * Permet de construire l'arbre à partir des codes triés par
+     * <code>sortByMortonCode</code>. Les noeuds sont créés en découpant la liste
+     * triée, puis leur masse et leur centre de gravité sont calculés à partir de
+     * ceux de leurs fils. Comme pour l'insertion, un noeud n'est divisé que s'il
+     * contient plus de <em>leafCapacity</em> corps, et les corps en dehors de la
+     * boîte sont sommés directement. Au dernier niveau des codes, les
+     * corps restants forment une seule feuille.
+     * 
+     * @param storeReordered true si le stockage a été réordonné selon le tableau
+     *                       renvoyé par le tri, false s'il est resté tel quel
+     */
+    public void buildSorted(boolean storeReordered) {
+        int inside = this.prepareSortedBuild(storeReordered);
+        if (inside > 0) {
+            this.nodeCount = this.buildRange(0, 0, 0, inside, 1);
+        }
+        this.insertOutside(inside);
+        this.finishBuild();
+    }
+
+    /**
+     * Permet de construire l'arbre à partir des codes triés en utilisant
+     * plusieurs threads. Les <em>PARALLEL_LEVELS</em> premiers niveaux sont créés
+     * séquentiellement ; les noeuds de chaque sous-arbre restant sont comptés en
+     * parallèle, puis chaque sous-arbre est construit en parallèle dans sa propre
+     * plage de la réserve. Les masses et centres de gravité des premiers niveaux
+     * sont enfin calculés à partir de leurs fils. L'arbre obtenu donne les mêmes
+     * forces que la construction séquentielle.
+     * 
+     * @param storeReordered true si le stockage a été réordonné selon le tableau
+     *                       renvoyé par le tri, false s'il est resté tel quel
+     * @param pool           Groupe de threads qui construit les sous-arbres
+     */
+    public void buildSorted(boolean storeReordered, ForkJoinPool pool) {
+        int inside = this.prepareSortedBuild(storeReordered);
+        if (inside > 0) {
+            this.frontierCount = 0;
+            this.splitTop(0, 0, 0, inside);
+            pool.invoke(new FrontierTask(this, true, 0, this.frontierCount));
+            // Chaque sous-arbre reçoit une plage de la réserve
+            int next = this.nodeCount;
+            for (int f = 0; f < 5 * this.frontierCount; f += 5) {
+                int count = this.frontier[f + 4];
+                this.frontier[f + 4] = next;
+                next += count;
+            }
+            if (next > this.getCapacity()) {
+                this.allocate(Math.max(next, 2 * this.getCapacity()));
+            }
+            this.nodeCount = next;
+            pool.invoke(new FrontierTask(this, false, 0, this.frontierCount));
+            this.summarizeTop(0, 0);
+        }
+        this.insertOutside(inside);
+        this.finishBuild();
+    }
+
+    /**
+     * Permet de préparer une construction à partir des codes triés.
+     * 
+     * @param storeReordered true si le stockage a été réordonné selon les codes
+     *                       triés
+     * @return Nombre de corps dans la boîte de la racine (les premiers de la liste
+     *         triée)
+     */
+    private int prepareSortedBuild(boolean storeReordered) {
+        this.storeSorted = storeReordered;
+        int inside = this.sortedCount;
+        while (inside > 0 && this.keys[inside - 1] == OUTSIDE) {
+            inside--;
+        }
+        return inside;
+    }
+
+    /**
+     * Permet d'insérer les corps en dehors de la boîte de la racine (ils ne
+     * sont dans aucun fils et sont sommés directement).
+     * 
+     * @param inside Nombre de corps dans la boîte de la racine
+     */
+    private void insertOutside(int inside) {
+        for (int i = inside; i < this.sortedCount; i++) {
+            this.insertion(this.sortedSlot(i));
+        }
+    }
+
+    /**
+     * Permet de trouver la fin de la plage des corps d'un fils dans la liste
+     * triée.
+     * 
+     * @param level Niveau du noeud père
+     * @param start Premier indice de la plage du fils
+     * @param end   Indice qui suit le dernier indice de la plage du père
+     * @param digit Numéro du fils (trois bits du code)
+     * @return Indice qui suit le dernier indice de la plage du fils
+     */
+    private int childRangeEnd(int level, int start, int end, int digit) {
+        int shift = 3 * (MORTON_LEVELS - 1 - level);
+        int i = start;
+        while (i < end && ((this.keys[i] >>> shift) & 7) == digit) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Permet de compter les noeuds créés sous un noeud par
+     * <code>buildRange</code>.
+     * 
+     * @param level Niveau du noeud
+     * @param start Premier indice de la plage du noeud
+     * @param end   Indice qui suit le dernier indice de la plage
+     * @return Nombre de noeuds sous le noeud
+     */
+    int countNodes(int level, int start, int end) {
+        if (end - start <= this.leafCapacity || level == MORTON_LEVELS) {
+            return 0;
+        }
+        int count = 8;
+        for (int k = 0, i = start; k < 8 && i < end; k++) {
+            int j = this.childRangeEnd(level, i, end, k);
+            if (j > i) {
+                count += this.countNodes(level + 1, i, j);
+                i = j;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Permet de créer séquentiellement les premiers niveaux de l'arbre et de
+     * noter les sous-arbres restant à construire en parallèle.
+     * 
+     * @param node  Noeud à remplir
+     * @param level Niveau du noeud
+     * @param start Premier indice de la plage du noeud
+     * @param end   Indice qui suit le dernier indice de la plage
+     */
+    private void splitTop(int node, int level, int start, int end) {
+        if (level == PARALLEL_LEVELS || end - start <= this.leafCapacity) {
+            int f = 5 * this.frontierCount++;
+            this.frontier[f] = node;
+            this.frontier[f + 1] = level;
+            this.frontier[f + 2] = start;
+            this.frontier[f + 3] = end;
+            return;
+        }
+        this.divideBox(node);
+        for (int k = 0, i = start; k < 8 && i < end; k++) {
+            int j = this.childRangeEnd(level, i, end, k);
+            if (j > i) {
+                this.splitTop(this.firstChild[node] + k, level + 1, i, j);
+                i = j;
+            }
+        }
+    }
+
+    /**
+     * Permet de calculer la masse et le centre de gravité des noeuds créés par
+     * <code>splitTop</code> à partir de leurs fils.
+     * 
+     * @param node  Noeud à calculer
+     * @param level Niveau du noeud
+     */
+    private void summarizeTop(int node, int level) {
+        if (level == PARALLEL_LEVELS || this.firstChild[node] < 0) {
+            return; // Sous-arbre construit en parallèle
+        }
+        for (int k = 0; k < 8; k++) {
+            this.summarizeTop(this.firstChild[node] + k, level + 1);
+        }
+        this.summarize(node);
+    }
+
+    /**
+     * Permet de créer le sous-arbre d'un noeud à partir d'une plage de la liste
+     * triée (tous ses codes ont le même préfixe jusqu'au niveau du noeud).
+     * 
+     * @param node  Noeud à remplir
+     * @param level Niveau du noeud (0 pour la racine)
+     * @param start Premier indice de la plage
+     * @param end   Indice qui suit le dernier indice de la plage
+     * @param next  Premier noeud libre de la réserve
+     * @return Premier noeud libre de la réserve après la création du sous-arbre
+     */
+    int buildRange(int node, int level, int start, int end, int next) {
+        if (end - start <= this.leafCapacity || level == MORTON_LEVELS) {
+            // Feuille : peu de corps, ou des corps que les codes ne séparent plus
+            double m = 0;
+            double x = 0;
+            double y = 0;
+            double z = 0;
+            int first = this.sortedSlot(start);
+            for (int i = start; i < end; i++) {
+                int slot = this.sortedSlot(i);
+                double bodyMass = this.store.getMass(slot);
+                m += bodyMass;
+                x += this.store.getXPosition(slot) * bodyMass;
+                y += this.store.getYPosition(slot) * bodyMass;
+                z += this.store.getZPosition(slot) * bodyMass;
+                this.nextBody[slot] = i + 1 < end ? this.sortedSlot(i + 1) : -1;
+            }
+            this.body[node] = first;
+            this.count[node] = end - start;
+            this.mass[node] = m;
+            if (end - start == 1) {
+                this.comX[node] = this.store.getXPosition(first);
+                this.comY[node] = this.store.getYPosition(first);
+                this.comZ[node] = this.store.getZPosition(first);
+            } else {
+                this.comX[node] = x / m;
+                this.comY[node] = y / m;
+                this.comZ[node] = z / m;
+            }
+            return next;
+        }
+        this.divideBox(node, next);
+        next += 8;
+        for (int k = 0, i = start; k < 8 && i < end; k++) {
+            int j = this.childRangeEnd(level, i, end, k);
+            if (j > i) {
+                next = this.buildRange(this.firstChild[node] + k, level + 1, i, j, next);
+                i = j;
+            }
+        }
+        this.summarize(node);
+        return next;
+    }
+
+    /**
+     * Permet de calculer la masse, le centre de gravité et le corps d'un noeud
+     * divisé à partir de ses fils.
+     * 
+     * @param node Noeud divisé
+     */
+    private void summarize(int node) {
+        double m = 0;
+        double x = 0;
+        double y = 0;
+        double z = 0;
+        int first = Integer.MAX_VALUE;
+        for (int k = 0; k < 8; k++) {
+            int child = this.firstChild[node] + k;
+            if (this.body[child] >= 0) {
+                m += this.mass[child];
+                x += this.comX[child] * this.mass[child];
+                y += this.comY[child] * this.mass[child];
+                z += this.comZ[child] * this.mass[child];
+                first = Math.min(first, this.body[child]);
+            }
+        }
+        this.body[node] = first;
+        this.mass[node] = m;
+        this.comX[node] = x / m;
+        this.comY[node] = y / m;
+        this.comZ[node] = z / m;
+    }
+
+    /**
+     * Permet de terminer une construction complète.
+     */
+    private void finishBuild() {
+        this.computeNodeData();
+        this.builtNodeCount = this.nodeCount;
+    }
+
+    /**
+     * Permet de calculer les seuils d'ouverture et, si la correction
+     * quadripolaire est utilisée, les moments quadripolaires de tous les noeuds.
+     */
+    private void computeNodeData() {
+        if (this.nodeCount > 0) {
+            this.computeNodeData(0);
+        }
+    }
+
+    /**
+     * Permet de calculer le seuil d'ouverture et le moment quadripolaire d'un
+     * noeud et de son sous-arbre.
+     * 
+     * @param node Noeud à calculer
+     */
+    private void computeNodeData(int node) {
+        int first = this.firstChild[node];
+        if (first >= 0) {
+            for (int child = first; child < first + 8; child++) {
+                if (this.body[child] >= 0) {
+                    this.computeNodeData(child);
+                }
+            }
+        }
+        this.nodeData(node);
+    }
+
+    /**
+     * Permet de calculer le seuil d'ouverture d'un noeud et son moment
+     * quadripolaire, à partir de ceux de ses fils (déjà calculés) déplacés au
+     * centre de gravité du noeud : Q = somme(Q<sub>fils</sub> + m<sub>fils</sub>
+     * (3 d d - d<sup>2</sup> I)). Le moment d'une feuille est calculé directement
+     * à partir de ses corps (il est nul pour un seul corps). Les corps en dehors
+     * de la boîte de la racine, qui ne sont dans aucun fils, n'en font pas
+     * partie.
+     * 
+     * @param node Noeud à calculer
+     */
+    private void nodeData(int node) {
+        double qXX = 0;
+        double qXY = 0;
+        double qXZ = 0;
+        double qYY = 0;
+        double qYZ = 0;
+        int first = this.firstChild[node];
+        if (first >= 0) {
+            for (int child = first; child < first + 8; child++) {
+                if (this.body[child] < 0) {
+                    continue; // Fils vide
+                }
+                if (this.useQuadrupole) {
+                    double m = this.mass[child];
+                    double dx = this.comX[child] - this.comX[node];
+                    double dy = this.comY[child] - this.comY[node];
+                    double dz = this.comZ[child] - this.comZ[node];
+                    double d2 = dx * dx + dy * dy + dz * dz;
+                    qXX += this.quadXX[child] + m * (3 * dx * dx - d2);
+                    qXY += this.quadXY[child] + m * 3 * dx * dy;
+                    qXZ += this.quadXZ[child] + m * 3 * dx * dz;
+                    qYY += this.quadYY[child] + m * (3 * dy * dy - d2);
+                    qYZ += this.quadYZ[child] + m * 3 * dy * dz;
+                }
+            }
+            this.opening[node] = this.openingThreshold(node);
+        } else if (this.count[node] > 1) {
+            for (int other = this.body[node]; this.useQuadrupole && other >= 0; other = this.nextBody[other]) {
+                double m = this.store.getMass(other);
+                double dx = this.store.getXPosition(other) - this.comX[node];
+                double dy = this.store.getYPosition(other) - this.comY[node];
+                double dz = this.store.getZPosition(other) - this.comZ[node];
+                double d2 = dx * dx + dy * dy + dz * dz;
+                qXX += m * (3 * dx * dx - d2);
+                qXY += m * 3 * dx * dy;
+                qXZ += m * 3 * dx * dz;
+                qYY += m * (3 * dy * dy - d2);
+                qYZ += m * 3 * dy * dz;
+            }
+            this.opening[node] = this.openingThreshold(node);
+        }
+        this.quadXX[node] = qXX;
+        this.quadXY[node] = qXY;
+        this.quadXZ[node] = qXZ;
+        this.quadYY[node] = qYY;
+        this.quadYZ[node] = qYZ;
+    }
+
+    /**
+     * Permet de calculer le seuil d'ouverture d'un noeud divisé ou d'une feuille
+     * de plusieurs corps selon le critère choisi.
+     * 
+     * @param node Noeud divisé ou feuille
+     * @return Carré du rayon d'ouverture, ou G M s<sup>2</sup> / tolérance pour
+     *         le critère d'erreur relative
+     */
+    private double openingThreshold(int node) {
+        double size = Math.max(this.sizeX[node], Math.max(this.sizeY[node], this.sizeZ[node]));
+        switch (this.criterion) {
+            case BMAX:
+                // Plus grande distance entre le centre de gravité et un coin de la boîte
+                double bX = Math.abs(this.comX[node] - this.centerX[node]) + 0.5 * this.sizeX[node];
+                double bY = Math.abs(this.comY[node] - this.centerY[node]) + 0.5 * this.sizeY[node];
+                double bZ = Math.abs(this.comZ[node] - this.centerZ[node]) + 0.5 * this.sizeZ[node];
+                return (bX * bX + bY * bY + bZ * bZ) / (this.theta * this.theta);
+            case RELATIVE_ERROR:
+                return Constants.G * this.mass[node] * size * size / this.errorTolerance;
+            default:
+                return size * size / (this.theta * this.theta);
+        }
+    }
+
+    /**
+     * Permet de récupérer la case du <em>i</em>-ème corps trié.
+     * 
+     * @param i Indice dans la liste triée
+     * @return Case du corps dans le stockage
+     */
+    private int sortedSlot(int i) {
+        return this.storeSorted ? i : this.order[i];
+    }
+
+    /**
+     * Permet de trier les codes de Morton (entiers non signés) et les cases
+     * associées par base, <em>RADIX_BITS</em> bits par passe. Les passes où tous
+     * les codes ont le même chiffre sont sautées.
+     * 
+     * @param size Nombre de codes à trier
+     */
+    private void radixSort(int size) {
+        if (size < 2) {
+            return;
+        }
+        long[] source = this.keys;
+        long[] target = this.keyScratch;
+        int[] sourceOrder = this.order;
+        int[] targetOrder = this.orderScratch;
+        int mask = (1 << RADIX_BITS) - 1;
+        for (int shift = 0; shift < Long.SIZE; shift += RADIX_BITS) {
+            Arrays.fill(this.radixCount, 0);
+            for (int i = 0; i < size; i++) {
+                this.radixCount[(int) (source[i] >>> shift) & mask]++;
+            }
+            if (this.radixCount[(int) (source[0] >>> shift) & mask] == size) {
+                continue; // Tous les codes ont le même chiffre
+            }
+            int position = 0;
+            for (int digit = 0; digit <= mask; digit++) {
+                int count = this.radixCount[digit];
+                this.radixCount[digit] = position;
+                position += count;
+            }
+            for (int i = 0; i < size; i++) {
+                int rank = this.radixCount[(int) (source[i] >>> shift) & mask]++;
+                target[rank] = source[i];
+                targetOrder[rank] = sourceOrder[i];
+            }
+            long[] swapKeys = source;
+            source = target;
+            target = swapKeys;
+            int[] swapOrder = sourceOrder;
+            sourceOrder = targetOrder;
+            targetOrder = swapOrder;
+        }
+        this.keys = source;
+        this.keyScratch = target;
+        this.order = sourceOrder;
+        this.orderScratch = targetOrder;
+    }
+
+    /**
+     * Permet de calculer la cellule d'une coordonnée au dernier niveau des codes
+     * de Morton (mêmes bornes que <code>Octal.contains</code> : une coordonnée
+     * sur la limite entre deux cellules appartient à la première).
+     * 
+     * @param offset Distance au bord inférieur de la boîte
+     * @param length Dimension de la boîte
+     * @return Numéro de la cellule (entre 0 et 2<sup>21</sup> - 1)
+     */
+    private static long cell(double offset, double length) {
+        long cell = (long) Math.ceil(offset / length * MORTON_CELLS) - 1;
+        return Math.max(0, Math.min(MORTON_CELLS - 1, cell));
+    }
+
+    /**
+     * Permet d'écarter les 21 bits de poids faible d'un entier pour qu'ils
+     * occupent un bit sur trois.
+     * 
+     * @param value Entier à écarter
+     * @return Entier écarté
+     */
+    private static long spread(long value) {
+        value &= MORTON_CELLS - 1;
+        value = (value | value << 32) & 0x1f00000000ffffL;
+        value = (value | value << 16) & 0x1f0000ff0000ffL;
+        value = (value | value << 8) & 0x100f00f00f00f00fL;
+        value = (value | value << 4) & 0x10c30c30c30c30c3L;
+        value = (value | value << 2) & 0x1249249249249249L;
+        return value;
+    }
+
+    /**
+     * Permet d'ajouter à l'accélération d'un corps du stockage les attractions
+     * exercées par les noeuds de l'arbre.
+     * 
+     * @param bodySlot Case du corps à mettre à jour
+     */
+    public void updateForceAboutObject(int bodySlot) {
+        this.walker.walk(bodySlot);
+        this.store.addAcceleration(bodySlot, this.walker.sumX, this.walker.sumY, this.walker.sumZ);
+    }
+
+    /**
+     * Permet de remplacer l'accélération de tous les corps du stockage par les
+     * attractions exercées par les noeuds de l'arbre (par groupes si
+     * <code>setUseGroups</code> l'a demandé).
+     */
+    public void computeAccelerations() {
+        if (this.useGroups) {
+            this.collectGroups();
+            for (int g = 0; g < this.groupCount; g++) {
+                this.groupWalker.walk(this.groups[g]);
+            }
+            this.computeOutsideAccelerations(this.walker);
+        } else {
+            this.computeAccelerations(this.walker, null, 0, this.store.size());
+        }
+    }
+
+    /**
+     * Permet de remplacer l'accélération de tous les corps du stockage par les
+     * attractions exercées par les noeuds de l'arbre en utilisant plusieurs
+     * threads. Les corps sont découpés récursivement en plages : un thread libre
+     * vole une plage à un thread occupé, ce qui équilibre les parcours plus ou
+     * moins longs selon la densité. Par groupes, ce sont les groupes qui sont
+     * découpés en plages. Chaque corps n'écrit que sa propre accélération et
+     * donne le même résultat que le calcul séquentiel.
+     * 
+     * @param pool Groupe de threads qui calcule les accélérations
+     */
+    public void computeAccelerations(ForkJoinPool pool) {
+        int size = this.store.size();
+        if (this.useGroups) {
+            this.collectGroups();
+            pool.invoke(new GroupTask(this, 0, this.groupCount));
+            this.computeOutsideAccelerations(this.walker);
+        } else if (size <= WALK_GRAIN) {
+            this.computeAccelerations(this.walker, null, 0, size);
+        } else {
+            pool.invoke(new WalkTask(this, null, 0, size));
+        }
+    }
+
+    /**
+     * Permet de remplacer l'accélération de certains corps du stockage seulement
+     * par les attractions exercées par les noeuds de l'arbre (pas de temps par
+     * blocs : seuls les corps actifs sont mis à jour). L'arbre est parcouru
+     * corps par corps, même si <code>setUseGroups</code> a demandé des groupes ;
+     * les autres corps gardent leur accélération.
+     * 
+     * @param targets Cases des corps à mettre à jour
+     * @param count   Nombre de corps à mettre à jour (début du tableau)
+     */
+    public void computeAccelerations(int[] targets, int count) {
+        this.computeAccelerations(this.walker, targets, 0, count);
+    }
+
+    /**
+     * Permet de remplacer l'accélération de certains corps du stockage seulement
+     * par les attractions exercées par les noeuds de l'arbre, en utilisant
+     * plusieurs threads (voir <code>computeAccelerations(int[], int)</code>).
+     * 
+     * @param targets Cases des corps à mettre à jour
+     * @param count   Nombre de corps à mettre à jour (début du tableau)
+     * @param pool    Groupe de threads qui calcule les accélérations
+     */
+    public void computeAccelerations(int[] targets, int count, ForkJoinPool pool) {
+        if (count <= WALK_GRAIN) {
+            this.computeAccelerations(this.walker, targets, 0, count);
+        } else {
+            pool.invoke(new WalkTask(this, targets, 0, count));
+        }
+    }
+
+    /**
+     * Permet de ranger les noeuds racines des groupes dans la liste des groupes.
+     */
+    private void collectGroups() {
+        if (this.groups.length < this.nodeCount) {
+            this.groups = new int[Math.max(this.nodeCount, 2 * this.groups.length)];
+            this.subtreeCount = new int[this.groups.length];
+        }
+        this.groupCount = 0;
+        if (this.nodeCount > 0 && this.body[0] >= 0) {
+            int total = this.collectGroups(0);
+            if (total <= this.groupSize || this.firstChild[0] < 0) {
+                this.groups[this.groupCount++] = 0; // Un seul groupe
+            }
+        }
+    }
+
+    /**
+     * Permet de compter les corps du sous-arbre d'un noeud non vide et de ranger
+     * dans la liste des groupes ses plus grands sous-arbres d'au plus
+     * <em>groupSize</em> corps (ou les feuilles plus grandes), si le noeud lui-même
+     * en contient plus.
+     * 
+     * @param node Noeud non vide
+     * @return Nombre de corps du sous-arbre
+     */
+    private int collectGroups(int node) {
+        int first = this.firstChild[node];
+        if (first < 0) {
+            return this.count[node];
+        }
+        int total = 0;
+        for (int child = first; child < first + 8; child++) {
+            int count = this.body[child] < 0 ? 0 : this.collectGroups(child);
+            this.subtreeCount[child] = count;
+            total += count;
+        }
+        if (total > this.groupSize) {
+            for (int child = first; child < first + 8; child++) {
+                int count = this.subtreeCount[child];
+                if (count > 0 && (count <= this.groupSize || this.firstChild[child] < 0)) {
+                    this.groups[this.groupCount++] = child;
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Permet de remplacer l'accélération des corps en dehors de la boîte de la
+     * racine, qui ne sont dans aucun groupe, par un parcours corps par corps.
+     * 
+     * @param walker Parcours utilisé par le thread courant
+     */
+    private void computeOutsideAccelerations(TreeWalker walker) {
+        for (int i = 0; i < this.outsideCount; i++) {
+            int other = this.outside[i];
+            walker.walk(other);
+            this.store.setAcceleration(other, walker.sumX, walker.sumY, walker.sumZ);
+        }
+    }
+
+    /**
+     * Permet de remplacer l'accélération d'une plage de corps du stockage par les
+     * attractions exercées par les noeuds de l'arbre.
+     * 
+     * @param walker  Parcours utilisé par le thread courant
+     * @param targets Cases des corps (<em>null</em> si la plage désigne
+     *                directement les cases)
+     * @param start   Début de la plage
+     * @param end     Fin (exclue) de la plage
+     */
+    void computeAccelerations(TreeWalker walker, int[] targets, int start, int end) {
+        for (int i = start; i < end; i++) {
+            int slot = targets == null ? i : targets[i];
+            walker.walk(slot);
+            this.store.setAcceleration(slot, walker.sumX, walker.sumY, walker.sumZ);
+        }
+    }
+
+    /**
+     * Permet de calculer le carré de la distance au-delà de laquelle la partie à
+     * courte portée de l'attraction est négligée.
+     * 
+     * @return Carré de la distance de coupure (infini sans échelle de
+     *         séparation)
+     */
+    double cutoff2() {
+        double split = this.splitScale;
+        return split > 0 ? SHORT_RANGE_CUTOFF * SHORT_RANGE_CUTOFF * split * split : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Permet de savoir si la boîte d'un noeud est entièrement hors de portée
+     * d'une boîte de corps (un seul corps si ses demi-dimensions sont nulles).
+     * 
+     * @param node    Noeud
+     * @param x       Centre de la boîte des corps sur l'axe des X
+     * @param y       Centre de la boîte des corps sur l'axe des Y
+     * @param z       Centre de la boîte des corps sur l'axe des Z
+     * @param halfX   Demi-largeur de la boîte des corps
+     * @param halfY   Demi-hauteur de la boîte des corps
+     * @param halfZ   Demi-profondeur de la boîte des corps
+     * @param cutoff2 Carré de la distance de coupure
+     * @return Booléen : true si le noeud est hors de portée, false sinon
+     */
+    boolean outOfReach(int node, double x, double y, double z, double halfX, double halfY, double halfZ,
+            double cutoff2) {
+        double bx = Math.max(0, Math.abs(x - this.centerX[node]) - 0.5 * this.sizeX[node] - halfX);
+        double by = Math.max(0, Math.abs(y - this.centerY[node]) - 0.5 * this.sizeY[node] - halfY);
+        double bz = Math.max(0, Math.abs(z - this.centerZ[node]) - 0.5 * this.sizeZ[node] - halfZ);
+        return bx * bx + by * by + bz * bz > cutoff2;
+    }
+
+    /**
+     * Permet de savoir si un noeud divisé ou une feuille de plusieurs corps doit
+     * être ouvert pour une boîte de corps (un seul corps si ses demi-dimensions
+     * sont nulles) : selon le critère choisi, d'après la distance entre son
+     * centre de gravité et les corps, et toujours pour la racine et les noeuds
+     * dont la boîte touche celle des corps.
+     * 
+     * @param node     Noeud divisé ou feuille de plusieurs corps
+     * @param d2       Carré de la distance entre le centre de gravité du noeud et
+     *                 le corps le plus proche
+     * @param previous Plus petite accélération des corps au pas précédent
+     *                 (critère d'erreur relative), ou 0
+     * @param x        Centre de la boîte des corps sur l'axe des X
+     * @param y        Centre de la boîte des corps sur l'axe des Y
+     * @param z        Centre de la boîte des corps sur l'axe des Z
+     * @param halfX    Demi-largeur de la boîte des corps
+     * @param halfY    Demi-hauteur de la boîte des corps
+     * @param halfZ    Demi-profondeur de la boîte des corps
+     * @return Booléen : true si le noeud doit être ouvert, false si son centre
+     *         de gravité peut être utilisé
+     */
+    boolean mustOpen(int node, double d2, double previous, double x, double y, double z, double halfX, double halfY,
+            double halfZ) {
+        boolean open;
+        if (previous > 0) {
+            open = d2 * d2 * previous < this.opening[node];
+        } else if (this.criterion == OpeningCriterion.RELATIVE_ERROR) {
+            double size = Math.max(this.sizeX[node], Math.max(this.sizeY[node], this.sizeZ[node]));
+            open = d2 * (this.theta * this.theta) < size * size;
+        } else {
+            open = d2 < this.opening[node];
+        }
+        return open || node == 0 || (Math.abs(x - this.centerX[node]) <= 0.5 * this.sizeX[node] + halfX
+                && Math.abs(y - this.centerY[node]) <= 0.5 * this.sizeY[node] + halfY
+                && Math.abs(z - this.centerZ[node]) <= 0.5 * this.sizeZ[node] + halfZ);
+    }
+
+    /**
+     * Permet de calculer la correction quadripolaire de l'attraction d'un noeud
+     * accepté : G (5/2 (d.Q.d) d / d<sup>7</sup> - Q.d / d<sup>5</sup>).
+     * 
+     * @param node       Noeud accepté
+     * @param dx         Distance au centre de gravité du noeud sur l'axe des X
+     * @param dy         Distance au centre de gravité du noeud sur l'axe des Y
+     * @param dz         Distance au centre de gravité du noeud sur l'axe des Z
+     * @param d2         Carré de la distance au centre de gravité
+     * @param d          Distance au centre de gravité
+     * @param correction Tableau recevant la correction (x, y, z)
+     */
+    void quadrupole(int node, double dx, double dy, double dz, double d2, double d, double[] correction) {
+        double qXX = this.quadXX[node];
+        double qXY = this.quadXY[node];
+        double qXZ = this.quadXZ[node];
+        double qYY = this.quadYY[node];
+        double qYZ = this.quadYZ[node];
+        double qDX = qXX * dx + qXY * dy + qXZ * dz;
+        double qDY = qXY * dx + qYY * dy + qYZ * dz;
+        double qDZ = qXZ * dx + qYZ * dy - (qXX + qYY) * dz;
+        double inverse2 = 1 / d2;
+        double g = Constants.G * inverse2 * inverse2 / d;
+        double radial = 2.5 * (dx * qDX + dy * qDY + dz * qDZ) * inverse2;
+        correction[0] = g * (radial * dx - qDX);
+        correction[1] = g * (radial * dy - qDY);
+        correction[2] = g * (radial * dz - qDZ);
+    }
+
+    /**
+     * Permet de créer les huit fils d'un noeud à la fin de la réserve.
+     * 
+     * @param node Noeud à diviser
+     */
+    private void divideBox(int node) {
+        this.divideBox(node, this.nodeCount);
+        this.nodeCount += 8;
+    }
+
+    /**
+     * Permet de créer les huit fils d'un noeud à une position donnée de la
+     * réserve (agrandie si nécessaire).
+     * 
+     * @param node  Noeud à diviser
+     * @param first Position du premier fils dans la réserve
+     */
+    private void divideBox(int node, int first) {
+        if (first + 8 > this.getCapacity()) {
+            this.allocate(Math.max(first + 8, 2 * this.getCapacity()));
+        }
+        this.firstChild[node] = first;
+        double quarterX = this.sizeX[node] / 4;
+        double quarterY = this.sizeY[node] / 4;
+        double quarterZ = this.sizeZ[node] / 4;
+        double halfX = this.sizeX[node] / 2;
+        double halfY = this.sizeY[node] / 2;
+        double halfZ = this.sizeZ[node] / 2;
+        for (int k = 0; k < 8; k++) {
+            this.initNode(first + k, this.centerX[node] + ((k & 1) != 0 ? quarterX : -quarterX),
+                    this.centerY[node] + ((k & 2) != 0 ? quarterY : -quarterY),
+                    this.centerZ[node] + ((k & 4) != 0 ? quarterZ : -quarterZ), halfX, halfY, halfZ);
+        }
+    }
+
+    /**
+     * Permet de trouver le fils d'un noeud divisé qui contient une position.
+     * 
+     * @param node Noeud divisé
+     * @param x    Position sur l'axe des X
+     * @param y    Position sur l'axe des Y
+     * @param z    Position sur l'axe des Z
+     * @return Indice du fils (-1 si la position est en dehors de la boîte du
+     *         noeud)
+     */
+    private int childContaining(int node, double x, double y, double z) {
+        if (!this.boxContains(node, x, y, z)) {
+            return -1;
+        }
+        return this.firstChild[node] + (x > this.centerX[node] ? 1 : 0) + (y > this.centerY[node] ? 2 : 0)
+                + (z > this.centerZ[node] ? 4 : 0);
+    }
+
+    /**
+     * Permet de vérifier si un corps du stockage est dans la boîte d'un noeud.
+     * 
+     * @param node     Noeud
+     * @param bodySlot Case du corps
+     * @return Booléen : true s'il s'y trouve, false sinon
+     */
+    private boolean boxContains(int node, int bodySlot) {
+        return this.boxContains(node, this.store.getXPosition(bodySlot), this.store.getYPosition(bodySlot),
+                this.store.getZPosition(bodySlot));
+    }
+
+    /**
+     * Permet de vérifier si une position est dans la boîte d'un noeud.
+     * 
+     * @param node Noeud
+     * @param x    Position sur l'axe des X
+     * @param y    Position sur l'axe des Y
+     * @param z    Position sur l'axe des Z
+     * @return Booléen : true si elle s'y trouve, false sinon
+     */
+    private boolean boxContains(int node, double x, double y, double z) {
+        double cx = this.centerX[node];
+        double cy = this.centerY[node];
+        double cz = this.centerZ[node];
+        double hx = this.sizeX[node] / 2;
+        double hy = this.sizeY[node] / 2;
+        double hz = this.sizeZ[node] / 2;
+        // Mêmes bornes que Octal.contains
+        return x <= cx + hx && x > cx - hx && y <= cy + hy && y > cy - hy && z <= cz + hz && z > cz - hz;
+    }
+
+    /**
+     * Permet d'initialiser un noeud vide.
+     * 
+     * @param node     Indice du noeud
+     * @param x        Centre de la boîte sur l'axe des X
+     * @param y        Centre de la boîte sur l'axe des Y
+     * @param z        Centre de la boîte sur l'axe des Z
+     * @param width    Largeur de la boîte
+     * @param height   Hauteur de la boîte
+     * @param deepness Profondeur de la boîte
+     */
+    private void initNode(int node, double x, double y, double z, double width, double height, double deepness) {
+        this.firstChild[node] = -1;
+        this.body[node] = -1;
+        this.count[node] = 0;
+        this.mass[node] = 0;
+        this.comX[node] = x;
+        this.comY[node] = y;
+        this.comZ[node] = z;
+        this.centerX[node] = x;
+        this.centerY[node] = y;
+        this.centerZ[node] = z;
+        this.sizeX[node] = width;
+        this.sizeY[node] = height;
+        this.sizeZ[node] = deepness;
+    }
+
+    /**
+     * Permet d'agrandir la réserve de noeuds en conservant les noeuds existants.
+     * 
+     * @param capacity Nouvelle capacité
+     */
+    private void allocate(int capacity) {
+        if (this.firstChild == null) {
+            this.firstChild = new int[capacity];
+            this.body = new int[capacity];
+            this.count = new int[capacity];
+            this.mass = new double[capacity];
+            this.comX = new double[capacity];
+            this.comY = new double[capacity];
+            this.comZ = new double[capacity];
+            this.centerX = new double[capacity];
+            this.centerY = new double[capacity];
+            this.centerZ = new double[capacity];
+            this.sizeX = new double[capacity];
+            this.sizeY = new double[capacity];
+            this.sizeZ = new double[capacity];
+            this.opening = new double[capacity];
+            this.quadXX = new double[capacity];
+            this.quadXY = new double[capacity];
+            this.quadXZ = new double[capacity];
+            this.quadYY = new double[capacity];
+            this.quadYZ = new double[capacity];
+        } else {
+            this.firstChild = Arrays.copyOf(this.firstChild, capacity);
+            this.body = Arrays.copyOf(this.body, capacity);
+            this.count = Arrays.copyOf(this.count, capacity);
+            this.mass = Arrays.copyOf(this.mass, capacity);
+            this.comX = Arrays.copyOf(this.comX, capacity);
+            this.comY = Arrays.copyOf(this.comY, capacity);
+            this.comZ = Arrays.copyOf(this.comZ, capacity);
+            this.centerX = Arrays.copyOf(this.centerX, capacity);
+            this.centerY = Arrays.copyOf(this.centerY, capacity);
+            this.centerZ = Arrays.copyOf(this.centerZ, capacity);
+            this.sizeX = Arrays.copyOf(this.sizeX, capacity);
+            this.sizeY = Arrays.copyOf(this.sizeY, capacity);
+            this.sizeZ = Arrays.copyOf(this.sizeZ, capacity);
+            this.opening = Arrays.copyOf(this.opening, capacity);
+            this.quadXX = Arrays.copyOf(this.quadXX, capacity);
+            this.quadXY = Arrays.copyOf(this.quadXY, capacity);
+            this.quadXZ = Arrays.copyOf(this.quadXZ, capacity);
+            this.quadYY = Arrays.copyOf(this.quadYY, capacity);
+            this.quadYZ = Arrays.copyOf(this.quadYZ, capacity);
+        }
+    }
+}
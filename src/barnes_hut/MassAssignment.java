@@ -0,0 +1,23 @@
+package barnes_hut;
+
+/**
+ * Énumération des schémas de répartition de la masse des corps sur la grille de
+ * la méthode particule-maillage. Les accélérations sont interpolées depuis la
+ * grille avec le même schéma, ce qui supprime la force d'un corps sur lui-même.
+ */
+public enum MassAssignment {
+    /**
+     * Répartition <em>Cloud-In-Cell</em> : la masse est partagée entre les 8
+     * cellules voisines, avec des poids linéaires en la distance au centre de
+     * chaque cellule.
+     */
+    CIC,
+
+    /**
+     * Répartition <em>Triangular-Shaped-Cloud</em> : la masse est partagée entre
+     * les 27 cellules voisines, avec des poids quadratiques. Les forces sont plus
+     * lisses et moins dépendantes de la position dans la cellule, pour un calcul
+     * plus coûteux.
+     */
+    TSC
+}
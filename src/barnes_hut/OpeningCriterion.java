@@ -0,0 +1,32 @@
+package barnes_hut;
+
+/**
+ * Énumération des critères d'ouverture d'un noeud de l'arbre de Barnes-Hut :
+ * un noeud assez loin du corps est accepté (son centre de gravité attire le
+ * corps), sinon il est ouvert et ses fils sont parcourus. Un noeud contenant le
+ * corps est toujours ouvert.
+ */
+public enum OpeningCriterion {
+    /**
+     * Critère classique de Barnes-Hut : le noeud est accepté si s / d ≤ Théta,
+     * avec s le plus grand côté de sa boîte et d la distance du corps à son
+     * centre de gravité.
+     */
+    BARNES_HUT,
+
+    /**
+     * Critère de Salmon et Warren : le noeud est accepté si b<sub>max</sub> / d ≤
+     * Théta, avec b<sub>max</sub> la plus grande distance entre son centre de
+     * gravité et un coin de sa boîte. Il tient compte d'un centre de gravité
+     * décentré dans la boîte.
+     */
+    BMAX,
+
+    /**
+     * Critère d'erreur relative : le noeud est accepté si l'erreur estimée
+     * G M s<sup>2</sup> / d<sup>4</sup> est inférieure à une fraction de
+     * l'accélération du corps au pas précédent. Sans accélération précédente, le
+     * critère classique est utilisé.
+     */
+    RELATIVE_ERROR
+}
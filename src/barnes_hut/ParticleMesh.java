@@ -0,0 +1,712 @@
+package barnes_hut;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import math_physics.math.*;
+import math_physics.physics.*;
+
+/**
+ * Méthode particule-maillage (<em>Particle-Mesh</em>) : la masse des corps est
+ * répartie sur une grille cubique de n<sup>3</sup> cellules ajustée aux corps,
+ * l'équation de Poisson y est résolue par transformée de Fourier rapide, puis
+ * les accélérations sont calculées sur la grille (différences finies d'ordre 4
+ * du potentiel) et interpolées vers les corps. Le coût est de l'ordre de N +
+ * n<sup>3</sup> log n, indépendant de la répartition des corps ; la résolution
+ * est limitée à la taille d'une cellule, la méthode convient donc aux systèmes
+ * de densité presque uniforme.
+ * <p>
+ * Le système n'est pas périodique : la grille des masses est complétée par des
+ * zéros jusqu'à (2n)<sup>3</sup> cellules (méthode de Hockney et Eastwood), de
+ * sorte que la convolution circulaire par la fonction de Green 1/r redonne
+ * l'attraction d'un système isolé. La transformée de la fonction de Green
+ * n'est calculée qu'une fois pour chaque taille de grille. Les transformées
+ * des lignes de la grille, le calcul des accélérations sur la grille et leur
+ * interpolation peuvent être répartis sur un <code>ForkJoinPool</code>.
+ * <p>
+ * Avec une échelle de séparation r<sub>s</sub> non nulle, la grille ne calcule
+ * que la partie à longue portée de l'attraction : la fonction de Green devient
+ * erf(r / 2r<sub>s</sub>) / r, dont la transformée est celle de 1/r filtrée par
+ * une gaussienne, et le lissage des schémas de répartition est compensé dans
+ * l'espace de Fourier. La partie à courte portée, qui manque, est calculée par
+ * un arbre (voir <code>TreeParticleMesh</code>).
+ */
+public class ParticleMesh implements ForceSolver {
+    /**
+     * Nom de la méthode.
+     */
+    public static final String NAME = "Particule-maillage";
+
+    /**
+     * Nombre de cellules par côté de la grille par défaut.
+     */
+    public static final int DEFAULT_GRID_SIZE = 64;
+
+    /**
+     * Nombre minimal de cellules par côté de la grille.
+     */
+    public static final int MIN_GRID_SIZE = 16;
+
+    /**
+     * Nombre maximal de cellules par côté de la grille (la grille complétée
+     * occupe alors 3 Go).
+     */
+    public static final int MAX_GRID_SIZE = 256;
+
+    /**
+     * Nombre de cellules laissées libres de chaque côté des corps : les schémas
+     * de répartition et les différences finies ne sortent pas de la grille.
+     */
+    private static final int MARGIN = 3;
+
+    /**
+     * Potentiel au centre d'un cube homogène de côté et de masse unités (au
+     * facteur -G près), utilisé pour la cellule de chaque masse elle-même.
+     */
+    private static final double SELF_POTENTIAL = 2.3800772;
+
+    /**
+     * Nombre de lignes de la grille en dessous duquel une tâche de transformée
+     * n'est plus découpée.
+     */
+    private static final int LINE_GRAIN = 64;
+
+    /**
+     * Nombre de lignes voisines copiées ensemble lors des transformées selon X et
+     * Y.
+     */
+    private static final int LINE_BLOCK = 8;
+
+    /**
+     * Nombre de corps en dessous duquel une tâche d'interpolation n'est plus
+     * découpée.
+     */
+    private static final int BODY_GRAIN = 4096;
+
+    /**
+     * Calcul portant sur une plage d'indices.
+     */
+    private interface RangeAction {
+        /**
+         * Permet de faire le calcul sur une plage d'indices.
+         * 
+         * @param start Premier indice de la plage
+         * @param end   Indice qui suit le dernier indice de la plage
+         */
+        void run(int start, int end);
+    }
+
+    /**
+     * Tâche découpant une plage d'indices en deux jusqu'à un grain donné.
+     */
+    private static final class RangeTask extends RecursiveAction {
+        /**
+         * Ajout d'un numéro <em>serialVersionUID</em> pour la tâche.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Correspond au calcul fait sur chaque plage.
+         */
+        private final RangeAction action;
+
+        /**
+         * Correspond au premier indice de la plage.
+         */
+        private final int start;
+
+        /**
+         * Correspond à l'indice qui suit le dernier indice de la plage.
+         */
+        private final int end;
+
+        /**
+         * Correspond au nombre d'indices en dessous duquel la plage n'est plus
+         * découpée.
+         */
+        private final int grain;
+
+        /**
+         * Constructeur de la tâche.
+         * 
+         * @param action Calcul fait sur chaque plage
+         * @param start  Premier indice de la plage
+         * @param end    Indice qui suit le dernier indice de la plage
+         * @param grain  Nombre d'indices en dessous duquel la plage n'est plus
+         *               découpée
+         */
+        private RangeTask(RangeAction action, int start, int end, int grain) {
+            this.action = action;
+            this.start = start;
+            this.end = end;
+            this.grain = grain;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.end - this.start <= this.grain) {
+                this.action.run(this.start, this.end);
+            } else {
+                int middle = (this.start + this.end) >>> 1;
+                invokeAll(new RangeTask(this.action, this.start, middle, this.grain),
+                        new RangeTask(this.action, middle, this.end, this.grain));
+            }
+        }
+    }
+
+    /**
+     * Correspond au nombre de cellules par côté de la grille.
+     */
+    private int gridSize;
+
+    /**
+     * Correspond au schéma de répartition de la masse.
+     */
+    private MassAssignment assignment = MassAssignment.CIC;
+
+    /**
+     * Correspond à l'échelle de séparation des forces, en cellules (0 : toute
+     * l'attraction est calculée sur la grille).
+     */
+    private double splitScale = 0;
+
+    /**
+     * Correspond à la transformée de Fourier des lignes de la grille complétée.
+     */
+    private FastFourierTransform transform;
+
+    /**
+     * Correspond à la transformée de la fonction de Green sur la grille
+     * complétée, pour des cellules de taille 1 (elle est réelle : la fonction
+     * est paire). <em>null</em> tant qu'elle n'est pas calculée.
+     */
+    private double[] green;
+
+    /**
+     * Correspond aux parties réelles de la grille complétée (masses, puis
+     * potentiel).
+     */
+    private double[] real;
+
+    /**
+     * Correspond aux parties imaginaires de la grille complétée.
+     */
+    private double[] imaginary;
+
+    /**
+     * Correspond aux accélérations sur la grille sur l'axe des X.
+     */
+    private double[] fieldX;
+
+    /**
+     * Correspond aux accélérations sur la grille sur l'axe des Y.
+     */
+    private double[] fieldY;
+
+    /**
+     * Correspond aux accélérations sur la grille sur l'axe des Z.
+     */
+    private double[] fieldZ;
+
+    /**
+     * Correspond au centre de la première cellule sur l'axe des X.
+     */
+    private double originX;
+
+    /**
+     * Correspond au centre de la première cellule sur l'axe des Y.
+     */
+    private double originY;
+
+    /**
+     * Correspond au centre de la première cellule sur l'axe des Z.
+     */
+    private double originZ;
+
+    /**
+     * Correspond à la taille d'une cellule lors du dernier calcul.
+     */
+    private double spacing = 0;
+
+    /**
+     * Constructeur de la méthode avec la taille de grille par défaut.
+     */
+    public ParticleMesh() {
+        this(DEFAULT_GRID_SIZE);
+    }
+
+    /**
+     * Constructeur de la méthode. Les tableaux de la grille ne sont alloués
+     * qu'au premier calcul.
+     * 
+     * @param gridSize Nombre de cellules par côté de la grille
+     * @throws IllegalArgumentException Levé lorsque le nombre n'est pas une
+     *                                  puissance de 2 comprise entre
+     *                                  <em>MIN_GRID_SIZE</em> et
+     *                                  <em>MAX_GRID_SIZE</em>
+     */
+    public ParticleMesh(int gridSize) throws IllegalArgumentException {
+        this.setGridSize(gridSize);
+    }
+
+    @Override
+    public String toString() {
+        return "ParticleMesh(" + this.gridSize + " cellules par côté, " + this.assignment + ")";
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * Permet de récupérer le nombre de cellules par côté de la grille.
+     * 
+     * @return Nombre de cellules par côté
+     */
+    public int getGridSize() {
+        return this.gridSize;
+    }
+
+    /**
+     * Permet de remplacer le nombre de cellules par côté de la grille : la
+     * résolution augmente avec lui, le coût et la mémoire comme son cube.
+     * 
+     * @param newGridSize Nouveau nombre de cellules par côté
+     * @throws IllegalArgumentException Levé lorsque le nombre n'est pas une
+     *                                  puissance de 2 comprise entre
+     *                                  <em>MIN_GRID_SIZE</em> et
+     *                                  <em>MAX_GRID_SIZE</em>
+     */
+    public void setGridSize(int newGridSize) throws IllegalArgumentException {
+        if (newGridSize < MIN_GRID_SIZE || newGridSize > MAX_GRID_SIZE || Integer.bitCount(newGridSize) != 1) {
+            throw new IllegalArgumentException("La taille de la grille doit être une puissance de 2 comprise entre "
+                    + MIN_GRID_SIZE + " et " + MAX_GRID_SIZE + " !");
+        }
+        if (newGridSize != this.gridSize) {
+            this.gridSize = newGridSize;
+            this.transform = new FastFourierTransform(2 * newGridSize);
+            this.green = null;
+            this.real = null;
+        }
+    }
+
+    /**
+     * Permet de récupérer le schéma de répartition de la masse.
+     * 
+     * @return Schéma de répartition
+     */
+    public MassAssignment getMassAssignment() {
+        return this.assignment;
+    }
+
+    /**
+     * Permet de choisir le schéma de répartition de la masse (et
+     * d'interpolation des accélérations).
+     * 
+     * @param newAssignment Nouveau schéma de répartition
+     */
+    public void setMassAssignment(MassAssignment newAssignment) {
+        if (newAssignment != this.assignment) {
+            this.assignment = newAssignment;
+            this.green = null; // La compensation du lissage dépend du schéma
+        }
+    }
+
+    /**
+     * Permet de récupérer l'échelle de séparation des forces.
+     * 
+     * @return Échelle de séparation, en cellules (0 si toute l'attraction est
+     *         calculée sur la grille)
+     */
+    public double getSplitScale() {
+        return this.splitScale;
+    }
+
+    /**
+     * Permet de remplacer l'échelle de séparation des forces : avec une échelle
+     * r<sub>s</sub> non nulle, seule la partie à longue portée de l'attraction,
+     * G m (erf(u) - 2u e<sup>-u<sup>2</sup></sup> / racine(pi)) / r<sup>2</sup>
+     * avec u = r / 2r<sub>s</sub>, est calculée.
+     * 
+     * @param newScale Nouvelle échelle de séparation, en cellules (0 pour toute
+     *                 l'attraction)
+     * @throws IllegalArgumentException Levé lorsque l'échelle est négative
+     */
+    public void setSplitScale(double newScale) throws IllegalArgumentException {
+        if (!(newScale >= 0)) {
+            throw new IllegalArgumentException("L'échelle de séparation ne peut pas être négative !");
+        }
+        if (newScale != this.splitScale) {
+            this.splitScale = newScale;
+            this.green = null;
+        }
+    }
+
+    /**
+     * Permet de récupérer la taille d'une cellule lors du dernier calcul
+     * (résolution des forces).
+     * 
+     * @return Taille d'une cellule (0 avant le premier calcul)
+     */
+    public double getSpacing() {
+        return this.spacing;
+    }
+
+    /**
+     * Permet de remplacer l'accélération de tous les corps d'un stockage par les
+     * attractions calculées sur la grille.
+     * 
+     * @param store Stockage contenant les corps
+     */
+    @Override
+    public void computeAccelerations(ParticleStore store) {
+        this.computeAccelerations(store, null);
+    }
+
+    /**
+     * Permet de remplacer l'accélération de tous les corps d'un stockage par les
+     * attractions calculées sur la grille, en répartissant les transformées et
+     * l'interpolation sur un groupe de threads.
+     * 
+     * @param store Stockage contenant les corps
+     * @param pool  Groupe de threads (<em>null</em> pour un calcul séquentiel)
+     */
+    @Override
+    public void computeAccelerations(ParticleStore store, ForkJoinPool pool) {
+        int count = store.size();
+        if (count == 0) {
+            return;
+        }
+        int n = this.gridSize;
+        int size = 2 * n;
+        if (this.real == null) {
+            this.real = new double[size * size * size];
+            this.imaginary = new double[size * size * size];
+            this.fieldX = new double[n * n * n];
+            this.fieldY = new double[n * n * n];
+            this.fieldZ = new double[n * n * n];
+        }
+        if (this.green == null) {
+            this.computeGreen(pool);
+        }
+        this.fitGrid(store);
+        double[] real = this.real;
+        double[] imaginary = this.imaginary;
+        Arrays.fill(real, 0);
+        Arrays.fill(imaginary, 0);
+        this.assign(store);
+
+        // Convolution par la fonction de Green : seules les lignes qui ne sont pas
+        // entièrement nulles sont transformées à l'aller, et seules celles qui
+        // servent au potentiel au retour
+        this.transformAxis(2, true, false, pool);
+        this.transformAxis(1, true, false, pool);
+        this.transformAxis(0, false, false, pool);
+        double[] green = this.green;
+        forRange(pool, size * size, LINE_GRAIN, (start, end) -> {
+            for (int i = start * size, last = end * size; i < last; i++) {
+                real[i] *= green[i];
+                imaginary[i] *= green[i];
+            }
+        });
+        this.transformAxis(0, false, true, pool);
+        this.transformAxis(1, true, true, pool);
+        this.transformAxis(2, true, true, pool);
+
+        forRange(pool, n, 1, this::computeField);
+        forRange(pool, count, BODY_GRAIN, (start, end) -> this.interpolate(store, start, end));
+    }
+
+    /**
+     * Permet d'exécuter un calcul sur une plage d'indices, découpée en tâches
+     * lorsqu'un groupe de threads est donné.
+     * 
+     * @param pool   Groupe de threads (<em>null</em> pour un calcul séquentiel)
+     * @param count  Nombre d'indices
+     * @param grain  Nombre d'indices en dessous duquel une tâche n'est plus
+     *               découpée
+     * @param action Calcul fait sur chaque plage
+     */
+    private static void forRange(ForkJoinPool pool, int count, int grain, RangeAction action) {
+        if (pool == null || count <= grain) {
+            action.run(0, count);
+        } else {
+            pool.invoke(new RangeTask(action, 0, count, grain));
+        }
+    }
+
+    /**
+     * Permet de calculer la transformée de la fonction de Green 1/r (ou erf(r /
+     * 2r<sub>s</sub>) / r) sur la grille complétée, pour des cellules de taille
+     * 1 : la distance d'une cellule à l'origine est prise dans le sens le plus
+     * court (convolution circulaire).
+     * 
+     * @param pool Groupe de threads (<em>null</em> pour un calcul séquentiel)
+     */
+    private void computeGreen(ForkJoinPool pool) {
+        int size = 2 * this.gridSize;
+        double split = this.splitScale;
+        double[] real = this.real;
+        Arrays.fill(this.imaginary, 0);
+        for (int i = 0; i < size; i++) {
+            int di = Math.min(i, size - i);
+            for (int j = 0; j < size; j++) {
+                int dj = Math.min(j, size - j);
+                for (int k = 0; k < size; k++) {
+                    int dk = Math.min(k, size - k);
+                    int d2 = di * di + dj * dj + dk * dk;
+                    double value;
+                    if (split == 0) {
+                        value = d2 == 0 ? SELF_POTENTIAL : 1 / Math.sqrt(d2);
+                    } else {
+                        double d = Math.sqrt(d2);
+                        // Limite de erf(r / 2rs) / r en 0 : 1 / (rs racine(pi))
+                        value = d2 == 0 ? 1 / (split * Math.sqrt(Math.PI)) : ErrorFunction.erf(d / (2 * split)) / d;
+                    }
+                    real[(i * size + j) * size + k] = value;
+                }
+            }
+        }
+        this.transformAxis(2, false, false, pool);
+        this.transformAxis(1, false, false, pool);
+        this.transformAxis(0, false, false, pool);
+        if (split > 0) {
+            // Compensation du lissage de la répartition et de l'interpolation : division
+            // par le carré de la transformée du schéma, produit de sinus cardinaux
+            int power = this.assignment == MassAssignment.TSC ? 6 : 4;
+            double[] window = new double[size];
+            for (int i = 0; i < size; i++) {
+                double x = Math.PI * Math.min(i, size - i) / size;
+                window[i] = i == 0 ? 1 : Math.pow(Math.sin(x) / x, power);
+            }
+            for (int i = 0; i < size; i++) {
+                for (int j = 0; j < size; j++) {
+                    double w = window[i] * window[j];
+                    for (int k = 0, p = (i * size + j) * size; k < size; k++, p++) {
+                        real[p] /= w * window[k];
+                    }
+                }
+            }
+        }
+        this.green = real.clone();
+    }
+
+    /**
+     * Permet d'ajuster la grille aux corps : le plus grand côté de leur boîte
+     * englobante occupe la grille, moins <em>MARGIN</em> cellules de chaque
+     * côté.
+     * 
+     * @param store Stockage contenant les corps
+     */
+    private void fitGrid(ParticleStore store) {
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double minZ = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        double maxZ = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < store.size(); i++) {
+            double x = store.getXPosition(i);
+            double y = store.getYPosition(i);
+            double z = store.getZPosition(i);
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            minZ = Math.min(minZ, z);
+            maxX = Math.max(maxX, x);
+            maxY = Math.max(maxY, y);
+            maxZ = Math.max(maxZ, z);
+        }
+        double extent = Math.max(maxX - minX, Math.max(maxY - minY, maxZ - minZ));
+        if (extent == 0) {
+            extent = 1; // Un seul corps (ou des corps confondus)
+        }
+        int n = this.gridSize;
+        this.spacing = extent / (n - 1 - 2 * MARGIN);
+        this.originX = (minX + maxX) / 2 - (n - 1) * this.spacing / 2;
+        this.originY = (minY + maxY) / 2 - (n - 1) * this.spacing / 2;
+        this.originZ = (minZ + maxZ) / 2 - (n - 1) * this.spacing / 2;
+    }
+
+    /**
+     * Permet de calculer les poids d'un corps sur un axe pour le schéma de
+     * répartition courant.
+     * 
+     * @param u       Position du corps en cellules (les centres des cellules sont
+     *                aux positions entières)
+     * @param weights Poids des cellules voisines (2 pour CIC, 3 pour TSC)
+     * @return Indice de la première cellule voisine
+     */
+    private int weights(double u, double[] weights) {
+        if (this.assignment == MassAssignment.TSC) {
+            int nearest = (int) Math.floor(u + 0.5);
+            double d = u - nearest;
+            weights[0] = 0.5 * (0.5 - d) * (0.5 - d);
+            weights[1] = 0.75 - d * d;
+            weights[2] = 0.5 * (0.5 + d) * (0.5 + d);
+            return nearest - 1;
+        }
+        int first = (int) Math.floor(u);
+        double f = u - first;
+        weights[0] = 1 - f;
+        weights[1] = f;
+        weights[2] = 0;
+        return first;
+    }
+
+    /**
+     * Permet de répartir la masse des corps sur la grille complétée.
+     * 
+     * @param store Stockage contenant les corps
+     */
+    private void assign(ParticleStore store) {
+        int size = 2 * this.gridSize;
+        int width = this.assignment == MassAssignment.TSC ? 3 : 2;
+        double inverse = 1 / this.spacing;
+        double[] wx = new double[3];
+        double[] wy = new double[3];
+        double[] wz = new double[3];
+        double[] real = this.real;
+        for (int b = 0; b < store.size(); b++) {
+            int i = this.weights((store.getXPosition(b) - this.originX) * inverse, wx);
+            int j = this.weights((store.getYPosition(b) - this.originY) * inverse, wy);
+            int k = this.weights((store.getZPosition(b) - this.originZ) * inverse, wz);
+            double m = store.getMass(b);
+            for (int a = 0; a < width; a++) {
+                for (int c = 0; c < width; c++) {
+                    double w = m * wx[a] * wy[c];
+                    int row = ((i + a) * size + j + c) * size + k;
+                    for (int e = 0; e < width; e++) {
+                        real[row + e] += w * wz[e];
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Permet de transformer toutes les lignes de la grille complétée parallèles à
+     * un axe.
+     * 
+     * @param axis    Axe des lignes (0 : X, 1 : Y, 2 : Z, les cases sont rangées
+     *                selon X puis Y puis Z)
+     * @param pruned  true pour ne transformer que les lignes dont les autres
+     *                indices (sauf celui de Z pour les lignes selon Y) sont dans
+     *                la grille d'origine
+     * @param inverse true pour la transformée inverse
+     * @param pool    Groupe de threads (<em>null</em> pour un calcul séquentiel)
+     */
+    private void transformAxis(int axis, boolean pruned, boolean inverse, ForkJoinPool pool) {
+        int size = 2 * this.gridSize;
+        int n = pruned ? this.gridSize : size;
+        int stride = axis == 2 ? 1 : axis == 1 ? size : size * size;
+        // Lignes selon Z : (i, j) ; selon Y : (i, k) ; selon X : (j, k)
+        int lines = axis == 0 ? size * size : axis == 1 ? n * size : n * n;
+        double[] real = this.real;
+        double[] imaginary = this.imaginary;
+        FastFourierTransform transform = this.transform;
+        // Les lignes espacées sont copiées par blocs de lignes voisines, qui
+        // partagent les mêmes lignes de cache
+        int block = axis == 2 ? 1 : LINE_BLOCK;
+        forRange(pool, lines, LINE_GRAIN, (start, end) -> {
+            double[][] re = new double[block][size];
+            double[][] im = new double[block][size];
+            int[] bases = new int[block];
+            for (int line = start; line < end; line += block) {
+                int count = Math.min(block, end - line);
+                for (int b = 0; b < count; b++) {
+                    int l = line + b;
+                    if (axis == 2) {
+                        bases[b] = ((l / n) * size + l % n) * size;
+                    } else if (axis == 1) {
+                        bases[b] = (l / size) * size * size + l % size;
+                    } else {
+                        bases[b] = l;
+                    }
+                }
+                for (int t = 0, offset = 0; t < size; t++, offset += stride) {
+                    for (int b = 0; b < count; b++) {
+                        re[b][t] = real[bases[b] + offset];
+                        im[b][t] = imaginary[bases[b] + offset];
+                    }
+                }
+                for (int b = 0; b < count; b++) {
+                    transform.transform(re[b], im[b], inverse);
+                }
+                for (int t = 0, offset = 0; t < size; t++, offset += stride) {
+                    for (int b = 0; b < count; b++) {
+                        real[bases[b] + offset] = re[b][t];
+                        imaginary[bases[b] + offset] = im[b][t];
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Permet de calculer les accélérations sur une plage de plans de la grille
+     * d'origine : -G fois le gradient de la convolution, par différences finies
+     * centrées d'ordre 4 (les cellules du bord, à moins de 2 cellules de la
+     * limite, ne sont jamais utilisées).
+     * 
+     * @param start Premier plan (indice selon X)
+     * @param end   Plan qui suit le dernier plan
+     */
+    private void computeField(int start, int end) {
+        int n = this.gridSize;
+        int size = 2 * n;
+        double[] c = this.real;
+        double scale = Constants.G / (12 * this.spacing * this.spacing);
+        int dx = size * size;
+        int dy = size;
+        for (int i = Math.max(start, 2); i < Math.min(end, n - 2); i++) {
+            for (int j = 2; j < n - 2; j++) {
+                for (int k = 2; k < n - 2; k++) {
+                    int p = (i * size + j) * size + k;
+                    int f = (i * n + j) * n + k;
+                    this.fieldX[f] = scale * (8 * (c[p + dx] - c[p - dx]) - (c[p + 2 * dx] - c[p - 2 * dx]));
+                    this.fieldY[f] = scale * (8 * (c[p + dy] - c[p - dy]) - (c[p + 2 * dy] - c[p - 2 * dy]));
+                    this.fieldZ[f] = scale * (8 * (c[p + 1] - c[p - 1]) - (c[p + 2] - c[p - 2]));
+                }
+            }
+        }
+    }
+
+    /**
+     * Permet d'interpoler les accélérations de la grille vers une plage de corps,
+     * avec les poids de la répartition de leur masse.
+     * 
+     * @param store Stockage contenant les corps
+     * @param start Première case de la plage
+     * @param end   Case qui suit la dernière case de la plage
+     */
+    private void interpolate(ParticleStore store, int start, int end) {
+        int n = this.gridSize;
+        int width = this.assignment == MassAssignment.TSC ? 3 : 2;
+        double inverse = 1 / this.spacing;
+        double[] wx = new double[3];
+        double[] wy = new double[3];
+        double[] wz = new double[3];
+        for (int b = start; b < end; b++) {
+            int i = this.weights((store.getXPosition(b) - this.originX) * inverse, wx);
+            int j = this.weights((store.getYPosition(b) - this.originY) * inverse, wy);
+            int k = this.weights((store.getZPosition(b) - this.originZ) * inverse, wz);
+            double aX = 0;
+            double aY = 0;
+            double aZ = 0;
+            for (int a = 0; a < width; a++) {
+                for (int c = 0; c < width; c++) {
+                    double w = wx[a] * wy[c];
+                    int row = ((i + a) * n + j + c) * n + k;
+                    for (int e = 0; e < width; e++) {
+                        double weight = w * wz[e];
+                        aX += weight * this.fieldX[row + e];
+                        aY += weight * this.fieldY[row + e];
+                        aZ += weight * this.fieldZ[row + e];
+                    }
+                }
+            }
+            store.setAcceleration(b, aX, aY, aZ);
+        }
+    }
+}
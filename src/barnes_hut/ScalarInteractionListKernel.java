@@ -0,0 +1,60 @@
+package barnes_hut;
+
+/**
+ * Noyau scalaire d'évaluation des listes d'interactions : une boucle simple sur
+ * les tableaux de la liste (utilisé lorsque l'API vectorielle est
+ * indisponible).
+ */
+public class ScalarInteractionListKernel implements InteractionListKernel {
+    @Override
+    public String getName() {
+        return "Scalaire";
+    }
+
+    @Override
+    public void accumulate(double[] xs, double[] ys, double[] zs, double[] masses, int count, double x, double y,
+            double z, double[] sum) {
+        double sx = 0;
+        double sy = 0;
+        double sz = 0;
+        for (int i = 0; i < count; i++) {
+            double dx = xs[i] - x;
+            double dy = ys[i] - y;
+            double dz = zs[i] - z;
+            double d2 = dx * dx + dy * dy + dz * dz;
+            if (d2 > 0) {
+                double f = masses[i] / (d2 * Math.sqrt(d2));
+                sx += dx * f;
+                sy += dy * f;
+                sz += dz * f;
+            }
+        }
+        sum[0] += sx;
+        sum[1] += sy;
+        sum[2] += sz;
+    }
+
+    @Override
+    public void accumulateShortRange(double[] xs, double[] ys, double[] zs, double[] masses, int count, double x,
+            double y, double z, double splitScale, double[] sum) {
+        double sx = 0;
+        double sy = 0;
+        double sz = 0;
+        for (int i = 0; i < count; i++) {
+            double dx = xs[i] - x;
+            double dy = ys[i] - y;
+            double dz = zs[i] - z;
+            double d2 = dx * dx + dy * dy + dz * dz;
+            if (d2 > 0) {
+                double d = Math.sqrt(d2);
+                double f = masses[i] / (d2 * d) * ShortRangeForce.factor(d, splitScale);
+                sx += dx * f;
+                sy += dy * f;
+                sz += dz * f;
+            }
+        }
+        sum[0] += sx;
+        sum[1] += sy;
+        sum[2] += sz;
+    }
+}
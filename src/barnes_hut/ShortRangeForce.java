@@ -0,0 +1,39 @@
+package barnes_hut;
+
+import math_physics.math.*;
+
+/**
+ * Fraction à courte portée de l'attraction de deux masses dans la méthode
+ * hybride arbre-maillage : erfc(u) + 2u e<sup>-u<sup>2</sup></sup> /
+ * racine(pi), avec u = r / 2r<sub>s</sub>. Elle vaut 1 en 0 et décroît comme
+ * une gaussienne ; le complément est la partie à longue portée calculée sur une
+ * grille. La fonction complémentaire est celle de <code>ErrorFunction</code>,
+ * dont le facteur devant e<sup>-u<sup>2</sup></sup> s'ajoute au terme gaussien :
+ * la fraction ne demande alors qu'une exponentielle, ce qui compte dans les
+ * noyaux de listes.
+ */
+public final class ShortRangeForce {
+    /**
+     * Correspond à 2 / racine(pi), coefficient du terme gaussien.
+     */
+    static final double GAUSSIAN = 2 / Math.sqrt(Math.PI);
+
+    /**
+     * Constructeur privé : la classe ne contient que des méthodes statiques.
+     */
+    private ShortRangeForce() {
+    }
+
+    /**
+     * Permet de calculer la fraction à courte portée de l'attraction de deux
+     * masses.
+     * 
+     * @param distance   Distance entre les deux masses
+     * @param splitScale Échelle de séparation des forces (strictement positive)
+     * @return Fraction à courte portée de l'attraction
+     */
+    public static double factor(double distance, double splitScale) {
+        double u = distance / (2 * splitScale);
+        return Math.exp(-u * u) * (ErrorFunction.scaledErfc(u) + GAUSSIAN * u);
+    }
+}
@@ -0,0 +1,314 @@
+package barnes_hut;
+
+import java.util.concurrent.*;
+
+import math_physics.physics.*;
+
+/**
+ * Méthode hybride arbre-maillage (<em>TreePM</em>) : l'attraction est séparée
+ * en deux parties par un noyau gaussien d'échelle r<sub>s</sub>. La partie à
+ * longue portée, lisse, est calculée sur la grille de
+ * <code>ParticleMesh</code> (transformée de Fourier, coût indépendant de la
+ * répartition des corps) ; la partie à courte portée, fraction erfc(u) + 2u
+ * e<sup>-u<sup>2</sup></sup> / racine(pi) de l'attraction avec u = r /
+ * 2r<sub>s</sub>, est calculée par l'arbre de <code>LinearOctree</code>, dont le
+ * parcours s'arrête à <em>LinearOctree.SHORT_RANGE_CUTOFF</em> échelles. La
+ * résolution n'est donc plus limitée à la taille d'une cellule, et chaque
+ * parcours de l'arbre reste local.
+ * <p>
+ * L'échelle de séparation est donnée en cellules de la grille : la grille
+ * étant ajustée aux corps à chaque calcul, l'échelle de l'arbre est recalculée
+ * à partir de la taille des cellules. Le système n'est pas périodique (grille
+ * complétée par des zéros).
+ */
+public class TreeParticleMesh implements ForceSolver {
+    /**
+     * Nom de la méthode.
+     */
+    public static final String NAME = "Arbre-maillage (TreePM)";
+
+    /**
+     * Échelle de séparation par défaut, en cellules de la grille.
+     */
+    public static final double DEFAULT_SPLIT_SCALE = 1.25;
+
+    /**
+     * Théta par défaut du parcours de l'arbre.
+     */
+    public static final double DEFAULT_THETA = 0.5;
+
+    /**
+     * Correspond à la grille calculant la partie à longue portée.
+     */
+    private final ParticleMesh mesh;
+
+    /**
+     * Correspond à l'arbre calculant la partie à courte portée.
+     */
+    private final LinearOctree tree = new LinearOctree(DEFAULT_THETA);
+
+    /**
+     * Correspond à l'échelle de séparation, en cellules de la grille.
+     */
+    private double splitScale = DEFAULT_SPLIT_SCALE;
+
+    /**
+     * Correspond aux accélérations à longue portée sur l'axe des X.
+     */
+    private double[] longRangeX = new double[0];
+
+    /**
+     * Correspond aux accélérations à longue portée sur l'axe des Y.
+     */
+    private double[] longRangeY = new double[0];
+
+    /**
+     * Correspond aux accélérations à longue portée sur l'axe des Z.
+     */
+    private double[] longRangeZ = new double[0];
+
+    /**
+     * Constructeur de la méthode avec la taille de grille par défaut.
+     */
+    public TreeParticleMesh() {
+        this(ParticleMesh.DEFAULT_GRID_SIZE);
+    }
+
+    /**
+     * Constructeur de la méthode.
+     * 
+     * @param gridSize Nombre de cellules par côté de la grille
+     * @throws IllegalArgumentException Levé lorsque le nombre n'est pas une
+     *                                  puissance de 2 comprise entre
+     *                                  <em>ParticleMesh.MIN_GRID_SIZE</em> et
+     *                                  <em>ParticleMesh.MAX_GRID_SIZE</em>
+     */
+    public TreeParticleMesh(int gridSize) throws IllegalArgumentException {
+        this.mesh = new ParticleMesh(gridSize);
+        this.mesh.setSplitScale(this.splitScale);
+        this.tree.setUseGroups(true);
+        // La grille contient tous les corps : aucun n'est hors de l'arbre
+        this.tree.setEscapeFactor(Double.POSITIVE_INFINITY);
+    }
+
+    @Override
+    public String toString() {
+        return "TreeParticleMesh(" + this.mesh.getGridSize() + " cellules par côté, échelle " + this.splitScale
+                + ", Théta " + this.tree.getTheta() + ")";
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * Permet de récupérer le nombre de cellules par côté de la grille.
+     * 
+     * @return Nombre de cellules par côté
+     */
+    public int getGridSize() {
+        return this.mesh.getGridSize();
+    }
+
+    /**
+     * Permet de remplacer le nombre de cellules par côté de la grille : une
+     * grille plus fine réduit l'échelle de séparation, donc la portée des
+     * parcours de l'arbre.
+     * 
+     * @param newGridSize Nouveau nombre de cellules par côté
+     * @throws IllegalArgumentException Levé lorsque le nombre n'est pas une
+     *                                  puissance de 2 comprise entre
+     *                                  <em>ParticleMesh.MIN_GRID_SIZE</em> et
+     *                                  <em>ParticleMesh.MAX_GRID_SIZE</em>
+     */
+    public void setGridSize(int newGridSize) throws IllegalArgumentException {
+        this.mesh.setGridSize(newGridSize);
+    }
+
+    /**
+     * Permet de récupérer l'échelle de séparation des forces.
+     * 
+     * @return Échelle de séparation, en cellules de la grille
+     */
+    public double getSplitScale() {
+        return this.splitScale;
+    }
+
+    /**
+     * Permet de remplacer l'échelle de séparation des forces : une échelle plus
+     * grande rend la partie à longue portée plus lisse (moins d'erreur de
+     * grille), mais allonge les parcours de l'arbre.
+     * 
+     * @param newScale Nouvelle échelle de séparation, en cellules de la grille
+     * @throws IllegalArgumentException Levé lorsque l'échelle n'est pas
+     *                                  strictement positive
+     */
+    public void setSplitScale(double newScale) throws IllegalArgumentException {
+        if (!(newScale > 0)) {
+            throw new IllegalArgumentException("L'échelle de séparation doit être strictement positive !");
+        }
+        this.splitScale = newScale;
+        this.mesh.setSplitScale(newScale);
+    }
+
+    /**
+     * Permet de récupérer le schéma de répartition de la masse sur la grille.
+     * 
+     * @return Schéma de répartition
+     */
+    public MassAssignment getMassAssignment() {
+        return this.mesh.getMassAssignment();
+    }
+
+    /**
+     * Permet de choisir le schéma de répartition de la masse sur la grille.
+     * 
+     * @param newAssignment Nouveau schéma de répartition
+     */
+    public void setMassAssignment(MassAssignment newAssignment) {
+        this.mesh.setMassAssignment(newAssignment);
+    }
+
+    /**
+     * Permet de récupérer le Théta du parcours de l'arbre.
+     * 
+     * @return Théta
+     */
+    public double getTheta() {
+        return this.tree.getTheta();
+    }
+
+    /**
+     * Permet de remplacer le Théta du parcours de l'arbre.
+     * 
+     * @param newTheta Nouveau Théta
+     */
+    public void setTheta(double newTheta) {
+        this.tree.setTheta(newTheta);
+    }
+
+    /**
+     * Permet de savoir si la partie à courte portée est calculée par groupes.
+     * 
+     * @return Booléen : true si l'arbre est parcouru une fois par groupe de corps
+     */
+    public boolean getUseGroups() {
+        return this.tree.getUseGroups();
+    }
+
+    /**
+     * Permet de choisir si la partie à courte portée est calculée par groupes
+     * (voir <code>LinearOctree.setUseGroups</code>).
+     * 
+     * @param newValue true pour calculer les forces par groupes
+     */
+    public void setUseGroups(boolean newValue) {
+        this.tree.setUseGroups(newValue);
+    }
+
+    /**
+     * Permet de récupérer la distance au-delà de laquelle la partie à courte
+     * portée est négligée lors du dernier calcul.
+     * 
+     * @return Distance de coupure (0 avant le premier calcul)
+     */
+    public double getCutoff() {
+        return LinearOctree.SHORT_RANGE_CUTOFF * this.tree.getSplitScale();
+    }
+
+    /**
+     * Permet de trier les corps d'un stockage selon leur code de Morton, avant
+     * <code>computeAccelerations</code>.
+     * 
+     * @param store Stockage contenant les corps
+     * @param pool  Groupe de threads (<em>null</em> pour un tri séquentiel)
+     * @return Cases des corps dans l'ordre des codes (voir
+     *         <code>LinearOctree.sortByMortonCode</code>)
+     */
+    public int[] sortByMortonCode(ParticleStore store, ForkJoinPool pool) {
+        return pool == null ? this.tree.sortByMortonCode(store) : this.tree.sortByMortonCode(store, pool);
+    }
+
+    @Override
+    public int[] sortBodies(ParticleStore store, ForkJoinPool pool) {
+        return this.sortByMortonCode(store, pool);
+    }
+
+    /**
+     * Permet de remplacer l'accélération de tous les corps d'un stockage par les
+     * attractions calculées par la méthode hybride, sans tri préalable : le
+     * stockage n'est pas réordonné.
+     * 
+     * @param store Stockage contenant les corps
+     * @param pool  Groupe de threads (<em>null</em> pour un calcul séquentiel)
+     */
+    @Override
+    public void computeAccelerations(ParticleStore store, ForkJoinPool pool) {
+        this.computeAccelerations(store, false, pool);
+    }
+
+    /**
+     * Permet de remplacer l'accélération de tous les corps d'un stockage par les
+     * attractions calculées par la méthode hybride. Si le stockage n'a pas été
+     * réordonné selon l'ordre renvoyé par <code>sortBodies</code>, les corps
+     * sont triés sans le réordonner.
+     * 
+     * @param store     Stockage contenant les corps
+     * @param reordered true si le stockage vient d'être réordonné selon l'ordre
+     *                  renvoyé par <code>sortBodies</code>
+     * @param pool      Groupe de threads (<em>null</em> pour un calcul
+     *                  séquentiel)
+     */
+    @Override
+    public void computeAccelerations(ParticleStore store, boolean reordered, ForkJoinPool pool) {
+        if (!reordered) {
+            this.sortByMortonCode(store, pool);
+        }
+        this.computeAccelerations(reordered, pool);
+    }
+
+    /**
+     * Permet de remplacer l'accélération de tous les corps par les attractions
+     * calculées par la méthode hybride, à partir des codes triés par
+     * <code>sortByMortonCode</code> : la grille est calculée d'abord (elle fixe
+     * la taille des cellules, donc l'échelle de l'arbre), puis l'arbre, et les
+     * deux parties sont additionnées.
+     * 
+     * @param storeReordered true si le stockage a été réordonné selon le tableau
+     *                       renvoyé par le tri, false s'il est resté tel quel
+     * @param pool           Groupe de threads (<em>null</em> pour un calcul
+     *                       séquentiel)
+     */
+    public void computeAccelerations(boolean storeReordered, ForkJoinPool pool) {
+        LinearOctree tree = this.tree;
+        ParticleStore store = tree.store;
+        int bodies = store.size();
+        if (bodies == 0) {
+            return;
+        }
+        this.mesh.computeAccelerations(store, pool);
+        if (this.longRangeX.length < bodies) {
+            this.longRangeX = new double[bodies];
+            this.longRangeY = new double[bodies];
+            this.longRangeZ = new double[bodies];
+        }
+        for (int i = 0; i < bodies; i++) {
+            this.longRangeX[i] = store.getXAcceleration(i);
+            this.longRangeY[i] = store.getYAcceleration(i);
+            this.longRangeZ[i] = store.getZAcceleration(i);
+        }
+
+        tree.setSplitScale(this.splitScale * this.mesh.getSpacing());
+        if (pool == null) {
+            tree.buildSorted(storeReordered);
+            tree.computeAccelerations();
+        } else {
+            tree.buildSorted(storeReordered, pool);
+            tree.computeAccelerations(pool);
+        }
+        for (int i = 0; i < bodies; i++) {
+            store.addAcceleration(i, this.longRangeX[i], this.longRangeY[i], this.longRangeZ[i]);
+        }
+    }
+}
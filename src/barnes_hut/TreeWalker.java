@@ -0,0 +1,201 @@
+package barnes_hut;
+
+import java.util.*;
+
+import math_physics.physics.*;
+
+/**
+ * Parcours d'un <code>LinearOctree</code> calculant l'attraction exercée sur un
+ * corps. Chaque thread utilise son propre parcours : la pile et les sommes ne
+ * sont jamais partagées.
+ */
+final class TreeWalker {
+    /**
+     * Correspond à l'arbre parcouru.
+     */
+    private final LinearOctree tree;
+
+    /**
+     * Correspond à la pile des noeuds restant à parcourir.
+     */
+    private int[] stack = new int[64];
+
+    /**
+     * Correspond à la correction quadripolaire d'un noeud accepté (x, y, z).
+     */
+    private final double[] correction = new double[3];
+
+    /**
+     * Correspond à la somme des accélérations sur l'axe des X.
+     */
+    double sumX;
+
+    /**
+     * Correspond à la somme des accélérations sur l'axe des Y.
+     */
+    double sumY;
+
+    /**
+     * Correspond à la somme des accélérations sur l'axe des Z.
+     */
+    double sumZ;
+
+    /**
+     * Constructeur du parcours.
+     * 
+     * @param tree Arbre parcouru
+     */
+    TreeWalker(LinearOctree tree) {
+        this.tree = tree;
+    }
+
+    /**
+     * Permet de calculer l'attraction exercée par les noeuds de l'arbre sur un
+     * corps du stockage (le résultat est dans les sommes du parcours).
+     * 
+     * @param bodySlot Case du corps
+     */
+    void walk(int bodySlot) {
+        LinearOctree tree = this.tree;
+        ParticleStore store = tree.store;
+        double x = store.getXPosition(bodySlot);
+        double y = store.getYPosition(bodySlot);
+        double z = store.getZPosition(bodySlot);
+        // Les sommes restent locales pendant le parcours (boucle chaude)
+        double sumX = 0;
+        double sumY = 0;
+        double sumZ = 0;
+        double split = tree.splitScale;
+        boolean quadrupole = tree.useQuadrupole && split == 0;
+        // Au-delà de cette distance, la partie à courte portée est négligée
+        double cutoff2 = tree.cutoff2();
+        // Le critère d'erreur relative compare à l'accélération du pas précédent
+        double previous = 0;
+        if (tree.criterion == OpeningCriterion.RELATIVE_ERROR) {
+            double aX = store.getXAcceleration(bodySlot);
+            double aY = store.getYAcceleration(bodySlot);
+            double aZ = store.getZAcceleration(bodySlot);
+            previous = Math.sqrt(aX * aX + aY * aY + aZ * aZ);
+        }
+        int[] stack = this.stack;
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            int nodeBody = tree.body[node];
+            if (nodeBody < 0) {
+                continue; // Noeud vide
+            }
+            if (split > 0 && tree.outOfReach(node, x, y, z, 0, 0, 0, cutoff2)) {
+                continue; // Boîte du noeud entièrement hors de portée
+            }
+            int first = tree.firstChild[node];
+            if (first >= 0 || tree.count[node] > 1) {
+                double dx = tree.comX[node] - x;
+                double dy = tree.comY[node] - y;
+                double dz = tree.comZ[node] - z;
+                double d2 = dx * dx + dy * dy + dz * dz;
+                if (!tree.mustOpen(node, d2, previous, x, y, z, 0, 0, 0)) {
+                    // Noeud assez loin : attraction de son centre de gravité
+                    double d = Math.sqrt(d2);
+                    double f = Constants.G * tree.mass[node] / (d * d * d);
+                    if (split > 0) {
+                        f *= ShortRangeForce.factor(d, split);
+                    }
+                    sumX += dx * f;
+                    sumY += dy * f;
+                    sumZ += dz * f;
+                    if (quadrupole) {
+                        double[] correction = this.correction;
+                        tree.quadrupole(node, dx, dy, dz, d2, d, correction);
+                        sumX += correction[0];
+                        sumY += correction[1];
+                        sumZ += correction[2];
+                    }
+                    continue;
+                }
+                if (first >= 0) {
+                    // Noeud trop proche : on parcourt ses fils
+                    if (top + 8 > stack.length) {
+                        stack = Arrays.copyOf(stack, 2 * stack.length);
+                        this.stack = stack;
+                    }
+                    for (int k = 7; k >= 0; k--) {
+                        stack[top++] = first + k;
+                    }
+                    continue;
+                }
+            }
+            // Feuille ouverte : sommation directe sur ses corps, sauf le corps lui-même
+            for (int other = nodeBody; other >= 0; other = tree.nextBody[other]) {
+                if (other != bodySlot) {
+                    double dx = store.getXPosition(other) - x;
+                    double dy = store.getYPosition(other) - y;
+                    double dz = store.getZPosition(other) - z;
+                    double d = Math.sqrt(dx * dx + dy * dy + dz * dz);
+                    double f = Constants.G * store.getMass(other) / (d * d * d);
+                    if (split > 0) {
+                        f *= ShortRangeForce.factor(d, split);
+                    }
+                    sumX += dx * f;
+                    sumY += dy * f;
+                    sumZ += dz * f;
+                }
+            }
+        }
+        this.sumX = sumX;
+        this.sumY = sumY;
+        this.sumZ = sumZ;
+        // Corps en dehors de la boîte de la racine (rares) : sommation directe
+        for (int i = 0; i < tree.outsideCount; i++) {
+            this.attractBody(tree.outside[i], bodySlot, x, y, z, split, cutoff2);
+        }
+    }
+
+    /**
+     * Permet d'ajouter aux sommes l'attraction d'un corps du stockage, sauf s'il
+     * s'agit du corps attiré ou s'il est hors de portée.
+     * 
+     * @param other    Case du corps qui attire
+     * @param bodySlot Case du corps attiré
+     * @param x        Position du corps attiré sur l'axe des X
+     * @param y        Position du corps attiré sur l'axe des Y
+     * @param z        Position du corps attiré sur l'axe des Z
+     * @param split    Échelle de séparation des forces (0 : attraction complète)
+     * @param cutoff2  Carré de la distance au-delà de laquelle le corps est ignoré
+     */
+    private void attractBody(int other, int bodySlot, double x, double y, double z, double split, double cutoff2) {
+        if (other == bodySlot) {
+            return;
+        }
+        ParticleStore store = this.tree.store;
+        double dx = store.getXPosition(other) - x;
+        double dy = store.getYPosition(other) - y;
+        double dz = store.getZPosition(other) - z;
+        double d2 = dx * dx + dy * dy + dz * dz;
+        if (d2 > cutoff2) {
+            return;
+        }
+        this.attract(dx, dy, dz, Math.sqrt(d2), store.getMass(other), split);
+    }
+
+    /**
+     * Permet d'ajouter aux sommes l'attraction d'une masse ponctuelle.
+     * 
+     * @param dx    Distance à la masse sur l'axe des X
+     * @param dy    Distance à la masse sur l'axe des Y
+     * @param dz    Distance à la masse sur l'axe des Z
+     * @param d     Distance à la masse
+     * @param m     Masse qui attire
+     * @param split Échelle de séparation des forces (0 : attraction complète)
+     */
+    private void attract(double dx, double dy, double dz, double d, double m, double split) {
+        double f = Constants.G * m / (d * d * d);
+        if (split > 0) {
+            f *= ShortRangeForce.factor(d, split);
+        }
+        this.sumX += dx * f;
+        this.sumY += dy * f;
+        this.sumZ += dz * f;
+    }
+}
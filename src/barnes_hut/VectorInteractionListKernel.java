@@ -0,0 +1,112 @@
+package barnes_hut;
+
+import jdk.incubator.vector.*;
+
+import math_physics.math.*;
+
+/**
+ * Noyau vectoriel d'évaluation des listes d'interactions : les sources sont
+ * traitées par paquets de la taille d'un registre SIMD à l'aide de l'API
+ * <em>jdk.incubator.vector</em>. La JVM doit être lancée avec l'option
+ * <code>--add-modules jdk.incubator.vector</code> ; sinon, utiliser
+ * <code>InteractionListKernel.fastest()</code> qui se replie sur le noyau
+ * scalaire.
+ */
+public class VectorInteractionListKernel implements InteractionListKernel {
+    /**
+     * Correspond à la taille de registre préférée par le processeur.
+     */
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public String getName() {
+        return "Vectoriel (" + SPECIES.length() + " x double)";
+    }
+
+    @Override
+    public void accumulate(double[] xs, double[] ys, double[] zs, double[] masses, int count, double x, double y,
+            double z, double[] sum) {
+        DoubleVector sumX = DoubleVector.zero(SPECIES);
+        DoubleVector sumY = DoubleVector.zero(SPECIES);
+        DoubleVector sumZ = DoubleVector.zero(SPECIES);
+        int i = 0;
+        for (int bound = SPECIES.loopBound(count); i < bound; i += SPECIES.length()) {
+            DoubleVector dx = DoubleVector.fromArray(SPECIES, xs, i).sub(x); // Distance à la source
+            DoubleVector dy = DoubleVector.fromArray(SPECIES, ys, i).sub(y);
+            DoubleVector dz = DoubleVector.fromArray(SPECIES, zs, i).sub(z);
+            DoubleVector d2 = dx.mul(dx).add(dy.mul(dy)).add(dz.mul(dz));
+            DoubleVector f = DoubleVector.fromArray(SPECIES, masses, i).div(d2.mul(d2.sqrt()));
+            // Source confondue avec le point (le corps lui-même) : ignorée
+            f = f.blend(0, d2.eq(0));
+            sumX = dx.fma(f, sumX);
+            sumY = dy.fma(f, sumY);
+            sumZ = dz.fma(f, sumZ);
+        }
+        double sx = sumX.reduceLanes(VectorOperators.ADD);
+        double sy = sumY.reduceLanes(VectorOperators.ADD);
+        double sz = sumZ.reduceLanes(VectorOperators.ADD);
+        for (; i < count; i++) { // Dernières sources (moins d'un paquet)
+            double dx = xs[i] - x;
+            double dy = ys[i] - y;
+            double dz = zs[i] - z;
+            double d2 = dx * dx + dy * dy + dz * dz;
+            if (d2 > 0) {
+                double f = masses[i] / (d2 * Math.sqrt(d2));
+                sx += dx * f;
+                sy += dy * f;
+                sz += dz * f;
+            }
+        }
+        sum[0] += sx;
+        sum[1] += sy;
+        sum[2] += sz;
+    }
+
+    @Override
+    public void accumulateShortRange(double[] xs, double[] ys, double[] zs, double[] masses, int count, double x,
+            double y, double z, double splitScale, double[] sum) {
+        double inverse = 1 / (2 * splitScale);
+        DoubleVector sumX = DoubleVector.zero(SPECIES);
+        DoubleVector sumY = DoubleVector.zero(SPECIES);
+        DoubleVector sumZ = DoubleVector.zero(SPECIES);
+        int i = 0;
+        for (int bound = SPECIES.loopBound(count); i < bound; i += SPECIES.length()) {
+            DoubleVector dx = DoubleVector.fromArray(SPECIES, xs, i).sub(x);
+            DoubleVector dy = DoubleVector.fromArray(SPECIES, ys, i).sub(y);
+            DoubleVector dz = DoubleVector.fromArray(SPECIES, zs, i).sub(z);
+            DoubleVector d2 = dx.mul(dx).add(dy.mul(dy)).add(dz.mul(dz));
+            DoubleVector d = d2.sqrt();
+            // Fraction à courte portée, calculée comme ShortRangeForce.factor
+            DoubleVector u = d.mul(inverse);
+            DoubleVector t = DoubleVector.broadcast(SPECIES, 1).div(u.fma(ErrorFunction.P, 1));
+            DoubleVector p = t.fma(ErrorFunction.A5, ErrorFunction.A4).mul(t).add(ErrorFunction.A3);
+            p = p.mul(t).add(ErrorFunction.A2).mul(t).add(ErrorFunction.A1).mul(t);
+            DoubleVector gaussian = u.mul(u).neg().lanewise(VectorOperators.EXP);
+            DoubleVector factor = gaussian.mul(u.mul(ShortRangeForce.GAUSSIAN).add(p));
+            DoubleVector f = DoubleVector.fromArray(SPECIES, masses, i).div(d2.mul(d)).mul(factor);
+            f = f.blend(0, d2.eq(0));
+            sumX = dx.fma(f, sumX);
+            sumY = dy.fma(f, sumY);
+            sumZ = dz.fma(f, sumZ);
+        }
+        double sx = sumX.reduceLanes(VectorOperators.ADD);
+        double sy = sumY.reduceLanes(VectorOperators.ADD);
+        double sz = sumZ.reduceLanes(VectorOperators.ADD);
+        for (; i < count; i++) { // Dernières sources (moins d'un paquet)
+            double dx = xs[i] - x;
+            double dy = ys[i] - y;
+            double dz = zs[i] - z;
+            double d2 = dx * dx + dy * dy + dz * dz;
+            if (d2 > 0) {
+                double d = Math.sqrt(d2);
+                double f = masses[i] / (d2 * d) * ShortRangeForce.factor(d, splitScale);
+                sx += dx * f;
+                sy += dy * f;
+                sz += dz * f;
+            }
+        }
+        sum[0] += sx;
+        sum[1] += sy;
+        sum[2] += sz;
+    }
+}
@@ -0,0 +1,62 @@
+package barnes_hut;
+
+import java.util.concurrent.*;
+
+/**
+ * Tâche calculant les accélérations d'une plage de corps cibles d'un
+ * <code>LinearOctree</code>, corps par corps.
+ */
+final class WalkTask extends RecursiveAction {
+    /**
+     * Ajout d'un numéro <em>serialVersionUID</em> pour la tâche.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Correspond à l'arbre parcouru.
+     */
+    private final LinearOctree tree;
+
+    /**
+     * Correspond aux cases des corps à parcourir (<em>null</em> si la plage
+     * désigne directement les cases).
+     */
+    private final int[] targets;
+
+    /**
+     * Correspond à la première case de la plage.
+     */
+    private final int start;
+
+    /**
+     * Correspond à la case qui suit la dernière case de la plage.
+     */
+    private final int end;
+
+    /**
+     * Constructeur de la tâche.
+     * 
+     * @param tree    Arbre parcouru
+     * @param targets Cases des corps à parcourir (<em>null</em> si la plage
+     *                désigne directement les cases)
+     * @param start   Première case de la plage
+     * @param end     Case qui suit la dernière case de la plage
+     */
+    WalkTask(LinearOctree tree, int[] targets, int start, int end) {
+        this.tree = tree;
+        this.targets = targets;
+        this.start = start;
+        this.end = end;
+    }
+
+    @Override
+    protected void compute() {
+        if (this.end - this.start > LinearOctree.WALK_GRAIN) {
+            int middle = (this.start + this.end) >>> 1;
+            invokeAll(new WalkTask(this.tree, this.targets, this.start, middle),
+                    new WalkTask(this.tree, this.targets, middle, this.end));
+        } else {
+            this.tree.computeAccelerations(this.tree.walkers.get(), this.targets, this.start, this.end);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package barnes_hut.test;
+
+import java.util.*;
+
+import math_physics.physics.*;
+
+/**
+ * Classe utilitaire des tests et des bancs d'essai des méthodes approchées
+ * (Barnes-Hut, méthode multipolaire, grille) : elle calcule les accélérations
+ * exactes par sommation directe et l'erreur relative des accélérations
+ * approchées. Les accélérations sont rangées par composante (x, y, z pour
+ * chaque corps).
+ */
+public class AccelerationErrors {
+    /**
+     * Permet de copier les accélérations de tous les corps d'un stockage.
+     * 
+     * @param store Stockage des corps
+     * @return Accélérations des corps
+     */
+    public static double[] stored(ParticleStore store) {
+        double[] result = new double[3 * store.size()];
+        for (int i = 0; i < store.size(); i++) {
+            result[3 * i] = store.getXAcceleration(i);
+            result[3 * i + 1] = store.getYAcceleration(i);
+            result[3 * i + 2] = store.getZAcceleration(i);
+        }
+        return result;
+    }
+
+    /**
+     * Permet de copier les accélérations d'un échantillon de corps d'un
+     * stockage.
+     * 
+     * @param store  Stockage des corps
+     * @param sample Corps de l'échantillon
+     * @return Accélérations des corps de l'échantillon
+     */
+    public static double[] stored(ParticleStore store, int[] sample) {
+        double[] result = new double[3 * sample.length];
+        for (int s = 0; s < sample.length; s++) {
+            result[3 * s] = store.getXAcceleration(sample[s]);
+            result[3 * s + 1] = store.getYAcceleration(sample[s]);
+            result[3 * s + 2] = store.getZAcceleration(sample[s]);
+        }
+        return result;
+    }
+
+    /**
+     * Permet de calculer les accélérations exactes de tous les corps par
+     * sommation directe (elles remplacent les accélérations du stockage).
+     * 
+     * @param store Stockage des corps
+     * @return Accélérations exactes
+     */
+    public static double[] exact(ParticleStore store) {
+        DirectSumKernel.fastest().computeAccelerations(store);
+        return stored(store);
+    }
+
+    /**
+     * Permet de calculer les accélérations exactes d'un échantillon de corps par
+     * sommation directe, sans toucher aux accélérations du stockage (les corps
+     * confondus avec un corps de l'échantillon sont ignorés).
+     * 
+     * @param store  Stockage des corps
+     * @param sample Corps de l'échantillon
+     * @return Accélérations exactes des corps de l'échantillon
+     */
+    public static double[] exact(ParticleStore store, int[] sample) {
+        double[] result = new double[3 * sample.length];
+        for (int s = 0; s < sample.length; s++) {
+            int i = sample[s];
+            double x = store.getXPosition(i);
+            double y = store.getYPosition(i);
+            double z = store.getZPosition(i);
+            double aX = 0;
+            double aY = 0;
+            double aZ = 0;
+            for (int j = 0; j < store.size(); j++) {
+                double dX = store.getXPosition(j) - x;
+                double dY = store.getYPosition(j) - y;
+                double dZ = store.getZPosition(j) - z;
+                double d2 = dX * dX + dY * dY + dZ * dZ;
+                if (j != i && d2 > 0) {
+                    double f = store.getMass(j) / (d2 * Math.sqrt(d2));
+                    aX += f * dX;
+                    aY += f * dY;
+                    aZ += f * dZ;
+                }
+            }
+            result[3 * s] = Constants.G * aX;
+            result[3 * s + 1] = Constants.G * aY;
+            result[3 * s + 2] = Constants.G * aZ;
+        }
+        return result;
+    }
+
+    /**
+     * Permet de calculer les erreurs relatives d'accélérations approchées,
+     * triées par ordre croissant.
+     * 
+     * @param actual   Accélérations approchées
+     * @param expected Accélérations exactes
+     * @return Erreurs relatives triées
+     */
+    public static double[] relativeErrors(double[] actual, double[] expected) {
+        double[] errors = new double[actual.length / 3];
+        for (int i = 0; i < errors.length; i++) {
+            double dX = actual[3 * i] - expected[3 * i];
+            double dY = actual[3 * i + 1] - expected[3 * i + 1];
+            double dZ = actual[3 * i + 2] - expected[3 * i + 2];
+            double norm = Math.sqrt(expected[3 * i] * expected[3 * i] + expected[3 * i + 1] * expected[3 * i + 1]
+                    + expected[3 * i + 2] * expected[3 * i + 2]);
+            errors[i] = Math.sqrt(dX * dX + dY * dY + dZ * dZ) / norm;
+        }
+        Arrays.sort(errors);
+        return errors;
+    }
+
+    /**
+     * Permet de calculer l'erreur relative médiane d'accélérations approchées.
+     * 
+     * @param actual   Accélérations approchées
+     * @param expected Accélérations exactes
+     * @return Erreur relative médiane
+     */
+    public static double medianError(double[] actual, double[] expected) {
+        double[] errors = relativeErrors(actual, expected);
+        return errors[errors.length / 2];
+    }
+
+    /**
+     * Permet de calculer l'erreur relative médiane des accélérations de tous les
+     * corps d'un stockage.
+     * 
+     * @param store    Stockage contenant les accélérations approchées
+     * @param expected Accélérations exactes
+     * @return Erreur relative médiane
+     */
+    public static double medianError(ParticleStore store, double[] expected) {
+        return medianError(stored(store), expected);
+    }
+
+    /**
+     * Permet de calculer l'erreur relative médiane des accélérations d'un
+     * échantillon de corps d'un stockage.
+     * 
+     * @param store    Stockage contenant les accélérations approchées
+     * @param sample   Corps de l'échantillon
+     * @param expected Accélérations exactes de l'échantillon
+     * @return Erreur relative médiane
+     */
+    public static double medianError(ParticleStore store, int[] sample, double[] expected) {
+        return medianError(stored(store, sample), expected);
+    }
+
+    /**
+     * Permet de calculer l'erreur relative médiane des accélérations de tous les
+     * corps d'un stockage par rapport à la sommation directe dans l'ordre courant
+     * des corps, sans toucher aux accélérations du stockage (les corps peuvent
+     * donc avoir été réordonnés par la méthode testée).
+     * 
+     * @param store Stockage contenant les accélérations approchées
+     * @return Erreur relative médiane
+     */
+    public static double medianError(ParticleStore store) {
+        int[] all = new int[store.size()];
+        for (int i = 0; i < all.length; i++) {
+            all[i] = i;
+        }
+        return medianError(stored(store), exact(store, all));
+    }
+
+    /**
+     * Permet de calculer l'erreur relative maximale d'accélérations approchées.
+     * 
+     * @param actual   Accélérations approchées
+     * @param expected Accélérations exactes
+     * @return Erreur relative maximale
+     */
+    public static double maxError(double[] actual, double[] expected) {
+        double[] errors = relativeErrors(actual, expected);
+        return errors[errors.length - 1];
+    }
+}
@@ -70,6 +70,31 @@ public class BHTreeAssert {
         }
     }
 
+    /**
+     * Teste qu'avec un Théta très petit, transmis à tous les noeuds, l'arbre
+     * redonne la sommation directe : aucun noeud contenant le corps n'est oublié.
+     */
+    private static void testSmallTheta() {
+        Simulator simulator = new Simulator(300, 10, 1, 100, 5);
+        ParticleStore store = simulator.getStore();
+        DirectSumKernel.fastest().computeAccelerations(store);
+        Vector3D[] exact = new Vector3D[store.size()];
+        for (int i = 0; i < store.size(); i++) {
+            exact[i] = simulator.getBodies().get(i).getAcceleration();
+        }
+        BHTree tree = new BHTree(new Octal(new Vector3D(), 1000, 1000, 1000), 1e-6);
+        for (int i = 0; i < store.size(); i++) {
+            tree.insertion(store, i);
+        }
+        for (int i = 0; i < store.size(); i++) {
+            store.setAcceleration(i, 0, 0, 0);
+            tree.updateForceAboutObject(store, i);
+            Vector3D actual = simulator.getBodies().get(i).getAcceleration();
+            assert actual.distanceFromOtherVector(exact[i]) <= 1e-9 * exact[i].distanceFromOrigin()
+                    : "L'arbre devrait redonner la sommation directe pour le corps " + i;
+        }
+    }
+
     /**
      * Méthode principale exécutable qui lance tous les tests.
      * 
@@ -79,5 +104,6 @@ public class BHTreeAssert {
         System.out.println("Test ==> BHTREE");
         testWith2Objects();
         testWithListObjects();
+        testSmallTheta();
     }
 }
\ No newline at end of file
@@ -0,0 +1,137 @@
+package barnes_hut.test;
+
+import java.util.concurrent.*;
+
+import math_physics.physics.*;
+import barnes_hut.*;
+
+/**
+ * Classe de test qui permet de vérifier la méthode <code>BarnesHutSolver</code>
+ * et les autres méthodes rapides utilisées comme méthodes de calcul des forces
+ * d'un simulateur.
+ */
+public class BarnesHutSolverAssert {
+    /**
+     * Teste que chaque méthode rapide, choisie par son nom dans un simulateur,
+     * donne des accélérations proches de la sommation directe (le pas de temps
+     * est nul pour que les corps ne bougent pas).
+     */
+    private static void testSolversInSimulator() {
+        Simulator simulator = new Simulator(2_000, 10, 1, 100, 5);
+        simulator.setDeltaTime(0);
+        ForceSolver[] solvers = { new BarnesHutSolver(), new FastMultipoleMethod(), new ParticleMesh(32),
+                new TreeParticleMesh(32) };
+        double[] tolerances = { 0.01, 0.01, 0.2, 0.01 };
+        for (ForceSolver solver : solvers) {
+            simulator.registerForceSolver(solver);
+        }
+        for (int s = 0; s < solvers.length; s++) {
+            simulator.setForceSolver(solvers[s].getName());
+            simulator.simulateAllBodies();
+            double error = AccelerationErrors.medianError(simulator.getStore());
+            assert error < tolerances[s]
+                    : "La méthode " + solvers[s].getName() + " s'écarte de la sommation directe (" + error + ")";
+        }
+        assert simulator.getForceSolverNames().size() == solvers.length + 1
+                : "Toutes les méthodes devraient être enregistrées";
+    }
+
+    /**
+     * Teste que la méthode de Barnes-Hut calcule les mêmes accélérations sans
+     * tri préalable, avec un groupe de threads et en réajustant l'arbre.
+     */
+    private static void testBarnesHutPaths() {
+        Simulator simulator = new Simulator(1_000, 10, 1, 100, 5);
+        simulator.setDeltaTime(0);
+        BarnesHutSolver solver = new BarnesHutSolver();
+
+        // Sans tri préalable, le stockage n'est pas réordonné
+        solver.computeAccelerations(simulator.getStore());
+        double unsorted = AccelerationErrors.medianError(simulator.getStore());
+        assert unsorted < 0.01 : "La méthode devrait fonctionner sans tri préalable";
+
+        ForkJoinPool pool = new ForkJoinPool(2);
+        simulator.registerForceSolver(new BarnesHutSolver(solver.getTree()) {
+            @Override
+            public String getName() {
+                return "Barnes-Hut (threads)";
+            }
+        });
+        simulator.setForceSolver("Barnes-Hut (threads)");
+        int[] order = simulator.getForceSolver().sortBodies(simulator.getStore(), pool);
+        simulator.reorderBodies(order);
+        simulator.getForceSolver().computeAccelerations(simulator.getStore(), true, pool);
+        assert Math.abs(AccelerationErrors.medianError(simulator.getStore()) - unsorted) < 1e-9
+                : "Le calcul parallèle devrait donner les mêmes accélérations";
+        pool.shutdown();
+
+        // Le second pas réajuste l'arbre du premier au lieu de le reconstruire
+        solver.setIncremental(true);
+        simulator.registerForceSolver(solver);
+        simulator.setForceSolver(BarnesHutSolver.NAME);
+        for (int step = 0; step < 2; step++) {
+            simulator.simulateAllBodies();
+            assert Math.abs(AccelerationErrors.medianError(simulator.getStore()) - unsorted) < 1e-9
+                    : "L'arbre réajusté devrait donner les mêmes accélérations (pas " + step + ")";
+        }
+    }
+
+    /**
+     * Teste que le calcul limité à certains corps donne aux corps cibles les
+     * mêmes accélérations que le calcul complet de la même méthode, sans toucher
+     * aux autres corps, pour la sommation directe et pour Barnes-Hut, avec et
+     * sans threads (assez de corps cibles pour que les tâches soient découpées).
+     */
+    private static void testTargetedAccelerations() {
+        ParticleStore store = new Simulator(1_000, 10, 1, 100, 5).getStore();
+        int size = store.size();
+        int[] targets = new int[size];
+        int count = 0;
+        for (int i = 0; i < size; i += 7) {
+            targets[count++] = i;
+        }
+        ForkJoinPool pool = new ForkJoinPool(2);
+        ForceSolver[] solvers = { new DirectSumSolver(new ScalarDirectSumKernel()),
+                new DirectSumSolver(new ScalarDirectSumKernel()), new BarnesHutSolver(), new BarnesHutSolver() };
+        ForkJoinPool[] pools = { null, pool, null, pool };
+        double[] expected = new double[3 * size];
+        for (int s = 0; s < solvers.length; s++) {
+            solvers[s].computeAccelerations(store, pools[s]);
+            for (int i = 0; i < size; i++) {
+                expected[3 * i] = store.getXAcceleration(i);
+                expected[3 * i + 1] = store.getYAcceleration(i);
+                expected[3 * i + 2] = store.getZAcceleration(i);
+                store.setAcceleration(i, 0, 0, 0);
+            }
+            solvers[s].computeAccelerations(store, targets, count, pools[s]);
+            for (int i = 0; i < size; i++) {
+                double dx = store.getXAcceleration(i) - expected[3 * i];
+                double dy = store.getYAcceleration(i) - expected[3 * i + 1];
+                double dz = store.getZAcceleration(i) - expected[3 * i + 2];
+                double norm = Math.sqrt(expected[3 * i] * expected[3 * i] + expected[3 * i + 1] * expected[3 * i + 1]
+                        + expected[3 * i + 2] * expected[3 * i + 2]);
+                if (i % 7 == 0) {
+                    assert Math.sqrt(dx * dx + dy * dy + dz * dz) <= 1e-12 * norm
+                            : solvers[s].getName() + " devrait calculer l'accélération du corps cible " + i;
+                } else {
+                    assert store.getXAcceleration(i) == 0 && store.getYAcceleration(i) == 0
+                            && store.getZAcceleration(i) == 0
+                            : solvers[s].getName() + " ne devrait pas toucher au corps " + i;
+                }
+            }
+        }
+        pool.shutdown();
+    }
+
+    /**
+     * Méthode principale.
+     * 
+     * @param args Arguments passés dans le terminal
+     */
+    public static void main(String[] args) {
+        System.out.println("Test ==> BARNESHUTSOLVER");
+        testSolversInSimulator();
+        testBarnesHutPaths();
+        testTargetedAccelerations();
+    }
+}
@@ -0,0 +1,117 @@
+package barnes_hut.test;
+
+import math_physics.physics.*;
+import barnes_hut.*;
+
+/**
+ * Classe de test qui permet de vérifier les méthodes de la classe
+ * <code>FastMultipoleMethod</code>.
+ */
+public class FastMultipoleMethodAssert {
+    /**
+     * Teste que l'erreur diminue lorsque l'ordre des développements augmente, et
+     * qu'un ordre élevé redonne la sommation directe.
+     */
+    private static void testOrders() {
+        ParticleStore store = new Simulator(3_000, 10, 1, 100, 5).getStore();
+        double[] expected = AccelerationErrors.exact(store);
+        FastMultipoleMethod fmm = new FastMultipoleMethod();
+        assert fmm.getOrder() == FastMultipoleMethod.DEFAULT_ORDER : "L'ordre par défaut devrait être utilisé";
+        double previous = Double.POSITIVE_INFINITY;
+        for (int order = 1; order <= 6; order++) {
+            fmm.setOrder(order);
+            fmm.computeAccelerations(store);
+            double error = AccelerationErrors.medianError(store, expected);
+            assert error < 0.7 * previous : "L'erreur devrait diminuer avec l'ordre " + order + " (" + error + " contre "
+                    + previous + ")";
+            previous = error;
+        }
+        assert fmm.getConversionCount() > 0 && fmm.getDirectCount() > 0
+                : "Les développements et la sommation directe devraient être utilisés";
+
+        fmm = new FastMultipoleMethod(10, 0.3);
+        fmm.computeAccelerations(store);
+        double error = AccelerationErrors.maxError(AccelerationErrors.stored(store), expected);
+        assert error < 1e-6 : "Un ordre élevé devrait redonner la sommation directe (erreur " + error + ")";
+    }
+
+    /**
+     * Teste que le résultat ne dépend pas de l'ordre des corps dans le stockage,
+     * et que la méthode accepte un stockage vide ou réduit à une feuille.
+     */
+    private static void testLayout() {
+        Simulator simulator = new Simulator(2_000, 10, 1, 100, 5);
+        ParticleStore store = simulator.getStore();
+        FastMultipoleMethod fmm = new FastMultipoleMethod();
+        fmm.computeAccelerations(store);
+        double[] unsorted = AccelerationErrors.stored(store);
+        int[] order = fmm.sortByMortonCode(store);
+        simulator.reorderBodies(order);
+        fmm.computeAccelerations(true);
+        double[] before = new double[unsorted.length];
+        for (int i = 0; i < order.length; i++) {
+            System.arraycopy(unsorted, 3 * order[i], before, 3 * i, 3);
+        }
+        assert AccelerationErrors.maxError(AccelerationErrors.stored(store), before) <= 1e-9
+                : "Réordonner les corps ne devrait pas changer le résultat";
+
+        // Une seule feuille : sommation directe exacte
+        ParticleStore small = new Simulator(20, 10, 1, 100, 5).getStore();
+        double[] expected = AccelerationErrors.exact(small);
+        fmm.computeAccelerations(small);
+        assert AccelerationErrors.maxError(AccelerationErrors.stored(small), expected) < 1e-12
+                : "Une seule feuille devrait être sommée directement";
+
+        ParticleStore empty = new Simulator(0, 10, 1, 100, 5).getStore();
+        fmm.computeAccelerations(empty);
+        assert fmm.getConversionCount() == 0 : "Un stockage vide ne devrait rien calculer";
+    }
+
+    /**
+     * Teste que les paramètres invalides sont refusés.
+     */
+    private static void testInvalidParameters() {
+        FastMultipoleMethod fmm = new FastMultipoleMethod();
+        boolean raised = false;
+        try {
+            fmm.setOrder(0);
+        } catch (IllegalArgumentException e) {
+            raised = true;
+        }
+        assert raised : "Un ordre nul devrait être refusé";
+        raised = false;
+        try {
+            fmm.setOrder(FastMultipoleMethod.MAX_ORDER + 1);
+        } catch (IllegalArgumentException e) {
+            raised = true;
+        }
+        assert raised : "Un ordre trop grand devrait être refusé";
+        raised = false;
+        try {
+            new FastMultipoleMethod(3, 1);
+        } catch (IllegalArgumentException e) {
+            raised = true;
+        }
+        assert raised : "Théta devrait être strictement inférieur à 1";
+        raised = false;
+        try {
+            fmm.setLeafCapacity(0);
+        } catch (IllegalArgumentException e) {
+            raised = true;
+        }
+        assert raised : "Une capacité nulle devrait être refusée";
+        assert fmm.getOrder() == FastMultipoleMethod.DEFAULT_ORDER : "L'ordre ne devrait pas avoir changé";
+    }
+
+    /**
+     * Méthode principale.
+     * 
+     * @param args Arguments passés dans le terminal
+     */
+    public static void main(String[] args) {
+        System.out.println("Test ==> FASTMULTIPOLEMETHOD");
+        testOrders();
+        testLayout();
+        testInvalidParameters();
+    }
+}
@@ -0,0 +1,522 @@
+package barnes_hut.test;
+
+import java.lang.management.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import math_physics.math.*;
+import math_physics.physics.*;
+import barnes_hut.*;
+
+/**
+ * Classe de test qui permet de vérifier les méthodes de la classe
+ * <code>LinearOctree</code>.
+ */
+public class LinearOctreeAssert {
+    /**
+     * Boîte de la racine utilisée par tous les tests.
+     */
+    private static final Octal BOX = new Octal(new Vector3D(), 1000, 1000, 1000);
+
+    /**
+     * Teste que l'arbre stocké dans des tableaux, avec une feuille par corps,
+     * donne les mêmes accélérations que l'arbre d'objets <code>BHTree</code>.
+     */
+    private static void testSameAsBHTree() {
+        Simulator simulator = new Simulator(500, 10, 1, 100, 5);
+        ParticleStore store = simulator.getStore();
+        int N = store.size();
+        BHTree objectTree = new BHTree(BOX);
+        for (int i = 0; i < N; i++) {
+            objectTree.insertion(store, i);
+        }
+        Vector3D[] expected = new Vector3D[N];
+        for (int i = 0; i < N; i++) {
+            store.setAcceleration(i, 0, 0, 0);
+            objectTree.updateForceAboutObject(store, i);
+            expected[i] = simulator.getBodies().get(i).getAcceleration();
+        }
+
+        LinearOctree tree = new LinearOctree();
+        tree.setLeafCapacity(1);
+        tree.build(store, BOX);
+        assert tree.boxDivided() : "L'arbre devrait avoir des fils";
+        assert Math.abs(tree.getTotalMass() - simulator.getTotalMass()) <= 1e-9 * simulator.getTotalMass()
+                : "La masse de la racine devrait être la masse totale";
+        for (int i = 0; i < N; i++) {
+            store.setAcceleration(i, 0, 0, 0);
+            tree.updateForceAboutObject(i);
+            Vector3D actual = simulator.getBodies().get(i).getAcceleration();
+            assert actual.distanceFromOtherVector(expected[i]) <= 1e-12 * expected[i].distanceFromOrigin()
+                    : "L'arbre linéaire s'écarte de BHTree pour le corps " + i;
+        }
+    }
+
+    /**
+     * Permet de calculer les accélérations de tous les corps d'un stockage avec un
+     * arbre déjà construit.
+     * 
+     * @param tree  Arbre construit
+     * @param store Stockage des corps
+     * @return Accélérations des corps
+     */
+    private static double[] accelerations(LinearOctree tree, ParticleStore store) {
+        for (int i = 0; i < store.size(); i++) {
+            store.setAcceleration(i, 0, 0, 0);
+            tree.updateForceAboutObject(i);
+        }
+        return AccelerationErrors.stored(store);
+    }
+
+    /**
+     * Teste que la construction à partir des codes de Morton triés donne le même
+     * arbre que l'insertion des corps un par un (avec un corps en dehors de la
+     * boîte de la racine).
+     */
+    private static void testMortonSameAsInsertion() {
+        Simulator simulator = new Simulator(1_000, 10, 1, 100, 5);
+        simulator.addBody(5, 1, new Vector3D(2_000, 0, 0), new Vector3D());
+        ParticleStore store = simulator.getStore();
+        LinearOctree inserted = new LinearOctree();
+        inserted.build(store, BOX);
+        double[] expected = accelerations(inserted, store);
+
+        LinearOctree sorted = new LinearOctree();
+        int[] order = sorted.sortByMortonCode(store, 0, 0, 0, 1000, 1000, 1000);
+        BitSet seen = new BitSet();
+        for (int i = 0; i < store.size(); i++) {
+            seen.set(order[i]);
+        }
+        assert seen.cardinality() == store.size() : "Le tri devrait donner une permutation des corps";
+        assert order[store.size() - 1] == store.size() - 1 : "Le corps hors de la boîte devrait être trié en dernier";
+        sorted.buildSorted(false);
+        assert sorted.getNodeCount() == inserted.getNodeCount() : "Les deux constructions devraient donner le même arbre";
+        assert Math.abs(sorted.getTotalMass() - inserted.getTotalMass()) <= 1e-12 * inserted.getTotalMass()
+                : "La masse de la racine devrait être la même";
+        double error = AccelerationErrors.maxError(accelerations(sorted, store), expected);
+        assert error <= 1e-10 : "La construction triée s'écarte de l'insertion (erreur " + error + ")";
+    }
+
+    /**
+     * Teste qu'après avoir réordonné les corps selon leur code de Morton, ils sont
+     * rangés dans l'ordre des codes et l'arbre peut être construit sur le
+     * stockage réordonné.
+     */
+    private static void testMortonReorder() {
+        Simulator simulator = new Simulator(1_000, 10, 1, 100, 5);
+        ParticleStore store = simulator.getStore();
+        LinearOctree sorted = new LinearOctree();
+        simulator.reorderBodies(sorted.sortByMortonCode(store, 0, 0, 0, 1000, 1000, 1000));
+        sorted.buildSorted(true);
+        int[] order = sorted.sortByMortonCode(store, 0, 0, 0, 1000, 1000, 1000);
+        for (int i = 0; i < store.size(); i++) {
+            assert order[i] == i : "Les corps réordonnés devraient déjà être triés";
+        }
+        LinearOctree inserted = new LinearOctree();
+        inserted.build(store, BOX);
+        sorted.buildSorted(true);
+        double[] expected = accelerations(inserted, store);
+        double error = AccelerationErrors.maxError(accelerations(sorted, store), expected);
+        assert error <= 1e-10
+                : "La construction sur le stockage réordonné s'écarte de l'insertion (erreur " + error + ")";
+    }
+
+    /**
+     * Teste que la construction parallèle donne exactement le même arbre que la
+     * construction séquentielle (corps regroupés et corps hors de la boîte).
+     */
+    private static void testParallelBuild() {
+        Simulator simulator = new Simulator(3_000, 10, 1, 100, 5);
+        simulator.addBody(5, 1, new Vector3D(2_000, 0, 0), new Vector3D());
+        ParticleStore store = simulator.getStore();
+        LinearOctree serial = new LinearOctree();
+        serial.sortByMortonCode(store, 0, 0, 0, 1000, 1000, 1000);
+        serial.buildSorted(false);
+        double[] expected = accelerations(serial, store);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        LinearOctree parallel = new LinearOctree();
+        for (int step = 0; step < 2; step++) {
+            parallel.sortByMortonCode(store, 0, 0, 0, 1000, 1000, 1000);
+            parallel.buildSorted(false, pool);
+            assert parallel.getNodeCount() == serial.getNodeCount()
+                    : "La construction parallèle devrait donner le même nombre de noeuds";
+            assert Arrays.equals(accelerations(parallel, store), expected)
+                    : "La construction parallèle s'écarte de la construction séquentielle";
+        }
+        pool.shutdown();
+    }
+
+    /**
+     * Teste que le calcul parallèle des forces donne exactement les mêmes
+     * accélérations que le calcul séquentiel, et qu'il remplace les anciennes
+     * accélérations au lieu de s'y ajouter.
+     */
+    private static void testParallelForces() {
+        ParticleStore store = new Simulator(3_000, 10, 1, 100, 5).getStore();
+        LinearOctree tree = new LinearOctree();
+        tree.build(store, BOX);
+        double[] expected = accelerations(tree, store);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        for (int step = 0; step < 2; step++) {
+            tree.computeAccelerations(pool);
+            assert Arrays.equals(AccelerationErrors.stored(store), expected)
+                    : "Le calcul parallèle s'écarte du calcul séquentiel";
+        }
+        pool.shutdown();
+        tree.computeAccelerations();
+        assert Arrays.equals(AccelerationErrors.stored(store), expected)
+                : "Le calcul séquentiel s'écarte du calcul corps par corps";
+    }
+
+    /**
+     * Teste que la correction quadripolaire rapproche les accélérations de celles
+     * de la sommation directe, pour les deux constructions de l'arbre.
+     */
+    private static void testQuadrupole() {
+        ParticleStore store = new Simulator(2_000, 10, 1, 100, 5).getStore();
+        double[] exact = AccelerationErrors.exact(store);
+        LinearOctree tree = new LinearOctree(0.5);
+        assert !tree.getUseQuadrupole() : "La correction quadripolaire ne devrait pas être utilisée par défaut";
+        tree.build(store, BOX);
+        double monopole = AccelerationErrors.medianError(accelerations(tree, store), exact);
+        tree.setUseQuadrupole(true);
+        tree.build(store, BOX);
+        double quadrupole = AccelerationErrors.medianError(accelerations(tree, store), exact);
+        assert quadrupole < 0.5 * monopole : "La correction quadripolaire devrait réduire l'erreur (" + quadrupole
+                + " contre " + monopole + ")";
+        tree.sortByMortonCode(store, 0, 0, 0, 1000, 1000, 1000);
+        tree.buildSorted(false);
+        double sorted = AccelerationErrors.medianError(accelerations(tree, store), exact);
+        assert Math.abs(sorted - quadrupole) <= 1e-9 * quadrupole
+                : "Les deux constructions devraient donner les mêmes moments quadripolaires";
+    }
+
+    /**
+     * Teste les critères d'ouverture : avec un Théta très petit, tous les noeuds
+     * sont ouverts et l'arbre redonne la sommation directe (aucun corps n'est
+     * oublié), et chaque critère reste précis avec ses paramètres usuels.
+     */
+    private static void testOpeningCriteria() {
+        ParticleStore store = new Simulator(2_000, 10, 1, 100, 5).getStore();
+        double[] exact = AccelerationErrors.exact(store);
+        LinearOctree tree = new LinearOctree();
+        assert tree.getOpeningCriterion() == OpeningCriterion.BARNES_HUT
+                : "Le critère par défaut devrait être BARNES_HUT";
+        for (OpeningCriterion criterion : OpeningCriterion.values()) {
+            tree.setOpeningCriterion(criterion);
+            tree.setTheta(1e-6);
+            tree.setErrorTolerance(1e-12);
+            tree.build(store, BOX);
+            for (int i = 0; i < store.size(); i++) {
+                store.setAcceleration(i, exact[3 * i], exact[3 * i + 1], exact[3 * i + 2]);
+            }
+            tree.computeAccelerations();
+            double all = AccelerationErrors.maxError(AccelerationErrors.stored(store), exact);
+            assert all <= 1e-9 : "En ouvrant tous les noeuds, " + criterion
+                    + " devrait redonner la sommation directe (erreur " + all + ")";
+
+            tree.setTheta(0.5);
+            tree.setErrorTolerance(LinearOctree.DEFAULT_ERROR_TOLERANCE);
+            tree.build(store, BOX);
+            tree.computeAccelerations();
+            double error = AccelerationErrors.medianError(store, exact);
+            assert error < 1e-2 : "Le critère " + criterion + " devrait être précis (erreur médiane " + error + ")";
+        }
+        boolean raised = false;
+        try {
+            tree.setErrorTolerance(0);
+        } catch (IllegalArgumentException e) {
+            raised = true;
+        }
+        assert raised : "Une tolérance nulle devrait être refusée";
+    }
+
+    /**
+     * Teste les feuilles de plusieurs corps : moins de noeuds qu'avec une feuille
+     * par corps, des forces plus proches de la sommation directe, et des corps
+     * confondus qui ne divisent pas l'arbre indéfiniment.
+     */
+    private static void testLeafBuckets() {
+        ParticleStore store = new Simulator(2_000, 10, 1, 100, 5).getStore();
+        double[] exact = AccelerationErrors.exact(store);
+        LinearOctree single = new LinearOctree();
+        single.setLeafCapacity(1);
+        single.build(store, BOX);
+        LinearOctree bucket = new LinearOctree();
+        assert bucket.getLeafCapacity() == LinearOctree.DEFAULT_LEAF_CAPACITY : "La capacité par défaut est incorrecte";
+        bucket.build(store, BOX);
+        assert bucket.getNodeCount() < single.getNodeCount() / 2
+                : "Les feuilles de plusieurs corps devraient réduire le nombre de noeuds";
+        double singleError = AccelerationErrors.medianError(accelerations(single, store), exact);
+        double bucketError = AccelerationErrors.medianError(accelerations(bucket, store), exact);
+        assert bucketError <= singleError : "Les feuilles de plusieurs corps ne devraient pas dégrader les forces";
+
+        // Corps confondus : la profondeur est bornée et ils attirent le corps éloigné
+        Simulator simulator = new Simulator();
+        for (int i = 0; i < 20; i++) {
+            simulator.addBody(1, 1, new Vector3D(1, 2, 3), new Vector3D());
+        }
+        simulator.addBody(1, 1, new Vector3D(-100, 2, 3), new Vector3D());
+        ParticleStore coincident = simulator.getStore();
+        int far = coincident.size() - 1;
+        double expected = 20 * Constants.G / (101.0 * 101.0);
+        for (LinearOctree tree : new LinearOctree[] { single, bucket }) {
+            tree.build(coincident, BOX);
+            assert tree.getNodeCount() <= 1 + 8 * LinearOctree.MAX_DEPTH : "La profondeur devrait être bornée";
+            tree.sortByMortonCode(coincident, 0, 0, 0, 1000, 1000, 1000);
+            tree.buildSorted(false);
+            assert tree.getNodeCount() <= 1 + 8 * LinearOctree.MAX_DEPTH : "La profondeur devrait être bornée";
+            coincident.setAcceleration(far, 0, 0, 0);
+            tree.updateForceAboutObject(far);
+            assert Math.abs(coincident.getXAcceleration(far) - expected) <= 1e-12 * expected
+                    : "Les corps confondus devraient attirer le corps éloigné";
+        }
+        boolean raised = false;
+        try {
+            bucket.setLeafCapacity(0);
+        } catch (IllegalArgumentException e) {
+            raised = true;
+        }
+        assert raised : "Une capacité nulle devrait être refusée";
+    }
+
+    /**
+     * Teste le réajustement de l'arbre : après un petit déplacement des corps,
+     * chaque corps est compté une seule fois (en ouvrant tous les noeuds, l'arbre
+     * redonne la sommation directe) et le réajustement est refusé si trop de
+     * corps ont bougé ou si le nombre de corps a changé.
+     */
+    private static void testRefit() {
+        Simulator simulator = new Simulator(2_000, 10, 1, 100, 5);
+        simulator.addBody(5, 1, new Vector3D(2_000, 0, 0), new Vector3D(-1_800, 0, 0));
+        ParticleStore store = simulator.getStore();
+        LinearOctree tree = new LinearOctree(1e-6);
+        assert !tree.refit(1) : "Un arbre vide ne devrait pas être réajusté";
+        tree.sortByMortonCode(store, 0, 0, 0, 1000, 1000, 1000);
+        tree.buildSorted(false);
+        for (int step = 0; step < 3; step++) {
+            // Le corps éloigné entre dans la boîte de la racine au premier pas
+            store.integrate(step == 0 ? 1 : 0.1);
+            assert tree.refit(1) : "Le réajustement aurait dû être accepté";
+            assert Math.abs(tree.getTotalMass() - simulator.getTotalMass()) <= 1e-12 * simulator.getTotalMass()
+                    : "La masse de la racine devrait rester la masse totale";
+            double[] exact = AccelerationErrors.exact(store);
+            double error = AccelerationErrors.maxError(accelerations(tree, store), exact);
+            assert error <= 1e-9 : "L'arbre réajusté devrait redonner la sommation directe (erreur " + error + ")";
+        }
+        for (int i = 0; i < store.size(); i++) {
+            store.setVelocity(i, 100, 0, 0);
+        }
+        store.integrate(1);
+        assert !tree.refit(LinearOctree.DEFAULT_REFIT_FRACTION) : "Trop de corps ont bougé pour réajuster l'arbre";
+        simulator.addBody(5, 1, new Vector3D(), new Vector3D());
+        assert !tree.refit(1) : "Un corps ajouté devrait imposer une reconstruction";
+    }
+
+    /**
+     * Teste la boîte de la racine calculée à partir des positions : elle est
+     * ajustée aux corps, un corps échappé en reste dehors mais ses attractions
+     * sont sommées directement, et le calcul parallèle donne la même boîte.
+     */
+    private static void testAdaptiveBounds() {
+        Simulator simulator = new Simulator(2_000, 10, 1, 100, 5);
+        simulator.addBody(1_000, 1, new Vector3D(1e5, 0, 0), new Vector3D());
+        ParticleStore store = simulator.getStore();
+        int N = store.size();
+        LinearOctree tree = new LinearOctree(1e-6);
+        tree.sortByMortonCode(store);
+        tree.buildSorted(false);
+        Octal box = tree.getRootBox();
+        assert box.getWidth() <= 200 * (1 + 2 * LinearOctree.DEFAULT_PADDING) + 1e-9
+                : "La boîte devrait être ajustée aux corps (" + box.getWidth() + ")";
+        for (int i = 0; i < N - 1; i++) {
+            assert box.contains(store.getXPosition(i), store.getYPosition(i), store.getZPosition(i))
+                    : "Le corps " + i + " devrait être dans la boîte de la racine";
+        }
+        assert tree.getOutsideCount() == 1 : "Le corps éloigné devrait être le seul corps échappé";
+        double[] exact = AccelerationErrors.exact(store);
+        double error = AccelerationErrors.maxError(accelerations(tree, store), exact);
+        assert error <= 1e-9 : "Le corps échappé devrait être sommé directement (erreur " + error + ")";
+
+        tree.setEscapeFactor(Double.POSITIVE_INFINITY);
+        tree.sortByMortonCode(store);
+        tree.buildSorted(false);
+        assert tree.getOutsideCount() == 0 && tree.getRootBox().contains(1e5, 0, 0)
+                : "Sans corps échappé, la boîte devrait contenir tous les corps";
+
+        Simulator large = new Simulator(3 * LinearOctree.BOUNDS_GRAIN, 10, 1, 100, 5);
+        large.addBody(5, 1, new Vector3D(0, -1e4, 0), new Vector3D());
+        ForkJoinPool pool = new ForkJoinPool(4);
+        LinearOctree serial = new LinearOctree();
+        LinearOctree parallel = new LinearOctree();
+        serial.sortByMortonCode(large.getStore());
+        parallel.sortByMortonCode(large.getStore(), pool);
+        pool.shutdown();
+        Octal expected = serial.getRootBox();
+        Octal computed = parallel.getRootBox();
+        assert expected.getCenter().equals(computed.getCenter()) && expected.getWidth() == computed.getWidth()
+                : "Le calcul parallèle devrait donner la même boîte";
+
+        boolean raised = false;
+        try {
+            tree.setPadding(-1);
+        } catch (IllegalArgumentException e) {
+            raised = true;
+        }
+        assert raised : "Une marge négative aurait dû être refusée";
+        raised = false;
+        try {
+            tree.setEscapeFactor(0.5);
+        } catch (IllegalArgumentException e) {
+            raised = true;
+        }
+        assert raised : "Un nombre de rayons inférieur à 1 aurait dû être refusé";
+    }
+
+    /**
+     * Teste le calcul des forces par groupes : avec un Théta presque nul il
+     * redonne la sommation directe (corps échappé compris), il est au moins aussi
+     * précis que le calcul corps par corps, le calcul parallèle donne le même
+     * résultat, et les noyaux de listes scalaire et vectoriel concordent.
+     */
+    private static void testGroups() {
+        Simulator simulator = new Simulator(2_000, 10, 1, 100, 5);
+        simulator.addBody(5, 1, new Vector3D(1e5, 0, 0), new Vector3D());
+        ParticleStore store = simulator.getStore();
+        double[] exact = AccelerationErrors.exact(store);
+        LinearOctree tree = new LinearOctree(1e-6);
+        assert !tree.getUseGroups() : "Le calcul par groupes ne devrait pas être utilisé par défaut";
+        tree.setUseGroups(true);
+        tree.sortByMortonCode(store);
+        tree.buildSorted(false);
+        for (int size : new int[] { 4, LinearOctree.DEFAULT_GROUP_SIZE }) {
+            tree.setGroupSize(size);
+            tree.computeAccelerations();
+            double error = AccelerationErrors.maxError(AccelerationErrors.stored(store), exact);
+            assert error <= 1e-9
+                    : "Le calcul par groupes devrait redonner la sommation directe (erreur " + error + ")";
+        }
+        boolean raised = false;
+        try {
+            tree.setGroupSize(0);
+        } catch (IllegalArgumentException e) {
+            raised = true;
+        }
+        assert raised : "Un groupe vide aurait dû être refusé";
+
+        for (boolean quadrupole : new boolean[] { false, true }) {
+            tree.setTheta(0.7);
+            tree.setUseQuadrupole(quadrupole);
+            tree.buildSorted(false);
+            double single = AccelerationErrors.medianError(accelerations(tree, store), exact);
+            tree.computeAccelerations();
+            double grouped = AccelerationErrors.medianError(store, exact);
+            assert grouped <= single : "Le calcul par groupes devrait être au moins aussi précis (" + grouped + " > "
+                    + single + ")";
+
+            ForkJoinPool pool = new ForkJoinPool(4);
+            tree.computeAccelerations(pool);
+            pool.shutdown();
+            double[] parallel = AccelerationErrors.stored(store);
+            tree.computeAccelerations();
+            assert Arrays.equals(parallel, AccelerationErrors.stored(store))
+                    : "Le calcul parallèle par groupes s'écarte du calcul séquentiel";
+        }
+
+        Random random = new Random(7);
+        int count = 37;
+        double[] xs = new double[count];
+        double[] ys = new double[count];
+        double[] zs = new double[count];
+        double[] masses = new double[count];
+        for (int i = 0; i < count; i++) {
+            xs[i] = random.nextDouble();
+            ys[i] = random.nextDouble();
+            zs[i] = random.nextDouble();
+            masses[i] = 1 + random.nextDouble();
+        }
+        double[] scalar = new double[3];
+        double[] fastest = new double[3];
+        // La cinquième source est confondue avec le point : elle est ignorée
+        new ScalarInteractionListKernel().accumulate(xs, ys, zs, masses, count, xs[4], ys[4], zs[4], scalar);
+        InteractionListKernel.fastest().accumulate(xs, ys, zs, masses, count, xs[4], ys[4], zs[4], fastest);
+        for (int k = 0; k < 3; k++) {
+            assert Double.isFinite(scalar[k]) && Math.abs(scalar[k] - fastest[k]) <= 1e-12 * Math.abs(scalar[k])
+                    : "Les noyaux de listes devraient concorder";
+        }
+    }
+
+    /**
+     * Teste que la réserve de noeuds est conservée d'une construction à l'autre.
+     */
+    private static void testPoolReuse() {
+        ParticleStore store = new Simulator(2_000, 10, 1, 100, 5).getStore();
+        LinearOctree tree = new LinearOctree();
+        tree.build(store, BOX);
+        int nodes = tree.getNodeCount();
+        int capacity = tree.getCapacity();
+        assert capacity > LinearOctree.DEFAULT_CAPACITY : "La réserve aurait dû s'agrandir";
+        tree.build(store, BOX);
+        assert tree.getNodeCount() == nodes && tree.getCapacity() == capacity
+                : "La reconstruction ne devrait pas agrandir la réserve";
+        tree.reset(store, BOX);
+        assert tree.getNodeCount() == 1 && !tree.boxDivided() && tree.getCapacity() == capacity
+                : "Vider l'arbre devrait conserver la réserve";
+    }
+
+    /**
+     * Teste qu'une construction suivie du calcul des forces n'alloue rien en
+     * régime établi.
+     */
+    private static void testNoAllocation() {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (!(threadBean instanceof com.sun.management.ThreadMXBean)
+                || !((com.sun.management.ThreadMXBean) threadBean).isThreadAllocatedMemoryEnabled()) {
+            System.out.println("Compteurs d'allocation indisponibles sur cette JVM : test ignoré");
+            return;
+        }
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) threadBean;
+        ParticleStore store = new Simulator(1_000, 10, 1, 100, 5).getStore();
+        LinearOctree tree = new LinearOctree();
+        for (int step = 0; step < 20; step++) {
+            tree.build(store, BOX);
+            for (int i = 0; i < store.size(); i++) {
+                tree.updateForceAboutObject(i);
+            }
+        }
+        long before = bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        for (int step = 0; step < 10; step++) {
+            tree.build(store, BOX);
+            for (int i = 0; i < store.size(); i++) {
+                tree.updateForceAboutObject(i);
+            }
+        }
+        long allocated = bean.getThreadAllocatedBytes(Thread.currentThread().getId()) - before;
+        assert allocated < 10L * store.size() : "Une itération ne devrait rien allouer par corps (" + allocated
+                + " octets alloués)";
+    }
+
+    /**
+     * Méthode principale exécutable qui lance tous les tests.
+     * 
+     * @param args Arguments donnés au fichier
+     */
+    public static void main(String[] args) {
+        System.out.println("Test ==> LINEAROCTREE");
+        testSameAsBHTree();
+        testMortonSameAsInsertion();
+        testMortonReorder();
+        testParallelBuild();
+        testParallelForces();
+        testQuadrupole();
+        testOpeningCriteria();
+        testLeafBuckets();
+        testRefit();
+        testAdaptiveBounds();
+        testGroups();
+        testPoolReuse();
+        testNoAllocation();
+    }
+}
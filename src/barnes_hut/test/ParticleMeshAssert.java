@@ -0,0 +1,113 @@
+package barnes_hut.test;
+
+import java.util.concurrent.*;
+
+import math_physics.physics.*;
+import barnes_hut.*;
+
+/**
+ * Classe de test qui permet de vérifier les méthodes de la classe
+ * <code>ParticleMesh</code>.
+ */
+public class ParticleMeshAssert {
+    /**
+     * Teste que deux corps séparés par de nombreuses cellules s'attirent comme
+     * deux masses ponctuelles, avec des accélérations opposées (au rapport des
+     * masses près), pour les deux schémas de répartition.
+     */
+    private static void testTwoBodies() {
+        ParticleStore store = new ArrayParticleStore();
+        store.add(3e10, 1, 10, 20, 30, 0, 0, 0);
+        store.add(1e10, 1, 90, 50, -10, 0, 0, 0);
+        double dx = 80;
+        double dy = 30;
+        double dz = -40;
+        double d = Math.sqrt(dx * dx + dy * dy + dz * dz);
+        double expected = Constants.G * 1e10 / (d * d);
+        ParticleMesh mesh = new ParticleMesh();
+        for (MassAssignment assignment : MassAssignment.values()) {
+            mesh.setMassAssignment(assignment);
+            mesh.computeAccelerations(store);
+            double ax = store.getXAcceleration(0);
+            double ay = store.getYAcceleration(0);
+            double az = store.getZAcceleration(0);
+            double norm = Math.sqrt(ax * ax + ay * ay + az * az);
+            assert Math.abs(norm - expected) < 0.01 * expected
+                    : "L'attraction devrait être celle de deux masses ponctuelles (" + assignment + ")";
+            assert (ax * dx + ay * dy + az * dz) / (norm * d) > 0.9999 : "L'attraction devrait viser l'autre corps";
+            assert Math.abs(3 * ax + store.getXAcceleration(1)) < 1e-9 * norm
+                    && Math.abs(3 * az + store.getZAcceleration(1)) < 1e-9 * norm
+                    : "Les forces devraient être opposées (" + assignment + ")";
+        }
+    }
+
+    /**
+     * Teste que l'erreur diminue lorsque la grille est plus fine, que la quantité
+     * de mouvement est conservée (aucune force d'un corps sur lui-même) et que le
+     * calcul parallèle donne exactement le même résultat.
+     */
+    private static void testGridSizes() {
+        ParticleStore store = new Simulator(3_000, 10, 1, 100, 5).getStore();
+        double[] expected = AccelerationErrors.exact(store);
+        double previous = Double.POSITIVE_INFINITY;
+        for (int size : new int[] { 16, 32, 64 }) {
+            ParticleMesh mesh = new ParticleMesh(size);
+            mesh.computeAccelerations(store);
+            double error = AccelerationErrors.medianError(store, expected);
+            assert error < previous : "L'erreur devrait diminuer avec la taille de la grille (" + size + ")";
+            previous = error;
+
+            double momentum = 0;
+            double total = 0;
+            for (int i = 0; i < store.size(); i++) {
+                momentum += store.getMass(i) * store.getXAcceleration(i);
+                total += store.getMass(i) * Math.abs(store.getXAcceleration(i));
+            }
+            assert Math.abs(momentum) < 1e-9 * total : "La quantité de mouvement devrait être conservée";
+        }
+
+        ParticleMesh mesh = new ParticleMesh(32);
+        mesh.setMassAssignment(MassAssignment.TSC);
+        mesh.computeAccelerations(store);
+        double[] serial = new double[store.size()];
+        for (int i = 0; i < store.size(); i++) {
+            serial[i] = store.getYAcceleration(i);
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        mesh.computeAccelerations(store, pool);
+        pool.shutdown();
+        for (int i = 0; i < store.size(); i++) {
+            assert store.getYAcceleration(i) == serial[i] : "Le calcul parallèle devrait donner le même résultat";
+        }
+    }
+
+    /**
+     * Teste que les tailles de grille invalides sont refusées.
+     */
+    private static void testInvalidGridSize() {
+        ParticleMesh mesh = new ParticleMesh();
+        assert mesh.getGridSize() == ParticleMesh.DEFAULT_GRID_SIZE : "La taille par défaut devrait être utilisée";
+        for (int size : new int[] { 48, ParticleMesh.MIN_GRID_SIZE / 2, 2 * ParticleMesh.MAX_GRID_SIZE }) {
+            boolean raised = false;
+            try {
+                mesh.setGridSize(size);
+            } catch (IllegalArgumentException e) {
+                raised = true;
+            }
+            assert raised : "La taille " + size + " devrait être refusée";
+        }
+        assert mesh.getGridSize() == ParticleMesh.DEFAULT_GRID_SIZE : "La taille ne devrait pas avoir changé";
+    }
+
+    /**
+     * Méthode principale.
+     * 
+     * @param args Arguments passés dans le terminal
+     */
+    public static void main(String[] args) {
+        System.out.println("Test ==> PARTICLEMESH");
+        testTwoBodies();
+        testGridSizes();
+        testInvalidGridSize();
+    }
+}
@@ -0,0 +1,129 @@
+package barnes_hut.test;
+
+import java.util.*;
+
+import math_physics.math.*;
+import math_physics.physics.*;
+import barnes_hut.*;
+
+/**
+ * Classe de test qui permet de vérifier les méthodes de la classe
+ * <code>TreeParticleMesh</code> et la partie à courte portée de l'arbre.
+ */
+public class TreeParticleMeshAssert {
+    /**
+     * Teste la fraction à courte portée de l'attraction et son évaluation par les
+     * noyaux de listes.
+     */
+    private static void testShortRangeFactor() {
+        assert Math.abs(ShortRangeForce.factor(0, 2) - 1) < 1e-7 : "La fraction devrait valoir 1 en 0";
+        double previous = 1;
+        for (double d = 0.5; d <= 10; d += 0.5) {
+            double factor = ShortRangeForce.factor(d, 2);
+            assert factor < previous : "La fraction devrait décroître avec la distance";
+            double u = d / 4;
+            double exact = ErrorFunction.erfc(u) + 2 / Math.sqrt(Math.PI) * u * Math.exp(-u * u);
+            assert Math.abs(factor - exact) < 1e-6 : "La fraction devrait être erfc(u) + 2u exp(-u²) / racine(pi)";
+            previous = factor;
+        }
+        assert ShortRangeForce.factor(LinearOctree.SHORT_RANGE_CUTOFF * 2, 2) < 0.02
+                : "La fraction devrait être négligeable à la distance de coupure";
+
+        // Le noyau le plus rapide donne les mêmes sommes que le calcul terme à terme
+        Random random = new Random(3);
+        int count = 37;
+        double[] xs = new double[count];
+        double[] ys = new double[count];
+        double[] zs = new double[count];
+        double[] masses = new double[count];
+        double[] expected = new double[3];
+        for (int i = 0; i < count; i++) {
+            xs[i] = 10 * random.nextDouble();
+            ys[i] = 10 * random.nextDouble();
+            zs[i] = 10 * random.nextDouble();
+            masses[i] = random.nextDouble();
+            double dx = xs[i] - 5;
+            double dy = ys[i] - 5;
+            double dz = zs[i] - 5;
+            double d = Math.sqrt(dx * dx + dy * dy + dz * dz);
+            double f = masses[i] / (d * d * d) * ShortRangeForce.factor(d, 1.5);
+            expected[0] += dx * f;
+            expected[1] += dy * f;
+            expected[2] += dz * f;
+        }
+        double[] sum = new double[3];
+        InteractionListKernel.fastest().accumulateShortRange(xs, ys, zs, masses, count, 5, 5, 5, 1.5, sum);
+        for (int axis = 0; axis < 3; axis++) {
+            assert Math.abs(sum[axis] - expected[axis]) < 1e-6 * Math.abs(expected[axis])
+                    : "Le noyau devrait donner la partie à courte portée (axe " + axis + ")";
+        }
+    }
+
+    /**
+     * Teste que la méthode hybride est bien plus précise que la grille seule,
+     * corps par corps comme par groupes, pour les deux schémas de répartition.
+     */
+    private static void testAccuracy() {
+        ParticleStore store = new Simulator(3_000, 10, 1, 100, 5).getStore();
+        double[] expected = AccelerationErrors.exact(store);
+        new ParticleMesh(32).computeAccelerations(store);
+        double meshError = AccelerationErrors.medianError(store, expected);
+
+        TreeParticleMesh treeMesh = new TreeParticleMesh(32);
+        for (MassAssignment assignment : MassAssignment.values()) {
+            treeMesh.setMassAssignment(assignment);
+            for (boolean groups : new boolean[] { true, false }) {
+                treeMesh.setUseGroups(groups);
+                treeMesh.computeAccelerations(store);
+                double error = AccelerationErrors.medianError(store, expected);
+                assert error < 0.01 && error < meshError / 10
+                        : "La méthode hybride devrait être plus précise que la grille seule (" + assignment + ")";
+            }
+        }
+        assert treeMesh.getCutoff() > 0 : "La distance de coupure devrait être connue après le calcul";
+    }
+
+    /**
+     * Teste que les échelles de séparation invalides sont refusées.
+     */
+    private static void testInvalidSplitScale() {
+        TreeParticleMesh treeMesh = new TreeParticleMesh();
+        assert treeMesh.getSplitScale() == TreeParticleMesh.DEFAULT_SPLIT_SCALE
+                : "L'échelle par défaut devrait être utilisée";
+        for (double scale : new double[] { 0, -1, Double.NaN }) {
+            boolean raised = false;
+            try {
+                treeMesh.setSplitScale(scale);
+            } catch (IllegalArgumentException e) {
+                raised = true;
+            }
+            assert raised : "L'échelle " + scale + " devrait être refusée";
+        }
+        boolean raised = false;
+        try {
+            new LinearOctree().setSplitScale(-1);
+        } catch (IllegalArgumentException e) {
+            raised = true;
+        }
+        assert raised : "Une échelle négative devrait être refusée par l'arbre";
+        raised = false;
+        try {
+            new ParticleMesh().setSplitScale(-1);
+        } catch (IllegalArgumentException e) {
+            raised = true;
+        }
+        assert raised : "Une échelle négative devrait être refusée par la grille";
+    }
+
+    /**
+     * Méthode principale.
+     * 
+     * @param args Arguments passés dans le terminal
+     */
+    public static void main(String[] args) {
+        System.out.println("Test ==> TREEPARTICLEMESH");
+        testShortRangeFactor();
+        testAccuracy();
+        testInvalidSplitScale();
+    }
+}
@@ -0,0 +1,67 @@
+package benchmark;
+
+import math_physics.physics.*;
+import barnes_hut.*;
+import barnes_hut.test.*;
+
+/**
+ * Banc d'essai comparant la vitesse et la précision de l'arbre de Barnes-Hut,
+ * pour chaque critère d'ouverture, avec ou sans correction quadripolaire, à la
+ * sommation directe : pour chaque valeur de Théta (ou de tolérance pour le
+ * critère d'erreur relative), il donne la durée du calcul des forces et
+ * l'erreur relative des accélérations (médiane, 99<sup>e</sup> centile et
+ * maximum) par rapport aux accélérations exactes.
+ */
+public class AccuracyBenchmark {
+    /**
+     * Méthode principale.
+     * 
+     * @param args Arguments passés dans le terminal
+     */
+    public static void main(String[] args) {
+        int N = 20_000;
+        Simulator simulator = new Simulator(N, 10, 1, 100, 5);
+        ParticleStore store = simulator.getStore();
+        LinearOctree tree = new LinearOctree();
+        simulator.reorderBodies(tree.sortByMortonCode(store, 0, 0, 0, 400, 400, 400));
+
+        DirectSumKernel kernel = DirectSumKernel.fastest();
+        long direct = Benchmark.measure(() -> {
+            kernel.computeAccelerations(store);
+            Benchmark.consume(store.getXAcceleration(0));
+        }, 1, 3);
+        double[] expected = AccelerationErrors.stored(store);
+        System.out.println("N = " + N);
+        Benchmark.report("Sommation directe (" + kernel.getName() + ")", direct, N);
+
+        System.out.printf("%-15s %-7s %-11s %12s %8s %12s %12s %12s%n", "Critère", "Param.", "Moments",
+                "Durée (ms)", "Gain", "Médiane", "99 %", "Maximum");
+        for (OpeningCriterion criterion : OpeningCriterion.values()) {
+            boolean relative = criterion == OpeningCriterion.RELATIVE_ERROR;
+            double[] parameters = relative ? new double[] { 0.0005, 0.001, 0.0025, 0.005, 0.01 }
+                    : new double[] { 0.3, 0.5, 0.7, 0.9, 1.2 };
+            for (double parameter : parameters) {
+                for (boolean quadrupole : new boolean[] { false, true }) {
+                    tree.setOpeningCriterion(criterion);
+                    if (relative) {
+                        tree.setErrorTolerance(parameter);
+                    } else {
+                        tree.setTheta(parameter);
+                    }
+                    tree.setUseQuadrupole(quadrupole);
+                    tree.buildSorted(true);
+                    // Le critère d'erreur relative utilise les accélérations du calcul précédent
+                    long time = Benchmark.measure(() -> {
+                        tree.computeAccelerations();
+                        Benchmark.consume(store.getXAcceleration(0));
+                    }, 1, 3);
+                    double[] errors = AccelerationErrors.relativeErrors(AccelerationErrors.stored(store), expected);
+                    System.out.printf("%-15s %-7s %-11s %12.3f %8.2f %12.2e %12.2e %12.2e%n", criterion, parameter,
+                            quadrupole ? "quadripôle" : "monopôle", time / 1e6, (double) direct / time,
+                            errors[N / 2], errors[(int) (0.99 * N)], errors[N - 1]);
+                }
+            }
+        }
+        System.out.println(Benchmark.getSink());
+    }
+}
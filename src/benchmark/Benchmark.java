@@ -0,0 +1,85 @@
+package benchmark;
+
+/**
+ * Outil de mesure des performances utilisé par tous les bancs d'essai. Chaque
+ * mesure commence par des tours de chauffe (pour laisser le JIT compiler le
+ * code mesuré) puis garde le meilleur temps parmi plusieurs tours.
+ */
+public class Benchmark {
+    /**
+     * Nombre de tours de chauffe par défaut.
+     */
+    public static final int DEFAULT_WARMUP = 5;
+
+    /**
+     * Nombre de tours mesurés par défaut.
+     */
+    public static final int DEFAULT_ITERATIONS = 10;
+
+    /**
+     * Puits des résultats calculés : empêche le JIT de supprimer un calcul dont le
+     * résultat ne serait jamais utilisé.
+     */
+    private static double sink = 0;
+
+    /**
+     * Permet de consommer un résultat de calcul.
+     * 
+     * @param value Résultat à consommer
+     */
+    public static void consume(double value) {
+        sink += value;
+    }
+
+    /**
+     * Permet de mesurer le temps d'exécution d'une tâche.
+     * 
+     * @param task       Tâche à mesurer
+     * @param warmup     Nombre de tours de chauffe
+     * @param iterations Nombre de tours mesurés
+     * @return Meilleur temps d'exécution (en ns)
+     */
+    public static long measure(Runnable task, int warmup, int iterations) {
+        for (int i = 0; i < warmup; i++) {
+            task.run();
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            task.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    /**
+     * Permet de mesurer le temps d'exécution d'une tâche avec les paramètres par
+     * défaut.
+     * 
+     * @param task Tâche à mesurer
+     * @return Meilleur temps d'exécution (en ns)
+     */
+    public static long measure(Runnable task) {
+        return measure(task, DEFAULT_WARMUP, DEFAULT_ITERATIONS);
+    }
+
+    /**
+     * Permet d'afficher le résultat d'une mesure.
+     * 
+     * @param name       Nom de la mesure
+     * @param nanos      Temps mesuré (en ns)
+     * @param operations Nombre d'opérations effectuées pendant la mesure
+     */
+    public static void report(String name, long nanos, long operations) {
+        System.out.printf("%-40s %12.3f ms %10.2f ns/op%n", name, nanos / 1e6, (double) nanos / operations);
+    }
+
+    /**
+     * Permet de récupérer la valeur du puits (à afficher en fin de banc d'essai).
+     * 
+     * @return Somme des résultats consommés
+     */
+    public static double getSink() {
+        return sink;
+    }
+}
@@ -0,0 +1,81 @@
+package benchmark;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import math_physics.physics.*;
+import barnes_hut.*;
+
+/**
+ * Banc d'essai mesurant le passage à l'échelle de la construction parallèle de
+ * l'arbre linéaire à partir des codes de Morton triés : pour chaque nombre de
+ * threads (puissances de 2 jusqu'au nombre de processeurs disponibles), le gain
+ * est donné par rapport à la construction séquentielle. Le tri des codes reste
+ * séquentiel et n'est pas mesuré. Il mesure enfin le surcoût du tri lorsque la
+ * boîte de la racine est calculée à partir des positions des corps.
+ */
+public class BuildBenchmark {
+    /**
+     * Permet de créer un stockage de corps répartis uniformément dans un cube.
+     * 
+     * @param N    Nombre de corps
+     * @param size Côté du cube
+     * @return Stockage des corps
+     */
+    private static ParticleStore randomStore(int N, double size) {
+        Random random = new Random(42);
+        ParticleStore store = new ArrayParticleStore(N);
+        for (int i = 0; i < N; i++) {
+            store.add(1 + random.nextDouble(), 1, random.nextDouble() * size, random.nextDouble() * size,
+                    random.nextDouble() * size, 0, 0, 0);
+        }
+        return store;
+    }
+
+    /**
+     * Méthode principale.
+     * 
+     * @param args Arguments passés dans le terminal
+     */
+    public static void main(String[] args) {
+        int processors = Runtime.getRuntime().availableProcessors();
+        System.out.println(processors + " processeurs");
+        LinearOctree tree = new LinearOctree();
+        for (int N : new int[] { 100_000, 300_000, 1_000_000 }) {
+            ParticleStore store = randomStore(N, 1000);
+            tree.sortByMortonCode(store, 500, 500, 500, 1000, 1000, 1000);
+            System.out.println("N = " + N);
+            long reference = Benchmark.measure(() -> {
+                tree.buildSorted(false);
+                Benchmark.consume(tree.getNodeCount());
+            }, 2, 5);
+            Benchmark.report("  Séquentielle", reference, N);
+            // 1, 2, 4, ... threads puis le nombre de processeurs
+            for (int threads = 1; threads <= processors; threads = threads == processors ? processors + 1
+                    : Math.min(2 * threads, processors)) {
+                ForkJoinPool pool = new ForkJoinPool(threads);
+                long time = Benchmark.measure(() -> {
+                    tree.buildSorted(false, pool);
+                    Benchmark.consume(tree.getNodeCount());
+                }, 2, 5);
+                pool.shutdown();
+                Benchmark.report("  " + threads + " threads", time, N);
+                double speedup = (double) reference / time;
+                System.out.printf("    Gain : x%.2f (efficacité %.0f %%)%n", speedup, 100 * speedup / threads);
+            }
+
+            long fixed = Benchmark.measure(
+                    () -> Benchmark.consume(tree.sortByMortonCode(store, 500, 500, 500, 1000, 1000, 1000)[0]), 2, 5);
+            Benchmark.report("  Tri (boîte fixe)", fixed, N);
+            long adaptive = Benchmark.measure(() -> Benchmark.consume(tree.sortByMortonCode(store)[0]), 2, 5);
+            Benchmark.report("  Tri (boîte ajustée)", adaptive, N);
+            ForkJoinPool pool = new ForkJoinPool(processors);
+            long pooled = Benchmark.measure(() -> Benchmark.consume(tree.sortByMortonCode(store, pool)[0]), 2, 5);
+            pool.shutdown();
+            Benchmark.report("  Tri (boîte ajustée, " + processors + " threads)", pooled, N);
+            System.out.printf("    Surcoût : %.0f %% (%.0f %% en parallèle)%n", 100.0 * (adaptive - fixed) / fixed,
+                    100.0 * (pooled - fixed) / fixed);
+        }
+        System.out.println(Benchmark.getSink());
+    }
+}
@@ -0,0 +1,82 @@
+package benchmark;
+
+import java.util.*;
+
+import math_physics.math.*;
+import math_physics.physics.*;
+
+/**
+ * Banc d'essai comparant les noyaux de sommation directe (scalaire et
+ * vectoriel) à la boucle objet de <code>Formula.accelerationCalculus</code>
+ * pour N = 1 000 à 50 000 corps. Pour garder des durées raisonnables, seules
+ * les accélérations d'un échantillon de corps sont calculées (chacune contre
+ * les N corps).
+ */
+public class DirectSumBenchmark {
+    /**
+     * Nombre de corps dont on calcule l'accélération à chaque mesure.
+     */
+    private static final int TARGETS = 1_000;
+
+    /**
+     * Calcule les accélérations de l'échantillon avec la boucle objet.
+     * 
+     * @param formula Formules physiques
+     * @param bodies  Corps simulés
+     * @param step    Écart entre deux corps de l'échantillon
+     * @return Somme des accélérations
+     */
+    private static double objectLoop(Formula formula, List<GenericObject> bodies, int step) {
+        Vector3D acceleration = new Vector3D();
+        double total = 0;
+        for (int i = 0; i < bodies.size(); i += step) {
+            formula.accelerationCalculus(bodies.get(i), bodies, acceleration);
+            total += acceleration.getX() + acceleration.getY() + acceleration.getZ();
+        }
+        return total;
+    }
+
+    /**
+     * Calcule les accélérations de l'échantillon avec un noyau.
+     * 
+     * @param kernel Noyau de sommation directe
+     * @param store  Stockage des corps
+     * @param step   Écart entre deux corps de l'échantillon
+     * @return Somme des accélérations
+     */
+    private static double kernelLoop(DirectSumKernel kernel, ParticleStore store, int step) {
+        double total = 0;
+        for (int i = 0; i < store.size(); i += step) {
+            kernel.computeAcceleration(store, i);
+            total += store.getXAcceleration(i) + store.getYAcceleration(i) + store.getZAcceleration(i);
+        }
+        return total;
+    }
+
+    /**
+     * Méthode principale.
+     * 
+     * @param args Arguments passés dans le terminal
+     */
+    public static void main(String[] args) {
+        Formula formula = new Formula();
+        DirectSumKernel scalar = new ScalarDirectSumKernel();
+        DirectSumKernel fastest = DirectSumKernel.fastest();
+        for (int N : new int[] { 1_000, 5_000, 10_000, 20_000, 50_000 }) {
+            Simulator simulator = new Simulator(N, 10, 1, 100, 5);
+            List<GenericObject> bodies = simulator.getBodies();
+            ParticleStore store = simulator.getStore();
+            int step = Math.max(1, N / TARGETS);
+            long interactions = (long) ((N + step - 1) / step) * N;
+            System.out.println("N = " + N);
+            long objectTime = Benchmark.measure(() -> Benchmark.consume(objectLoop(formula, bodies, step)));
+            Benchmark.report("  Boucle objet (Formula)", objectTime, interactions);
+            long scalarTime = Benchmark.measure(() -> Benchmark.consume(kernelLoop(scalar, store, step)));
+            Benchmark.report("  Noyau " + scalar.getName(), scalarTime, interactions);
+            long fastestTime = Benchmark.measure(() -> Benchmark.consume(kernelLoop(fastest, store, step)));
+            Benchmark.report("  Noyau " + fastest.getName(), fastestTime, interactions);
+            System.out.printf("  Gain : x%.2f%n", (double) objectTime / fastestTime);
+        }
+        System.out.println(Benchmark.getSink());
+    }
+}
@@ -0,0 +1,137 @@
+package benchmark;
+
+import java.util.*;
+
+import math_physics.math.*;
+import math_physics.physics.*;
+import barnes_hut.*;
+import barnes_hut.test.*;
+
+/**
+ * Banc d'essai comparant la méthode multipolaire rapide
+ * (<code>FastMultipoleMethod</code>) aux arbres de Barnes-Hut
+ * (<code>LinearOctree</code>, corps par corps et par groupes, et
+ * <code>BHTree</code>) à précision égale : l'erreur relative des accélérations
+ * est mesurée sur un échantillon de corps dont les accélérations exactes sont
+ * calculées par sommation directe. Pour chaque réglage de Barnes-Hut, le gain
+ * est donné par rapport au réglage le plus rapide de la méthode multipolaire
+ * dont l'erreur médiane est au plus aussi grande. Les nombres de corps peuvent
+ * être passés en arguments.
+ */
+public class FmmBenchmark {
+    /**
+     * Nombre de corps de l'échantillon servant à mesurer l'erreur.
+     */
+    private static final int SAMPLE = 1_000;
+
+    /**
+     * Ordres de la méthode multipolaire mesurés.
+     */
+    private static final int[] ORDERS = { 2, 3, 4, 5 };
+
+    /**
+     * Valeurs de Théta de la méthode multipolaire mesurées.
+     */
+    private static final double[] FMM_THETAS = { 0.5, 0.6, 0.7 };
+
+    /**
+     * Valeurs de Théta de Barnes-Hut mesurées.
+     */
+    private static final double[] TREE_THETAS = { 0.2, 0.3, 0.5, 0.7 };
+
+    /**
+     * Permet d'afficher la durée et l'erreur d'un réglage de Barnes-Hut, avec le
+     * gain du réglage le plus rapide de la méthode multipolaire au moins aussi
+     * précis.
+     * 
+     * @param name    Nom du réglage
+     * @param time    Durée du calcul (en ns)
+     * @param error   Erreur relative médiane
+     * @param results Durée et erreur de chaque réglage de la méthode multipolaire
+     */
+    private static void reportMatched(String name, long time, double error, List<double[]> results) {
+        double best = Double.POSITIVE_INFINITY;
+        for (double[] result : results) {
+            if (result[1] <= error) {
+                best = Math.min(best, result[0]);
+            }
+        }
+        System.out.printf("  %-36s %10.1f ms, erreur médiane %.2e", name, time / 1e6, error);
+        if (best < Double.POSITIVE_INFINITY) {
+            System.out.printf(", FMM au moins aussi précise : %.1f ms (x%.2f)%n", best / 1e6, time / best);
+        } else {
+            System.out.println(", aucune FMM aussi précise");
+        }
+    }
+
+    /**
+     * Méthode principale.
+     * 
+     * @param args Arguments passés dans le terminal (nombres de corps)
+     */
+    public static void main(String[] args) {
+        int[] sizes = args.length == 0 ? new int[] { 100_000, 300_000, 1_000_000 }
+                : Arrays.stream(args).mapToInt(Integer::parseInt).toArray();
+        for (int N : sizes) {
+            Simulator simulator = new Simulator(N, 10, 1, 100, 5);
+            ParticleStore store = simulator.getStore();
+            FastMultipoleMethod fmm = new FastMultipoleMethod();
+            // Les corps sont rangés une fois pour toutes selon leur code de Morton
+            simulator.reorderBodies(fmm.sortByMortonCode(store));
+            int[] sample = new Random(42).ints(SAMPLE, 0, N).toArray();
+            double[] expected = AccelerationErrors.exact(store, sample);
+            System.out.println("N = " + N);
+
+            // Méthode multipolaire : durée et erreur de chaque réglage
+            List<double[]> results = new ArrayList<double[]>();
+            for (int order : ORDERS) {
+                for (double theta : FMM_THETAS) {
+                    fmm.setOrder(order);
+                    fmm.setTheta(theta);
+                    long time = Benchmark.measure(() -> {
+                        fmm.sortByMortonCode(store);
+                        fmm.computeAccelerations(true);
+                        Benchmark.consume(store.getXAcceleration(0));
+                    }, 1, 2);
+                    double error = AccelerationErrors.medianError(store, sample, expected);
+                    results.add(new double[] { time, error });
+                    System.out.printf("  FMM ordre %d, Théta %.1f : %10.1f ms, erreur médiane %.2e%n", order, theta,
+                            time / 1e6, error);
+                }
+            }
+
+            LinearOctree tree = new LinearOctree();
+            for (boolean groups : new boolean[] { false, true }) {
+                tree.setUseGroups(groups);
+                for (double theta : TREE_THETAS) {
+                    tree.setTheta(theta);
+                    long time = Benchmark.measure(() -> {
+                        tree.sortByMortonCode(store);
+                        tree.buildSorted(true);
+                        tree.computeAccelerations();
+                        Benchmark.consume(store.getXAcceleration(0));
+                    }, 1, 2);
+                    reportMatched(String.format("LinearOctree%s, Théta %.1f", groups ? " (groupes)" : "", theta),
+                            time, AccelerationErrors.medianError(store, sample, expected), results);
+                }
+            }
+
+            // L'arbre d'objets n'est mesuré qu'avec le Théta par défaut
+            Octal box = new Octal(new Vector3D(), 400, 400, 400);
+            long time = Benchmark.measure(() -> {
+                BHTree objectTree = new BHTree(box);
+                for (int i = 0; i < N; i++) {
+                    objectTree.insertion(store, i);
+                }
+                for (int i = 0; i < N; i++) {
+                    store.setAcceleration(i, 0, 0, 0);
+                    objectTree.updateForceAboutObject(store, i);
+                }
+                Benchmark.consume(store.getXAcceleration(0));
+            }, 0, 1);
+            reportMatched("BHTree, Théta " + new BHTree(box).getTheta(), time,
+                    AccelerationErrors.medianError(store, sample, expected), results);
+        }
+        System.out.println(Benchmark.getSink());
+    }
+}
@@ -0,0 +1,245 @@
+package benchmark;
+
+import java.util.*;
+import java.util.function.*;
+
+import math_physics.math.*;
+import math_physics.physics.*;
+
+/**
+ * Banc d'essai comparant les schémas d'intégration sur un système solaire
+ * réduit (Soleil, Terre, Mars et Jupiter sur des orbites circulaires) simulé
+ * pendant dix ans : pour chaque schéma, le pas est divisé par deux jusqu'à ce
+ * que l'erreur relative sur l'énergie reste sous l'erreur visée pendant toute
+ * la simulation. Le banc donne alors le pas, le nombre de calculs des forces
+ * et la durée de la simulation (sans le calcul de l'énergie). L'erreur visée
+ * peut être passée en argument.
+ * <p>
+ * Le banc compare ensuite, sur un système où quelques corps imposent de petits
+ * pas (la Terre et la Lune parmi des petits corps lointains), le saute-mouton
+ * à pas commun et le saute-mouton à pas par blocs, dont le facteur de précision
+ * est divisé par deux jusqu'à atteindre l'erreur visée : le nombre
+ * d'accélérations calculées (corps par corps) donne le gain des pas
+ * individuels.
+ */
+public class IntegratorBenchmark {
+    /**
+     * Nombre de secondes dans une journée.
+     */
+    private static final double DAY = 86_400;
+
+    /**
+     * Durée simulée (en s).
+     */
+    private static final double DURATION = 3650 * DAY;
+
+    /**
+     * Erreur relative sur l'énergie visée par défaut.
+     */
+    private static final double DEFAULT_TARGET = 1e-8;
+
+    /**
+     * Plus grand pas essayé (en jours).
+     */
+    private static final double MAX_STEP = 32;
+
+    /**
+     * Plus petit pas essayé (en jours).
+     */
+    private static final double MIN_STEP = 1.0 / 256;
+
+    /**
+     * Nombre de petits corps du système avec la Lune.
+     */
+    private static final int PLANETESIMALS = 300;
+
+    /**
+     * Durée simulée pour le système avec la Lune (en s).
+     */
+    private static final double CLUSTER_DURATION = 365 * DAY;
+
+    /**
+     * Pas du simulateur pour le schéma à pas par blocs (en jours).
+     */
+    private static final double BLOCK_STEP = 16;
+
+    /**
+     * Plus grand facteur de précision essayé pour le schéma à pas par blocs.
+     */
+    private static final double MAX_ACCURACY = 0.02;
+
+    /**
+     * Plus petit facteur de précision essayé pour le schéma à pas par blocs.
+     */
+    private static final double MIN_ACCURACY = 1e-4;
+
+    /**
+     * Permet de créer un simulateur contenant le système solaire réduit.
+     * 
+     * @param integrator Schéma d'intégration
+     * @param step       Pas de temps (en jours)
+     * @return Simulateur
+     */
+    private static Simulator solarSystem(Integrator integrator, double step) {
+        Simulator simulator = new Simulator();
+        simulator.addBody("Soleil", Constants.SUN_MASS, 1, new Vector3D(), new Vector3D());
+        double[] masses = { Constants.EARTH_MASS, Constants.MARS_MASS, Constants.JUPITER_MASS };
+        double[] distances = { Constants.SUN_EARTH_DISTANCE, Constants.SUN_MARS_DISTANCE,
+                Constants.SUN_JUPITER_DISTANCE };
+        String[] names = { "Terre", "Mars", "Jupiter" };
+        for (int i = 0; i < masses.length; i++) {
+            // Planètes réparties autour du Soleil, chacune sur son orbite circulaire
+            double angle = 2 * Math.PI * i / masses.length;
+            double velocity = Math.sqrt(Constants.G * Constants.SUN_MASS / distances[i]);
+            simulator.addBody(names[i], masses[i], 1,
+                    new Vector3D(distances[i] * Math.cos(angle), distances[i] * Math.sin(angle), 0),
+                    new Vector3D(-velocity * Math.sin(angle), velocity * Math.cos(angle), 0));
+        }
+        simulator.setIntegrator(integrator);
+        simulator.setDeltaTime(step * DAY);
+        return simulator;
+    }
+
+    /**
+     * Permet de créer un simulateur contenant le Soleil, la Terre, la Lune et des
+     * petits corps sur des orbites circulaires entre 5 et 30 unités
+     * astronomiques.
+     * 
+     * @param integrator Schéma d'intégration
+     * @param step       Pas de temps (en jours)
+     * @return Simulateur
+     */
+    private static Simulator clusteredSystem(Integrator integrator, double step) {
+        Simulator simulator = new Simulator();
+        simulator.addBody("Soleil", Constants.SUN_MASS, 1, new Vector3D(), new Vector3D());
+        double earthVelocity = Math.sqrt(Constants.G * Constants.SUN_MASS / Constants.SUN_EARTH_DISTANCE);
+        simulator.addBody("Terre", Constants.EARTH_MASS, 1, new Vector3D(Constants.SUN_EARTH_DISTANCE, 0, 0),
+                new Vector3D(0, earthVelocity, 0));
+        double moonDistance = 3.844e8;
+        double moonVelocity = Math.sqrt(Constants.G * Constants.EARTH_MASS / moonDistance);
+        simulator.addBody("Lune", 7.342e22, 1, new Vector3D(Constants.SUN_EARTH_DISTANCE + moonDistance, 0, 0),
+                new Vector3D(0, earthVelocity + moonVelocity, 0));
+        Random random = new Random(1);
+        for (int i = 0; i < PLANETESIMALS; i++) {
+            double distance = Constants.AU * (5 + 25 * random.nextDouble());
+            double angle = 2 * Math.PI * random.nextDouble();
+            double velocity = Math.sqrt(Constants.G * Constants.SUN_MASS / distance);
+            simulator.addBody(1e20, 1, new Vector3D(distance * Math.cos(angle), distance * Math.sin(angle), 0),
+                    new Vector3D(-velocity * Math.sin(angle), velocity * Math.cos(angle), 0));
+        }
+        simulator.setIntegrator(integrator);
+        simulator.setDeltaTime(step * DAY);
+        return simulator;
+    }
+
+    /**
+     * Permet de simuler une durée et de renvoyer la plus grande erreur relative
+     * sur l'énergie.
+     * 
+     * @param simulator Simulateur
+     * @param duration  Durée simulée (en s)
+     * @return Plus grande erreur relative sur l'énergie
+     */
+    private static double maxEnergyError(Simulator simulator, double duration) {
+        double initial = simulator.getTotalEnergy();
+        double maxError = 0;
+        long steps = Math.round(duration / simulator.getDeltaTime());
+        for (long step = 0; step < steps; step++) {
+            simulator.simulateAllBodies();
+            maxError = Math.max(maxError, Math.abs((simulator.getTotalEnergy() - initial) / initial));
+        }
+        return maxError;
+    }
+
+    /**
+     * Permet de créer un schéma à pas par blocs.
+     * 
+     * @param accuracy Facteur de précision du choix des pas
+     * @return Schéma d'intégration
+     */
+    private static BlockTimestepIntegrator blocks(double accuracy) {
+        BlockTimestepIntegrator integrator = new BlockTimestepIntegrator();
+        integrator.setAccuracy(accuracy);
+        return integrator;
+    }
+
+    /**
+     * Permet de mesurer la durée d'une simulation sans le calcul de l'énergie,
+     * à partir d'un nouvel état initial à chaque mesure.
+     * 
+     * @param factory   Création du simulateur dans son état initial
+     * @param duration  Durée simulée (en s)
+     * @param simulator Case recevant le dernier simulateur mesuré
+     * @return Durée médiane (en ns)
+     */
+    private static long measure(Supplier<Simulator> factory, double duration, Simulator[] simulator) {
+        return Benchmark.measure(() -> {
+            simulator[0] = factory.get();
+            long steps = Math.round(duration / simulator[0].getDeltaTime());
+            for (long i = 0; i < steps; i++) {
+                simulator[0].simulateAllBodies();
+            }
+            Benchmark.consume(simulator[0].getStore().getXPosition(1));
+        }, 1, 3);
+    }
+
+    /**
+     * Méthode principale.
+     * 
+     * @param args Arguments passés dans le terminal
+     */
+    public static void main(String[] args) {
+        double target = args.length > 0 ? Double.parseDouble(args[0]) : DEFAULT_TARGET;
+        Integrator[] integrators = { new EulerIntegrator(), new LeapfrogIntegrator(), new YoshidaIntegrator(),
+                new RungeKuttaIntegrator(), new HermiteIntegrator() };
+        System.out.println("Erreur relative visée sur l'énergie : " + target + " (" + DURATION / DAY + " jours)");
+        System.out.printf("%-25s %12s %12s %12s %12s%n", "Schéma", "Pas (j)", "Forces", "Durée (ms)", "Erreur");
+        Simulator[] simulator = new Simulator[1];
+        for (Integrator integrator : integrators) {
+            double step = MAX_STEP;
+            double error = maxEnergyError(solarSystem(integrator, step), DURATION);
+            while (error > target && step / 2 >= MIN_STEP) {
+                step /= 2;
+                error = maxEnergyError(solarSystem(integrator, step), DURATION);
+            }
+            if (error > target) {
+                System.out.printf("%-25s %12s %12s %12s %12.2e%n", integrator.getName(), "< " + MIN_STEP, "-", "-",
+                        error);
+                continue;
+            }
+            double finalStep = step;
+            long time = measure(() -> solarSystem(integrator, finalStep), DURATION, simulator);
+            System.out.printf("%-25s %12.4f %12d %12.3f %12.2e%n", integrator.getName(), step,
+                    simulator[0].getForceEvaluations(), time / 1e6, error);
+        }
+
+        System.out.println("Système avec la Lune et " + PLANETESIMALS + " petits corps (" + CLUSTER_DURATION / DAY
+                + " jours)");
+        System.out.printf("%-30s %12s %14s %12s %12s%n", "Schéma", "Paramètre", "Accélérations", "Durée (ms)",
+                "Erreur");
+        // Saute-mouton à pas commun : le pas est divisé par deux
+        double step = MAX_STEP;
+        double error = maxEnergyError(clusteredSystem(new LeapfrogIntegrator(), step), CLUSTER_DURATION);
+        while (error > target && step / 2 >= MIN_STEP) {
+            step /= 2;
+            error = maxEnergyError(clusteredSystem(new LeapfrogIntegrator(), step), CLUSTER_DURATION);
+        }
+        double finalStep = step;
+        long time = measure(() -> clusteredSystem(new LeapfrogIntegrator(), finalStep), CLUSTER_DURATION, simulator);
+        System.out.printf("%-30s %12s %14d %12.3f %12.2e%n", LeapfrogIntegrator.NAME, step + " j",
+                simulator[0].getAccelerationUpdates(), time / 1e6, error);
+
+        // Pas par blocs : le facteur de précision est divisé par deux
+        double accuracy = MAX_ACCURACY;
+        error = maxEnergyError(clusteredSystem(blocks(accuracy), BLOCK_STEP), CLUSTER_DURATION);
+        while (error > target && accuracy / 2 >= MIN_ACCURACY) {
+            accuracy /= 2;
+            error = maxEnergyError(clusteredSystem(blocks(accuracy), BLOCK_STEP), CLUSTER_DURATION);
+        }
+        double finalAccuracy = accuracy;
+        time = measure(() -> clusteredSystem(blocks(finalAccuracy), BLOCK_STEP), CLUSTER_DURATION, simulator);
+        System.out.printf("%-30s %12s %14d %12.3f %12.2e%n", BlockTimestepIntegrator.NAME, "" + accuracy,
+                simulator[0].getAccelerationUpdates(), time / 1e6, error);
+        System.out.println(Benchmark.getSink());
+    }
+}
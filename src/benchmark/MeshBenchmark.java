@@ -0,0 +1,87 @@
+package benchmark;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import math_physics.physics.*;
+import barnes_hut.*;
+import barnes_hut.test.*;
+
+/**
+ * Banc d'essai de la méthode particule-maillage (<code>ParticleMesh</code>) sur
+ * une boule de densité uniforme : pour chaque taille de grille et chaque schéma
+ * de répartition, il donne la durée du calcul des forces (séquentiel, puis sur
+ * tous les processeurs) et l'erreur relative médiane des accélérations d'un
+ * échantillon de corps, à comparer à la méthode hybride arbre-maillage
+ * (<code>TreeParticleMesh</code>) et à l'arbre de Barnes-Hut par groupes. Les
+ * nombres de corps peuvent être passés en arguments.
+ */
+public class MeshBenchmark {
+    /**
+     * Nombre de corps de l'échantillon servant à mesurer l'erreur.
+     */
+    private static final int SAMPLE = 1_000;
+
+    /**
+     * Méthode principale.
+     * 
+     * @param args Arguments passés dans le terminal (nombres de corps)
+     */
+    public static void main(String[] args) {
+        int[] sizes = args.length == 0 ? new int[] { 100_000, 1_000_000 }
+                : Arrays.stream(args).mapToInt(Integer::parseInt).toArray();
+        int processors = Runtime.getRuntime().availableProcessors();
+        ForkJoinPool pool = new ForkJoinPool(processors);
+        System.out.println(processors + " processeurs");
+        for (int N : sizes) {
+            ParticleStore store = new Simulator(N, 10, 1, 100, 5).getStore();
+            int[] sample = new Random(42).ints(SAMPLE, 0, N).toArray();
+            double[] expected = AccelerationErrors.exact(store, sample);
+            System.out.println("N = " + N);
+            for (int gridSize : new int[] { 32, 64, 128 }) {
+                ParticleMesh mesh = new ParticleMesh(gridSize);
+                for (MassAssignment assignment : MassAssignment.values()) {
+                    mesh.setMassAssignment(assignment);
+                    long serial = Benchmark.measure(() -> {
+                        mesh.computeAccelerations(store);
+                        Benchmark.consume(store.getXAcceleration(0));
+                    }, 1, 3);
+                    double error = AccelerationErrors.medianError(store, sample, expected);
+                    long parallel = Benchmark.measure(() -> {
+                        mesh.computeAccelerations(store, pool);
+                        Benchmark.consume(store.getXAcceleration(0));
+                    }, 1, 3);
+                    System.out.printf(
+                            "  Grille %3d, %s : %9.1f ms, %d threads %9.1f ms (x%.2f), erreur médiane %.2e%n",
+                            gridSize, assignment, serial / 1e6, processors, parallel / 1e6,
+                            (double) serial / parallel, error);
+                }
+            }
+            for (int gridSize : new int[] { 32, 64, 128 }) {
+                TreeParticleMesh treeMesh = new TreeParticleMesh(gridSize);
+                treeMesh.setMassAssignment(MassAssignment.TSC);
+                long time = Benchmark.measure(() -> {
+                    treeMesh.computeAccelerations(store);
+                    Benchmark.consume(store.getXAcceleration(0));
+                }, 1, 3);
+                System.out.printf("  TreePM, grille %3d, TSC : %9.1f ms, erreur médiane %.2e%n", gridSize,
+                        time / 1e6, AccelerationErrors.medianError(store, sample, expected));
+            }
+            LinearOctree tree = new LinearOctree();
+            tree.setUseGroups(true);
+            for (double theta : new double[] { 0.5, 0.7 }) {
+                tree.setTheta(theta);
+                long time = Benchmark.measure(() -> {
+                    tree.sortByMortonCode(store);
+                    tree.buildSorted(false);
+                    tree.computeAccelerations();
+                    Benchmark.consume(store.getXAcceleration(0));
+                }, 1, 3);
+                System.out.printf("  LinearOctree (groupes), Théta %.1f : %9.1f ms, erreur médiane %.2e%n", theta,
+                        time / 1e6, AccelerationErrors.medianError(store, sample, expected));
+            }
+        }
+        pool.shutdown();
+        System.out.println(Benchmark.getSink());
+    }
+}
@@ -0,0 +1,74 @@
+package benchmark;
+
+import java.util.concurrent.*;
+
+import math_physics.physics.*;
+import barnes_hut.*;
+
+/**
+ * Banc d'essai mesurant le passage à l'échelle du noyau de sommation directe
+ * parallèle et du calcul parallèle des forces de Barnes-Hut : pour chaque
+ * nombre de threads (puissances de 2 jusqu'au nombre de processeurs
+ * disponibles), le gain est donné par rapport au calcul sur un seul thread.
+ */
+public class ParallelBenchmark {
+    /**
+     * Méthode principale.
+     * 
+     * @param args Arguments passés dans le terminal
+     */
+    public static void main(String[] args) {
+        DirectSumKernel kernel = DirectSumKernel.fastest();
+        int processors = Runtime.getRuntime().availableProcessors();
+        System.out.println("Noyau " + kernel.getName() + ", " + processors + " processeurs");
+        for (int N : new int[] { 5_000, 10_000, 20_000 }) {
+            ParticleStore store = new Simulator(N, 10, 1, 100, 5).getStore();
+            long interactions = (long) N * N;
+            System.out.println("N = " + N);
+            long reference = 0;
+            // 1, 2, 4, ... threads puis le nombre de processeurs
+            for (int threads = 1; threads <= processors; threads = threads == processors ? processors + 1
+                    : Math.min(2 * threads, processors)) {
+                ParallelDirectSumKernel parallel = new ParallelDirectSumKernel(kernel, threads);
+                long time = Benchmark.measure(() -> {
+                    parallel.computeAccelerations(store);
+                    Benchmark.consume(store.getXAcceleration(0));
+                }, 2, 5);
+                parallel.shutdown();
+                Benchmark.report("  " + threads + " threads", time, interactions);
+                if (reference == 0) {
+                    reference = time;
+                }
+                double speedup = (double) reference / time;
+                System.out.printf("    Gain : x%.2f (efficacité %.0f %%)%n", speedup, 100 * speedup / threads);
+            }
+        }
+
+        System.out.println("Forces de Barnes-Hut (corps triés selon leur code de Morton)");
+        LinearOctree tree = new LinearOctree();
+        for (int N : new int[] { 50_000, 100_000, 200_000 }) {
+            Simulator simulator = new Simulator(N, 10, 1, 100, 5);
+            ParticleStore store = simulator.getStore();
+            simulator.reorderBodies(tree.sortByMortonCode(store, 0, 0, 0, 400, 400, 400));
+            tree.buildSorted(true);
+            System.out.println("N = " + N);
+            long reference = 0;
+            for (int threads = 1; threads <= processors; threads = threads == processors ? processors + 1
+                    : Math.min(2 * threads, processors)) {
+                ForkJoinPool pool = new ForkJoinPool(threads);
+                long time = Benchmark.measure(() -> {
+                    tree.computeAccelerations(pool);
+                    Benchmark.consume(store.getXAcceleration(0));
+                }, 2, 5);
+                pool.shutdown();
+                Benchmark.report("  " + threads + " threads", time, N);
+                if (reference == 0) {
+                    reference = time;
+                }
+                double speedup = (double) reference / time;
+                System.out.printf("    Gain : x%.2f (efficacité %.0f %%)%n", speedup, 100 * speedup / threads);
+            }
+        }
+        System.out.println(Benchmark.getSink());
+    }
+}
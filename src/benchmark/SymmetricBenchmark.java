@@ -0,0 +1,42 @@
+package benchmark;
+
+import math_physics.physics.*;
+
+/**
+ * Banc d'essai comparant le calcul de toutes les accélérations corps par corps
+ * (chaque paire est calculée deux fois) et paire par paire (troisième loi de
+ * Newton), avec et sans découpage en tuiles.
+ */
+public class SymmetricBenchmark {
+    /**
+     * Méthode principale.
+     * 
+     * @param args Arguments passés dans le terminal
+     */
+    public static void main(String[] args) {
+        DirectSumKernel[] kernels = { new ScalarDirectSumKernel(), DirectSumKernel.fastest(),
+                new SymmetricDirectSumKernel(),
+                new SymmetricDirectSumKernel(SymmetricDirectSumKernel.DEFAULT_TILE_SIZE) };
+        for (int N : new int[] { 500, 1_000, 2_000, 5_000, 10_000 }) {
+            ParticleStore store = new Simulator(N, 10, 1, 100, 5).getStore();
+            long pairs = (long) N * (N - 1) / 2;
+            int warmup = N < 5_000 ? Benchmark.DEFAULT_WARMUP : 2;
+            int iterations = N < 5_000 ? Benchmark.DEFAULT_ITERATIONS : 5;
+            System.out.println("N = " + N);
+            long reference = 0;
+            for (DirectSumKernel kernel : kernels) {
+                long time = Benchmark.measure(() -> {
+                    kernel.computeAccelerations(store);
+                    Benchmark.consume(store.getXAcceleration(0));
+                }, warmup, iterations);
+                Benchmark.report("  " + kernel.getName(), time, pairs);
+                if (reference == 0) {
+                    reference = time;
+                } else {
+                    System.out.printf("    Gain : x%.2f%n", (double) reference / time);
+                }
+            }
+        }
+        System.out.println(Benchmark.getSink());
+    }
+}
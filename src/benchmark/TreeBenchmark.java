@@ -0,0 +1,180 @@
+package benchmark;
+
+import java.lang.management.*;
+
+import math_physics.math.*;
+import math_physics.physics.*;
+import barnes_hut.*;
+
+/**
+ * Banc d'essai comparant l'arbre de Barnes-Hut composé d'objets
+ * (<code>BHTree</code>) et l'arbre stocké dans des tableaux
+ * (<code>LinearOctree</code>), construit par insertion ou à partir des codes de
+ * Morton triés : durée de construction, durée du calcul des forces (avant et
+ * après avoir rangé les corps dans l'ordre des codes) et mémoire allouée à
+ * chaque construction. Il compare enfin plusieurs nombres maximaux de corps par
+ * feuille (forces corps par corps et par groupes), et le réajustement de
+ * l'arbre à sa reconstruction après un petit déplacement des corps.
+ */
+public class TreeBenchmark {
+    /**
+     * Permet de récupérer le nombre d'octets alloués par le thread courant.
+     * 
+     * @return Nombre d'octets alloués (-1 si la JVM ne les compte pas)
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    /**
+     * Permet de construire l'arbre d'objets contenant tous les corps.
+     * 
+     * @param store Stockage des corps
+     * @param box   Boîte de la racine
+     * @return Arbre construit
+     */
+    private static BHTree buildObjectTree(ParticleStore store, Octal box) {
+        BHTree tree = new BHTree(box);
+        for (int i = 0; i < store.size(); i++) {
+            tree.insertion(store, i);
+        }
+        return tree;
+    }
+
+    /**
+     * Permet de mesurer le calcul des forces de tous les corps avec un arbre
+     * linéaire déjà construit.
+     * 
+     * @param tree  Arbre construit
+     * @param store Stockage des corps
+     * @return Meilleur temps d'exécution (en ns)
+     */
+    private static long measureWalk(LinearOctree tree, ParticleStore store) {
+        return Benchmark.measure(() -> {
+            for (int i = 0; i < store.size(); i++) {
+                tree.updateForceAboutObject(i);
+            }
+            Benchmark.consume(store.getXAcceleration(0));
+        }, 2, 5);
+    }
+
+    /**
+     * Permet d'afficher la mémoire allouée par une construction.
+     * 
+     * @param name  Nom de l'arbre
+     * @param build Construction à mesurer
+     */
+    private static void reportAllocation(String name, Runnable build) {
+        long before = allocatedBytes();
+        build.run();
+        long allocated = allocatedBytes() - before;
+        if (before >= 0) {
+            System.out.printf("  %-40s %12d octets alloués%n", name, allocated);
+        }
+    }
+
+    /**
+     * Méthode principale.
+     * 
+     * @param args Arguments passés dans le terminal
+     */
+    public static void main(String[] args) {
+        Octal box = new Octal(new Vector3D(), 400, 400, 400);
+        LinearOctree linear = new LinearOctree();
+        for (int N : new int[] { 10_000, 50_000, 100_000 }) {
+            Simulator simulator = new Simulator(N, 10, 1, 100, 5);
+            ParticleStore store = simulator.getStore();
+            System.out.println("N = " + N);
+            long objectBuild = Benchmark.measure(() -> Benchmark.consume(buildObjectTree(store, box).getTheta()));
+            Benchmark.report("  Construction BHTree", objectBuild, N);
+            long linearBuild = Benchmark.measure(() -> {
+                linear.build(store, box);
+                Benchmark.consume(linear.getNodeCount());
+            });
+            Benchmark.report("  Construction LinearOctree", linearBuild, N);
+            System.out.printf("    Gain : x%.2f%n", (double) objectBuild / linearBuild);
+            long mortonBuild = Benchmark.measure(() -> {
+                linear.sortByMortonCode(store, 0, 0, 0, 400, 400, 400);
+                linear.buildSorted(false);
+                Benchmark.consume(linear.getNodeCount());
+            });
+            Benchmark.report("  Construction LinearOctree (Morton)", mortonBuild, N);
+            System.out.printf("    Gain : x%.2f%n", (double) objectBuild / mortonBuild);
+            reportAllocation("Construction BHTree", () -> Benchmark.consume(buildObjectTree(store, box).getTheta()));
+            reportAllocation("Construction LinearOctree", () -> linear.build(store, box));
+            reportAllocation("Construction LinearOctree (Morton)", () -> {
+                linear.sortByMortonCode(store, 0, 0, 0, 400, 400, 400);
+                linear.buildSorted(false);
+            });
+
+            BHTree objectTree = buildObjectTree(store, box);
+            long objectWalk = Benchmark.measure(() -> {
+                for (int i = 0; i < N; i++) {
+                    objectTree.updateForceAboutObject(store, i);
+                }
+                Benchmark.consume(store.getXAcceleration(0));
+            }, 2, 5);
+            Benchmark.report("  Forces BHTree", objectWalk, N);
+            linear.build(store, box);
+            long linearWalk = measureWalk(linear, store);
+            Benchmark.report("  Forces LinearOctree", linearWalk, N);
+            System.out.printf("    Gain : x%.2f%n", (double) objectWalk / linearWalk);
+            simulator.reorderBodies(linear.sortByMortonCode(store, 0, 0, 0, 400, 400, 400));
+            linear.buildSorted(true);
+            long sortedWalk = measureWalk(linear, store);
+            Benchmark.report("  Forces LinearOctree (corps triés)", sortedWalk, N);
+            System.out.printf("    Gain : x%.2f%n", (double) objectWalk / sortedWalk);
+
+            for (int capacity : new int[] { 1, 4, 8, 16, 32 }) {
+                linear.setLeafCapacity(capacity);
+                long build = Benchmark.measure(() -> {
+                    linear.sortByMortonCode(store, 0, 0, 0, 400, 400, 400);
+                    linear.buildSorted(true);
+                    Benchmark.consume(linear.getNodeCount());
+                });
+                long walk = measureWalk(linear, store);
+                linear.setUseGroups(true);
+                long grouped = Benchmark.measure(() -> {
+                    linear.computeAccelerations();
+                    Benchmark.consume(store.getXAcceleration(0));
+                }, 2, 5);
+                linear.setUseGroups(false);
+                System.out.printf(
+                        "  %2d corps par feuille : %8d noeuds, construction %8.3f ms, forces %9.3f ms, "
+                                + "par groupes %9.3f ms (x%.2f)%n",
+                        capacity, linear.getNodeCount(), build / 1e6, walk / 1e6, grouped / 1e6,
+                        (double) walk / grouped);
+            }
+            linear.setLeafCapacity(LinearOctree.DEFAULT_LEAF_CAPACITY);
+
+            // Petit pas de temps : les corps bougent peu et restent presque tous dans
+            // leur feuille (les vitesses sont remises à zéro pour ne pas faire
+            // dériver la mesure)
+            linear.computeAccelerations();
+            long integrate = Benchmark.measure(() -> store.integrate(0.01));
+            long rebuild = Benchmark.measure(() -> {
+                store.integrate(0.01);
+                linear.sortByMortonCode(store, 0, 0, 0, 400, 400, 400);
+                linear.buildSorted(false);
+                Benchmark.consume(linear.getNodeCount());
+            }) - integrate;
+            linear.sortByMortonCode(store, 0, 0, 0, 400, 400, 400);
+            linear.buildSorted(false);
+            int[] refits = new int[2];
+            long refit = Benchmark.measure(() -> {
+                store.integrate(0.01);
+                refits[linear.refit(LinearOctree.DEFAULT_REFIT_FRACTION) ? 0 : 1]++;
+                Benchmark.consume(linear.getNodeCount());
+            }) - integrate;
+            Benchmark.report("  Reconstruction après un pas", rebuild, N);
+            Benchmark.report("  Réajustement après un pas", refit, N);
+            System.out.printf("    Gain : x%.2f (%d réajustements, %d refusés)%n", (double) rebuild / refit, refits[0],
+                    refits[1]);
+        }
+        System.out.println(Benchmark.getSink());
+    }
+}
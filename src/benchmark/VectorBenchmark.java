@@ -0,0 +1,87 @@
+package benchmark;
+
+import java.util.*;
+
+import math_physics.math.*;
+import math_physics.physics.*;
+
+/**
+ * Banc d'essai comparant le coût d'une évaluation de force avec des vecteurs
+ * stockés dans une grille (<code>Matrix</code> (3,1), ancienne représentation
+ * de <code>Vector3D</code>) et avec le <code>Vector3D</code> à attributs
+ * primitifs.
+ */
+public class VectorBenchmark {
+    /**
+     * Calcule la somme des accélérations de tous les corps avec des matrices
+     * (3,1).
+     * 
+     * @param positions Positions des corps
+     * @param masses    Masses des corps
+     * @return Somme des normes des accélérations
+     */
+    private static double matrixForces(Matrix[] positions, double[] masses) {
+        double total = 0;
+        for (int i = 0; i < positions.length; i++) {
+            Matrix sumForces = new Matrix(3, 1);
+            for (int j = 0; j < positions.length; j++) {
+                if (i != j) {
+                    Matrix rAB = positions[i].minus(positions[j]);
+                    double d = Math.sqrt(rAB.getValue(0, 0) * rAB.getValue(0, 0)
+                            + rAB.getValue(1, 0) * rAB.getValue(1, 0) + rAB.getValue(2, 0) * rAB.getValue(2, 0));
+                    sumForces = sumForces.plus(rAB.product(masses[j] / (d * d * d)));
+                }
+            }
+            total += sumForces.getValue(0, 0) + sumForces.getValue(1, 0) + sumForces.getValue(2, 0);
+        }
+        return total * -Constants.G;
+    }
+
+    /**
+     * Calcule la somme des accélérations de tous les corps avec des
+     * <code>Vector3D</code> (même formule que
+     * <code>Formula.accelerationCalculus</code>).
+     * 
+     * @param bodies Corps simulés
+     * @return Somme des normes des accélérations
+     */
+    private static double vectorForces(List<GenericObject> bodies) {
+        Formula formula = new Formula();
+        double total = 0;
+        for (GenericObject body : bodies) {
+            Vector3D a = formula.accelerationCalculus(body, bodies);
+            total += a.getX() + a.getY() + a.getZ();
+        }
+        return total;
+    }
+
+    /**
+     * Méthode principale.
+     * 
+     * @param args Arguments passés dans le terminal
+     */
+    public static void main(String[] args) {
+        Random generator = new Random(42);
+        for (int N : new int[] { 500, 1_000, 2_000 }) {
+            Matrix[] positions = new Matrix[N];
+            double[] masses = new double[N];
+            List<GenericObject> bodies = new ArrayList<>();
+            for (int i = 0; i < N; i++) {
+                double x = generator.nextDouble() * 100;
+                double y = generator.nextDouble() * 100;
+                double z = generator.nextDouble() * 100;
+                masses[i] = generator.nextDouble() * 10;
+                positions[i] = new Matrix(new double[][] { { x }, { y }, { z } });
+                bodies.add(new Particule(masses[i], 1, new Vector3D(x, y, z)));
+            }
+            long interactions = (long) N * (N - 1);
+            System.out.println("N = " + N);
+            long matrixTime = Benchmark.measure(() -> Benchmark.consume(matrixForces(positions, masses)));
+            Benchmark.report("  Matrix (3,1)", matrixTime, interactions);
+            long vectorTime = Benchmark.measure(() -> Benchmark.consume(vectorForces(bodies)));
+            Benchmark.report("  Vector3D", vectorTime, interactions);
+            System.out.printf("  Gain : x%.2f%n", (double) matrixTime / vectorTime);
+        }
+        System.out.println(Benchmark.getSink());
+    }
+}
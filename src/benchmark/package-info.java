@@ -0,0 +1,14 @@
+/**
+ * <b> Description : </b>Package contenant les bancs d'essai (benchmarks) des
+ * différents moteurs de calcul du simulateur. Chaque classe est exécutable et
+ * affiche ses mesures dans le terminal.
+ *
+ * 
+ * @author AGBODJAN Wilfried 21914933
+ * @author LETELLIER Guillaume 21804030
+ * @author MORLAY Antoine 21803153
+ * @author PIGNARD Alexandre 21701890
+ * 
+ * @version 1.0
+ */
+package benchmark;
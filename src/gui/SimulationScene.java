@@ -264,9 +264,18 @@ public class SimulationScene extends AbstractScene {
         gridpane.add(thetaLabel, 0, 2);
         gridpane.add(sliderTheta, 0, 3);
 
-        CheckBox barnesHutActive = new CheckBox("À une vache près");
-        barnesHutActive.setSelected(true);
-        gridpane.add(barnesHutActive, 0, 4);
+        ComboBox<String> forceSolvers = new ComboBox<String>(
+                FXCollections.observableArrayList(simulator.getForceSolverNames()));
+        forceSolvers.setValue(simulator.getForceSolver().getName());
+        Label forceSolverLabel = new Label("Calcul des forces :");
+        forceSolverLabel.setLabelFor(forceSolvers);
+        forceSolvers.valueProperty().addListener(new ChangeListener<String>() {
+            public void changed(ObservableValue<? extends String> ov, String oldValue, String newValue) {
+                simulator.setForceSolver(newValue);
+            }
+        });
+        gridpane.add(forceSolverLabel, 0, 4);
+        gridpane.add(forceSolvers, 0, 5);
 
         return gridpane;
     }
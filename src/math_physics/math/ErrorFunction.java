@@ -0,0 +1,87 @@
+package math_physics.math;
+
+/**
+ * Fonction d'erreur et fonction d'erreur complémentaire, qui n'existent pas
+ * dans <code>Math</code>. La fonction complémentaire est approchée par erfc(x)
+ * = t (a<sub>1</sub> + a<sub>2</sub> t + ... + a<sub>5</sub> t<sup>4</sup>)
+ * e<sup>-x<sup>2</sup></sup> avec t = 1 / (1 + px) (Abramowitz et Stegun,
+ * 7.1.26) : l'erreur absolue reste inférieure à 1,5.10<sup>-7</sup> pour tout
+ * x, et l'approximation ne demande qu'une exponentielle. Le facteur devant
+ * l'exponentielle est accessible séparément pour les calculs qui ajoutent
+ * d'autres termes gaussiens.
+ */
+public final class ErrorFunction {
+    /**
+     * Correspond au coefficient p de t = 1 / (1 + px).
+     */
+    public static final double P = 0.3275911;
+
+    /**
+     * Correspond au coefficient a<sub>1</sub> du polynôme en t.
+     */
+    public static final double A1 = 0.254829592;
+
+    /**
+     * Correspond au coefficient a<sub>2</sub>.
+     */
+    public static final double A2 = -0.284496736;
+
+    /**
+     * Correspond au coefficient a<sub>3</sub>.
+     */
+    public static final double A3 = 1.421413741;
+
+    /**
+     * Correspond au coefficient a<sub>4</sub>.
+     */
+    public static final double A4 = -1.453152027;
+
+    /**
+     * Correspond au coefficient a<sub>5</sub>.
+     */
+    public static final double A5 = 1.061405429;
+
+    /**
+     * Constructeur privé : la classe ne contient que des méthodes statiques.
+     */
+    private ErrorFunction() {
+    }
+
+    /**
+     * Permet de calculer la fonction d'erreur : erf(x) = 2 / racine(pi) fois
+     * l'intégrale de 0 à x de e<sup>-t<sup>2</sup></sup>.
+     * 
+     * @param x Valeur
+     * @return Fonction d'erreur de la valeur
+     */
+    public static double erf(double x) {
+        return 1 - erfc(x);
+    }
+
+    /**
+     * Permet de calculer la fonction d'erreur complémentaire : erfc(x) = 1 -
+     * erf(x).
+     * 
+     * @param x Valeur
+     * @return Fonction d'erreur complémentaire de la valeur
+     */
+    public static double erfc(double x) {
+        double z = Math.abs(x);
+        double result = scaledErfc(z) * Math.exp(-z * z);
+        return x >= 0 ? result : 2 - result;
+    }
+
+    /**
+     * Permet de calculer le facteur devant l'exponentielle de la fonction
+     * d'erreur complémentaire, e<sup>x<sup>2</sup></sup> erfc(x), pour une valeur
+     * positive ou nulle (schéma de Horner).
+     * 
+     * @param x Valeur positive ou nulle
+     * @return Fonction d'erreur complémentaire de la valeur multipliée par
+     *         e<sup>x<sup>2</sup></sup>
+     */
+    public static double scaledErfc(double x) {
+        double t = 1 / (1 + P * x);
+        return t * (A1 + t * (A2 + t * (A3 + t * (A4 + t * A5))));
+    }
+}
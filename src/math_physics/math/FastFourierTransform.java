@@ -0,0 +1,118 @@
+package math_physics.math;
+
+/**
+ * Transformée de Fourier rapide complexe d'un signal dont la taille est une
+ * puissance de 2 (algorithme de Cooley-Tukey itératif en base 2). Les parties
+ * réelle et imaginaire sont rangées dans deux tableaux et transformées sur
+ * place. Les tables (permutation et facteurs de rotation) sont calculées une
+ * fois à la construction et ne sont plus que lues : une même instance peut être
+ * utilisée par plusieurs threads sur des tableaux différents.
+ */
+public class FastFourierTransform {
+    /**
+     * Correspond à la taille du signal.
+     */
+    private final int size;
+
+    /**
+     * Correspond, pour chaque case, à la case d'indice binaire inversé.
+     */
+    private final int[] reversed;
+
+    /**
+     * Correspond aux cosinus des facteurs de rotation (2 pi k / taille).
+     */
+    private final double[] cosines;
+
+    /**
+     * Correspond aux sinus des facteurs de rotation.
+     */
+    private final double[] sines;
+
+    /**
+     * Constructeur de la transformée.
+     * 
+     * @param size Taille du signal
+     * @throws IllegalArgumentException Levé lorsque la taille n'est pas une
+     *                                  puissance de 2
+     */
+    public FastFourierTransform(int size) throws IllegalArgumentException {
+        if (size < 1 || Integer.bitCount(size) != 1) {
+            throw new IllegalArgumentException("La taille doit être une puissance de 2 !");
+        }
+        this.size = size;
+        this.reversed = new int[size];
+        int bits = Integer.numberOfTrailingZeros(size);
+        for (int i = 0; i < size; i++) {
+            this.reversed[i] = bits == 0 ? 0 : Integer.reverse(i) >>> (32 - bits);
+        }
+        this.cosines = new double[size / 2];
+        this.sines = new double[size / 2];
+        for (int k = 0; k < size / 2; k++) {
+            this.cosines[k] = Math.cos(2 * Math.PI * k / size);
+            this.sines[k] = Math.sin(2 * Math.PI * k / size);
+        }
+    }
+
+    /**
+     * Permet de récupérer la taille du signal.
+     * 
+     * @return Taille du signal
+     */
+    public int getSize() {
+        return this.size;
+    }
+
+    /**
+     * Permet de transformer un signal sur place : X<sub>k</sub> = somme(x<sub>j</sub>
+     * e<sup>-2 i pi jk / n</sup>) pour la transformée directe, et x<sub>j</sub> =
+     * somme(X<sub>k</sub> e<sup>2 i pi jk / n</sup>) / n pour la transformée
+     * inverse (l'inverse de la transformée directe redonne le signal).
+     * 
+     * @param real      Parties réelles (seules les <em>size</em> premières cases
+     *                  sont utilisées)
+     * @param imaginary Parties imaginaires
+     * @param inverse   true pour la transformée inverse
+     */
+    public void transform(double[] real, double[] imaginary, boolean inverse) {
+        int n = this.size;
+        // Permutation des cases selon leur indice binaire inversé
+        for (int i = 0; i < n; i++) {
+            int j = this.reversed[i];
+            if (i < j) {
+                double swap = real[i];
+                real[i] = real[j];
+                real[j] = swap;
+                swap = imaginary[i];
+                imaginary[i] = imaginary[j];
+                imaginary[j] = swap;
+            }
+        }
+        double sign = inverse ? 1 : -1;
+        // Papillons : chaque étape combine des blocs de taille double
+        for (int half = 1; half < n; half <<= 1) {
+            int step = n / (2 * half);
+            for (int start = 0; start < n; start += 2 * half) {
+                for (int k = 0; k < half; k++) {
+                    double cos = this.cosines[k * step];
+                    double sin = sign * this.sines[k * step];
+                    int low = start + k;
+                    int high = low + half;
+                    double re = real[high] * cos - imaginary[high] * sin;
+                    double im = real[high] * sin + imaginary[high] * cos;
+                    real[high] = real[low] - re;
+                    imaginary[high] = imaginary[low] - im;
+                    real[low] += re;
+                    imaginary[low] += im;
+                }
+            }
+        }
+        if (inverse) {
+            double scale = 1.0 / n;
+            for (int i = 0; i < n; i++) {
+                real[i] *= scale;
+                imaginary[i] *= scale;
+            }
+        }
+    }
+}
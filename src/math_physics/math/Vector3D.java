@@ -1,16 +1,33 @@
 package math_physics.math;
 
 /**
- * Représente un vecteur en 3 dimensions. Utilisation de la classe
- * <code>BinaryMatrix</code> pour effectuer les calculs vectoriels.
+ * Représente un vecteur en 3 dimensions. Les trois composantes sont stockées
+ * directement dans des attributs primitifs : contrairement à
+ * <code>BinaryMatrix</code>, aucun tableau n'est alloué et l'accès à une
+ * composante ne passe par aucune vérification de coordonnées.
  */
-public class Vector3D extends BinaryMatrix {
+public class Vector3D {
+    /**
+     * Correspond à la première composante du vecteur.
+     */
+    private double x;
+
+    /**
+     * Correspond à la deuxième composante du vecteur.
+     */
+    private double y;
+
+    /**
+     * Correspond à la troisième composante du vecteur.
+     */
+    private double z;
+
     /**
      * Constructeur par défaut. Construit un nouveau vecteur où les valeurs sont
      * initialisées à 0.
      */
     public Vector3D() {
-        super(3, 1, 0);
+        this(0, 0, 0);
     }
 
     /**
@@ -22,28 +39,31 @@ public class Vector3D extends BinaryMatrix {
      * @param z Donnée pour la troisième ligne
      */
     public Vector3D(double x, double y, double z) {
-        super(3, 1, 0);
-        this.setValue(x, 0, 0);
-        this.setValue(y, 1, 0);
-        this.setValue(z, 2, 0);
+        this.x = x;
+        this.y = y;
+        this.z = z;
     }
 
     /**
      * Constructeur de vecteur. Construit un nouveau vecteur à partir de données.
      * 
      * @param data Données pour créer le vecteur
+     * @throws NDimensionsException Levé lorsque les données ne sont pas de la
+     *                              forme (3,1)
      */
     public Vector3D(double[][] data) throws NDimensionsException {
-        super(data);
         // Vérification des dimensions du tableau de données
-        if (data.length != 3 && data[0].length != 1) {
+        if (data.length != 3 || data[0].length != 1) {
             throw new NDimensionsException("Les données doivent être de la forme (3,1).");
         }
+        this.x = data[0][0];
+        this.y = data[1][0];
+        this.z = data[2][0];
     }
 
     @Override
     public String toString() {
-        return "(" + this.getX() + "," + this.getY() + "," + this.getZ() + ")";
+        return "(" + this.x + "," + this.y + "," + this.z + ")";
     }
 
     /**
@@ -62,29 +82,24 @@ public class Vector3D extends BinaryMatrix {
         if (obj == null || !(obj instanceof Vector3D)) {
             return false;
         }
-        // Vérification des dimensions
         Vector3D other = (Vector3D) obj;
-        if (this.n != other.n || this.m != other.m) {
-            return false;
-        }
-        // Vérification pour chaque élément des deux matrices
-        for (int i = 0; i < this.n; i++) {
-            for (int j = 0; j < this.m; j++) {
-                if (this.board[i][j] != other.board[i][j]) {
-                    return false;
-                }
-            }
-        }
-        return true;
+        return this.x == other.x && this.y == other.y && this.z == other.z;
+    }
+
+    /**
+     * Permet d'afficher proprement le vecteur (une composante par ligne).
+     */
+    public void show() {
+        System.out.println(this.x + " ");
+        System.out.println(this.y + " ");
+        System.out.println(this.z + " ");
     }
 
     /**
      * Permet d'afficher le vecteur en une seule ligne.
      */
     public void showInline() {
-        for (int i = 0; i < this.n; i++) {
-            System.out.print(this.getValue(i, 0) + " ");
-        }
+        System.out.print(this.x + " " + this.y + " " + this.z + " ");
         System.out.print("\n");
     }
 
@@ -94,7 +109,7 @@ public class Vector3D extends BinaryMatrix {
      * @return Premier élément du vecteur
      */
     public double getX() {
-        return this.getValue(0, 0);
+        return this.x;
     }
 
     /**
@@ -103,7 +118,7 @@ public class Vector3D extends BinaryMatrix {
      * @param newValueOnX Valeur à placer
      */
     public void setX(double newValueOnX) {
-        this.setValue(newValueOnX, 0, 0);
+        this.x = newValueOnX;
     }
 
     /**
@@ -112,7 +127,7 @@ public class Vector3D extends BinaryMatrix {
      * @return Deuxième élément du vecteur
      */
     public double getY() {
-        return this.getValue(1, 0);
+        return this.y;
     }
 
     /**
@@ -121,7 +136,7 @@ public class Vector3D extends BinaryMatrix {
      * @param newValueOnY Valeur à placer
      */
     public void setY(double newValueOnY) {
-        this.setValue(newValueOnY, 1, 0);
+        this.y = newValueOnY;
     }
 
     /**
@@ -130,7 +145,7 @@ public class Vector3D extends BinaryMatrix {
      * @return Troisième et dernier élément du vecteur
      */
     public double getZ() {
-        return this.getValue(2, 0);
+        return this.z;
     }
 
     /**
@@ -139,7 +154,82 @@ public class Vector3D extends BinaryMatrix {
      * @param newValueOnZ Valeur à placer
      */
     public void setZ(double newValueOnZ) {
-        this.setValue(newValueOnZ, 2, 0);
+        this.z = newValueOnZ;
+    }
+
+    /**
+     * Permet de récupérer un élément aux coordonnées (i,j) du vecteur. Conservée
+     * pour garder la même interface que <code>BinaryMatrix</code>.
+     * 
+     * @param i La ligne où l'on veut récupérer la valeur
+     * @param j La colonne où l'on veut récupérer la valeur (toujours 0)
+     * @return Valeur aux coordonnées (i,j)
+     * @throws CoordinatesNotExistsException Levé lorsque les coordonnées
+     *                                       renseignées n'existent pas
+     */
+    public double getValue(int i, int j) throws CoordinatesNotExistsException {
+        if (j != 0) {
+            throw new CoordinatesNotExistsException();
+        }
+        switch (i) {
+            case 0:
+                return this.x;
+            case 1:
+                return this.y;
+            case 2:
+                return this.z;
+            default:
+                throw new CoordinatesNotExistsException();
+        }
+    }
+
+    /**
+     * Permet de placer un élément aux coordonnées (i,j) du vecteur. Conservée
+     * pour garder la même interface que <code>BinaryMatrix</code>.
+     * 
+     * @param value Valeur à ajouter
+     * @param i     La ligne où l'on veut placer la valeur
+     * @param j     La colonne où l'on veut placer la valeur (toujours 0)
+     * @throws CoordinatesNotExistsException Levé lorsque les coordonnées
+     *                                       renseignées n'existent pas
+     */
+    public void setValue(double value, int i, int j) throws CoordinatesNotExistsException {
+        if (j != 0) {
+            throw new CoordinatesNotExistsException();
+        }
+        switch (i) {
+            case 0:
+                this.x = value;
+                break;
+            case 1:
+                this.y = value;
+                break;
+            case 2:
+                this.z = value;
+                break;
+            default:
+                throw new CoordinatesNotExistsException();
+        }
+    }
+
+    /**
+     * Permet de récupérer les données du vecteur sous la forme d'une grille (3,1).
+     * La grille retournée est une copie.
+     * 
+     * @return Données
+     */
+    public double[][] getData() {
+        return new double[][] { { this.x }, { this.y }, { this.z } };
+    }
+
+    /**
+     * Permet de convertir le vecteur en matrice (3,1) pour effectuer des calculs
+     * matriciels généraux.
+     * 
+     * @return Nouvelle matrice
+     */
+    public Matrix toMatrix() {
+        return new Matrix(this.getData());
     }
 
     /**
@@ -148,7 +238,7 @@ public class Vector3D extends BinaryMatrix {
      * @return Copie du vecteur
      */
     public Vector3D copy() {
-        return new Vector3D(this.board);
+        return new Vector3D(this.x, this.y, this.z);
     }
 
     /**
@@ -157,13 +247,7 @@ public class Vector3D extends BinaryMatrix {
      * @return Nouvelle matrice
      */
     public Matrix transpose() {
-        Matrix a = new Matrix(this.m, this.n);
-        for (int i = 0; i < this.n; i++) {
-            for (int j = 0; j < this.m; j++) {
-                a.setValue(this.board[i][j], j, i);
-            }
-        }
-        return a;
+        return new Matrix(new double[][] { { this.x, this.y, this.z } });
     }
 
     /**
@@ -172,13 +256,9 @@ public class Vector3D extends BinaryMatrix {
      * 
      * @param other Vecteur à ajouter
      * @return Nouveau vecteur
-     * @throws NDimensionsException Levé lorsque les dimensions entre les deux
-     *                              matrices sont différentes
      */
-    public Vector3D plus(BinaryMatrix other) throws NDimensionsException {
-        this.verifyDimensions(other);
-        return new Vector3D(this.board[0][0] + other.board[0][0], this.board[1][0] + other.board[1][0],
-                this.board[2][0] + other.board[2][0]);
+    public Vector3D plus(Vector3D other) {
+        return new Vector3D(this.x + other.x, this.y + other.y, this.z + other.z);
     }
 
     /**
@@ -189,7 +269,7 @@ public class Vector3D extends BinaryMatrix {
      * @return Nouveau vecteur
      */
     public Vector3D plus(double value) {
-        return new Vector3D(this.board[0][0] + value, this.board[1][0] + value, this.board[2][0] + value);
+        return new Vector3D(this.x + value, this.y + value, this.z + value);
     }
 
     /**
@@ -198,13 +278,9 @@ public class Vector3D extends BinaryMatrix {
      * 
      * @param other Vecteur qui soustrait
      * @return Nouveau vecteur
-     * @throws NDimensionsException Levé lorsque les dimensions entre les deux
-     *                              matrices sont différentes
      */
-    public Vector3D minus(BinaryMatrix other) throws NDimensionsException {
-        this.verifyDimensions(other);
-        return new Vector3D(this.board[0][0] - other.board[0][0], this.board[1][0] - other.board[1][0],
-                this.board[2][0] - other.board[2][0]);
+    public Vector3D minus(Vector3D other) {
+        return new Vector3D(this.x - other.x, this.y - other.y, this.z - other.z);
     }
 
     /**
@@ -215,34 +291,20 @@ public class Vector3D extends BinaryMatrix {
      * @return Nouveau vecteur
      */
     public Vector3D minus(double value) {
-        return new Vector3D(this.board[0][0] - value, this.board[1][0] - value, this.board[2][0] - value);
+        return new Vector3D(this.x - value, this.y - value, this.z - value);
     }
 
     /**
-     * Permet d'effectuer un produit matriciel. La méthode renvoie <b>un nouveau
-     * vecteur</b> qui est le <b>produit des 2</b>.
+     * Permet d'effectuer un produit matriciel entre le vecteur (3,1) et une
+     * matrice (1,3). La méthode renvoie <b>une nouvelle matrice</b> (3,3).
      * 
-     * @param other Vecteur qui multiplie
-     * @return Nouveau vecteur
+     * @param other Matrice qui multiplie
+     * @return Nouvelle matrice
      * @throws NDimensionsException Levé lorsque les dimensions entre les deux
      *                              matrices sont différentes
      */
     public Matrix product(BinaryMatrix other) throws NDimensionsException {
-        // Vérification des dimensions
-        if (this.n != other.m) {
-            throw new NDimensionsException(
-                    "Les dimensions des matrices ne correspondent pas au pattern suivant : (n,m) * (m,n)");
-        }
-        // On effectue le produit matriciel
-        Matrix final_matrix = new Matrix(this.n, other.m);
-        for (int i = 0; i < final_matrix.n; i++) {
-            for (int j = 0; j < final_matrix.m; j++) {
-                for (int k = 0; k < this.m; k++) {
-                    final_matrix.board[i][j] += this.board[i][k] * other.board[k][j];
-                }
-            }
-        }
-        return final_matrix;
+        return this.toMatrix().product(other);
     }
 
     /**
@@ -253,7 +315,7 @@ public class Vector3D extends BinaryMatrix {
      * @return Nouveau vecteur
      */
     public Vector3D product(double value) {
-        return new Vector3D(this.board[0][0] * value, this.board[1][0] * value, this.board[2][0] * value);
+        return new Vector3D(this.x * value, this.y * value, this.z * value);
     }
 
     /**
@@ -268,29 +330,215 @@ public class Vector3D extends BinaryMatrix {
         if (value == 0) {
             throw new IllegalArgumentException("Le diviseur ne peut être égale à 0");
         }
-        return new Vector3D(this.board[0][0] / value, this.board[1][0] / value, this.board[2][0] / value);
+        return new Vector3D(this.x / value, this.y / value, this.z / value);
     }
 
     /**
-     * Permet de diviser tous les éléments de la matrice par une autre matrice. La
-     * méthode renvoie <b>une nouvelle matrice</b>.
+     * Permet de diviser tous les éléments du vecteur par un autre vecteur
+     * (élément par élément). La méthode renvoie <b>un nouveau vecteur</b>.
      * 
-     * @param other Matrice pour diviser
-     * @return Nouvelle matrice
+     * @param other Vecteur pour diviser
+     * @return Nouveau vecteur
      * @throws IllegalArgumentException Levé lorsqu'au moins une des valeurs
-     *                                  contenues dans la matrice donnée est égale à
+     *                                  contenues dans le vecteur donné est égale à
      *                                  0
-     * @throws NDimensionsException     Levé lorsque les dimensions entre les deux
-     *                                  matrices sont différentes
      */
-    public Vector3D divide(BinaryMatrix other) throws IllegalArgumentException, NDimensionsException {
-        this.verifyDimensions(other);
-        Vector3D other_vector = (Vector3D) other;
-        if (other_vector.getX() == 0 || other_vector.getY() == 0 || other_vector.getZ() == 0) {
+    public Vector3D divide(Vector3D other) throws IllegalArgumentException {
+        if (other.x == 0 || other.y == 0 || other.z == 0) {
             throw new IllegalArgumentException("Le diviseur ne peut pas être égale à 0");
         }
-        return new Vector3D(this.getX() / other_vector.getX(), this.getY() / other_vector.getY(),
-                this.getZ() / other_vector.getZ());
+        return new Vector3D(this.x / other.x, this.y / other.y, this.z / other.z);
+    }
+
+    /**
+     * Permet de remplacer toutes les valeurs du vecteur par celles d'un autre
+     * vecteur. La méthode modifie <b>le vecteur actuel</b>.
+     * 
+     * @param other Vecteur à recopier
+     * @return Vecteur actuel
+     */
+    public Vector3D set(Vector3D other) {
+        this.x = other.x;
+        this.y = other.y;
+        this.z = other.z;
+        return this;
+    }
+
+    /**
+     * Permet de remplacer toutes les valeurs du vecteur. La méthode modifie <b>le
+     * vecteur actuel</b>.
+     * 
+     * @param x Nouvelle valeur pour la première ligne
+     * @param y Nouvelle valeur pour la deuxième ligne
+     * @param z Nouvelle valeur pour la troisième ligne
+     * @return Vecteur actuel
+     */
+    public Vector3D set(double x, double y, double z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        return this;
+    }
+
+    /**
+     * Permet de remettre toutes les valeurs du vecteur à 0. La méthode modifie
+     * <b>le vecteur actuel</b>.
+     * 
+     * @return Vecteur actuel
+     */
+    public Vector3D setZero() {
+        return this.set(0, 0, 0);
+    }
+
+    /**
+     * Permet de remplacer le vecteur actuel par la différence de deux vecteurs (A -
+     * B). La méthode modifie <b>le vecteur actuel</b>.
+     * 
+     * @param a Vecteur A
+     * @param b Vecteur B (qui soustrait)
+     * @return Vecteur actuel
+     */
+    public Vector3D setDifference(Vector3D a, Vector3D b) {
+        return this.set(a.x - b.x, a.y - b.y, a.z - b.z);
+    }
+
+    /**
+     * Permet d'ajouter un vecteur au vecteur actuel. La méthode modifie <b>le
+     * vecteur actuel</b>.
+     * 
+     * @param other Vecteur à ajouter
+     * @return Vecteur actuel
+     */
+    public Vector3D add(Vector3D other) {
+        this.x += other.x;
+        this.y += other.y;
+        this.z += other.z;
+        return this;
+    }
+
+    /**
+     * Permet d'ajouter un vecteur multiplié par une valeur au vecteur actuel
+     * (<em>this += other * factor</em>). La méthode modifie <b>le vecteur
+     * actuel</b>.
+     * 
+     * @param other  Vecteur à ajouter
+     * @param factor Valeur multipliant le vecteur à ajouter
+     * @return Vecteur actuel
+     */
+    public Vector3D addScaled(Vector3D other, double factor) {
+        this.x += other.x * factor;
+        this.y += other.y * factor;
+        this.z += other.z * factor;
+        return this;
+    }
+
+    /**
+     * Permet de soustraire un vecteur au vecteur actuel. La méthode modifie <b>le
+     * vecteur actuel</b>.
+     * 
+     * @param other Vecteur qui soustrait
+     * @return Vecteur actuel
+     */
+    public Vector3D subtract(Vector3D other) {
+        this.x -= other.x;
+        this.y -= other.y;
+        this.z -= other.z;
+        return this;
+    }
+
+    /**
+     * Permet de multiplier tous les éléments du vecteur par une valeur. La méthode
+     * modifie <b>le vecteur actuel</b>.
+     * 
+     * @param value Valeur pour multiplier
+     * @return Vecteur actuel
+     */
+    public Vector3D scale(double value) {
+        this.x *= value;
+        this.y *= value;
+        this.z *= value;
+        return this;
+    }
+
+    /**
+     * Permet de diviser tous les éléments du vecteur par une valeur. La méthode
+     * modifie <b>le vecteur actuel</b>.
+     * 
+     * @param value Valeur pour diviser
+     * @return Vecteur actuel
+     * @throws IllegalArgumentException Levé lorsque le diviseur est égale à 0
+     */
+    public Vector3D divideBy(double value) throws IllegalArgumentException {
+        if (value == 0) {
+            throw new IllegalArgumentException("Le diviseur ne peut être égale à 0");
+        }
+        this.x /= value;
+        this.y /= value;
+        this.z /= value;
+        return this;
+    }
+
+    /**
+     * Permet de comparer toutes les valeurs du vecteur avec un autre vecteur donné
+     * par un opérateur donné.
+     * 
+     * @param operator Opérateur de comparaison
+     * @param other    Vecteur avec qui il faut comparer
+     * @return Booléen vérifiant la condition donnée
+     */
+    public boolean compareMatrix(ConditionOperator operator, Vector3D other) {
+        return compare(operator, this.x, other.x) && compare(operator, this.y, other.y)
+                && compare(operator, this.z, other.z);
+    }
+
+    /**
+     * Permet de comparer toutes les valeurs du vecteur avec une valeur donnée par
+     * un opérateur donné.
+     * 
+     * @param operator Opérateur de comparaison
+     * @param value    Valeur avec qui il faut comparer
+     * @return Booléen vérifiant la condition donnée
+     */
+    public boolean compareMatrix(ConditionOperator operator, double value) {
+        return compare(operator, this.x, value) && compare(operator, this.y, value)
+                && compare(operator, this.z, value);
+    }
+
+    /**
+     * Permet de comparer deux valeurs par un opérateur donné.
+     * 
+     * @param operator Opérateur de comparaison
+     * @param a        Valeur de gauche
+     * @param b        Valeur de droite
+     * @return Booléen vérifiant la condition donnée
+     */
+    private static boolean compare(ConditionOperator operator, double a, double b) {
+        switch (operator) {
+            case EQ:
+                return a == b;
+            case NE:
+                return a != b;
+            case LE:
+                return a <= b;
+            case L:
+                return a < b;
+            case GE:
+                return a >= b;
+            case G:
+                return a > b;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Permet de calculer le carré de la norme du vecteur (évite la racine carrée
+     * lorsque seule une comparaison est nécessaire).
+     * 
+     * @return Carré de la distance entre le vecteur et l'origine du plan
+     */
+    public double squaredDistanceFromOrigin() {
+        return this.x * this.x + this.y * this.y + this.z * this.z;
     }
 
     /**
@@ -299,8 +547,21 @@ public class Vector3D extends BinaryMatrix {
      * @return Distance entre le vecteur et l'origine du plan
      */
     public double distanceFromOrigin() {
-        return Math.sqrt(this.getValue(0, 0) * this.getValue(0, 0) + this.getValue(1, 0) * this.getValue(1, 0)
-                + this.getValue(2, 0) * this.getValue(2, 0));
+        return Math.sqrt(this.squaredDistanceFromOrigin());
+    }
+
+    /**
+     * Permet de calculer le carré de la distance entre le vecteur actuel et un
+     * autre vecteur du même plan.
+     * 
+     * @param other Vecteur position de l'autre vecteur
+     * @return Carré de la distance entre les deux vecteurs
+     */
+    public double squaredDistanceFromOtherVector(Vector3D other) {
+        double dx = this.x - other.x;
+        double dy = this.y - other.y;
+        double dz = this.z - other.z;
+        return dx * dx + dy * dy + dz * dz;
     }
 
     /**
@@ -311,7 +572,6 @@ public class Vector3D extends BinaryMatrix {
      * @return Distance entre les deux vecteurs
      */
     public double distanceFromOtherVector(Vector3D other) {
-        Vector3D difference = (Vector3D) this.minus(other);
-        return difference.distanceFromOrigin();
+        return Math.sqrt(this.squaredDistanceFromOtherVector(other));
     }
-}
\ No newline at end of file
+}
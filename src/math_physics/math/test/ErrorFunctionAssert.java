@@ -0,0 +1,39 @@
+package math_physics.math.test;
+
+import math_physics.math.*;
+
+/**
+ * Classe de test permettant de vérifier la fonction d'erreur.
+ */
+public class ErrorFunctionAssert {
+    /**
+     * Teste des valeurs connues de la fonction d'erreur et de sa fonction
+     * complémentaire.
+     */
+    private static void testKnownValues() {
+        double[] values = { 0, 0.5, 1, 2, 3 };
+        double[] expected = { 0, 0.5204998778130465, 0.8427007929497149, 0.9953222650189527, 0.9999779095030014 };
+        for (int i = 0; i < values.length; i++) {
+            assert Math.abs(ErrorFunction.erf(values[i]) - expected[i]) < 2e-7
+                    : "erf(" + values[i] + ") devrait valoir " + expected[i];
+            assert Math.abs(ErrorFunction.erf(-values[i]) + expected[i]) < 2e-7 : "erf devrait être impaire";
+        }
+        // L'erreur est absolue : loin de 0, seul l'ordre de grandeur de la fonction
+        // complémentaire est conservé
+        double erfc5 = 1.5374597944280349e-12;
+        assert Math.abs(ErrorFunction.erfc(5) - erfc5) < 0.01 * erfc5 : "erfc(5) devrait être précise au centième";
+        assert Math.abs(ErrorFunction.scaledErfc(1) * Math.exp(-1) - ErrorFunction.erfc(1)) < 1e-15
+                : "Le facteur devant l'exponentielle devrait donner erfc";
+        assert Math.abs(ErrorFunction.erfc(-1) - (1 + 0.8427007929497149)) < 2e-7 : "erfc(-x) = 2 - erfc(x)";
+    }
+
+    /**
+     * Méthode principale.
+     * 
+     * @param args Arguments passés dans le terminal
+     */
+    public static void main(String[] args) {
+        System.out.println("Test ==> ERRORFUNCTION");
+        testKnownValues();
+    }
+}
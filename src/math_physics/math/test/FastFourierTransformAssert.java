@@ -0,0 +1,87 @@
+package math_physics.math.test;
+
+import java.util.*;
+
+import math_physics.math.*;
+
+/**
+ * Classe de test permettant de vérifier la transformée de Fourier rapide.
+ */
+public class FastFourierTransformAssert {
+    /**
+     * Teste que la transformée directe redonne la transformée de Fourier discrète
+     * calculée par sa définition.
+     */
+    private static void testSameAsDefinition() {
+        int n = 16;
+        Random random = new Random(1);
+        double[] real = new double[n];
+        double[] imaginary = new double[n];
+        for (int j = 0; j < n; j++) {
+            real[j] = random.nextDouble() - 0.5;
+            imaginary[j] = random.nextDouble() - 0.5;
+        }
+        double[] expectedReal = new double[n];
+        double[] expectedImaginary = new double[n];
+        for (int k = 0; k < n; k++) {
+            for (int j = 0; j < n; j++) {
+                double angle = -2 * Math.PI * j * k / n;
+                expectedReal[k] += real[j] * Math.cos(angle) - imaginary[j] * Math.sin(angle);
+                expectedImaginary[k] += real[j] * Math.sin(angle) + imaginary[j] * Math.cos(angle);
+            }
+        }
+        new FastFourierTransform(n).transform(real, imaginary, false);
+        for (int k = 0; k < n; k++) {
+            assert Math.abs(real[k] - expectedReal[k]) < 1e-12 && Math.abs(imaginary[k] - expectedImaginary[k]) < 1e-12
+                    : "La transformée devrait être celle de la définition (case " + k + ")";
+        }
+    }
+
+    /**
+     * Teste que la transformée inverse de la transformée directe redonne le
+     * signal, pour plusieurs tailles.
+     */
+    private static void testInverse() {
+        Random random = new Random(2);
+        for (int n : new int[] { 1, 2, 8, 256 }) {
+            double[] real = new double[n];
+            double[] imaginary = new double[n];
+            for (int j = 0; j < n; j++) {
+                real[j] = random.nextDouble();
+            }
+            double[] signal = real.clone();
+            FastFourierTransform transform = new FastFourierTransform(n);
+            transform.transform(real, imaginary, false);
+            transform.transform(real, imaginary, true);
+            for (int j = 0; j < n; j++) {
+                assert Math.abs(real[j] - signal[j]) < 1e-12 && Math.abs(imaginary[j]) < 1e-12
+                        : "L'inverse devrait redonner le signal (taille " + n + ")";
+            }
+        }
+    }
+
+    /**
+     * Teste qu'une taille qui n'est pas une puissance de 2 est refusée.
+     */
+    private static void testInvalidSize() {
+        boolean raised = false;
+        try {
+            new FastFourierTransform(12);
+        } catch (IllegalArgumentException e) {
+            raised = true;
+        }
+        assert raised : "Une taille qui n'est pas une puissance de 2 devrait être refusée";
+    }
+
+    /**
+     * Méthode principale.
+     * 
+     * @param args Arguments passés dans le terminal
+     */
+    public static void main(String[] args) {
+        System.out.println("Test ==> FASTFOURIERTRANSFORM");
+        testSameAsDefinition();
+        testInverse();
+        testInvalidSize();
+    }
+}
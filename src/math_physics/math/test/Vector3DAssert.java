@@ -50,6 +50,25 @@ public class Vector3DAssert {
                 .distanceFromOtherVector(e) : "Les distances devraient être les mêmes";
     }
 
+    /**
+     * Teste l'accès aux composantes par coordonnées (interface commune avec
+     * <code>BinaryMatrix</code>).
+     */
+    private static void testCoordinates() {
+        Vector3D a = new Vector3D(4, 5, 6);
+        assert a.getValue(0, 0) == 4 && a.getValue(1, 0) == 5
+                && a.getValue(2, 0) == 6 : "Les composantes ne sont pas les bonnes";
+        boolean raised = false;
+        try {
+            a.setValue(1, 3, 0);
+        } catch (CoordinatesNotExistsException e) {
+            raised = true;
+        }
+        assert raised : "Les coordonnées (3,0) ne devraient pas exister";
+        assert a.toMatrix().equals(new Matrix(a.getData())) : "La conversion en matrice est incorrecte";
+        assert a.squaredDistanceFromOrigin() == 77 : "Le carré de la norme est incorrect";
+    }
+
     /**
      * Méthode principale exécutable qui lance tous les tests.
      * 
@@ -61,5 +80,6 @@ public class Vector3DAssert {
         testAdditionVectors();
         testProduct();
         testDistances();
+        testCoordinates();
     }
 }
\ No newline at end of file
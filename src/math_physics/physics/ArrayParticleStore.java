@@ -0,0 +1,582 @@
+package math_physics.physics;
+
+import java.util.*;
+
+/**
+ * Stockage des corps dans des tableaux primitifs Java (sur le tas). C'est le
+ * stockage par défaut des simulateurs : les moteurs de calcul peuvent accéder
+ * directement aux tableaux.
+ */
+public class ArrayParticleStore extends ParticleStore {
+    /**
+     * Correspond aux positions sur l'axe des X.
+     */
+    private double[] x;
+
+    /**
+     * Correspond aux positions sur l'axe des Y.
+     */
+    private double[] y;
+
+    /**
+     * Correspond aux positions sur l'axe des Z.
+     */
+    private double[] z;
+
+    /**
+     * Correspond au second tampon des positions sur l'axe des X (prochaines
+     * positions pendant l'intégration).
+     */
+    private double[] nextX;
+
+    /**
+     * Correspond au second tampon des positions sur l'axe des Y.
+     */
+    private double[] nextY;
+
+    /**
+     * Correspond au second tampon des positions sur l'axe des Z.
+     */
+    private double[] nextZ;
+
+    /**
+     * Correspond aux vitesses sur l'axe des X.
+     */
+    private double[] velocityX;
+
+    /**
+     * Correspond aux vitesses sur l'axe des Y.
+     */
+    private double[] velocityY;
+
+    /**
+     * Correspond aux vitesses sur l'axe des Z.
+     */
+    private double[] velocityZ;
+
+    /**
+     * Correspond aux accélérations sur l'axe des X.
+     */
+    private double[] accelerationX;
+
+    /**
+     * Correspond aux accélérations sur l'axe des Y.
+     */
+    private double[] accelerationY;
+
+    /**
+     * Correspond aux accélérations sur l'axe des Z.
+     */
+    private double[] accelerationZ;
+
+    /**
+     * Correspond aux masses.
+     */
+    private double[] mass;
+
+    /**
+     * Correspond aux rayons.
+     */
+    private double[] radius;
+
+    /**
+     * Correspond au tableau de travail utilisé pour réordonner les corps.
+     */
+    private double[] scratch = new double[0];
+
+    /**
+     * Constructeur du stockage avec la capacité par défaut.
+     */
+    public ArrayParticleStore() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructeur du stockage.
+     * 
+     * @param initialCapacity Nombre de corps pouvant être stockés avant de devoir
+     *                        agrandir les tableaux
+     */
+    public ArrayParticleStore(int initialCapacity) {
+        if (initialCapacity < 1) {
+            initialCapacity = 1;
+        }
+        this.x = new double[initialCapacity];
+        this.y = new double[initialCapacity];
+        this.z = new double[initialCapacity];
+        this.nextX = new double[initialCapacity];
+        this.nextY = new double[initialCapacity];
+        this.nextZ = new double[initialCapacity];
+        this.velocityX = new double[initialCapacity];
+        this.velocityY = new double[initialCapacity];
+        this.velocityZ = new double[initialCapacity];
+        this.accelerationX = new double[initialCapacity];
+        this.accelerationY = new double[initialCapacity];
+        this.accelerationZ = new double[initialCapacity];
+        this.mass = new double[initialCapacity];
+        this.radius = new double[initialCapacity];
+    }
+
+    /**
+     * Permet de récupérer le nombre de corps pouvant être stockés sans agrandir
+     * les tableaux.
+     * 
+     * @return Capacité
+     */
+    public int capacity() {
+        return this.x.length;
+    }
+
+    /**
+     * Permet d'agrandir les tableaux en conservant les corps stockés.
+     * 
+     * @param newCapacity Nouvelle capacité
+     */
+    protected void grow(int newCapacity) {
+        this.x = Arrays.copyOf(this.x, newCapacity);
+        this.y = Arrays.copyOf(this.y, newCapacity);
+        this.z = Arrays.copyOf(this.z, newCapacity);
+        // Le second tampon ne contient que des valeurs temporaires
+        this.nextX = new double[newCapacity];
+        this.nextY = new double[newCapacity];
+        this.nextZ = new double[newCapacity];
+        this.velocityX = Arrays.copyOf(this.velocityX, newCapacity);
+        this.velocityY = Arrays.copyOf(this.velocityY, newCapacity);
+        this.velocityZ = Arrays.copyOf(this.velocityZ, newCapacity);
+        this.accelerationX = Arrays.copyOf(this.accelerationX, newCapacity);
+        this.accelerationY = Arrays.copyOf(this.accelerationY, newCapacity);
+        this.accelerationZ = Arrays.copyOf(this.accelerationZ, newCapacity);
+        this.mass = Arrays.copyOf(this.mass, newCapacity);
+        this.radius = Arrays.copyOf(this.radius, newCapacity);
+    }
+
+    /**
+     * Permet de décaler des corps d'une case vers le début des tableaux.
+     * 
+     * @param slot  Case qui reçoit le premier corps décalé
+     * @param count Nombre de corps à décaler
+     */
+    protected void shiftDown(int slot, int count) {
+        for (double[] array : new double[][] { this.x, this.y, this.z, this.velocityX, this.velocityY, this.velocityZ,
+                this.accelerationX, this.accelerationY, this.accelerationZ, this.mass, this.radius }) {
+            System.arraycopy(array, slot + 1, array, slot, count);
+        }
+    }
+
+    /**
+     * Permet de réordonner les corps du stockage : la case <em>i</em> reçoit le
+     * corps qui se trouvait dans la case <em>order[i]</em>. Chaque composante est
+     * rassemblée dans le tableau de travail, qui prend ensuite sa place.
+     * 
+     * @param order Permutation des cases (au moins <code>size()</code> éléments)
+     */
+    public void permute(int[] order) {
+        this.x = this.gather(this.x, order);
+        this.y = this.gather(this.y, order);
+        this.z = this.gather(this.z, order);
+        this.velocityX = this.gather(this.velocityX, order);
+        this.velocityY = this.gather(this.velocityY, order);
+        this.velocityZ = this.gather(this.velocityZ, order);
+        this.accelerationX = this.gather(this.accelerationX, order);
+        this.accelerationY = this.gather(this.accelerationY, order);
+        this.accelerationZ = this.gather(this.accelerationZ, order);
+        this.mass = this.gather(this.mass, order);
+        this.radius = this.gather(this.radius, order);
+    }
+
+    /**
+     * Permet de réordonner une composante dans le tableau de travail.
+     * 
+     * @param array Composante à réordonner
+     * @param order Permutation des cases
+     * @return Composante réordonnée (l'ancien tableau devient le tableau de
+     *         travail)
+     */
+    private double[] gather(double[] array, int[] order) {
+        if (this.scratch.length != array.length) {
+            this.scratch = new double[array.length];
+        }
+        double[] result = this.scratch;
+        for (int i = 0; i < this.size; i++) {
+            result[i] = array[order[i]];
+        }
+        this.scratch = array;
+        return result;
+    }
+
+    /**
+     * Permet de remettre à 0 les accélérations de tous les corps.
+     */
+    public void resetAccelerations() {
+        Arrays.fill(this.accelerationX, 0, this.size, 0);
+        Arrays.fill(this.accelerationY, 0, this.size, 0);
+        Arrays.fill(this.accelerationZ, 0, this.size, 0);
+    }
+
+    /**
+     * Permet d'ajouter une accélération à celle d'un corps.
+     * 
+     * @param slot Case du corps
+     * @param ax   Accélération à ajouter sur l'axe des X
+     * @param ay   Accélération à ajouter sur l'axe des Y
+     * @param az   Accélération à ajouter sur l'axe des Z
+     */
+    public void addAcceleration(int slot, double ax, double ay, double az) {
+        this.accelerationX[slot] += ax;
+        this.accelerationY[slot] += ay;
+        this.accelerationZ[slot] += az;
+    }
+
+    /**
+     * Permet de calculer la nouvelle vitesse d'un corps à partir de son
+     * accélération (<em>vf = vi + a*dt</em>).
+     * 
+     * @param slot      Case du corps
+     * @param deltaTime Temps écoulé
+     */
+    public void computeNewVelocity(int slot, double deltaTime) {
+        this.velocityX[slot] += this.accelerationX[slot] * deltaTime;
+        this.velocityY[slot] += this.accelerationY[slot] * deltaTime;
+        this.velocityZ[slot] += this.accelerationZ[slot] * deltaTime;
+    }
+
+    /**
+     * Permet de calculer la nouvelle position d'un corps à partir de sa vitesse
+     * (<em>xf = xi + v*dt</em>).
+     * 
+     * @param slot      Case du corps
+     * @param deltaTime Temps écoulé
+     */
+    public void computeNewPosition(int slot, double deltaTime) {
+        this.x[slot] += this.velocityX[slot] * deltaTime;
+        this.y[slot] += this.velocityY[slot] * deltaTime;
+        this.z[slot] += this.velocityZ[slot] * deltaTime;
+    }
+
+    /**
+     * Permet de déplacer tous les corps à partir de leurs accélérations
+     * (<em>vf = vi + a*dt</em> puis <em>xf = xi + vf*dt</em>). Les nouvelles
+     * positions sont écrites dans le second tampon de positions, puis les deux
+     * tampons sont échangés.
+     * 
+     * @param deltaTime Temps écoulé
+     */
+    public void integrate(double deltaTime) {
+        for (int i = 0; i < this.size; i++) {
+            double vx = this.velocityX[i] + this.accelerationX[i] * deltaTime;
+            double vy = this.velocityY[i] + this.accelerationY[i] * deltaTime;
+            double vz = this.velocityZ[i] + this.accelerationZ[i] * deltaTime;
+            this.velocityX[i] = vx;
+            this.velocityY[i] = vy;
+            this.velocityZ[i] = vz;
+            this.nextX[i] = this.x[i] + vx * deltaTime;
+            this.nextY[i] = this.y[i] + vy * deltaTime;
+            this.nextZ[i] = this.z[i] + vz * deltaTime;
+        }
+        this.swapPositions();
+    }
+
+    /**
+     * Permet de mettre à jour la vitesse de tous les corps à partir de leurs
+     * accélérations, sans les déplacer (<em>vf = vi + a*dt</em>).
+     * 
+     * @param deltaTime Temps écoulé
+     */
+    @Override
+    public void kick(double deltaTime) {
+        for (int i = 0; i < this.size; i++) {
+            this.velocityX[i] += this.accelerationX[i] * deltaTime;
+            this.velocityY[i] += this.accelerationY[i] * deltaTime;
+            this.velocityZ[i] += this.accelerationZ[i] * deltaTime;
+        }
+    }
+
+    /**
+     * Permet de déplacer tous les corps à partir de leurs vitesses, sans changer
+     * les vitesses (<em>xf = xi + v*dt</em>).
+     * 
+     * @param deltaTime Temps écoulé
+     */
+    @Override
+    public void drift(double deltaTime) {
+        for (int i = 0; i < this.size; i++) {
+            this.x[i] += this.velocityX[i] * deltaTime;
+            this.y[i] += this.velocityY[i] * deltaTime;
+            this.z[i] += this.velocityZ[i] * deltaTime;
+        }
+    }
+
+    /**
+     * Permet d'écrire la position d'un corps dans le second tampon de positions
+     * (elle ne devient visible qu'après <code>swapPositions</code>).
+     * 
+     * @param slot Case du corps
+     * @param x    Prochaine position sur l'axe des X
+     * @param y    Prochaine position sur l'axe des Y
+     * @param z    Prochaine position sur l'axe des Z
+     */
+    protected void setNextPosition(int slot, double x, double y, double z) {
+        this.nextX[slot] = x;
+        this.nextY[slot] = y;
+        this.nextZ[slot] = z;
+    }
+
+    /**
+     * Permet d'échanger les deux tampons de positions : les positions écrites par
+     * <code>setNextPosition</code> deviennent les positions courantes.
+     */
+    protected void swapPositions() {
+        double[] swap = this.x;
+        this.x = this.nextX;
+        this.nextX = swap;
+        swap = this.y;
+        this.y = this.nextY;
+        this.nextY = swap;
+        swap = this.z;
+        this.z = this.nextZ;
+        this.nextZ = swap;
+    }
+
+    /**
+     * Permet de récupérer la masse d'un corps.
+     * 
+     * @param slot Case du corps
+     * @return Masse
+     */
+    public double getMass(int slot) {
+        return this.mass[slot];
+    }
+
+    /**
+     * Permet de remplacer la masse d'un corps.
+     * 
+     * @param slot    Case du corps
+     * @param newMass Nouvelle masse
+     */
+    public void setMass(int slot, double newMass) {
+        this.mass[slot] = newMass;
+    }
+
+    /**
+     * Permet de récupérer le rayon d'un corps.
+     * 
+     * @param slot Case du corps
+     * @return Rayon
+     */
+    public double getRadius(int slot) {
+        return this.radius[slot];
+    }
+
+    /**
+     * Permet de remplacer le rayon d'un corps.
+     * 
+     * @param slot      Case du corps
+     * @param newRadius Nouveau rayon
+     */
+    public void setRadius(int slot, double newRadius) {
+        this.radius[slot] = newRadius;
+    }
+
+    /**
+     * Permet de récupérer la position d'un corps sur l'axe des X.
+     * 
+     * @param slot Case du corps
+     * @return Position sur l'axe des X
+     */
+    public double getXPosition(int slot) {
+        return this.x[slot];
+    }
+
+    /**
+     * Permet de récupérer la position d'un corps sur l'axe des Y.
+     * 
+     * @param slot Case du corps
+     * @return Position sur l'axe des Y
+     */
+    public double getYPosition(int slot) {
+        return this.y[slot];
+    }
+
+    /**
+     * Permet de récupérer la position d'un corps sur l'axe des Z.
+     * 
+     * @param slot Case du corps
+     * @return Position sur l'axe des Z
+     */
+    public double getZPosition(int slot) {
+        return this.z[slot];
+    }
+
+    /**
+     * Permet de remplacer la position d'un corps.
+     * 
+     * @param slot Case du corps
+     * @param x    Nouvelle position sur l'axe des X
+     * @param y    Nouvelle position sur l'axe des Y
+     * @param z    Nouvelle position sur l'axe des Z
+     */
+    public void setPosition(int slot, double x, double y, double z) {
+        this.x[slot] = x;
+        this.y[slot] = y;
+        this.z[slot] = z;
+    }
+
+    /**
+     * Permet de récupérer la vitesse d'un corps sur l'axe des X.
+     * 
+     * @param slot Case du corps
+     * @return Vitesse sur l'axe des X
+     */
+    public double getXVelocity(int slot) {
+        return this.velocityX[slot];
+    }
+
+    /**
+     * Permet de récupérer la vitesse d'un corps sur l'axe des Y.
+     * 
+     * @param slot Case du corps
+     * @return Vitesse sur l'axe des Y
+     */
+    public double getYVelocity(int slot) {
+        return this.velocityY[slot];
+    }
+
+    /**
+     * Permet de récupérer la vitesse d'un corps sur l'axe des Z.
+     * 
+     * @param slot Case du corps
+     * @return Vitesse sur l'axe des Z
+     */
+    public double getZVelocity(int slot) {
+        return this.velocityZ[slot];
+    }
+
+    /**
+     * Permet de remplacer la vitesse d'un corps.
+     * 
+     * @param slot Case du corps
+     * @param vx   Nouvelle vitesse sur l'axe des X
+     * @param vy   Nouvelle vitesse sur l'axe des Y
+     * @param vz   Nouvelle vitesse sur l'axe des Z
+     */
+    public void setVelocity(int slot, double vx, double vy, double vz) {
+        this.velocityX[slot] = vx;
+        this.velocityY[slot] = vy;
+        this.velocityZ[slot] = vz;
+    }
+
+    /**
+     * Permet de récupérer l'accélération d'un corps sur l'axe des X.
+     * 
+     * @param slot Case du corps
+     * @return Accélération sur l'axe des X
+     */
+    public double getXAcceleration(int slot) {
+        return this.accelerationX[slot];
+    }
+
+    /**
+     * Permet de récupérer l'accélération d'un corps sur l'axe des Y.
+     * 
+     * @param slot Case du corps
+     * @return Accélération sur l'axe des Y
+     */
+    public double getYAcceleration(int slot) {
+        return this.accelerationY[slot];
+    }
+
+    /**
+     * Permet de récupérer l'accélération d'un corps sur l'axe des Z.
+     * 
+     * @param slot Case du corps
+     * @return Accélération sur l'axe des Z
+     */
+    public double getZAcceleration(int slot) {
+        return this.accelerationZ[slot];
+    }
+
+    /**
+     * Permet de remplacer l'accélération d'un corps.
+     * 
+     * @param slot Case du corps
+     * @param ax   Nouvelle accélération sur l'axe des X
+     * @param ay   Nouvelle accélération sur l'axe des Y
+     * @param az   Nouvelle accélération sur l'axe des Z
+     */
+    public void setAcceleration(int slot, double ax, double ay, double az) {
+        this.accelerationX[slot] = ax;
+        this.accelerationY[slot] = ay;
+        this.accelerationZ[slot] = az;
+    }
+
+    /**
+     * Permet de récupérer le tableau des positions sur l'axe des X (utilisé par
+     * les moteurs de calcul). Le tableau est remplacé lorsque le stockage est
+     * agrandi et à chaque intégration (double tampon) : il ne faut pas le garder
+     * après un ajout de corps ou un pas de temps.
+     * 
+     * @return Tableau des positions sur l'axe des X
+     */
+    public double[] getXPositions() {
+        return this.x;
+    }
+
+    /**
+     * Permet de récupérer le tableau des positions sur l'axe des Y (voir
+     * <code>getXPositions</code>).
+     * 
+     * @return Tableau des positions sur l'axe des Y
+     */
+    public double[] getYPositions() {
+        return this.y;
+    }
+
+    /**
+     * Permet de récupérer le tableau des positions sur l'axe des Z (voir
+     * <code>getXPositions</code>).
+     * 
+     * @return Tableau des positions sur l'axe des Z
+     */
+    public double[] getZPositions() {
+        return this.z;
+    }
+
+    /**
+     * Permet de récupérer le tableau des accélérations sur l'axe des X (voir
+     * <code>getXPositions</code>).
+     * 
+     * @return Tableau des accélérations sur l'axe des X
+     */
+    public double[] getXAccelerations() {
+        return this.accelerationX;
+    }
+
+    /**
+     * Permet de récupérer le tableau des accélérations sur l'axe des Y (voir
+     * <code>getXPositions</code>).
+     * 
+     * @return Tableau des accélérations sur l'axe des Y
+     */
+    public double[] getYAccelerations() {
+        return this.accelerationY;
+    }
+
+    /**
+     * Permet de récupérer le tableau des accélérations sur l'axe des Z (voir
+     * <code>getXPositions</code>).
+     * 
+     * @return Tableau des accélérations sur l'axe des Z
+     */
+    public double[] getZAccelerations() {
+        return this.accelerationZ;
+    }
+
+    /**
+     * Permet de récupérer le tableau des masses (voir <code>getXPositions</code>).
+     * 
+     * @return Tableau des masses
+     */
+    public double[] getMasses() {
+        return this.mass;
+    }
+}
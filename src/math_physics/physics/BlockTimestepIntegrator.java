@@ -0,0 +1,407 @@
+package math_physics.physics;
+
+import java.util.*;
+
+/**
+ * Schéma saute-mouton (« kick-drift-kick ») à pas de temps individuels par
+ * blocs : le pas du simulateur est divisé en <em>2^maxLevel</em> intervalles
+ * et chaque corps avance avec un pas <em>dt / 2^niveau</em>, choisi d'après son
+ * accélération et sa dérivée (le « jerk ») :
+ * <em>pas = accuracy * |a| / |j|</em>, arrondi à la puissance de 2 inférieure.
+ * Le jerk est estimé par la variation de l'accélération du corps sur son
+ * dernier pas. Les corps sont rangés dans une liste par niveau : à chaque
+ * sous-pas, les corps actifs (dont le pas se termine) sont ceux des listes
+ * des niveaux les plus profonds. Seuls ces corps sont déplacés jusqu'à la fin
+ * de leur pas et reçoivent leurs demi-pas sur les vitesses, et leurs
+ * accélérations seulement sont calculées (voir
+ * <code>Simulator.computeAccelerations(int[], int)</code>), à partir des
+ * positions prédites au second ordre des corps au repos. Dans un système
+ * où quelques corps proches imposent de petits pas, les autres restent au
+ * repos la plupart du temps.
+ * <p>
+ * Un corps peut passer à un pas plus petit à la fin de chacun de ses pas, mais
+ * à un pas plus grand seulement lorsque l'instant courant en est un multiple :
+ * les pas restent emboîtés et tous les corps se retrouvent synchronisés à la
+ * fin du pas du simulateur. Les premiers pas commencent au plus petit pas.
+ */
+public class BlockTimestepIntegrator implements Integrator {
+    /**
+     * Nom du schéma.
+     */
+    public static final String NAME = "Saute-mouton à pas par blocs";
+
+    /**
+     * Nombre de niveaux de division du pas par défaut.
+     */
+    public static final int DEFAULT_MAX_LEVEL = 10;
+
+    /**
+     * Plus grand nombre de niveaux de division du pas accepté.
+     */
+    public static final int MAX_LEVEL = 30;
+
+    /**
+     * Facteur de précision par défaut du choix des pas.
+     */
+    public static final double DEFAULT_ACCURACY = 0.002;
+
+    /**
+     * Correspond au nombre de niveaux de division du pas du simulateur.
+     */
+    private int maxLevel = DEFAULT_MAX_LEVEL;
+
+    /**
+     * Correspond au facteur de précision du choix des pas.
+     */
+    private double accuracy = DEFAULT_ACCURACY;
+
+    /**
+     * Correspond au simulateur du dernier pas.
+     */
+    private Simulator simulator = null;
+
+    /**
+     * Correspond au nombre de calculs des forces du simulateur à la fin du
+     * dernier pas : s'il a changé, les niveaux ne correspondent plus aux corps.
+     */
+    private long evaluations = -1;
+
+    /**
+     * Correspond au niveau de chaque case (pas <em>dt / 2^niveau</em>).
+     */
+    private int[] levels = new int[0];
+
+    /**
+     * Correspond aux accélérations du début du pas de chaque case (x, y, z),
+     * utilisées pour estimer le jerk.
+     */
+    private double[] previous = new double[0];
+
+    /**
+     * Correspond aux cases des corps actifs du sous-pas courant.
+     */
+    private int[] active = new int[0];
+
+    /**
+     * Correspond aux positions du début du pas de chaque case (x, y, z) : la
+     * position du stockage d'un corps au repos est sa position prédite.
+     */
+    private double[] origins = new double[0];
+
+    /**
+     * Correspond à l'instant du début du pas de chaque case (en intervalles
+     * depuis le début du pas du simulateur).
+     */
+    private long[] starts = new long[0];
+
+    /**
+     * Correspond à la première case de la liste de chaque niveau (-1 si la liste
+     * est vide).
+     */
+    private int[] heads = new int[0];
+
+    /**
+     * Correspond à la case suivante de chaque case dans la liste de son niveau
+     * (-1 pour la dernière).
+     */
+    private int[] next = new int[0];
+
+    /**
+     * Correspond à la case précédente de chaque case dans la liste de son niveau
+     * (-1 pour la première).
+     */
+    private int[] previousInList = new int[0];
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * Permet de récupérer le nombre de niveaux de division du pas du simulateur.
+     * 
+     * @return Nombre de niveaux (le plus petit pas est <em>dt / 2^maxLevel</em>)
+     */
+    public int getMaxLevel() {
+        return this.maxLevel;
+    }
+
+    /**
+     * Permet de remplacer le nombre de niveaux de division du pas du simulateur.
+     * Les niveaux des corps sont recalculés au pas suivant.
+     * 
+     * @param newMaxLevel Nouveau nombre de niveaux
+     * @throws IllegalArgumentException Levé lorsque le nombre de niveaux n'est pas
+     *                                  compris entre 0 et <em>MAX_LEVEL</em>
+     */
+    public void setMaxLevel(int newMaxLevel) throws IllegalArgumentException {
+        if (newMaxLevel < 0 || newMaxLevel > MAX_LEVEL) {
+            throw new IllegalArgumentException("Le nombre de niveaux doit être compris entre 0 et " + MAX_LEVEL + " !");
+        }
+        this.maxLevel = newMaxLevel;
+        this.simulator = null;
+    }
+
+    /**
+     * Permet de récupérer le facteur de précision du choix des pas.
+     * 
+     * @return Facteur de précision
+     */
+    public double getAccuracy() {
+        return this.accuracy;
+    }
+
+    /**
+     * Permet de remplacer le facteur de précision du choix des pas (plus il est
+     * petit, plus les pas sont petits).
+     * 
+     * @param newAccuracy Nouveau facteur de précision
+     * @throws IllegalArgumentException Levé lorsque le facteur n'est pas
+     *                                  strictement positif
+     */
+    public void setAccuracy(double newAccuracy) throws IllegalArgumentException {
+        if (!(newAccuracy > 0)) {
+            throw new IllegalArgumentException("Le facteur de précision doit être strictement positif !");
+        }
+        this.accuracy = newAccuracy;
+    }
+
+    /**
+     * Permet de récupérer le niveau du pas d'un corps à la fin du dernier pas du
+     * simulateur.
+     * 
+     * @param slot Case du corps
+     * @return Niveau du pas (pas <em>dt / 2^niveau</em>)
+     */
+    public int getLevel(int slot) {
+        return this.levels[slot];
+    }
+
+    /**
+     * Permet de ranger les accélérations actuelles de tous les corps et de les
+     * mettre au plus petit pas.
+     * 
+     * @param store Stockage contenant les corps
+     */
+    private void reset(ParticleStore store) {
+        int size = store.size();
+        if (this.levels.length < size) {
+            this.levels = new int[size];
+            this.previous = new double[3 * size];
+            this.active = new int[size];
+            this.origins = new double[3 * size];
+            this.starts = new long[size];
+            this.next = new int[size];
+            this.previousInList = new int[size];
+        }
+        if (this.heads.length != this.maxLevel + 1) {
+            this.heads = new int[this.maxLevel + 1];
+        }
+        Arrays.fill(this.heads, -1);
+        for (int i = 0; i < size; i++) {
+            this.levels[i] = this.maxLevel;
+            this.link(i);
+            this.previous[3 * i] = store.getXAcceleration(i);
+            this.previous[3 * i + 1] = store.getYAcceleration(i);
+            this.previous[3 * i + 2] = store.getZAcceleration(i);
+        }
+    }
+
+    /**
+     * Permet d'ajouter une case en tête de la liste de son niveau.
+     * 
+     * @param slot Case du corps
+     */
+    private void link(int slot) {
+        int level = this.levels[slot];
+        int head = this.heads[level];
+        this.next[slot] = head;
+        this.previousInList[slot] = -1;
+        if (head >= 0) {
+            this.previousInList[head] = slot;
+        }
+        this.heads[level] = slot;
+    }
+
+    /**
+     * Permet de retirer une case de la liste de son niveau.
+     * 
+     * @param slot Case du corps
+     */
+    private void unlink(int slot) {
+        int before = this.previousInList[slot];
+        int after = this.next[slot];
+        if (before >= 0) {
+            this.next[before] = after;
+        } else {
+            this.heads[this.levels[slot]] = after;
+        }
+        if (after >= 0) {
+            this.previousInList[after] = before;
+        }
+    }
+
+    /**
+     * Permet d'appliquer un demi-pas sur la vitesse d'un corps à partir de son
+     * accélération.
+     * 
+     * @param store    Stockage contenant le corps
+     * @param slot     Case du corps
+     * @param halfStep Demi-pas du corps
+     */
+    private static void kick(ParticleStore store, int slot, double halfStep) {
+        store.setVelocity(slot, store.getXVelocity(slot) + store.getXAcceleration(slot) * halfStep,
+                store.getYVelocity(slot) + store.getYAcceleration(slot) * halfStep,
+                store.getZVelocity(slot) + store.getZAcceleration(slot) * halfStep);
+    }
+
+    /**
+     * Permet de choisir le niveau du prochain pas d'un corps actif à partir de
+     * son accélération et de celle du début de son pas, et de ranger son
+     * accélération pour le pas suivant.
+     * 
+     * @param store Stockage contenant le corps
+     * @param slot  Case du corps
+     * @param step  Durée du pas qui se termine
+     * @param tick  Durée d'un intervalle (plus petit pas)
+     * @param time  Instant courant (en intervalles depuis le début du pas du
+     *              simulateur)
+     */
+    private void chooseLevel(ParticleStore store, int slot, double step, double tick, long time) {
+        double ax = store.getXAcceleration(slot);
+        double ay = store.getYAcceleration(slot);
+        double az = store.getZAcceleration(slot);
+        int k = 3 * slot;
+        double dx = ax - this.previous[k];
+        double dy = ay - this.previous[k + 1];
+        double dz = az - this.previous[k + 2];
+        this.previous[k] = ax;
+        this.previous[k + 1] = ay;
+        this.previous[k + 2] = az;
+        // Pas souhaité : accuracy * |a| / |j|, avec |j| = |variation de a| / pas
+        double change = Math.sqrt(dx * dx + dy * dy + dz * dz);
+        double desired = this.accuracy * Math.sqrt(ax * ax + ay * ay + az * az) * Math.abs(step) / change;
+        // Sans variation (corps isolé, accélération constante) rien ne limite le pas
+        boolean constrained = change != 0 && Double.isFinite(desired);
+        int level = 0;
+        while (constrained && level < this.maxLevel
+                && !(Math.abs(tick) * (1L << (this.maxLevel - level)) <= desired)) {
+            level++;
+        }
+        // Un pas plus grand doit commencer à un multiple de sa durée
+        while (level < this.levels[slot] && time % (1L << (this.maxLevel - level)) != 0) {
+            level++;
+        }
+        if (level != this.levels[slot]) {
+            this.unlink(slot);
+            this.levels[slot] = level;
+            this.link(slot);
+        }
+    }
+
+    /**
+     * Permet de commencer le pas d'un corps à l'instant courant, depuis sa
+     * position actuelle.
+     * 
+     * @param store Stockage contenant le corps
+     * @param slot  Case du corps
+     * @param time  Instant courant (en intervalles depuis le début du pas du
+     *              simulateur)
+     */
+    private void start(ParticleStore store, int slot, long time) {
+        int k = 3 * slot;
+        this.origins[k] = store.getXPosition(slot);
+        this.origins[k + 1] = store.getYPosition(slot);
+        this.origins[k + 2] = store.getZPosition(slot);
+        this.starts[slot] = time;
+    }
+
+    /**
+     * Permet de placer un corps à sa position prédite au second ordre,
+     * <em>x0 + v0*t + a0*t^2/2</em>, à l'instant <em>t</em> de son pas
+     * <em>dt</em> : c'est la position déplacée en ligne droite avec la vitesse
+     * du demi-pas, <em>x0 + v*t</em>, plus <em>-a0*t*(dt - t)/2</em>. À la fin
+     * du pas, la correction est nulle et le corps est simplement déplacé. Sans
+     * cette prédiction, un corps à grand pas (une planète) s'écarte de sa
+     * trajectoire entre deux pas, et les corps proches à petit pas (ses
+     * satellites) suivent ses écarts.
+     * 
+     * @param store Stockage contenant le corps
+     * @param slot  Case du corps
+     * @param tick  Durée d'un intervalle (plus petit pas)
+     * @param time  Instant courant (en intervalles depuis le début du pas du
+     *              simulateur)
+     */
+    private void predict(ParticleStore store, int slot, double tick, long time) {
+        long step = 1L << (this.maxLevel - this.levels[slot]);
+        long elapsed = time - this.starts[slot];
+        double t = tick * elapsed;
+        double c = -0.5 * tick * tick * elapsed * (step - elapsed);
+        int k = 3 * slot;
+        store.setPosition(slot, this.origins[k] + store.getXVelocity(slot) * t + c * this.previous[k],
+                this.origins[k + 1] + store.getYVelocity(slot) * t + c * this.previous[k + 1],
+                this.origins[k + 2] + store.getZVelocity(slot) * t + c * this.previous[k + 2]);
+    }
+
+    @Override
+    public void step(Simulator simulator, double deltaTime) {
+        ParticleStore store = simulator.getStore();
+        if (simulator != this.simulator || !simulator.getAccelerationsUpToDate()
+                || simulator.getForceEvaluations() != this.evaluations) {
+            // Premier pas, ou corps modifiés depuis le dernier pas : les corps peuvent
+            // être réordonnés avant de ranger leur état par case
+            simulator.computeAccelerations();
+            this.reset(store);
+            this.simulator = simulator;
+        }
+        int size = store.size();
+        int[] levels = this.levels;
+        int[] active = this.active;
+        long blockTicks = 1L << this.maxLevel;
+        double tick = deltaTime / blockTicks;
+        // Premier demi-pas sur les vitesses de tous les corps, chacun avec son pas
+        for (int i = 0; i < size; i++) {
+            kick(store, i, tick * (1L << (this.maxLevel - levels[i])) / 2);
+            this.start(store, i, 0);
+        }
+        long time = 0;
+        while (time < blockTicks) {
+            // Le prochain sous-pas se termine à la fin du plus petit pas en cours
+            int deepest = this.maxLevel;
+            while (deepest > 0 && this.heads[deepest] < 0) {
+                deepest--;
+            }
+            time += 1L << (this.maxLevel - deepest);
+            // Les pas qui se terminent sont ceux des niveaux dont la durée divise
+            // l'instant courant
+            int due = this.maxLevel - Long.numberOfTrailingZeros(time);
+            int count = 0;
+            for (int level = due; level <= this.maxLevel; level++) {
+                for (int i = this.heads[level]; i >= 0; i = this.next[i]) {
+                    active[count++] = i;
+                    this.predict(store, i, tick, time);
+                }
+            }
+            for (int level = 0; level < due; level++) {
+                for (int i = this.heads[level]; i >= 0; i = this.next[i]) {
+                    this.predict(store, i, tick, time);
+                }
+            }
+            simulator.invalidateAccelerations();
+            simulator.computeAccelerations(active, count);
+            for (int a = 0; a < count; a++) {
+                int slot = active[a];
+                double step = tick * (1L << (this.maxLevel - levels[slot]));
+                // Second demi-pas avec la nouvelle accélération, puis premier demi-pas
+                // du pas suivant si le pas du simulateur n'est pas terminé
+                kick(store, slot, step / 2);
+                this.chooseLevel(store, slot, step, tick, time);
+                if (time < blockTicks) {
+                    kick(store, slot, tick * (1L << (this.maxLevel - levels[slot])) / 2);
+                }
+                this.start(store, slot, time);
+            }
+        }
+        this.evaluations = simulator.getForceEvaluations();
+    }
+}
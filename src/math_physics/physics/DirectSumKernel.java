@@ -0,0 +1,55 @@
+package math_physics.physics;
+
+/**
+ * Représente un noyau de calcul des accélérations par sommation directe : chaque
+ * corps d'un stockage est attiré par tous les autres corps de ce même stockage.
+ */
+public interface DirectSumKernel {
+    /**
+     * Permet de récupérer le nom du noyau (affichage et bancs d'essai).
+     * 
+     * @return Nom du noyau
+     */
+    String getName();
+
+    /**
+     * Permet de calculer l'accélération d'un corps par rapport à tous les autres
+     * corps du stockage. Le résultat remplace l'accélération du corps.
+     * 
+     * @param store  Stockage contenant tous les corps simulés
+     * @param target Case du corps que l'on veut calculer l'accélération
+     */
+    void computeAcceleration(ParticleStore store, int target);
+
+    /**
+     * Permet de calculer les accélérations de tous les corps du stockage à partir
+     * des mêmes positions.
+     * 
+     * @param store Stockage contenant tous les corps simulés
+     */
+    default void computeAccelerations(ParticleStore store) {
+        for (int i = 0, size = store.size(); i < size; i++) {
+            this.computeAcceleration(store, i);
+        }
+    }
+
+    /**
+     * Permet de récupérer le noyau le plus rapide disponible sur la JVM courante :
+     * le noyau vectoriel (SIMD) lorsque le module <em>jdk.incubator.vector</em>
+     * est chargé, le noyau scalaire sinon.
+     * 
+     * @return Noyau de sommation directe
+     */
+    static DirectSumKernel fastest() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                // Chargement par réflexion : la classe ne doit pas être liée sans le module
+                return (DirectSumKernel) Class.forName("math_physics.physics.VectorDirectSumKernel")
+                        .getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // Module présent mais inutilisable : on se replie sur le noyau scalaire
+            }
+        }
+        return new ScalarDirectSumKernel();
+    }
+}
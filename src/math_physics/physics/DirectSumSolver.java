@@ -0,0 +1,154 @@
+package math_physics.physics;
+
+import java.util.concurrent.*;
+
+/**
+ * Méthode de calcul des forces par sommation directe : chaque corps est attiré
+ * par tous les autres, avec le noyau choisi (scalaire, vectoriel, symétrique
+ * ou parallèle). Précise mais en N<sup>2</sup>.
+ */
+public class DirectSumSolver implements ForceSolver {
+    /**
+     * Nom de la méthode.
+     */
+    public static final String NAME = "Sommation directe";
+
+    /**
+     * Correspond au noyau de sommation directe.
+     */
+    private DirectSumKernel kernel;
+
+    /**
+     * Tâche calculant les accélérations d'une plage de corps cibles, découpée en
+     * deux comme celle de <code>ParallelDirectSumKernel</code>.
+     */
+    private static final class TargetTask extends RecursiveAction {
+        /**
+         * Ajout d'un numéro <em>serialVersionUID</em> pour la tâche.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Correspond au noyau utilisé pour chaque corps cible.
+         */
+        private final DirectSumKernel kernel;
+
+        /**
+         * Correspond au stockage contenant tous les corps simulés.
+         */
+        private final ParticleStore store;
+
+        /**
+         * Correspond aux cases des corps cibles.
+         */
+        private final int[] targets;
+
+        /**
+         * Correspond à la première case de la plage dans le tableau des cibles.
+         */
+        private final int start;
+
+        /**
+         * Correspond à la case qui suit la dernière case de la plage.
+         */
+        private final int end;
+
+        /**
+         * Constructeur de la tâche.
+         * 
+         * @param kernel  Noyau utilisé pour chaque corps cible
+         * @param store   Stockage contenant tous les corps simulés
+         * @param targets Cases des corps cibles
+         * @param start   Première case de la plage dans le tableau des cibles
+         * @param end     Case qui suit la dernière case de la plage
+         */
+        private TargetTask(DirectSumKernel kernel, ParticleStore store, int[] targets, int start, int end) {
+            this.kernel = kernel;
+            this.store = store;
+            this.targets = targets;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.end - this.start <= ParallelDirectSumKernel.DEFAULT_GRAIN) {
+                for (int i = this.start; i < this.end; i++) {
+                    this.kernel.computeAcceleration(this.store, this.targets[i]);
+                }
+            } else {
+                int middle = (this.start + this.end) >>> 1;
+                invokeAll(new TargetTask(this.kernel, this.store, this.targets, this.start, middle),
+                        new TargetTask(this.kernel, this.store, this.targets, middle, this.end));
+            }
+        }
+    }
+
+    /**
+     * Constructeur de la méthode.
+     * 
+     * @param kernel Noyau de sommation directe
+     */
+    public DirectSumSolver(DirectSumKernel kernel) {
+        this.kernel = kernel;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * Permet de récupérer le noyau de sommation directe.
+     * 
+     * @return Noyau de sommation directe
+     */
+    public DirectSumKernel getKernel() {
+        return this.kernel;
+    }
+
+    /**
+     * Permet de changer le noyau de sommation directe.
+     * 
+     * @param newKernel Nouveau noyau
+     */
+    public void setKernel(DirectSumKernel newKernel) {
+        this.kernel = newKernel;
+    }
+
+    /**
+     * Permet de remplacer l'accélération de tous les corps d'un stockage par les
+     * attractions de tous les autres corps. Le groupe de threads n'est pas
+     * utilisé : un noyau parallèle (<code>ParallelDirectSumKernel</code>) porte
+     * le sien.
+     * 
+     * @param store Stockage contenant les corps
+     * @param pool  Groupe de threads (ignoré)
+     */
+    @Override
+    public void computeAccelerations(ParticleStore store, ForkJoinPool pool) {
+        this.kernel.computeAccelerations(store);
+    }
+
+    /**
+     * Permet de remplacer l'accélération de certains corps seulement par les
+     * attractions de tous les autres corps, corps par corps avec le noyau. Les
+     * corps cibles sont répartis sur le groupe de threads lorsqu'ils sont assez
+     * nombreux (même grain que <code>ParallelDirectSumKernel</code>).
+     * 
+     * @param store   Stockage contenant les corps
+     * @param targets Cases des corps à mettre à jour
+     * @param count   Nombre de corps à mettre à jour (début du tableau)
+     * @param pool    Groupe de threads (<em>null</em> pour un calcul séquentiel)
+     */
+    @Override
+    public void computeAccelerations(ParticleStore store, int[] targets, int count, ForkJoinPool pool) {
+        if (pool == null || count <= ParallelDirectSumKernel.DEFAULT_GRAIN) {
+            for (int i = 0; i < count; i++) {
+                this.kernel.computeAcceleration(store, targets[i]);
+            }
+        } else {
+            pool.invoke(new TargetTask(this.kernel, store, targets, 0, count));
+        }
+    }
+}
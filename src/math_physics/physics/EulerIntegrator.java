@@ -0,0 +1,27 @@
+package math_physics.physics;
+
+/**
+ * Schéma d'Euler semi-implicite : les accélérations sont calculées à partir des
+ * positions du début du pas, puis les vitesses et les positions sont mises à
+ * jour (<em>vf = vi + a*dt</em> puis <em>xf = xi + vf*dt</em>). Un calcul des
+ * forces par pas, mais une erreur d'ordre 1 : l'énergie dérive si le pas n'est
+ * pas très petit.
+ */
+public class EulerIntegrator implements Integrator {
+    /**
+     * Nom du schéma.
+     */
+    public static final String NAME = "Euler semi-implicite";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void step(Simulator simulator, double deltaTime) {
+        simulator.computeAccelerations();
+        simulator.getStore().integrate(deltaTime);
+        simulator.invalidateAccelerations();
+    }
+}
@@ -0,0 +1,99 @@
+package math_physics.physics;
+
+import java.util.concurrent.*;
+
+/**
+ * Représente une méthode de calcul des forces (sommation directe, arbre de
+ * Barnes-Hut, méthode multipolaire...) : elle remplace l'accélération de tous
+ * les corps d'un stockage par les attractions des autres corps, sans déplacer
+ * les corps. L'intégration reste au simulateur, qui choisit la méthode par son
+ * nom (voir <code>Simulator.setForceSolver</code>) : une nouvelle méthode
+ * s'ajoute sans toucher aux classes des corps.
+ * <p>
+ * Une méthode qui gagne à ranger les corps proches côte à côte en mémoire
+ * propose un nouvel ordre avec <code>sortBodies</code> ; le simulateur
+ * l'applique au stockage (et à sa liste de corps) avant
+ * <code>computeAccelerations</code>, en lui indiquant s'il a réordonné le
+ * stockage : la méthode n'a donc rien à retenir d'un appel à l'autre.
+ */
+public interface ForceSolver {
+    /**
+     * Permet de récupérer le nom de la méthode, qui l'identifie dans le
+     * simulateur (affichage et choix de la méthode).
+     * 
+     * @return Nom de la méthode
+     */
+    String getName();
+
+    /**
+     * Permet de proposer un nouvel ordre des corps avant le calcul des forces.
+     * Lorsqu'un ordre est renvoyé, l'appelant doit réordonner le stockage selon
+     * lui (voir <code>ParticleStore.permute</code>) puis appeler
+     * <code>computeAccelerations</code> en indiquant que le stockage a été
+     * réordonné, sans déplacer les corps entre temps.
+     * 
+     * @param store Stockage contenant les corps
+     * @param pool  Groupe de threads (<em>null</em> pour un calcul séquentiel)
+     * @return Cases des corps dans le nouvel ordre, ou <em>null</em> si l'ordre
+     *         des corps est indifférent
+     */
+    default int[] sortBodies(ParticleStore store, ForkJoinPool pool) {
+        return null;
+    }
+
+    /**
+     * Permet de remplacer l'accélération de tous les corps d'un stockage par les
+     * attractions calculées par la méthode, sans tri préalable : le stockage
+     * n'est pas réordonné.
+     * 
+     * @param store Stockage contenant les corps
+     * @param pool  Groupe de threads (<em>null</em> pour un calcul séquentiel)
+     */
+    void computeAccelerations(ParticleStore store, ForkJoinPool pool);
+
+    /**
+     * Permet de remplacer l'accélération de tous les corps d'un stockage par les
+     * attractions calculées par la méthode, en sachant si le stockage vient
+     * d'être réordonné selon l'ordre renvoyé par <code>sortBodies</code>. Par
+     * défaut, l'ordre des corps est indifférent et les forces sont calculées
+     * comme sans tri préalable.
+     * 
+     * @param store     Stockage contenant les corps
+     * @param reordered true si le stockage vient d'être réordonné selon l'ordre
+     *                  renvoyé par <code>sortBodies</code>, false sinon (aucun
+     *                  ordre demandé, ou aucun ordre proposé)
+     * @param pool      Groupe de threads (<em>null</em> pour un calcul
+     *                  séquentiel)
+     */
+    default void computeAccelerations(ParticleStore store, boolean reordered, ForkJoinPool pool) {
+        this.computeAccelerations(store, pool);
+    }
+
+    /**
+     * Permet de remplacer l'accélération de certains corps seulement par les
+     * attractions de tous les autres corps (pas de temps par blocs : seuls les
+     * corps actifs ont besoin de leur accélération). Le stockage n'est pas
+     * réordonné et <code>sortBodies</code> n'est pas appelée avant. Par défaut,
+     * les accélérations de tous les corps sont calculées : une méthode qui ne
+     * sait pas se limiter aux corps cibles peut donc aussi remplacer
+     * l'accélération des autres corps.
+     * 
+     * @param store   Stockage contenant les corps
+     * @param targets Cases des corps à mettre à jour
+     * @param count   Nombre de corps à mettre à jour (début du tableau)
+     * @param pool    Groupe de threads (<em>null</em> pour un calcul séquentiel)
+     */
+    default void computeAccelerations(ParticleStore store, int[] targets, int count, ForkJoinPool pool) {
+        this.computeAccelerations(store, pool);
+    }
+
+    /**
+     * Permet de remplacer l'accélération de tous les corps d'un stockage par les
+     * attractions calculées par la méthode, sur le thread courant.
+     * 
+     * @param store Stockage contenant les corps
+     */
+    default void computeAccelerations(ParticleStore store) {
+        this.computeAccelerations(store, null);
+    }
+}
@@ -32,10 +32,29 @@ public class Formula {
      */
     public Vector3D newtonGravitationVectorForm(double massA, double massB, Vector3D unitVectorA,
             Vector3D unitVectorB) {
-        Vector3D rAB = unitVectorA.minus(unitVectorB); // Distance entre les deux vecteurs
-        double d = unitVectorA.distanceFromOtherVector(unitVectorB); // Norme de la distance entre les deux vecteurs
+        return this.addNewtonGravitationVectorForm(massA, massB, unitVectorA, unitVectorB, new Vector3D());
+    }
+
+    /**
+     * Permet d'ajouter la force exercée sur un corps A par un corps B à un vecteur
+     * accumulateur. Aucun vecteur n'est créé.
+     * 
+     * @param massA       Masse de l'objet A (en kg)
+     * @param massB       Masse de l'objet B (en kg)
+     * @param unitVectorA Coordonnées vectorielles de l'objet A (en m)
+     * @param unitVectorB Coordonnées vectorielles de l'objet B (en m)
+     * @param sumForces   Vecteur auquel la force de B sur A est ajoutée (en N)
+     * @return Vecteur accumulateur
+     */
+    public Vector3D addNewtonGravitationVectorForm(double massA, double massB, Vector3D unitVectorA,
+            Vector3D unitVectorB, Vector3D sumForces) {
+        // Distance entre les deux vecteurs
+        double dx = unitVectorA.getX() - unitVectorB.getX();
+        double dy = unitVectorA.getY() - unitVectorB.getY();
+        double dz = unitVectorA.getZ() - unitVectorB.getZ();
+        double d = Math.sqrt(dx * dx + dy * dy + dz * dz); // Norme de la distance entre les deux vecteurs
         double f = Constants.G * massA * massB / (d * d * d);
-        return rAB.product(f);
+        return sumForces.set(sumForces.getX() + dx * f, sumForces.getY() + dy * f, sumForces.getZ() + dz * f);
     }
 
     /**
@@ -47,18 +66,173 @@ public class Formula {
      * @return Vecteur accélération de l'objet souhaité (en m/s^(-2))
      */
     public Vector3D accelerationCalculus(GenericObject object, List<GenericObject> allObjects) {
-        Vector3D sumForces = new Vector3D();
-        // Somme des forces exercées par les autres objets
-        for (GenericObject o : allObjects) {
+        return this.accelerationCalculus(object, allObjects, new Vector3D());
+    }
+
+    /**
+     * Permet de calculer l'accélération d'un objet par rapport aux autres masses
+     * qui intéragissent avec ce même objet. Le résultat est écrit dans le vecteur
+     * donné : aucun vecteur n'est créé.
+     * 
+     * @param object       Objet que l'on veut calculer l'accélération
+     * @param allObjects   Liste des objets de l'espace simulé
+     * @param acceleration Vecteur qui reçoit l'accélération de l'objet souhaité (en
+     *                     m/s^(-2))
+     * @return Vecteur accélération donné
+     */
+    public Vector3D accelerationCalculus(GenericObject object, List<GenericObject> allObjects,
+            Vector3D acceleration) {
+        double x = object.getXPosition();
+        double y = object.getYPosition();
+        double z = object.getZPosition();
+        double sumX = 0;
+        double sumY = 0;
+        double sumZ = 0;
+        // Somme des forces exercées par les autres objets (parcours indexé : pas
+        // d'itérateur créé)
+        for (int i = 0, size = allObjects.size(); i < size; i++) {
+            GenericObject o = allObjects.get(i);
             if (object != o) {
-                Vector3D rAB = object.getPosition().minus(o.getPosition()); // Distance entre les deux vecteurs
-                double d = object.getPosition().distanceFromOtherVector(o.getPosition()); // Norme de la distance entre
-                                                                                          // les deux vecteurs
+                double dx = x - o.getXPosition(); // Distance entre les deux vecteurs
+                double dy = y - o.getYPosition();
+                double dz = z - o.getZPosition();
+                double d = Math.sqrt(dx * dx + dy * dy + dz * dz); // Norme de la distance
                 double f = o.getMass() / (d * d * d);
-                sumForces = sumForces.plus(rAB.product(f));
+                sumX += dx * f;
+                sumY += dy * f;
+                sumZ += dz * f;
+            }
+        }
+        return acceleration.set(sumX, sumY, sumZ).scale(-Constants.G);
+    }
+
+    /**
+     * Permet de calculer l'accélération d'un corps d'un stockage par rapport à
+     * tous les autres corps de ce même stockage. Le calcul se fait directement sur
+     * les composantes du stockage (quelle que soit son implémentation) et le
+     * résultat remplace l'accélération du corps.
+     * 
+     * @param store  Stockage contenant tous les corps simulés
+     * @param target Case du corps que l'on veut calculer l'accélération
+     */
+    public void accelerationCalculus(ParticleStore store, int target) {
+        double x = store.getXPosition(target);
+        double y = store.getYPosition(target);
+        double z = store.getZPosition(target);
+        double sumX = 0;
+        double sumY = 0;
+        double sumZ = 0;
+        for (int i = 0, size = store.size(); i < size; i++) {
+            if (i != target) {
+                double dx = x - store.getXPosition(i); // Distance entre les deux corps
+                double dy = y - store.getYPosition(i);
+                double dz = z - store.getZPosition(i);
+                double d = Math.sqrt(dx * dx + dy * dy + dz * dz); // Norme de la distance
+                double f = store.getMass(i) / (d * d * d);
+                sumX += dx * f;
+                sumY += dy * f;
+                sumZ += dz * f;
+            }
+        }
+        store.setAcceleration(target, -Constants.G * sumX, -Constants.G * sumY, -Constants.G * sumZ);
+    }
+
+    /**
+     * Permet d'ajouter à l'accélération d'un corps d'un stockage l'attraction
+     * exercée par une masse ponctuelle (un autre corps ou un centre de gravité).
+     * 
+     * @param store  Stockage contenant le corps
+     * @param target Case du corps qui subit l'attraction
+     * @param mass   Masse qui attire le corps (en kg)
+     * @param x      Position de la masse sur l'axe des X (en m)
+     * @param y      Position de la masse sur l'axe des Y (en m)
+     * @param z      Position de la masse sur l'axe des Z (en m)
+     */
+    public void addAcceleration(ParticleStore store, int target, double mass, double x, double y, double z) {
+        double dx = x - store.getXPosition(target);
+        double dy = y - store.getYPosition(target);
+        double dz = z - store.getZPosition(target);
+        double d = Math.sqrt(dx * dx + dy * dy + dz * dz); // Norme de la distance entre les deux positions
+        double f = Constants.G * mass / (d * d * d);
+        store.addAcceleration(target, dx * f, dy * f, dz * f);
+    }
+
+    /**
+     * Permet de calculer la dérivée de l'accélération (le « jerk ») de tous les
+     * corps d'un stockage à partir de leurs positions et de leurs vitesses
+     * (calcul direct en N<sup>2</sup>) :
+     * <em>j = G * somme(m * (v / d^3 - 3 * (r.v) * r / d^5))</em>, avec
+     * <em>r</em> et <em>v</em> la position et la vitesse relatives de l'autre
+     * corps.
+     * 
+     * @param store  Stockage contenant tous les corps simulés
+     * @param jerksX Tableau qui reçoit les jerks sur l'axe des X (au moins
+     *               <code>store.size()</code> éléments)
+     * @param jerksY Tableau qui reçoit les jerks sur l'axe des Y
+     * @param jerksZ Tableau qui reçoit les jerks sur l'axe des Z
+     */
+    public void jerks(ParticleStore store, double[] jerksX, double[] jerksY, double[] jerksZ) {
+        for (int i = 0, size = store.size(); i < size; i++) {
+            double x = store.getXPosition(i);
+            double y = store.getYPosition(i);
+            double z = store.getZPosition(i);
+            double vx = store.getXVelocity(i);
+            double vy = store.getYVelocity(i);
+            double vz = store.getZVelocity(i);
+            double sumX = 0;
+            double sumY = 0;
+            double sumZ = 0;
+            for (int j = 0; j < size; j++) {
+                if (j != i) {
+                    double dx = store.getXPosition(j) - x; // Position relative de l'autre corps
+                    double dy = store.getYPosition(j) - y;
+                    double dz = store.getZPosition(j) - z;
+                    double dvx = store.getXVelocity(j) - vx; // Vitesse relative de l'autre corps
+                    double dvy = store.getYVelocity(j) - vy;
+                    double dvz = store.getZVelocity(j) - vz;
+                    double d2 = dx * dx + dy * dy + dz * dz;
+                    double f = store.getMass(j) / (d2 * Math.sqrt(d2));
+                    double g = 3 * (dx * dvx + dy * dvy + dz * dvz) / d2;
+                    sumX += f * (dvx - g * dx);
+                    sumY += f * (dvy - g * dy);
+                    sumZ += f * (dvz - g * dz);
+                }
+            }
+            jerksX[i] = Constants.G * sumX;
+            jerksY[i] = Constants.G * sumY;
+            jerksZ[i] = Constants.G * sumZ;
+        }
+    }
+
+    /**
+     * Permet de calculer l'énergie mécanique de tous les corps d'un stockage :
+     * somme des énergies cinétiques et des énergies potentielles de chaque paire
+     * de corps (calcul direct en N<sup>2</sup>).
+     * 
+     * @param store Stockage contenant tous les corps simulés
+     * @return Énergie totale (en J)
+     */
+    public double totalEnergy(ParticleStore store) {
+        double kinetic = 0;
+        double potential = 0;
+        for (int i = 0, size = store.size(); i < size; i++) {
+            double vx = store.getXVelocity(i);
+            double vy = store.getYVelocity(i);
+            double vz = store.getZVelocity(i);
+            kinetic += 0.5 * store.getMass(i) * (vx * vx + vy * vy + vz * vz);
+            double x = store.getXPosition(i);
+            double y = store.getYPosition(i);
+            double z = store.getZPosition(i);
+            double sum = 0;
+            for (int j = i + 1; j < size; j++) {
+                double dx = x - store.getXPosition(j); // Distance entre les deux corps
+                double dy = y - store.getYPosition(j);
+                double dz = z - store.getZPosition(j);
+                sum += store.getMass(j) / Math.sqrt(dx * dx + dy * dy + dz * dz);
             }
+            potential -= Constants.G * store.getMass(i) * sum;
         }
-        return sumForces.product(-Constants.G);
+        return kinetic + potential;
     }
 
     /**
@@ -88,8 +262,8 @@ public class Formula {
         double allMass = 0;
         for (int i = 0; i < allObjectMass.size(); i++) {
             allMass += allObjectMass.get(i);
-            sum = sum.plus(allObjectPosition.get(i).product(allObjectMass.get(i)));
+            sum.addScaled(allObjectPosition.get(i), allObjectMass.get(i));
         }
-        return new CenterOfMass(allMass, sum.divide(allMass));
+        return new CenterOfMass(allMass, sum.divideBy(allMass));
     }
 }
\ No newline at end of file
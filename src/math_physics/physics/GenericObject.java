@@ -5,7 +5,11 @@ import java.util.*;
 import math_physics.math.*;
 
 /**
- * Représente un objet de l'univers quelconque.
+ * Représente un objet de l'univers quelconque. L'état physique de l'objet
+ * (masse, rayon, position, vitesse et accélération) n'est pas stocké dans
+ * l'objet lui-même mais dans une case d'un <code>ParticleStore</code> : l'objet
+ * n'en est qu'une vue. Tant qu'il n'appartient à aucun simulateur, l'objet
+ * possède son propre stockage d'une seule case.
  */
 public abstract class GenericObject {
     /**
@@ -14,42 +18,29 @@ public abstract class GenericObject {
     public static int numberGenericObject = 0;
 
     /**
-     * Correspond à l'identifiant unique de l'objet.
+     * Instance des formules physiques partagée par tous les objets (évite d'en
+     * créer une à chaque calcul).
      */
-    protected final int ObjectID;
+    protected static final Formula FORMULA = new Formula();
 
     /**
-     * Correspond à la masse totale de l'objet
-     */
-    protected double mass;
-
-    /**
-     * Correspond au rayon de l'objet.
-     */
-    protected double radius = 1;
-
-    /**
-     * Correspond aux coordonnées spatiales de l'objet sous forme vectorielle.
-     */
-    protected Vector3D position;
-
-    /**
-     * Correspond aux coordonnées de vitesses de l'objet sous forme vectorielle.
+     * Correspond à l'identifiant unique de l'objet.
      */
-    protected Vector3D velocity;
+    protected final int ObjectID;
 
     /**
-     * Correspond aux coordonnées d'accélération de l'objet sous forme vectorielle.
+     * Correspond au stockage contenant l'état physique de l'objet.
      */
-    protected Vector3D acceleration = new Vector3D();
+    protected ParticleStore store;
 
     /**
-     * Correspond à la force exercée sur l'objet sous forme vectorielle.
+     * Correspond à la case de l'objet dans le stockage.
      */
-    protected Vector3D force = new Vector3D();
+    protected int slot;
 
     /**
-     * Constructeur d'un objet astronomique.
+     * Constructeur d'un objet astronomique. Les vecteurs donnés sont recopiés
+     * dans le stockage de l'objet.
      * 
      * @param mass     Masse totale de l'objet
      * @param radius   Rayon de l'objet
@@ -60,17 +51,16 @@ public abstract class GenericObject {
         if (mass < 0 || radius < 0) {
             throw new RuntimeException("La masse et le rayon doivent être positifs !");
         }
-        this.mass = mass;
-        this.radius = radius;
-        this.position = position;
-        this.velocity = velocity;
+        this.store = new ArrayParticleStore(1);
+        this.slot = this.store.add(mass, radius, position.getX(), position.getY(), position.getZ(),
+                velocity.getX(), velocity.getY(), velocity.getZ());
         GenericObject.numberGenericObject++;
         this.ObjectID = GenericObject.numberGenericObject;
     }
 
     @Override
     public String toString() {
-        return this.ObjectID + " : " + this.mass;
+        return this.ObjectID + " : " + this.getMass();
     }
 
     /**
@@ -82,13 +72,52 @@ public abstract class GenericObject {
         return this.ObjectID;
     }
 
+    /**
+     * Permet de récupérer le stockage contenant l'état physique de l'objet.
+     * 
+     * @return Stockage
+     */
+    public ParticleStore getStore() {
+        return this.store;
+    }
+
+    /**
+     * Permet de récupérer la case de l'objet dans son stockage.
+     * 
+     * @return Case de l'objet
+     */
+    public int getSlot() {
+        return this.slot;
+    }
+
+    /**
+     * Permet de déplacer l'état physique de l'objet à la fin d'un autre stockage
+     * (utilisé lorsque l'objet est ajouté à un simulateur).
+     * 
+     * @param newStore Nouveau stockage
+     */
+    protected void attach(ParticleStore newStore) {
+        this.slot = newStore.copyFrom(this.store, this.slot);
+        this.store = newStore;
+    }
+
+    /**
+     * Permet de recopier l'état physique de l'objet dans son propre stockage
+     * (utilisé lorsque l'objet est retiré d'un simulateur).
+     */
+    protected void detach() {
+        ParticleStore ownStore = new ArrayParticleStore(1);
+        this.slot = ownStore.copyFrom(this.store, this.slot);
+        this.store = ownStore;
+    }
+
     /**
      * Permet de récupérer la masse de l'objet
      * 
      * @return Masse de l'objet
      */
     public double getMass() {
-        return this.mass;
+        return this.store.getMass(this.slot);
     }
 
     /**
@@ -97,7 +126,7 @@ public abstract class GenericObject {
      * @param newMass Nouvelle masse de l'objet
      */
     public void setMass(double newMass) {
-        this.mass = newMass;
+        this.store.setMass(this.slot, newMass);
     }
 
     /**
@@ -106,7 +135,7 @@ public abstract class GenericObject {
      * @return Rayon de l'objet
      */
     public double getRadius() {
-        return this.radius;
+        return this.store.getRadius(this.slot);
     }
 
     /**
@@ -115,16 +144,17 @@ public abstract class GenericObject {
      * @param newRadius Nouveau rayon de l'objet
      */
     public void setRadius(double newRadius) {
-        this.radius = newRadius;
+        this.store.setRadius(this.slot, newRadius);
     }
 
     /**
-     * Récupère le vecteur position de l'objet.
+     * Récupère le vecteur position de l'objet. Le vecteur retourné est une copie :
+     * le modifier ne déplace pas l'objet.
      * 
      * @return Coordonnées de l'objet
      */
     public Vector3D getPosition() {
-        return this.position;
+        return new Vector3D(this.getXPosition(), this.getYPosition(), this.getZPosition());
     }
 
     /**
@@ -133,16 +163,70 @@ public abstract class GenericObject {
      * @param newPosition Nouvelle position
      */
     public void setPosition(Vector3D newPosition) {
-        this.position = newPosition;
+        this.store.setPosition(this.slot, newPosition.getX(), newPosition.getY(), newPosition.getZ());
+    }
+
+    /**
+     * Permet de récupérer la position de l'objet sur l'axe des abscisses.
+     * 
+     * @return Position sur l'axe des X
+     */
+    public double getXPosition() {
+        return this.store.getXPosition(this.slot);
+    }
+
+    /**
+     * Permet de récupérer la position de l'objet sur l'axe des ordonnées.
+     * 
+     * @return Position sur l'axe des Y
+     */
+    public double getYPosition() {
+        return this.store.getYPosition(this.slot);
+    }
+
+    /**
+     * Permet de récupérer la position de l'objet sur l'axe de la profondeur.
+     * 
+     * @return Position sur l'axe des Z
+     */
+    public double getZPosition() {
+        return this.store.getZPosition(this.slot);
+    }
+
+    /**
+     * Permet de remplacer la position de l'objet sur l'axe des abscisses.
+     * 
+     * @param newValue Nouvelle valeur
+     */
+    public void setXPosition(double newValue) {
+        this.store.setPosition(this.slot, newValue, this.getYPosition(), this.getZPosition());
     }
 
     /**
-     * Récupère le vecteur vitesse de l'objet.
+     * Permet de remplacer la position de l'objet sur l'axe des ordonnées.
+     * 
+     * @param newValue Nouvelle valeur
+     */
+    public void setYPosition(double newValue) {
+        this.store.setPosition(this.slot, this.getXPosition(), newValue, this.getZPosition());
+    }
+
+    /**
+     * Permet de remplacer la position de l'objet sur l'axe de la profondeur.
+     * 
+     * @param newValue Nouvelle valeur
+     */
+    public void setZPosition(double newValue) {
+        this.store.setPosition(this.slot, this.getXPosition(), this.getYPosition(), newValue);
+    }
+
+    /**
+     * Récupère le vecteur vitesse de l'objet. Le vecteur retourné est une copie.
      * 
      * @return Vitesse de l'objet sur tous les axes 3D
      */
     public Vector3D getVelocity() {
-        return this.velocity;
+        return new Vector3D(this.getXVelocity(), this.getYVelocity(), this.getZVelocity());
     }
 
     /**
@@ -151,16 +235,72 @@ public abstract class GenericObject {
      * @param newVelocity Nouvelle vitesse
      */
     public void setVelocity(Vector3D newVelocity) {
-        this.velocity = newVelocity;
+        this.store.setVelocity(this.slot, newVelocity.getX(), newVelocity.getY(), newVelocity.getZ());
+    }
+
+    /**
+     * Permet de récupérer la vélocité de l'objet sur l'axe des abscisses.
+     * 
+     * @return Vélocité sur l'axe des X
+     */
+    public double getXVelocity() {
+        return this.store.getXVelocity(this.slot);
+    }
+
+    /**
+     * Permet de récupérer la vélocité de l'objet sur l'axe des ordonnées.
+     * 
+     * @return Vélocité sur l'axe des Y
+     */
+    public double getYVelocity() {
+        return this.store.getYVelocity(this.slot);
+    }
+
+    /**
+     * Permet de récupérer la vélocité de l'objet sur l'axe de la profondeur.
+     * 
+     * @return Vélocité sur l'axe des Z
+     */
+    public double getZVelocity() {
+        return this.store.getZVelocity(this.slot);
     }
 
     /**
-     * Récupère le vecteur accélération de l'objet.
+     * Permet de remplacer la vélocité de l'objet sur l'axe des abscisses.
+     * 
+     * @param newValue Nouvelle valeur
+     */
+    public void setXVelocity(double newValue) {
+        this.store.setVelocity(this.slot, newValue, this.getYVelocity(), this.getZVelocity());
+    }
+
+    /**
+     * Permet de remplacer la vélocité de l'objet sur l'axe des ordonnées.
+     * 
+     * @param newValue Nouvelle valeur
+     */
+    public void setYVelocity(double newValue) {
+        this.store.setVelocity(this.slot, this.getXVelocity(), newValue, this.getZVelocity());
+    }
+
+    /**
+     * Permet de remplacer la vélocité de l'objet sur l'axe de la profondeur.
+     * 
+     * @param newValue Nouvelle valeur
+     */
+    public void setZVelocity(double newValue) {
+        this.store.setVelocity(this.slot, this.getXVelocity(), this.getYVelocity(), newValue);
+    }
+
+    /**
+     * Récupère le vecteur accélération de l'objet. Le vecteur retourné est une
+     * copie.
      * 
      * @return Accélération de l'objet sur tous les axes 3D
      */
     public Vector3D getAcceleration() {
-        return this.acceleration;
+        return new Vector3D(this.store.getXAcceleration(this.slot), this.store.getYAcceleration(this.slot),
+                this.store.getZAcceleration(this.slot));
     }
 
     /**
@@ -169,63 +309,76 @@ public abstract class GenericObject {
      * @param newAcceleration Nouvelle accélération
      */
     public void setAcceleration(Vector3D newAcceleration) {
-        this.acceleration = newAcceleration;
+        this.store.setAcceleration(this.slot, newAcceleration.getX(), newAcceleration.getY(),
+                newAcceleration.getZ());
     }
 
     /**
-     * Permet de récupérer le vecteur force de l'objet.
+     * Permet de récupérer le vecteur force de l'objet. La force n'est pas stockée
+     * : elle est déduite de l'accélération (<em>F = m*a</em>).
      * 
      * @return Force exercée sur l'objet sur tous les axes 3D
      */
     public Vector3D getForce() {
-        return this.force;
+        return this.getAcceleration().scale(this.getMass());
     }
 
     /**
-     * Permet de mettre à jour la force exercée sur l'objet.
+     * Permet de mettre à jour la force exercée sur l'objet (l'accélération devient
+     * <em>F/m</em>).
      * 
      * @param newForce Nouvelle force
+     * @throws IllegalArgumentException Levé lorsque la masse de l'objet est nulle
      */
-    public void setForce(Vector3D newForce) {
-        this.force = newForce;
+    public void setForce(Vector3D newForce) throws IllegalArgumentException {
+        this.setAcceleration(newForce.copy().divideBy(this.getMass()));
     }
 
     /**
      * Permet de réinitialiser la force exercée sur l'objet.
      */
     public void resetForce() {
-        this.force = new Vector3D(); // == new Vector3D(0, 0, 0)
+        this.store.setAcceleration(this.slot, 0, 0, 0);
     }
 
     /**
      * Permet d'ajouter la force nette entre cet objet simulé et un autre objet au
-     * vecteur force de l'objet simulé.
+     * vecteur force de l'objet simulé (ajoutée directement à l'accélération).
      * 
      * @param body Corps qui exerce sa force sur cet objet simulé
      */
     public void addForce(GenericObject body) {
-        this.force = this.force
-                .plus(new Formula().newtonGravitationVectorForm(body.mass, this.mass, body.position, this.position));
+        FORMULA.addAcceleration(this.store, this.slot, body.getMass(), body.getXPosition(), body.getYPosition(),
+                body.getZPosition());
     }
 
     /**
      * Permet d'ajouter la force nette entre cet objet simulé et un centre de
-     * gravité au vecteur force de l'objet simulé.
+     * gravité au vecteur force de l'objet simulé (ajoutée directement à
+     * l'accélération).
      * 
      * @param body Centre de gravité qui exerce sa force sur cet objet simulé
      */
     public void addForce(CenterOfMass body) {
-        this.force = this.force
-                .plus(new Formula().newtonGravitationVectorForm(body.mass, this.mass, body.position, this.position));
+        FORMULA.addAcceleration(this.store, this.slot, body.mass, body.position.getX(), body.position.getY(),
+                body.position.getZ());
     }
 
     /**
-     * Permet de calculer les nouvelles accélérations de l'objet.
+     * Permet de calculer les nouvelles accélérations de l'objet. Les attractions
+     * sont ajoutées directement dans la case du stockage : aucun vecteur n'est
+     * créé.
      * 
      * @param allObjects Liste contenant tous les objets
      */
     public void computeNewAccelerations(List<GenericObject> allObjects) {
-        this.acceleration = new Formula().accelerationCalculus(this, allObjects);
+        this.resetForce();
+        for (int i = 0, size = allObjects.size(); i < size; i++) {
+            GenericObject o = allObjects.get(i);
+            if (o != this) {
+                this.addForce(o);
+            }
+        }
     }
 
     /**
@@ -234,7 +387,7 @@ public abstract class GenericObject {
      * @param deltaTime Temps écoulé
      */
     public void computeNewVelocities(double deltaTime) {
-        this.velocity = this.velocity.plus(this.acceleration.product(deltaTime)); // vf = vi + a*dt
+        this.store.computeNewVelocity(this.slot, deltaTime); // vf = vi + a*dt
     }
 
     /**
@@ -243,13 +396,34 @@ public abstract class GenericObject {
      * @param deltaTime Temps écoulé
      */
     public void computeNewPositions(double deltaTime) {
-        this.position = this.position.plus(this.velocity.product(deltaTime)); // xf = xi + v*t
+        this.store.computeNewPosition(this.slot, deltaTime); // xf = xi + v*t
+    }
+
+    /**
+     * Permet de simuler le déplacement de tous les objets d'une liste en deux
+     * phases : toutes les accélérations sont calculées à partir des mêmes
+     * positions, puis tous les objets sont déplacés. Contrairement à des appels
+     * successifs à <code>simulate(allObjects, deltaTime)</code>, le résultat ne
+     * dépend pas de l'ordre de la liste.
+     * 
+     * @param allObjects Liste contenant tous les objets
+     * @param deltaTime  Temps écoulé
+     */
+    public static void simulateAll(List<GenericObject> allObjects, double deltaTime) {
+        int size = allObjects.size();
+        for (int i = 0; i < size; i++) {
+            allObjects.get(i).computeNewAccelerations(allObjects);
+        }
+        for (int i = 0; i < size; i++) {
+            allObjects.get(i).simulate(deltaTime);
+        }
     }
 
     /**
      * Permet de simuler le déplacement des objets dans un espace 3D en fonction de
      * masses et des positions de tous les autres objets. La simulation met à jour
-     * les données directement (calcul de l'accélération basique).
+     * les données directement (calcul de l'accélération basique) : les objets
+     * suivants de la liste voient déjà la nouvelle position.
      * 
      * @param allObjects Liste contenant tous les objets
      * @param deltaTime  Temps écoulé
@@ -263,14 +437,13 @@ public abstract class GenericObject {
     /**
      * Permet de simuler le déplacement des objets dans un espace 3D en fonction de
      * masses et des positions de tous les autres objets. La simulation met à jour
-     * les données directement (calcul de l'accélération directement à partir de la
-     * force).
+     * les données directement (l'accélération a déjà été accumulée à partir des
+     * forces).
      * 
      * @param deltaTime Temps écoulé
      */
     public void simulate(double deltaTime) {
-        this.acceleration = this.force.divide(this.mass); // Calcule et remplace l'accélération
         this.computeNewVelocities(deltaTime); // Met à jour la vitesse
         this.computeNewPositions(deltaTime); // Met à jour la position
     }
-}
\ No newline at end of file
+}
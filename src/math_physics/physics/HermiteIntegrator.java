@@ -0,0 +1,150 @@
+package math_physics.physics;
+
+/**
+ * Schéma prédicteur-correcteur d'Hermite d'ordre 4 : les positions et les
+ * vitesses sont prédites par un développement de Taylor utilisant
+ * l'accélération et sa dérivée (le « jerk »), les accélérations et les jerks
+ * sont calculés aux positions prédites, puis le pas est corrigé par
+ * interpolation d'Hermite. Un seul calcul des forces par pas : les
+ * accélérations et les jerks calculés aux positions prédites servent au début
+ * du pas suivant (le simulateur les considère donc à jour). Les accélérations
+ * sont calculées par la méthode choisie du simulateur, les jerks par sommation
+ * directe (<code>Formula.jerks</code>) : le schéma convient aux systèmes de
+ * quelques corps proches (systèmes planétaires).
+ */
+public class HermiteIntegrator implements Integrator {
+    /**
+     * Nom du schéma.
+     */
+    public static final String NAME = "Hermite (ordre 4)";
+
+    /**
+     * Correspond aux formules physiques utilisées pour calculer les jerks.
+     */
+    private final Formula formula = new Formula();
+
+    /**
+     * Correspond au simulateur du dernier pas.
+     */
+    private Simulator simulator = null;
+
+    /**
+     * Correspond au nombre de calculs des forces du simulateur à la fin du
+     * dernier pas : s'il a changé, les jerks ne correspondent plus aux
+     * accélérations.
+     */
+    private long evaluations = -1;
+
+    /**
+     * Correspond aux jerks des corps sur l'axe des X, calculés avec les
+     * dernières accélérations.
+     */
+    private double[] jerksX = new double[0];
+
+    /**
+     * Correspond aux jerks des corps sur l'axe des Y.
+     */
+    private double[] jerksY = new double[0];
+
+    /**
+     * Correspond aux jerks des corps sur l'axe des Z.
+     */
+    private double[] jerksZ = new double[0];
+
+    /**
+     * Correspond à l'état du début du pas (x, y, z, vx, vy, vz, ax, ay, az, jx,
+     * jy, jz pour chaque case).
+     */
+    private double[] start = new double[0];
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * Permet de calculer les jerks de tous les corps à partir de leurs positions
+     * et de leurs vitesses actuelles.
+     * 
+     * @param store Stockage contenant les corps
+     */
+    private void computeJerks(ParticleStore store) {
+        int size = store.size();
+        if (this.jerksX.length < size) {
+            this.jerksX = new double[size];
+            this.jerksY = new double[size];
+            this.jerksZ = new double[size];
+            this.start = new double[12 * size];
+        }
+        this.formula.jerks(store, this.jerksX, this.jerksY, this.jerksZ);
+    }
+
+    @Override
+    public void step(Simulator simulator, double deltaTime) {
+        ParticleStore store = simulator.getStore();
+        if (simulator != this.simulator || !simulator.getAccelerationsUpToDate()
+                || simulator.getForceEvaluations() != this.evaluations) {
+            // Premier pas, ou corps modifiés depuis le dernier pas
+            simulator.computeAccelerations();
+            this.computeJerks(store);
+            this.simulator = simulator;
+        }
+        int size = store.size();
+        double[] start = this.start;
+        double dt = deltaTime;
+        double dt2 = dt * dt / 2;
+        double dt3 = dt * dt * dt / 6;
+        // Prédiction par développement de Taylor
+        for (int i = 0; i < size; i++) {
+            int k = 12 * i;
+            double x = store.getXPosition(i);
+            double y = store.getYPosition(i);
+            double z = store.getZPosition(i);
+            double vx = store.getXVelocity(i);
+            double vy = store.getYVelocity(i);
+            double vz = store.getZVelocity(i);
+            double ax = store.getXAcceleration(i);
+            double ay = store.getYAcceleration(i);
+            double az = store.getZAcceleration(i);
+            double jx = this.jerksX[i];
+            double jy = this.jerksY[i];
+            double jz = this.jerksZ[i];
+            start[k] = x;
+            start[k + 1] = y;
+            start[k + 2] = z;
+            start[k + 3] = vx;
+            start[k + 4] = vy;
+            start[k + 5] = vz;
+            start[k + 6] = ax;
+            start[k + 7] = ay;
+            start[k + 8] = az;
+            start[k + 9] = jx;
+            start[k + 10] = jy;
+            start[k + 11] = jz;
+            store.setPosition(i, x + vx * dt + ax * dt2 + jx * dt3, y + vy * dt + ay * dt2 + jy * dt3,
+                    z + vz * dt + az * dt2 + jz * dt3);
+            store.setVelocity(i, vx + ax * dt + jx * dt2, vy + ay * dt + jy * dt2, vz + az * dt + jz * dt2);
+        }
+        // Évaluation aux positions prédites (les corps gardent leur case)
+        simulator.invalidateAccelerations();
+        simulator.computeAccelerations(false);
+        this.computeJerks(store);
+        // Correction par interpolation d'Hermite
+        double half = dt / 2;
+        double twelfth = dt * dt / 12;
+        for (int i = 0; i < size; i++) {
+            int k = 12 * i;
+            double ax = store.getXAcceleration(i);
+            double ay = store.getYAcceleration(i);
+            double az = store.getZAcceleration(i);
+            double vx = start[k + 3] + (start[k + 6] + ax) * half + (start[k + 9] - this.jerksX[i]) * twelfth;
+            double vy = start[k + 4] + (start[k + 7] + ay) * half + (start[k + 10] - this.jerksY[i]) * twelfth;
+            double vz = start[k + 5] + (start[k + 8] + az) * half + (start[k + 11] - this.jerksZ[i]) * twelfth;
+            store.setPosition(i, start[k] + (start[k + 3] + vx) * half + (start[k + 6] - ax) * twelfth,
+                    start[k + 1] + (start[k + 4] + vy) * half + (start[k + 7] - ay) * twelfth,
+                    start[k + 2] + (start[k + 5] + vz) * half + (start[k + 8] - az) * twelfth);
+            store.setVelocity(i, vx, vy, vz);
+        }
+        this.evaluations = simulator.getForceEvaluations();
+    }
+}
@@ -0,0 +1,28 @@
+package math_physics.physics;
+
+/**
+ * Représente un schéma d'intégration du mouvement des corps (Euler
+ * semi-implicite, saute-mouton...) : il avance tous les corps d'un simulateur
+ * d'un pas de temps, en demandant au simulateur de calculer les accélérations
+ * autant de fois que nécessaire avec la méthode de calcul des forces choisie
+ * (voir <code>Simulator.computeAccelerations</code>). Le schéma se choisit avec
+ * <code>Simulator.setIntegrator</code>.
+ */
+public interface Integrator {
+    /**
+     * Permet de récupérer le nom du schéma (affichage et bancs d'essai).
+     * 
+     * @return Nom du schéma
+     */
+    String getName();
+
+    /**
+     * Permet d'avancer tous les corps d'un simulateur d'un pas de temps. Un
+     * schéma qui déplace les corps après le dernier calcul des accélérations
+     * doit le signaler par <code>Simulator.invalidateAccelerations</code>.
+     * 
+     * @param simulator Simulateur contenant les corps
+     * @param deltaTime Pas de temps
+     */
+    void step(Simulator simulator, double deltaTime);
+}
@@ -0,0 +1,37 @@
+package math_physics.physics;
+
+/**
+ * Schéma saute-mouton en version « kick-drift-kick » : demi-pas sur les vitesses
+ * avec les accélérations du début du pas, pas entier sur les positions, calcul
+ * des accélérations aux nouvelles positions puis second demi-pas sur les
+ * vitesses. Les accélérations de la fin d'un pas servent au début du suivant :
+ * un seul calcul des forces par pas, comme le schéma d'Euler. Le schéma est
+ * d'ordre 2, symplectique et réversible : l'énergie oscille sans dériver, ce
+ * qui permet des pas bien plus grands pour la même précision à long terme.
+ */
+public class LeapfrogIntegrator implements Integrator {
+    /**
+     * Nom du schéma.
+     */
+    public static final String NAME = "Saute-mouton";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void step(Simulator simulator, double deltaTime) {
+        ParticleStore store = simulator.getStore();
+        if (!simulator.getAccelerationsUpToDate()) {
+            // Premier pas, ou corps modifiés depuis le dernier calcul
+            simulator.computeAccelerations();
+        }
+        double halfStep = deltaTime / 2;
+        store.kick(halfStep);
+        store.drift(deltaTime);
+        simulator.invalidateAccelerations();
+        simulator.computeAccelerations();
+        store.kick(halfStep);
+    }
+}
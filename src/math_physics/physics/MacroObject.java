@@ -48,7 +48,7 @@ public class MacroObject extends Particule {
 
     @Override
     public String toString() {
-        return this.name + " : " + this.mass;
+        return this.name + " : " + this.getMass();
     }
 
     /**
@@ -0,0 +1,239 @@
+package math_physics.physics;
+
+import java.util.concurrent.*;
+
+/**
+ * Noyau de sommation directe parallèle : les corps cibles sont découpés en
+ * tâches exécutées par un <code>ForkJoinPool</code> (vol de tâches entre
+ * threads). Chaque cible est calculée par un noyau séquentiel qui n'écrit que
+ * l'accélération de cette cible ; les positions ne sont que lues pendant le
+ * calcul des accélérations, les threads n'ont donc pas besoin de se
+ * synchroniser. Un noyau qui calcule les corps par paires
+ * (<code>SymmetricDirectSumKernel</code>) est refusé : découpé cible par cible,
+ * il perdrait la moitié de paires qu'il économise ; il répartit lui-même ses
+ * paires sur un groupe de threads.
+ */
+public class ParallelDirectSumKernel implements DirectSumKernel {
+    /**
+     * Nombre de corps cibles par défaut en dessous duquel une tâche n'est plus
+     * découpée.
+     */
+    public static final int DEFAULT_GRAIN = 64;
+
+    /**
+     * Correspond au noyau séquentiel utilisé pour chaque corps cible.
+     */
+    private final DirectSumKernel kernel;
+
+    /**
+     * Correspond au groupe de threads qui exécute les tâches.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Correspond au fait que le groupe de threads a été créé par le noyau (il
+     * est alors arrêté par <code>shutdown</code>).
+     */
+    private final boolean ownPool;
+
+    /**
+     * Correspond au nombre de corps cibles en dessous duquel une tâche n'est plus
+     * découpée.
+     */
+    private final int grain;
+
+    /**
+     * Tâche calculant les accélérations d'une plage de corps cibles.
+     */
+    private final class RangeTask extends RecursiveAction {
+        /**
+         * Ajout d'un numéro <em>serialVersionUID</em> pour la tâche.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Correspond au stockage contenant tous les corps simulés.
+         */
+        private final ParticleStore store;
+
+        /**
+         * Correspond à la première case de la plage.
+         */
+        private final int start;
+
+        /**
+         * Correspond à la case qui suit la dernière case de la plage.
+         */
+        private final int end;
+
+        /**
+         * Constructeur de la tâche.
+         * 
+         * @param store Stockage contenant tous les corps simulés
+         * @param start Première case de la plage
+         * @param end   Case qui suit la dernière case de la plage
+         */
+        private RangeTask(ParticleStore store, int start, int end) {
+            this.store = store;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.end - this.start <= ParallelDirectSumKernel.this.grain) {
+                for (int i = this.start; i < this.end; i++) {
+                    ParallelDirectSumKernel.this.kernel.computeAcceleration(this.store, i);
+                }
+            } else {
+                int middle = (this.start + this.end) >>> 1;
+                invokeAll(new RangeTask(this.store, this.start, middle), new RangeTask(this.store, middle, this.end));
+            }
+        }
+    }
+
+    /**
+     * Constructeur du noyau parallèle utilisant le groupe de threads commun de la
+     * JVM.
+     * 
+     * @param kernel Noyau séquentiel utilisé pour chaque corps cible
+     * @throws IllegalArgumentException Levé lorsque le noyau calcule les corps
+     *                                  par paires
+     */
+    public ParallelDirectSumKernel(DirectSumKernel kernel) throws IllegalArgumentException {
+        this(kernel, ForkJoinPool.commonPool(), DEFAULT_GRAIN);
+    }
+
+    /**
+     * Constructeur du noyau parallèle avec son propre groupe de threads.
+     * 
+     * @param kernel      Noyau séquentiel utilisé pour chaque corps cible
+     * @param parallelism Nombre de threads
+     * @throws IllegalArgumentException Levé lorsque le nombre de threads n'est pas
+     *                                  strictement positif ou lorsque le noyau
+     *                                  calcule les corps par paires
+     */
+    public ParallelDirectSumKernel(DirectSumKernel kernel, int parallelism) throws IllegalArgumentException {
+        this(checkKernel(kernel), newPool(parallelism), true, DEFAULT_GRAIN);
+    }
+
+    /**
+     * Constructeur du noyau parallèle utilisant un groupe de threads existant
+     * (il n'est pas arrêté par <code>shutdown</code>).
+     * 
+     * @param kernel Noyau séquentiel utilisé pour chaque corps cible
+     * @param pool   Groupe de threads qui exécute les tâches
+     * @param grain  Nombre de corps cibles en dessous duquel une tâche n'est plus
+     *               découpée
+     * @throws IllegalArgumentException Levé lorsque le grain n'est pas strictement
+     *                                  positif ou lorsque le noyau calcule les
+     *                                  corps par paires
+     */
+    public ParallelDirectSumKernel(DirectSumKernel kernel, ForkJoinPool pool, int grain)
+            throws IllegalArgumentException {
+        this(checkKernel(kernel), pool, false, grain);
+    }
+
+    /**
+     * Constructeur commun du noyau parallèle.
+     * 
+     * @param kernel  Noyau séquentiel utilisé pour chaque corps cible
+     * @param pool    Groupe de threads qui exécute les tâches
+     * @param ownPool true si le groupe de threads appartient au noyau
+     * @param grain   Nombre de corps cibles en dessous duquel une tâche n'est plus
+     *                découpée
+     * @throws IllegalArgumentException Levé lorsque le grain n'est pas strictement
+     *                                  positif
+     */
+    private ParallelDirectSumKernel(DirectSumKernel kernel, ForkJoinPool pool, boolean ownPool, int grain)
+            throws IllegalArgumentException {
+        if (grain < 1) {
+            throw new IllegalArgumentException("Le grain doit être strictement positif !");
+        }
+        this.kernel = kernel;
+        this.pool = pool;
+        this.ownPool = ownPool;
+        this.grain = grain;
+    }
+
+    /**
+     * Permet de vérifier qu'un noyau peut être découpé corps cible par corps
+     * cible (avant la création d'un groupe de threads).
+     * 
+     * @param kernel Noyau séquentiel
+     * @return Noyau vérifié
+     * @throws IllegalArgumentException Levé lorsque le noyau calcule les corps
+     *                                  par paires
+     */
+    private static DirectSumKernel checkKernel(DirectSumKernel kernel) throws IllegalArgumentException {
+        if (kernel instanceof SymmetricDirectSumKernel) {
+            throw new IllegalArgumentException("Le noyau symétrique répartit lui-même ses paires sur des threads !");
+        }
+        return kernel;
+    }
+
+    /**
+     * Permet de créer un groupe de threads.
+     * 
+     * @param parallelism Nombre de threads
+     * @return Groupe de threads
+     * @throws IllegalArgumentException Levé lorsque le nombre de threads n'est pas
+     *                                  strictement positif
+     */
+    private static ForkJoinPool newPool(int parallelism) throws IllegalArgumentException {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Le nombre de threads doit être strictement positif !");
+        }
+        return new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Permet de récupérer le noyau séquentiel utilisé pour chaque corps cible.
+     * 
+     * @return Noyau séquentiel
+     */
+    public DirectSumKernel getKernel() {
+        return this.kernel;
+    }
+
+    /**
+     * Permet de récupérer le nombre de threads du groupe.
+     * 
+     * @return Nombre de threads
+     */
+    public int getParallelism() {
+        return this.pool.getParallelism();
+    }
+
+    /**
+     * Permet d'arrêter le groupe de threads s'il a été créé par le noyau.
+     */
+    public void shutdown() {
+        if (this.ownPool) {
+            this.pool.shutdown();
+        }
+    }
+
+    @Override
+    public String getName() {
+        return this.kernel.getName() + " parallèle (" + this.getParallelism() + " threads)";
+    }
+
+    @Override
+    public void computeAcceleration(ParticleStore store, int target) {
+        this.kernel.computeAcceleration(store, target);
+    }
+
+    @Override
+    public void computeAccelerations(ParticleStore store) {
+        int size = store.size();
+        if (size <= this.grain) {
+            // Trop peu de corps : le découpage coûterait plus qu'il ne rapporte
+            for (int i = 0; i < size; i++) {
+                this.kernel.computeAcceleration(store, i);
+            }
+        } else {
+            this.pool.invoke(new RangeTask(store, 0, size));
+        }
+    }
+}
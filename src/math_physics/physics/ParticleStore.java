@@ -0,0 +1,444 @@
+package math_physics.physics;
+
+import java.util.*;
+
+/**
+ * Représente l'état de tous les corps d'une simulation sous forme d'une
+ * structure de tableaux (un tableau par composante). Chaque corps occupe une
+ * case (<em>slot</em>) dans tous les tableaux. Les moteurs de calcul
+ * travaillent directement sur le stockage, les objets
+ * <code>GenericObject</code> n'en sont que des vues. Le support des tableaux
+ * dépend de l'implémentation : tableaux Java (<code>ArrayParticleStore</code>)
+ * ou mémoire hors du tas (<code>SegmentParticleStore</code>).
+ */
+public abstract class ParticleStore {
+    /**
+     * Capacité initiale par défaut.
+     */
+    public static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * Correspond au nombre de corps stockés.
+     */
+    protected int size = 0;
+
+    /**
+     * Correspond aux cases déjà placées par <code>permute</code> (vidé à chaque
+     * appel mais réutilisé : réordonner le stockage à chaque pas ne crée aucun
+     * objet).
+     */
+    private final BitSet placed = new BitSet();
+
+    @Override
+    public String toString() {
+        return this.getClass().getSimpleName() + "(" + this.size + "/" + this.capacity() + ")";
+    }
+
+    /**
+     * Permet de récupérer le nombre de corps stockés.
+     * 
+     * @return Nombre de corps
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Permet de récupérer le nombre de corps pouvant être stockés sans agrandir
+     * les tableaux.
+     * 
+     * @return Capacité
+     */
+    public abstract int capacity();
+
+    /**
+     * Permet de s'assurer que les tableaux peuvent contenir un certain nombre de
+     * corps.
+     * 
+     * @param minCapacity Nombre de corps minimum
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > this.capacity()) {
+            this.grow(Math.max(minCapacity, this.capacity() * 2));
+        }
+    }
+
+    /**
+     * Permet d'agrandir les tableaux en conservant les corps stockés.
+     * 
+     * @param newCapacity Nouvelle capacité
+     */
+    protected abstract void grow(int newCapacity);
+
+    /**
+     * Permet d'ajouter un corps à la fin du stockage.
+     * 
+     * @param mass      Masse totale du corps
+     * @param radius    Rayon du corps
+     * @param x         Position sur l'axe des X
+     * @param y         Position sur l'axe des Y
+     * @param z         Position sur l'axe des Z
+     * @param velocityX Vitesse sur l'axe des X
+     * @param velocityY Vitesse sur l'axe des Y
+     * @param velocityZ Vitesse sur l'axe des Z
+     * @return Case occupée par le corps
+     */
+    public int add(double mass, double radius, double x, double y, double z, double velocityX, double velocityY,
+            double velocityZ) {
+        this.ensureCapacity(this.size + 1);
+        int slot = this.size++;
+        this.setMass(slot, mass);
+        this.setRadius(slot, radius);
+        this.setPosition(slot, x, y, z);
+        this.setVelocity(slot, velocityX, velocityY, velocityZ);
+        this.setAcceleration(slot, 0, 0, 0);
+        this.sizeChanged();
+        return slot;
+    }
+
+    /**
+     * Permet de copier un corps d'un autre stockage (de n'importe quelle
+     * implémentation) à la fin de ce stockage.
+     * 
+     * @param other Stockage d'origine
+     * @param slot  Case du corps dans le stockage d'origine
+     * @return Case occupée par le corps dans ce stockage
+     */
+    public int copyFrom(ParticleStore other, int slot) {
+        int newSlot = this.add(other.getMass(slot), other.getRadius(slot), other.getXPosition(slot),
+                other.getYPosition(slot), other.getZPosition(slot), other.getXVelocity(slot),
+                other.getYVelocity(slot), other.getZVelocity(slot));
+        this.setAcceleration(newSlot, other.getXAcceleration(slot), other.getYAcceleration(slot),
+                other.getZAcceleration(slot));
+        return newSlot;
+    }
+
+    /**
+     * Permet de retirer un corps du stockage. Les corps placés après lui sont
+     * décalés d'une case (l'ordre des corps est conservé).
+     * 
+     * @param slot Case du corps à retirer
+     * @throws IndexOutOfBoundsException Levé lorsque la case n'existe pas
+     */
+    public void remove(int slot) throws IndexOutOfBoundsException {
+        Objects.checkIndex(slot, this.size);
+        int moved = this.size - slot - 1;
+        if (moved > 0) {
+            this.shiftDown(slot, moved);
+        }
+        this.size--;
+        this.sizeChanged();
+    }
+
+    /**
+     * Permet de décaler des corps d'une case vers le début des tableaux.
+     * 
+     * @param slot  Case qui reçoit le premier corps décalé
+     * @param count Nombre de corps à décaler
+     */
+    protected abstract void shiftDown(int slot, int count);
+
+    /**
+     * Permet de réordonner les corps du stockage : la case <em>i</em> reçoit le
+     * corps qui se trouvait dans la case <em>order[i]</em>. Les corps sont
+     * déplacés par cycles de la permutation, sans copie complète du stockage.
+     * 
+     * @param order Permutation des cases (au moins <code>size()</code> éléments)
+     */
+    public void permute(int[] order) {
+        BitSet placed = this.placed;
+        placed.clear();
+        for (int start = 0; start < this.size; start++) {
+            if (placed.get(start) || order[start] == start) {
+                continue;
+            }
+            // Le corps de départ est mis de côté puis chaque case du cycle reçoit son
+            // corps
+            double mass = this.getMass(start);
+            double radius = this.getRadius(start);
+            double x = this.getXPosition(start);
+            double y = this.getYPosition(start);
+            double z = this.getZPosition(start);
+            double vx = this.getXVelocity(start);
+            double vy = this.getYVelocity(start);
+            double vz = this.getZVelocity(start);
+            double ax = this.getXAcceleration(start);
+            double ay = this.getYAcceleration(start);
+            double az = this.getZAcceleration(start);
+            int slot = start;
+            for (int from = order[slot]; from != start; from = order[slot]) {
+                this.setMass(slot, this.getMass(from));
+                this.setRadius(slot, this.getRadius(from));
+                this.setPosition(slot, this.getXPosition(from), this.getYPosition(from), this.getZPosition(from));
+                this.setVelocity(slot, this.getXVelocity(from), this.getYVelocity(from), this.getZVelocity(from));
+                this.setAcceleration(slot, this.getXAcceleration(from), this.getYAcceleration(from),
+                        this.getZAcceleration(from));
+                placed.set(slot);
+                slot = from;
+            }
+            this.setMass(slot, mass);
+            this.setRadius(slot, radius);
+            this.setPosition(slot, x, y, z);
+            this.setVelocity(slot, vx, vy, vz);
+            this.setAcceleration(slot, ax, ay, az);
+            placed.set(slot);
+        }
+    }
+
+    /**
+     * Permet de vider le stockage (la capacité est conservée).
+     */
+    public void clear() {
+        this.size = 0;
+        this.sizeChanged();
+    }
+
+    /**
+     * Permet de signaler un changement du nombre de corps stockés (utilisé par
+     * les implémentations qui doivent l'enregistrer).
+     */
+    protected void sizeChanged() {
+    }
+
+    /**
+     * Permet de remettre à 0 les accélérations de tous les corps.
+     */
+    public void resetAccelerations() {
+        for (int i = 0; i < this.size; i++) {
+            this.setAcceleration(i, 0, 0, 0);
+        }
+    }
+
+    /**
+     * Permet d'ajouter une accélération à celle d'un corps.
+     * 
+     * @param slot Case du corps
+     * @param ax   Accélération à ajouter sur l'axe des X
+     * @param ay   Accélération à ajouter sur l'axe des Y
+     * @param az   Accélération à ajouter sur l'axe des Z
+     */
+    public void addAcceleration(int slot, double ax, double ay, double az) {
+        this.setAcceleration(slot, this.getXAcceleration(slot) + ax, this.getYAcceleration(slot) + ay,
+                this.getZAcceleration(slot) + az);
+    }
+
+    /**
+     * Permet de calculer la nouvelle vitesse d'un corps à partir de son
+     * accélération (<em>vf = vi + a*dt</em>).
+     * 
+     * @param slot      Case du corps
+     * @param deltaTime Temps écoulé
+     */
+    public void computeNewVelocity(int slot, double deltaTime) {
+        this.setVelocity(slot, this.getXVelocity(slot) + this.getXAcceleration(slot) * deltaTime,
+                this.getYVelocity(slot) + this.getYAcceleration(slot) * deltaTime,
+                this.getZVelocity(slot) + this.getZAcceleration(slot) * deltaTime);
+    }
+
+    /**
+     * Permet de calculer la nouvelle position d'un corps à partir de sa vitesse
+     * (<em>xf = xi + v*dt</em>).
+     * 
+     * @param slot      Case du corps
+     * @param deltaTime Temps écoulé
+     */
+    public void computeNewPosition(int slot, double deltaTime) {
+        this.setPosition(slot, this.getXPosition(slot) + this.getXVelocity(slot) * deltaTime,
+                this.getYPosition(slot) + this.getYVelocity(slot) * deltaTime,
+                this.getZPosition(slot) + this.getZVelocity(slot) * deltaTime);
+    }
+
+    /**
+     * Permet de déplacer tous les corps à partir de leurs accélérations
+     * (<em>vf = vi + a*dt</em> puis <em>xf = xi + vf*dt</em>). Les nouvelles
+     * positions sont écrites dans le second tampon de positions, puis les deux
+     * tampons sont échangés : les positions lues pendant le pas de temps restent
+     * celles du début du pas, quel que soit l'ordre des corps.
+     * 
+     * @param deltaTime Temps écoulé
+     */
+    public void integrate(double deltaTime) {
+        for (int i = 0; i < this.size; i++) {
+            this.computeNewVelocity(i, deltaTime);
+            this.setNextPosition(i, this.getXPosition(i) + this.getXVelocity(i) * deltaTime,
+                    this.getYPosition(i) + this.getYVelocity(i) * deltaTime,
+                    this.getZPosition(i) + this.getZVelocity(i) * deltaTime);
+        }
+        this.swapPositions();
+    }
+
+    /**
+     * Permet de mettre à jour la vitesse de tous les corps à partir de leurs
+     * accélérations, sans les déplacer (<em>vf = vi + a*dt</em>).
+     * 
+     * @param deltaTime Temps écoulé
+     */
+    public void kick(double deltaTime) {
+        for (int i = 0; i < this.size; i++) {
+            this.computeNewVelocity(i, deltaTime);
+        }
+    }
+
+    /**
+     * Permet de déplacer tous les corps à partir de leurs vitesses, sans changer
+     * les vitesses (<em>xf = xi + v*dt</em>).
+     * 
+     * @param deltaTime Temps écoulé
+     */
+    public void drift(double deltaTime) {
+        for (int i = 0; i < this.size; i++) {
+            this.computeNewPosition(i, deltaTime);
+        }
+    }
+
+    /**
+     * Permet d'écrire la position d'un corps dans le second tampon de positions
+     * (elle ne devient visible qu'après <code>swapPositions</code>).
+     * 
+     * @param slot Case du corps
+     * @param x    Prochaine position sur l'axe des X
+     * @param y    Prochaine position sur l'axe des Y
+     * @param z    Prochaine position sur l'axe des Z
+     */
+    protected abstract void setNextPosition(int slot, double x, double y, double z);
+
+    /**
+     * Permet d'échanger les deux tampons de positions : les positions écrites par
+     * <code>setNextPosition</code> deviennent les positions courantes.
+     */
+    protected abstract void swapPositions();
+
+    /**
+     * Permet de récupérer la masse d'un corps.
+     * 
+     * @param slot Case du corps
+     * @return Masse
+     */
+    public abstract double getMass(int slot);
+
+    /**
+     * Permet de remplacer la masse d'un corps.
+     * 
+     * @param slot    Case du corps
+     * @param newMass Nouvelle masse
+     */
+    public abstract void setMass(int slot, double newMass);
+
+    /**
+     * Permet de récupérer le rayon d'un corps.
+     * 
+     * @param slot Case du corps
+     * @return Rayon
+     */
+    public abstract double getRadius(int slot);
+
+    /**
+     * Permet de remplacer le rayon d'un corps.
+     * 
+     * @param slot      Case du corps
+     * @param newRadius Nouveau rayon
+     */
+    public abstract void setRadius(int slot, double newRadius);
+
+    /**
+     * Permet de récupérer la position d'un corps sur l'axe des X.
+     * 
+     * @param slot Case du corps
+     * @return Position sur l'axe des X
+     */
+    public abstract double getXPosition(int slot);
+
+    /**
+     * Permet de récupérer la position d'un corps sur l'axe des Y.
+     * 
+     * @param slot Case du corps
+     * @return Position sur l'axe des Y
+     */
+    public abstract double getYPosition(int slot);
+
+    /**
+     * Permet de récupérer la position d'un corps sur l'axe des Z.
+     * 
+     * @param slot Case du corps
+     * @return Position sur l'axe des Z
+     */
+    public abstract double getZPosition(int slot);
+
+    /**
+     * Permet de remplacer la position d'un corps.
+     * 
+     * @param slot Case du corps
+     * @param x    Nouvelle position sur l'axe des X
+     * @param y    Nouvelle position sur l'axe des Y
+     * @param z    Nouvelle position sur l'axe des Z
+     */
+    public abstract void setPosition(int slot, double x, double y, double z);
+
+    /**
+     * Permet de récupérer la vitesse d'un corps sur l'axe des X.
+     * 
+     * @param slot Case du corps
+     * @return Vitesse sur l'axe des X
+     */
+    public abstract double getXVelocity(int slot);
+
+    /**
+     * Permet de récupérer la vitesse d'un corps sur l'axe des Y.
+     * 
+     * @param slot Case du corps
+     * @return Vitesse sur l'axe des Y
+     */
+    public abstract double getYVelocity(int slot);
+
+    /**
+     * Permet de récupérer la vitesse d'un corps sur l'axe des Z.
+     * 
+     * @param slot Case du corps
+     * @return Vitesse sur l'axe des Z
+     */
+    public abstract double getZVelocity(int slot);
+
+    /**
+     * Permet de remplacer la vitesse d'un corps.
+     * 
+     * @param slot Case du corps
+     * @param vx   Nouvelle vitesse sur l'axe des X
+     * @param vy   Nouvelle vitesse sur l'axe des Y
+     * @param vz   Nouvelle vitesse sur l'axe des Z
+     */
+    public abstract void setVelocity(int slot, double vx, double vy, double vz);
+
+    /**
+     * Permet de récupérer l'accélération d'un corps sur l'axe des X.
+     * 
+     * @param slot Case du corps
+     * @return Accélération sur l'axe des X
+     */
+    public abstract double getXAcceleration(int slot);
+
+    /**
+     * Permet de récupérer l'accélération d'un corps sur l'axe des Y.
+     * 
+     * @param slot Case du corps
+     * @return Accélération sur l'axe des Y
+     */
+    public abstract double getYAcceleration(int slot);
+
+    /**
+     * Permet de récupérer l'accélération d'un corps sur l'axe des Z.
+     * 
+     * @param slot Case du corps
+     * @return Accélération sur l'axe des Z
+     */
+    public abstract double getZAcceleration(int slot);
+
+    /**
+     * Permet de remplacer l'accélération d'un corps.
+     * 
+     * @param slot Case du corps
+     * @param ax   Nouvelle accélération sur l'axe des X
+     * @param ay   Nouvelle accélération sur l'axe des Y
+     * @param az   Nouvelle accélération sur l'axe des Z
+     */
+    public abstract void setAcceleration(int slot, double ax, double ay, double az);
+}
@@ -0,0 +1,107 @@
+package math_physics.physics;
+
+import java.util.*;
+
+/**
+ * Schéma de Runge-Kutta classique d'ordre 4 : les accélérations sont calculées
+ * au début du pas, deux fois au milieu et à la fin (à partir des estimations
+ * successives des positions et des vitesses), puis les quatre pentes sont
+ * moyennées avec les poids 1, 2, 2, 1. Quatre calculs des forces par pas ; le
+ * schéma n'est pas symplectique : l'énergie dérive lentement.
+ */
+public class RungeKuttaIntegrator implements Integrator {
+    /**
+     * Nom du schéma.
+     */
+    public static final String NAME = "Runge-Kutta (ordre 4)";
+
+    /**
+     * Fractions du pas auxquelles sont estimées les positions des étapes
+     * suivantes.
+     */
+    private static final double[] STAGE_FRACTIONS = { 0.5, 0.5, 1 };
+
+    /**
+     * Poids des pentes de chaque étape dans la moyenne.
+     */
+    private static final double[] STAGE_WEIGHTS = { 1, 2, 2, 1 };
+
+    /**
+     * Correspond aux positions et aux vitesses du début du pas (x, y, z, vx, vy,
+     * vz pour chaque case).
+     */
+    private double[] start = new double[0];
+
+    /**
+     * Correspond aux sommes pondérées des pentes des positions et des vitesses
+     * (x, y, z, vx, vy, vz pour chaque case).
+     */
+    private double[] slopes = new double[0];
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void step(Simulator simulator, double deltaTime) {
+        if (!simulator.getAccelerationsUpToDate()) {
+            // Les corps peuvent être réordonnés avant de ranger leur état par case
+            simulator.computeAccelerations();
+        }
+        ParticleStore store = simulator.getStore();
+        int size = store.size();
+        if (this.start.length < 6 * size) {
+            this.start = new double[6 * size];
+            this.slopes = new double[6 * size];
+        }
+        double[] start = this.start;
+        double[] slopes = this.slopes;
+        for (int i = 0; i < size; i++) {
+            int k = 6 * i;
+            start[k] = store.getXPosition(i);
+            start[k + 1] = store.getYPosition(i);
+            start[k + 2] = store.getZPosition(i);
+            start[k + 3] = store.getXVelocity(i);
+            start[k + 4] = store.getYVelocity(i);
+            start[k + 5] = store.getZVelocity(i);
+            Arrays.fill(slopes, k, k + 6, 0);
+        }
+        for (int stage = 0; stage < STAGE_WEIGHTS.length; stage++) {
+            if (stage > 0) {
+                // Les corps gardent leur case pendant tout le pas
+                simulator.computeAccelerations(false);
+            }
+            double weight = STAGE_WEIGHTS[stage];
+            boolean last = stage == STAGE_FRACTIONS.length;
+            double h = last ? deltaTime / 6 : STAGE_FRACTIONS[stage] * deltaTime;
+            for (int i = 0; i < size; i++) {
+                int k = 6 * i;
+                // Pente de l'étape : vitesse et accélération estimées
+                double vx = store.getXVelocity(i);
+                double vy = store.getYVelocity(i);
+                double vz = store.getZVelocity(i);
+                slopes[k] += weight * vx;
+                slopes[k + 1] += weight * vy;
+                slopes[k + 2] += weight * vz;
+                slopes[k + 3] += weight * store.getXAcceleration(i);
+                slopes[k + 4] += weight * store.getYAcceleration(i);
+                slopes[k + 5] += weight * store.getZAcceleration(i);
+                if (last) {
+                    // Moyenne pondérée des quatre pentes
+                    store.setPosition(i, start[k] + h * slopes[k], start[k + 1] + h * slopes[k + 1],
+                            start[k + 2] + h * slopes[k + 2]);
+                    store.setVelocity(i, start[k + 3] + h * slopes[k + 3], start[k + 4] + h * slopes[k + 4],
+                            start[k + 5] + h * slopes[k + 5]);
+                } else {
+                    // Estimation de l'état de l'étape suivante
+                    store.setPosition(i, start[k] + h * vx, start[k + 1] + h * vy, start[k + 2] + h * vz);
+                    store.setVelocity(i, start[k + 3] + h * store.getXAcceleration(i),
+                            start[k + 4] + h * store.getYAcceleration(i),
+                            start[k + 5] + h * store.getZAcceleration(i));
+                }
+            }
+            simulator.invalidateAccelerations();
+        }
+    }
+}
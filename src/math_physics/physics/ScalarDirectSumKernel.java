@@ -0,0 +1,22 @@
+package math_physics.physics;
+
+/**
+ * Noyau de sommation directe scalaire : une boucle simple sur les tableaux du
+ * stockage (utilisé par défaut et lorsque l'API vectorielle est indisponible).
+ */
+public class ScalarDirectSumKernel implements DirectSumKernel {
+    /**
+     * Correspond aux formules physiques utilisées par le noyau.
+     */
+    private final Formula formula = new Formula();
+
+    @Override
+    public String getName() {
+        return "Scalaire";
+    }
+
+    @Override
+    public void computeAcceleration(ParticleStore store, int target) {
+        this.formula.accelerationCalculus(store, target);
+    }
+}
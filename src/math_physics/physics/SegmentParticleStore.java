@@ -0,0 +1,558 @@
+package math_physics.physics;
+
+import java.io.*;
+import java.nio.channels.FileChannel.*;
+import java.nio.file.*;
+
+import jdk.incubator.foreign.*;
+
+/**
+ * Stockage des corps hors du tas Java, dans des segments mémoire de l'API
+ * <em>jdk.incubator.foreign</em> : soit en mémoire native, soit projeté depuis
+ * un fichier. Le ramasse-miettes ne parcourt pas ces données, ce qui permet de
+ * simuler des millions de corps avec un petit tas. La JVM doit être lancée avec
+ * l'option <code>--add-modules jdk.incubator.foreign</code>.
+ * <p>
+ * Organisation du segment : un en-tête (nombre de corps, capacité et numéro du
+ * tampon de positions courant, trois entiers longs) suivi des quatorze
+ * composantes, chacune sur <em>capacité</em> réels : les deux tampons de
+ * positions, puis les vitesses, les accélérations, les masses et les rayons.
+ * Un fichier projeté peut donc être rouvert pour reprendre une simulation.
+ */
+public class SegmentParticleStore extends ParticleStore implements AutoCloseable {
+    /**
+     * Taille de l'en-tête du segment (en octets).
+     */
+    private static final long HEADER_SIZE = 3 * Long.BYTES;
+
+    /**
+     * Nombre de composantes stockées pour chaque corps.
+     */
+    private static final int COMPONENTS = 14;
+
+    /**
+     * Correspond au fichier projeté en mémoire (<em>null</em> pour un stockage en
+     * mémoire native).
+     */
+    private final Path file;
+
+    /**
+     * Correspond à la portée qui possède le segment (le libère à la fermeture).
+     */
+    private ResourceScope scope;
+
+    /**
+     * Correspond au segment contenant l'en-tête et toutes les composantes.
+     */
+    private MemorySegment segment;
+
+    /**
+     * Correspond au nombre de corps pouvant être stockés sans agrandir le segment.
+     */
+    private int capacity;
+
+    /**
+     * Correspond au numéro (0 ou 1) du tampon qui contient les positions
+     * courantes.
+     */
+    private int positionBuffer;
+
+    /**
+     * Correspond aux positions sur l'axe des X.
+     */
+    private MemorySegment x;
+
+    /**
+     * Correspond aux positions sur l'axe des Y.
+     */
+    private MemorySegment y;
+
+    /**
+     * Correspond aux positions sur l'axe des Z.
+     */
+    private MemorySegment z;
+
+    /**
+     * Correspond au second tampon des positions sur l'axe des X (prochaines
+     * positions pendant l'intégration).
+     */
+    private MemorySegment nextX;
+
+    /**
+     * Correspond au second tampon des positions sur l'axe des Y.
+     */
+    private MemorySegment nextY;
+
+    /**
+     * Correspond au second tampon des positions sur l'axe des Z.
+     */
+    private MemorySegment nextZ;
+
+    /**
+     * Correspond aux vitesses sur l'axe des X.
+     */
+    private MemorySegment velocityX;
+
+    /**
+     * Correspond aux vitesses sur l'axe des Y.
+     */
+    private MemorySegment velocityY;
+
+    /**
+     * Correspond aux vitesses sur l'axe des Z.
+     */
+    private MemorySegment velocityZ;
+
+    /**
+     * Correspond aux accélérations sur l'axe des X.
+     */
+    private MemorySegment accelerationX;
+
+    /**
+     * Correspond aux accélérations sur l'axe des Y.
+     */
+    private MemorySegment accelerationY;
+
+    /**
+     * Correspond aux accélérations sur l'axe des Z.
+     */
+    private MemorySegment accelerationZ;
+
+    /**
+     * Correspond aux masses.
+     */
+    private MemorySegment mass;
+
+    /**
+     * Correspond aux rayons.
+     */
+    private MemorySegment radius;
+
+    /**
+     * Constructeur d'un stockage en mémoire native avec la capacité par défaut.
+     */
+    public SegmentParticleStore() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructeur d'un stockage en mémoire native.
+     * 
+     * @param initialCapacity Nombre de corps pouvant être stockés avant de devoir
+     *                        agrandir le segment
+     */
+    public SegmentParticleStore(int initialCapacity) {
+        this.file = null;
+        this.capacity = Math.max(1, initialCapacity);
+        this.scope = ResourceScope.newSharedScope();
+        this.segment = MemorySegment.allocateNative(bytesFor(this.capacity), Long.BYTES, this.scope);
+        this.writeHeader();
+        this.sliceComponents();
+    }
+
+    /**
+     * Constructeur d'un stockage projeté depuis un fichier. Si le fichier contient
+     * déjà un stockage, ses corps sont repris ; sinon le fichier est créé.
+     * 
+     * @param file            Fichier à projeter en mémoire
+     * @param initialCapacity Nombre de corps pouvant être stockés avant de devoir
+     *                        agrandir le fichier
+     * @throws IOException Levé lorsque le fichier ne peut pas être projeté
+     */
+    public SegmentParticleStore(Path file, int initialCapacity) throws IOException {
+        this.file = file;
+        this.capacity = Math.max(1, initialCapacity);
+        if (Files.exists(file) && Files.size(file) >= HEADER_SIZE) {
+            // Reprise d'un stockage existant : la capacité est lue dans l'en-tête
+            try (ResourceScope headerScope = ResourceScope.newConfinedScope()) {
+                MemorySegment header = MemorySegment.mapFile(file, 0, HEADER_SIZE, MapMode.READ_ONLY, headerScope);
+                this.size = (int) MemoryAccess.getLongAtOffset(header, 0);
+                this.capacity = (int) MemoryAccess.getLongAtOffset(header, Long.BYTES);
+                this.positionBuffer = (int) MemoryAccess.getLongAtOffset(header, 2 * Long.BYTES);
+            }
+        } else if (!Files.exists(file)) {
+            Files.createFile(file);
+        }
+        this.scope = ResourceScope.newSharedScope();
+        this.segment = MemorySegment.mapFile(file, 0, bytesFor(this.capacity), MapMode.READ_WRITE, this.scope);
+        this.writeHeader();
+        this.sliceComponents();
+    }
+
+    /**
+     * Permet de calculer la taille du segment pour une capacité donnée.
+     * 
+     * @param capacity Nombre de corps
+     * @return Taille du segment (en octets)
+     */
+    private static long bytesFor(int capacity) {
+        return HEADER_SIZE + (long) COMPONENTS * capacity * Double.BYTES;
+    }
+
+    /**
+     * Permet d'obtenir la position d'une composante dans le segment.
+     * 
+     * @param component Numéro de la composante
+     * @param capacity  Capacité du segment
+     * @return Position de la composante (en octets)
+     */
+    private static long componentOffset(int component, int capacity) {
+        return HEADER_SIZE + (long) component * capacity * Double.BYTES;
+    }
+
+    /**
+     * Permet d'écrire le nombre de corps, la capacité et le tampon de positions
+     * courant dans l'en-tête.
+     */
+    private void writeHeader() {
+        MemoryAccess.setLongAtOffset(this.segment, 0, this.size);
+        MemoryAccess.setLongAtOffset(this.segment, Long.BYTES, this.capacity);
+        MemoryAccess.setLongAtOffset(this.segment, 2 * Long.BYTES, this.positionBuffer);
+    }
+
+    /**
+     * Permet de découper le segment en une tranche par composante.
+     */
+    private void sliceComponents() {
+        long length = (long) this.capacity * Double.BYTES;
+        int current = 3 * this.positionBuffer;
+        int next = 3 - current;
+        this.x = this.segment.asSlice(componentOffset(current, this.capacity), length);
+        this.y = this.segment.asSlice(componentOffset(current + 1, this.capacity), length);
+        this.z = this.segment.asSlice(componentOffset(current + 2, this.capacity), length);
+        this.nextX = this.segment.asSlice(componentOffset(next, this.capacity), length);
+        this.nextY = this.segment.asSlice(componentOffset(next + 1, this.capacity), length);
+        this.nextZ = this.segment.asSlice(componentOffset(next + 2, this.capacity), length);
+        this.velocityX = this.segment.asSlice(componentOffset(6, this.capacity), length);
+        this.velocityY = this.segment.asSlice(componentOffset(7, this.capacity), length);
+        this.velocityZ = this.segment.asSlice(componentOffset(8, this.capacity), length);
+        this.accelerationX = this.segment.asSlice(componentOffset(9, this.capacity), length);
+        this.accelerationY = this.segment.asSlice(componentOffset(10, this.capacity), length);
+        this.accelerationZ = this.segment.asSlice(componentOffset(11, this.capacity), length);
+        this.mass = this.segment.asSlice(componentOffset(12, this.capacity), length);
+        this.radius = this.segment.asSlice(componentOffset(13, this.capacity), length);
+    }
+
+    /**
+     * Permet de savoir si le stockage est projeté depuis un fichier.
+     * 
+     * @return Booléen : true si le stockage est projeté, false s'il est en mémoire
+     *         native
+     */
+    public boolean isMapped() {
+        return this.file != null;
+    }
+
+    /**
+     * Permet d'écrire sur le disque les modifications d'un stockage projeté.
+     */
+    public void force() {
+        if (this.isMapped()) {
+            this.segment.force();
+        }
+    }
+
+    /**
+     * Permet de libérer la mémoire du stockage (et d'écrire sur le disque les
+     * modifications d'un stockage projeté). Le stockage n'est plus utilisable
+     * ensuite.
+     */
+    public void close() {
+        if (this.scope.isAlive()) {
+            this.force();
+            this.scope.close();
+        }
+    }
+
+    /**
+     * Permet de récupérer le nombre de corps pouvant être stockés sans agrandir
+     * le segment.
+     * 
+     * @return Capacité
+     */
+    public int capacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Permet d'agrandir le segment en conservant les corps stockés. Un stockage
+     * natif est recopié dans un nouveau segment ; un stockage projeté agrandit son
+     * fichier et y déplace ses composantes.
+     * 
+     * @param newCapacity Nouvelle capacité
+     * @throws UncheckedIOException Levé lorsque le fichier ne peut pas être
+     *                              projeté à nouveau
+     */
+    protected void grow(int newCapacity) throws UncheckedIOException {
+        int oldCapacity = this.capacity;
+        long length = (long) this.size * Double.BYTES;
+        if (this.isMapped()) {
+            this.close();
+            this.scope = ResourceScope.newSharedScope();
+            try {
+                this.segment = MemorySegment.mapFile(this.file, 0, bytesFor(newCapacity), MapMode.READ_WRITE,
+                        this.scope);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            // Déplacement en partant de la dernière composante : elle ne peut écraser
+            // que des composantes déjà déplacées
+            for (int c = COMPONENTS - 1; c > 0; c--) {
+                this.segment.asSlice(componentOffset(c, newCapacity), length)
+                        .copyFrom(this.segment.asSlice(componentOffset(c, oldCapacity), length));
+            }
+        } else {
+            ResourceScope newScope = ResourceScope.newSharedScope();
+            MemorySegment newSegment = MemorySegment.allocateNative(bytesFor(newCapacity), Long.BYTES, newScope);
+            for (int c = 0; c < COMPONENTS; c++) {
+                newSegment.asSlice(componentOffset(c, newCapacity), length)
+                        .copyFrom(this.segment.asSlice(componentOffset(c, oldCapacity), length));
+            }
+            this.scope.close();
+            this.scope = newScope;
+            this.segment = newSegment;
+        }
+        this.capacity = newCapacity;
+        this.writeHeader();
+        this.sliceComponents();
+    }
+
+    /**
+     * Permet de décaler des corps d'une case vers le début du segment.
+     * 
+     * @param slot  Case qui reçoit le premier corps décalé
+     * @param count Nombre de corps à décaler
+     */
+    protected void shiftDown(int slot, int count) {
+        long offset = (long) slot * Double.BYTES;
+        long length = (long) count * Double.BYTES;
+        for (MemorySegment component : new MemorySegment[] { this.x, this.y, this.z, this.velocityX,
+                this.velocityY, this.velocityZ, this.accelerationX, this.accelerationY, this.accelerationZ,
+                this.mass, this.radius }) {
+            component.asSlice(offset, length).copyFrom(component.asSlice(offset + Double.BYTES, length));
+        }
+    }
+
+    /**
+     * Permet d'enregistrer le nombre de corps dans l'en-tête.
+     */
+    protected void sizeChanged() {
+        MemoryAccess.setLongAtOffset(this.segment, 0, this.size);
+    }
+
+    /**
+     * Permet de remettre à 0 les accélérations de tous les corps.
+     */
+    public void resetAccelerations() {
+        long length = (long) this.size * Double.BYTES;
+        this.accelerationX.asSlice(0, length).fill((byte) 0);
+        this.accelerationY.asSlice(0, length).fill((byte) 0);
+        this.accelerationZ.asSlice(0, length).fill((byte) 0);
+    }
+
+    /**
+     * Permet d'écrire la position d'un corps dans le second tampon de positions
+     * (elle ne devient visible qu'après <code>swapPositions</code>).
+     * 
+     * @param slot Case du corps
+     * @param x    Prochaine position sur l'axe des X
+     * @param y    Prochaine position sur l'axe des Y
+     * @param z    Prochaine position sur l'axe des Z
+     */
+    protected void setNextPosition(int slot, double x, double y, double z) {
+        MemoryAccess.setDoubleAtIndex(this.nextX, slot, x);
+        MemoryAccess.setDoubleAtIndex(this.nextY, slot, y);
+        MemoryAccess.setDoubleAtIndex(this.nextZ, slot, z);
+    }
+
+    /**
+     * Permet d'échanger les deux tampons de positions : les positions écrites par
+     * <code>setNextPosition</code> deviennent les positions courantes. Le numéro
+     * du tampon courant est enregistré dans l'en-tête.
+     */
+    protected void swapPositions() {
+        MemorySegment swap = this.x;
+        this.x = this.nextX;
+        this.nextX = swap;
+        swap = this.y;
+        this.y = this.nextY;
+        this.nextY = swap;
+        swap = this.z;
+        this.z = this.nextZ;
+        this.nextZ = swap;
+        this.positionBuffer = 1 - this.positionBuffer;
+        MemoryAccess.setLongAtOffset(this.segment, 2 * Long.BYTES, this.positionBuffer);
+    }
+
+    /**
+     * Permet de récupérer la masse d'un corps.
+     * 
+     * @param slot Case du corps
+     * @return Masse
+     */
+    public double getMass(int slot) {
+        return MemoryAccess.getDoubleAtIndex(this.mass, slot);
+    }
+
+    /**
+     * Permet de remplacer la masse d'un corps.
+     * 
+     * @param slot    Case du corps
+     * @param newMass Nouvelle masse
+     */
+    public void setMass(int slot, double newMass) {
+        MemoryAccess.setDoubleAtIndex(this.mass, slot, newMass);
+    }
+
+    /**
+     * Permet de récupérer le rayon d'un corps.
+     * 
+     * @param slot Case du corps
+     * @return Rayon
+     */
+    public double getRadius(int slot) {
+        return MemoryAccess.getDoubleAtIndex(this.radius, slot);
+    }
+
+    /**
+     * Permet de remplacer le rayon d'un corps.
+     * 
+     * @param slot      Case du corps
+     * @param newRadius Nouveau rayon
+     */
+    public void setRadius(int slot, double newRadius) {
+        MemoryAccess.setDoubleAtIndex(this.radius, slot, newRadius);
+    }
+
+    /**
+     * Permet de récupérer la position d'un corps sur l'axe des X.
+     * 
+     * @param slot Case du corps
+     * @return Position sur l'axe des X
+     */
+    public double getXPosition(int slot) {
+        return MemoryAccess.getDoubleAtIndex(this.x, slot);
+    }
+
+    /**
+     * Permet de récupérer la position d'un corps sur l'axe des Y.
+     * 
+     * @param slot Case du corps
+     * @return Position sur l'axe des Y
+     */
+    public double getYPosition(int slot) {
+        return MemoryAccess.getDoubleAtIndex(this.y, slot);
+    }
+
+    /**
+     * Permet de récupérer la position d'un corps sur l'axe des Z.
+     * 
+     * @param slot Case du corps
+     * @return Position sur l'axe des Z
+     */
+    public double getZPosition(int slot) {
+        return MemoryAccess.getDoubleAtIndex(this.z, slot);
+    }
+
+    /**
+     * Permet de remplacer la position d'un corps.
+     * 
+     * @param slot Case du corps
+     * @param x    Nouvelle position sur l'axe des X
+     * @param y    Nouvelle position sur l'axe des Y
+     * @param z    Nouvelle position sur l'axe des Z
+     */
+    public void setPosition(int slot, double x, double y, double z) {
+        MemoryAccess.setDoubleAtIndex(this.x, slot, x);
+        MemoryAccess.setDoubleAtIndex(this.y, slot, y);
+        MemoryAccess.setDoubleAtIndex(this.z, slot, z);
+    }
+
+    /**
+     * Permet de récupérer la vitesse d'un corps sur l'axe des X.
+     * 
+     * @param slot Case du corps
+     * @return Vitesse sur l'axe des X
+     */
+    public double getXVelocity(int slot) {
+        return MemoryAccess.getDoubleAtIndex(this.velocityX, slot);
+    }
+
+    /**
+     * Permet de récupérer la vitesse d'un corps sur l'axe des Y.
+     * 
+     * @param slot Case du corps
+     * @return Vitesse sur l'axe des Y
+     */
+    public double getYVelocity(int slot) {
+        return MemoryAccess.getDoubleAtIndex(this.velocityY, slot);
+    }
+
+    /**
+     * Permet de récupérer la vitesse d'un corps sur l'axe des Z.
+     * 
+     * @param slot Case du corps
+     * @return Vitesse sur l'axe des Z
+     */
+    public double getZVelocity(int slot) {
+        return MemoryAccess.getDoubleAtIndex(this.velocityZ, slot);
+    }
+
+    /**
+     * Permet de remplacer la vitesse d'un corps.
+     * 
+     * @param slot Case du corps
+     * @param vx   Nouvelle vitesse sur l'axe des X
+     * @param vy   Nouvelle vitesse sur l'axe des Y
+     * @param vz   Nouvelle vitesse sur l'axe des Z
+     */
+    public void setVelocity(int slot, double vx, double vy, double vz) {
+        MemoryAccess.setDoubleAtIndex(this.velocityX, slot, vx);
+        MemoryAccess.setDoubleAtIndex(this.velocityY, slot, vy);
+        MemoryAccess.setDoubleAtIndex(this.velocityZ, slot, vz);
+    }
+
+    /**
+     * Permet de récupérer l'accélération d'un corps sur l'axe des X.
+     * 
+     * @param slot Case du corps
+     * @return Accélération sur l'axe des X
+     */
+    public double getXAcceleration(int slot) {
+        return MemoryAccess.getDoubleAtIndex(this.accelerationX, slot);
+    }
+
+    /**
+     * Permet de récupérer l'accélération d'un corps sur l'axe des Y.
+     * 
+     * @param slot Case du corps
+     * @return Accélération sur l'axe des Y
+     */
+    public double getYAcceleration(int slot) {
+        return MemoryAccess.getDoubleAtIndex(this.accelerationY, slot);
+    }
+
+    /**
+     * Permet de récupérer l'accélération d'un corps sur l'axe des Z.
+     * 
+     * @param slot Case du corps
+     * @return Accélération sur l'axe des Z
+     */
+    public double getZAcceleration(int slot) {
+        return MemoryAccess.getDoubleAtIndex(this.accelerationZ, slot);
+    }
+
+    /**
+     * Permet de remplacer l'accélération d'un corps.
+     * 
+     * @param slot Case du corps
+     * @param ax   Nouvelle accélération sur l'axe des X
+     * @param ay   Nouvelle accélération sur l'axe des Y
+     * @param az   Nouvelle accélération sur l'axe des Z
+     */
+    public void setAcceleration(int slot, double ax, double ay, double az) {
+        MemoryAccess.setDoubleAtIndex(this.accelerationX, slot, ax);
+        MemoryAccess.setDoubleAtIndex(this.accelerationY, slot, ay);
+        MemoryAccess.setDoubleAtIndex(this.accelerationZ, slot, az);
+    }
+}
@@ -1,6 +1,7 @@
 package math_physics.physics;
 
 import java.util.*;
+import java.util.concurrent.*;
 
 import math_physics.math.*;
 
@@ -29,6 +30,69 @@ public class Simulator extends Thread {
      */
     protected List<GenericObject> bodies = new ArrayList<>();
 
+    /**
+     * Correspond au stockage contenant l'état physique de tous les corps du
+     * simulateur. Le corps d'indice <em>i</em> de la liste occupe la case
+     * <em>i</em> du stockage.
+     */
+    protected ParticleStore store = new ArrayParticleStore();
+
+    /**
+     * Correspond aux formules physiques utilisées par le simulateur.
+     */
+    protected final Formula formula = new Formula();
+
+    /**
+     * Correspond au noyau utilisé pour calculer les accélérations par sommation
+     * directe.
+     */
+    protected DirectSumKernel directSumKernel = new ScalarDirectSumKernel();
+
+    /**
+     * Correspond à la méthode de calcul des forces par sommation directe, qui
+     * utilise le noyau du simulateur.
+     */
+    private final DirectSumSolver directSumSolver = new DirectSumSolver(this.directSumKernel);
+
+    /**
+     * Correspond aux méthodes de calcul des forces enregistrées, rangées par nom
+     * dans l'ordre de leur enregistrement.
+     */
+    private final Map<String, ForceSolver> forceSolvers = new LinkedHashMap<>();
+
+    /**
+     * Correspond à la méthode de calcul des forces utilisée.
+     */
+    private ForceSolver forceSolver = this.directSumSolver;
+
+    /**
+     * Correspond au schéma d'intégration utilisé.
+     */
+    private Integrator integrator = new EulerIntegrator();
+
+    /**
+     * Correspond au fait que les accélérations du stockage ont été calculées aux
+     * positions actuelles des corps (elles peuvent alors servir au pas suivant).
+     */
+    private boolean accelerationsUpToDate = false;
+
+    /**
+     * Correspond au nombre de calculs des accélérations (de tous les corps ou de
+     * certains corps) depuis la création du simulateur.
+     */
+    private long forceEvaluations = 0;
+
+    /**
+     * Correspond au nombre d'accélérations de corps calculées depuis la création
+     * du simulateur.
+     */
+    private long accelerationUpdates = 0;
+
+    /**
+     * Correspond au tableau de travail utilisé pour réordonner les corps.
+     */
+    private GenericObject[] reorderBuffer = new GenericObject[0];
+
     /**
      * Correspond au nombre de secondes écoulées lors de chaque lancement de
      * simulation.
@@ -39,6 +103,7 @@ public class Simulator extends Thread {
      * Constructeur de la classe Simulator.
      */
     public Simulator() {
+        this.registerForceSolver(this.directSumSolver);
     }
 
     /**
@@ -52,6 +117,7 @@ public class Simulator extends Thread {
      * @param maxVelocity       Vitesse initiale maximale pour déplacer les objets
      */
     public Simulator(int numberBodyInitial, double massMax, double radius, double maxDistance, double maxVelocity) {
+        this();
         if (maxDistance < 0) { // Si la distance est négative (impossible en mathématiques)
             maxDistance *= -1; // On prend son opposé
         }
@@ -111,6 +177,208 @@ public class Simulator extends Thread {
         return this.bodies;
     }
 
+    /**
+     * Permet de récupérer le stockage contenant l'état physique de tous les corps
+     * de la simulation.
+     * 
+     * @return Stockage des corps
+     */
+    public ParticleStore getStore() {
+        return this.store;
+    }
+
+    /**
+     * Permet de changer le stockage des corps (par exemple un
+     * <code>SegmentParticleStore</code> pour garder l'état des corps hors du tas).
+     * Les corps déjà présents sont recopiés dans le nouveau stockage, qui doit
+     * être vide.
+     * 
+     * @param newStore Nouveau stockage
+     * @throws IllegalArgumentException Levé lorsque le nouveau stockage contient
+     *                                  déjà des corps
+     */
+    public void setStore(ParticleStore newStore) throws IllegalArgumentException {
+        if (newStore.size() != 0) {
+            throw new IllegalArgumentException("Le nouveau stockage doit être vide !");
+        }
+        newStore.ensureCapacity(this.bodies.size());
+        for (int i = 0, size = this.bodies.size(); i < size; i++) {
+            this.bodies.get(i).attach(newStore);
+        }
+        this.store = newStore;
+        this.accelerationsUpToDate = false;
+    }
+
+    /**
+     * Permet de récupérer le noyau de sommation directe utilisé.
+     * 
+     * @return Noyau de sommation directe
+     */
+    public DirectSumKernel getDirectSumKernel() {
+        return this.directSumKernel;
+    }
+
+    /**
+     * Permet de changer le noyau de sommation directe (par exemple
+     * <code>DirectSumKernel.fastest()</code> pour utiliser le noyau vectoriel).
+     * 
+     * @param newKernel Nouveau noyau
+     */
+    public void setDirectSumKernel(DirectSumKernel newKernel) {
+        this.directSumKernel = newKernel;
+        this.directSumSolver.setKernel(newKernel);
+    }
+
+    /**
+     * Permet d'enregistrer une méthode de calcul des forces, qui peut ensuite
+     * être choisie par son nom. Une méthode de même nom déjà enregistrée est
+     * remplacée.
+     * 
+     * @param solver Méthode de calcul des forces
+     */
+    public void registerForceSolver(ForceSolver solver) {
+        ForceSolver previous = this.forceSolvers.put(solver.getName(), solver);
+        if (previous == this.forceSolver) {
+            this.forceSolver = solver;
+        }
+    }
+
+    /**
+     * Permet de récupérer les noms des méthodes de calcul des forces
+     * enregistrées, dans l'ordre de leur enregistrement.
+     * 
+     * @return Noms des méthodes
+     */
+    public List<String> getForceSolverNames() {
+        return new ArrayList<>(this.forceSolvers.keySet());
+    }
+
+    /**
+     * Permet de récupérer une méthode de calcul des forces enregistrée.
+     * 
+     * @param name Nom de la méthode
+     * @return Méthode de calcul des forces (<em>null</em> si aucune méthode n'a
+     *         ce nom)
+     */
+    public ForceSolver getForceSolver(String name) {
+        return this.forceSolvers.get(name);
+    }
+
+    /**
+     * Permet de récupérer la méthode de calcul des forces utilisée.
+     * 
+     * @return Méthode de calcul des forces
+     */
+    public ForceSolver getForceSolver() {
+        return this.forceSolver;
+    }
+
+    /**
+     * Permet de choisir la méthode de calcul des forces utilisée à partir du pas
+     * suivant.
+     * 
+     * @param name Nom d'une méthode enregistrée
+     * @throws IllegalArgumentException Levé lorsqu'aucune méthode enregistrée n'a
+     *                                  ce nom
+     */
+    public void setForceSolver(String name) throws IllegalArgumentException {
+        ForceSolver solver = this.forceSolvers.get(name);
+        if (solver == null) {
+            throw new IllegalArgumentException("Aucune méthode de calcul des forces ne s'appelle " + name + " !");
+        }
+        if (solver != this.forceSolver) {
+            this.forceSolver = solver;
+            this.accelerationsUpToDate = false;
+        }
+    }
+
+    /**
+     * Permet de récupérer le schéma d'intégration utilisé.
+     * 
+     * @return Schéma d'intégration
+     */
+    public Integrator getIntegrator() {
+        return this.integrator;
+    }
+
+    /**
+     * Permet de choisir le schéma d'intégration utilisé à partir du pas suivant
+     * (par exemple un <code>LeapfrogIntegrator</code> pour conserver l'énergie
+     * avec des pas plus grands).
+     * 
+     * @param newIntegrator Nouveau schéma d'intégration
+     * @throws IllegalArgumentException Levé lorsque le schéma est <em>null</em>
+     */
+    public void setIntegrator(Integrator newIntegrator) throws IllegalArgumentException {
+        if (newIntegrator == null) {
+            throw new IllegalArgumentException("Le schéma d'intégration ne peut pas être nul !");
+        }
+        this.integrator = newIntegrator;
+    }
+
+    /**
+     * Permet de savoir si les accélérations du stockage ont été calculées aux
+     * positions actuelles des corps.
+     * 
+     * @return Booléen : true si les accélérations peuvent être réutilisées
+     */
+    public boolean getAccelerationsUpToDate() {
+        return this.accelerationsUpToDate;
+    }
+
+    /**
+     * Permet de signaler que les accélérations du stockage ne correspondent plus
+     * aux positions des corps : elles seront recalculées par le prochain pas.
+     * Les schémas d'intégration l'appellent après avoir déplacé les corps ; il
+     * faut aussi l'appeler après avoir modifié un corps en dehors d'un pas.
+     */
+    public void invalidateAccelerations() {
+        this.accelerationsUpToDate = false;
+    }
+
+    /**
+     * Permet de récupérer le nombre de calculs des accélérations (de tous les
+     * corps ou de certains corps) depuis la création du simulateur (bancs d'essai
+     * des schémas d'intégration).
+     * 
+     * @return Nombre de calculs des forces
+     */
+    public long getForceEvaluations() {
+        return this.forceEvaluations;
+    }
+
+    /**
+     * Permet de récupérer le nombre d'accélérations de corps calculées depuis la
+     * création du simulateur : un calcul de tous les corps en compte
+     * <code>getNumberBody()</code>, un calcul de certains corps seulement en
+     * compte autant que de corps cibles.
+     * 
+     * @return Nombre d'accélérations calculées
+     */
+    public long getAccelerationUpdates() {
+        return this.accelerationUpdates;
+    }
+
+    /**
+     * Permet de calculer l'énergie mécanique de tous les corps de la simulation
+     * (cinétique et potentielle, calculée directement en N<sup>2</sup>).
+     * 
+     * @return Énergie totale (en J)
+     */
+    public double getTotalEnergy() {
+        return this.formula.totalEnergy(this.store);
+    }
+
+    /**
+     * Permet de récupérer le groupe de threads passé aux méthodes de calcul des
+     * forces.
+     * 
+     * @return Groupe de threads (<em>null</em> pour un calcul séquentiel)
+     */
+    protected ForkJoinPool getPool() {
+        return null;
+    }
+
     /**
      * Permet de récupérer le nombre de seconde que l'on écoule lors de chaque
      * lancement de simulation.
@@ -178,17 +446,57 @@ public class Simulator extends Thread {
      * @param object Objet
      */
     public void addBody(GenericObject object) {
+        object.attach(this.store); // L'état du corps est déplacé dans le stockage du simulateur
         this.bodies.add(object);
         this.numberBody++;
+        this.accelerationsUpToDate = false;
     }
 
     /**
-     * Permet de supprimer un corps de la simulation.
+     * Permet de supprimer un corps de la simulation. Le corps retrouve son propre
+     * stockage et les corps suivants sont décalés d'une case.
      * 
      * @param instance Instance du corps que l'on veut retirer
      */
     public void removeBody(GenericObject instance) {
-        this.bodies.remove(instance);
+        int index = this.bodies.indexOf(instance);
+        if (index < 0) {
+            return; // Le corps n'appartient pas à la simulation
+        }
+        this.bodies.remove(index);
+        instance.detach();
+        this.store.remove(index);
+        for (int i = index, size = this.bodies.size(); i < size; i++) {
+            this.bodies.get(i).slot = i;
+        }
+        this.numberBody--;
+        this.accelerationsUpToDate = false;
+    }
+
+    /**
+     * Permet de réordonner les corps de la simulation (dans la liste et dans le
+     * stockage) : le corps d'indice <em>i</em> devient celui qui avait l'indice
+     * <em>order[i]</em>. Utilisé pour ranger côte à côte en mémoire les corps
+     * proches dans l'espace.
+     * 
+     * @param order Permutation des indices (au moins <code>getNumberBody()</code>
+     *              éléments)
+     */
+    public void reorderBodies(int[] order) {
+        int size = this.bodies.size();
+        if (this.reorderBuffer.length < size) {
+            this.reorderBuffer = new GenericObject[size];
+        }
+        for (int i = 0; i < size; i++) {
+            this.reorderBuffer[i] = this.bodies.get(order[i]);
+        }
+        this.store.permute(order);
+        for (int i = 0; i < size; i++) {
+            GenericObject object = this.reorderBuffer[i];
+            this.bodies.set(i, object);
+            object.slot = i;
+            this.reorderBuffer[i] = null;
+        }
     }
 
     /**
@@ -220,12 +528,63 @@ public class Simulator extends Thread {
     }
 
     /**
-     * Permet de simuler toutes les intéractions des objets.
+     * Permet de simuler toutes les intéractions des objets avec la méthode de
+     * calcul des forces et le schéma d'intégration choisis. Le calcul se fait
+     * directement sur le stockage : aucun objet n'est créé.
      */
     public void simulateAllBodies() {
-        for (GenericObject o : this.bodies) {
-            o.simulate(this.bodies, this.deltaTime);
+        this.integrator.step(this, this.deltaTime);
+    }
+
+    /**
+     * Permet de remplacer l'accélération de tous les corps par les attractions
+     * calculées par la méthode choisie, après avoir réordonné les corps si elle
+     * le demande. Toutes les accélérations sont calculées à partir des mêmes
+     * positions.
+     */
+    public void computeAccelerations() {
+        this.computeAccelerations(true);
+    }
+
+    /**
+     * Permet de remplacer l'accélération de tous les corps par les attractions
+     * calculées par la méthode choisie. Sans réordonnancement, chaque corps garde
+     * sa case : un schéma d'intégration qui range des valeurs par case pendant
+     * un pas (positions du début du pas...) ne doit pas laisser réordonner les
+     * corps.
+     * 
+     * @param reorder true pour réordonner les corps si la méthode le demande
+     */
+    public void computeAccelerations(boolean reorder) {
+        ForkJoinPool pool = this.getPool();
+        boolean reordered = false;
+        if (reorder) {
+            int[] order = this.forceSolver.sortBodies(this.store, pool);
+            if (order != null) {
+                this.reorderBodies(order);
+                reordered = true;
+            }
         }
+        this.forceSolver.computeAccelerations(this.store, reordered, pool);
+        this.accelerationsUpToDate = true;
+        this.forceEvaluations++;
+        this.accelerationUpdates += this.store.size();
+    }
+
+    /**
+     * Permet de remplacer l'accélération de certains corps seulement par les
+     * attractions calculées par la méthode choisie, sans réordonner les corps
+     * (pas de temps par blocs). Les accélérations des autres corps peuvent aussi
+     * être remplacées si la méthode ne sait pas se limiter aux corps cibles.
+     * 
+     * @param targets Cases des corps à mettre à jour
+     * @param count   Nombre de corps à mettre à jour (début du tableau)
+     */
+    public void computeAccelerations(int[] targets, int count) {
+        this.forceSolver.computeAccelerations(this.store, targets, count, this.getPool());
+        this.accelerationsUpToDate = count == this.store.size();
+        this.forceEvaluations++;
+        this.accelerationUpdates += count;
     }
 
     /**
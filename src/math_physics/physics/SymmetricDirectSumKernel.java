@@ -0,0 +1,492 @@
+package math_physics.physics;
+
+import java.util.concurrent.*;
+
+/**
+ * Noyau de sommation directe symétrique : d'après la troisième loi de Newton, la
+ * force de A sur B est l'opposée de la force de B sur A. Chaque paire de corps
+ * n'est donc calculée qu'une seule fois et sa contribution est ajoutée aux deux
+ * corps, ce qui divise presque par deux le coût du calcul exact. La version par
+ * tuiles parcourt les paires bloc par bloc pour que les deux blocs restent dans
+ * le cache du processeur.
+ * <p>
+ * Une paire écrit dans l'accélération de ses deux corps : le noyau ne peut donc
+ * pas être découpé corps par corps par <code>ParallelDirectSumKernel</code>.
+ * Avec un groupe de threads, les lignes de tuiles sont réparties entre des
+ * tâches qui accumulent chacune dans leurs propres tableaux, additionnés à la
+ * fin du calcul.
+ */
+public class SymmetricDirectSumKernel implements DirectSumKernel {
+    /**
+     * Taille de tuile par défaut (nombre de corps par bloc).
+     */
+    public static final int DEFAULT_TILE_SIZE = 256;
+
+    /**
+     * Correspond au nombre de corps par tuile (0 : pas de découpage en tuiles).
+     */
+    private final int tileSize;
+
+    /**
+     * Correspond au groupe de threads qui répartit les paires (<em>null</em> pour
+     * un calcul séquentiel).
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Correspond aux formules physiques utilisées pour le calcul corps par corps.
+     */
+    private final Formula formula = new Formula();
+
+    /**
+     * Correspond aux accélérations partielles sur l'axe des X de chaque tâche
+     * (réutilisées d'un calcul à l'autre, remises à zéro après la somme).
+     */
+    private double[][] partialX = new double[0][];
+
+    /**
+     * Correspond aux accélérations partielles sur l'axe des Y de chaque tâche.
+     */
+    private double[][] partialY = new double[0][];
+
+    /**
+     * Correspond aux accélérations partielles sur l'axe des Z de chaque tâche.
+     */
+    private double[][] partialZ = new double[0][];
+
+    /**
+     * Correspond à la copie des positions sur l'axe des X d'un stockage qui n'est
+     * pas un tableau Java (calcul parallèle).
+     */
+    private double[] copyX = new double[0];
+
+    /**
+     * Correspond à la copie des positions sur l'axe des Y.
+     */
+    private double[] copyY = new double[0];
+
+    /**
+     * Correspond à la copie des positions sur l'axe des Z.
+     */
+    private double[] copyZ = new double[0];
+
+    /**
+     * Correspond à la copie des masses.
+     */
+    private double[] copyMasses = new double[0];
+
+    /**
+     * Tâche calculant les paires d'une partie des lignes de tuiles dans ses
+     * propres accélérations partielles. Les lignes <em>r</em> et
+     * <em>tuiles - 1 - r</em> contiennent à elles deux autant de paires que
+     * n'importe quel autre couple de lignes : elles sont données ensemble à une
+     * tâche pour équilibrer les tâches.
+     */
+    private final class PairTask extends RecursiveAction {
+        /**
+         * Ajout d'un numéro <em>serialVersionUID</em> pour la tâche.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Correspond à l'indice de la tâche (et de ses accélérations partielles).
+         */
+        private final int index;
+
+        /**
+         * Correspond au nombre de tâches.
+         */
+        private final int tasks;
+
+        /**
+         * Correspond aux positions sur l'axe des X.
+         */
+        private final double[] xs;
+
+        /**
+         * Correspond aux positions sur l'axe des Y.
+         */
+        private final double[] ys;
+
+        /**
+         * Correspond aux positions sur l'axe des Z.
+         */
+        private final double[] zs;
+
+        /**
+         * Correspond aux masses.
+         */
+        private final double[] masses;
+
+        /**
+         * Correspond au nombre de corps.
+         */
+        private final int size;
+
+        /**
+         * Correspond au nombre de corps par tuile.
+         */
+        private final int tile;
+
+        /**
+         * Constructeur de la tâche.
+         * 
+         * @param index  Indice de la tâche
+         * @param tasks  Nombre de tâches
+         * @param xs     Positions sur l'axe des X
+         * @param ys     Positions sur l'axe des Y
+         * @param zs     Positions sur l'axe des Z
+         * @param masses Masses
+         * @param size   Nombre de corps
+         * @param tile   Nombre de corps par tuile
+         */
+        private PairTask(int index, int tasks, double[] xs, double[] ys, double[] zs, double[] masses, int size,
+                int tile) {
+            this.index = index;
+            this.tasks = tasks;
+            this.xs = xs;
+            this.ys = ys;
+            this.zs = zs;
+            this.masses = masses;
+            this.size = size;
+            this.tile = tile;
+        }
+
+        @Override
+        protected void compute() {
+            double[] axs = SymmetricDirectSumKernel.this.partialX[this.index];
+            double[] ays = SymmetricDirectSumKernel.this.partialY[this.index];
+            double[] azs = SymmetricDirectSumKernel.this.partialZ[this.index];
+            int rows = (this.size + this.tile - 1) / this.tile;
+            for (int row = this.index; row < (rows + 1) / 2; row += this.tasks) {
+                this.computeRow(row, axs, ays, azs);
+                if (rows - 1 - row != row) {
+                    this.computeRow(rows - 1 - row, axs, ays, azs);
+                }
+            }
+        }
+
+        /**
+         * Permet de calculer les paires d'une ligne de tuiles.
+         * 
+         * @param row Indice de la ligne de tuiles
+         * @param axs Accélérations partielles sur l'axe des X
+         * @param ays Accélérations partielles sur l'axe des Y
+         * @param azs Accélérations partielles sur l'axe des Z
+         */
+        private void computeRow(int row, double[] axs, double[] ays, double[] azs) {
+            int startI = row * this.tile;
+            int endI = Math.min(startI + this.tile, this.size);
+            for (int startJ = startI; startJ < this.size; startJ += this.tile) {
+                accumulateTile(this.xs, this.ys, this.zs, this.masses, startI, endI, startJ,
+                        Math.min(startJ + this.tile, this.size), axs, ays, azs);
+            }
+        }
+    }
+
+    /**
+     * Tâche additionnant les accélérations partielles d'une plage de corps dans
+     * le stockage (et remettant les accélérations partielles à zéro).
+     */
+    private final class SumTask extends RecursiveAction {
+        /**
+         * Ajout d'un numéro <em>serialVersionUID</em> pour la tâche.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Correspond au stockage contenant tous les corps simulés.
+         */
+        private final ParticleStore store;
+
+        /**
+         * Correspond à la première case de la plage.
+         */
+        private final int start;
+
+        /**
+         * Correspond à la case qui suit la dernière case de la plage.
+         */
+        private final int end;
+
+        /**
+         * Constructeur de la tâche.
+         * 
+         * @param store Stockage contenant tous les corps simulés
+         * @param start Première case de la plage
+         * @param end   Case qui suit la dernière case de la plage
+         */
+        private SumTask(ParticleStore store, int start, int end) {
+            this.store = store;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.end - this.start > ParallelDirectSumKernel.DEFAULT_GRAIN * 16) {
+                int middle = (this.start + this.end) >>> 1;
+                invokeAll(new SumTask(this.store, this.start, middle), new SumTask(this.store, middle, this.end));
+                return;
+            }
+            double[][] partialX = SymmetricDirectSumKernel.this.partialX;
+            double[][] partialY = SymmetricDirectSumKernel.this.partialY;
+            double[][] partialZ = SymmetricDirectSumKernel.this.partialZ;
+            for (int i = this.start; i < this.end; i++) {
+                double sumX = 0;
+                double sumY = 0;
+                double sumZ = 0;
+                for (int k = 0; k < partialX.length; k++) {
+                    sumX += partialX[k][i];
+                    sumY += partialY[k][i];
+                    sumZ += partialZ[k][i];
+                    partialX[k][i] = 0;
+                    partialY[k][i] = 0;
+                    partialZ[k][i] = 0;
+                }
+                this.store.setAcceleration(i, Constants.G * sumX, Constants.G * sumY, Constants.G * sumZ);
+            }
+        }
+    }
+
+    /**
+     * Constructeur du noyau symétrique sans découpage en tuiles.
+     */
+    public SymmetricDirectSumKernel() {
+        this(0);
+    }
+
+    /**
+     * Constructeur du noyau symétrique séquentiel.
+     * 
+     * @param tileSize Nombre de corps par tuile (0 : pas de découpage en tuiles)
+     * @throws IllegalArgumentException Levé lorsque la taille de tuile est
+     *                                  négative
+     */
+    public SymmetricDirectSumKernel(int tileSize) throws IllegalArgumentException {
+        this(tileSize, null);
+    }
+
+    /**
+     * Constructeur du noyau symétrique. Avec un groupe de threads, les paires
+     * sont toujours parcourues par tuiles (<em>DEFAULT_TILE_SIZE</em> si aucune
+     * taille n'est donnée), la tuile étant l'unité de travail des tâches.
+     * 
+     * @param tileSize Nombre de corps par tuile (0 : pas de découpage en tuiles)
+     * @param pool     Groupe de threads qui répartit les paires (<em>null</em>
+     *                 pour un calcul séquentiel ; il n'est pas arrêté par le
+     *                 noyau)
+     * @throws IllegalArgumentException Levé lorsque la taille de tuile est
+     *                                  négative
+     */
+    public SymmetricDirectSumKernel(int tileSize, ForkJoinPool pool) throws IllegalArgumentException {
+        if (tileSize < 0) {
+            throw new IllegalArgumentException("La taille de tuile doit être positive !");
+        }
+        this.tileSize = tileSize;
+        this.pool = pool;
+    }
+
+    /**
+     * Permet de récupérer le nombre de corps par tuile.
+     * 
+     * @return Taille de tuile (0 : pas de découpage en tuiles)
+     */
+    public int getTileSize() {
+        return this.tileSize;
+    }
+
+    /**
+     * Permet de récupérer le groupe de threads qui répartit les paires.
+     * 
+     * @return Groupe de threads, ou <em>null</em> pour un calcul séquentiel
+     */
+    public ForkJoinPool getPool() {
+        return this.pool;
+    }
+
+    @Override
+    public String getName() {
+        String name = this.tileSize == 0 ? "Symétrique" : "Symétrique par tuiles (" + this.tileSize + ")";
+        return this.pool == null ? name : name + " parallèle (" + this.pool.getParallelism() + " threads)";
+    }
+
+    @Override
+    public void computeAcceleration(ParticleStore store, int target) {
+        // Un seul corps : la symétrie n'apporte rien
+        this.formula.accelerationCalculus(store, target);
+    }
+
+    @Override
+    public void computeAccelerations(ParticleStore store) {
+        int size = store.size();
+        int tile = this.tileSize == 0 ? DEFAULT_TILE_SIZE : this.tileSize;
+        if (this.pool != null && this.pool.getParallelism() > 1 && size > tile) {
+            this.computeAccelerationsInParallel(store, tile);
+            return;
+        }
+        if (!(store instanceof ArrayParticleStore)) {
+            this.computeAccelerationsWithAccessors(store);
+            return;
+        }
+        ArrayParticleStore arrays = (ArrayParticleStore) store;
+        arrays.resetAccelerations();
+        double[] xs = arrays.getXPositions();
+        double[] ys = arrays.getYPositions();
+        double[] zs = arrays.getZPositions();
+        double[] masses = arrays.getMasses();
+        double[] axs = arrays.getXAccelerations();
+        double[] ays = arrays.getYAccelerations();
+        double[] azs = arrays.getZAccelerations();
+        int tileWidth = this.tileSize == 0 ? size : this.tileSize;
+        for (int startI = 0; startI < size; startI += tileWidth) {
+            int endI = Math.min(startI + tileWidth, size);
+            for (int startJ = startI; startJ < size; startJ += tileWidth) {
+                accumulateTile(xs, ys, zs, masses, startI, endI, startJ, Math.min(startJ + tileWidth, size), axs,
+                        ays, azs);
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            axs[i] *= Constants.G;
+            ays[i] *= Constants.G;
+            azs[i] *= Constants.G;
+        }
+    }
+
+    /**
+     * Permet d'ajouter les attractions des paires d'une tuile (corps
+     * <em>i</em> d'un bloc, corps <em>j</em> d'un autre bloc) aux accélérations
+     * des deux corps, sans la constante gravitationnelle. Dans une tuile
+     * diagonale, seules les paires (i, j > i) sont calculées.
+     * 
+     * @param xs     Positions sur l'axe des X
+     * @param ys     Positions sur l'axe des Y
+     * @param zs     Positions sur l'axe des Z
+     * @param masses Masses
+     * @param startI Premier corps du bloc des <em>i</em>
+     * @param endI   Corps qui suit le dernier corps du bloc des <em>i</em>
+     * @param startJ Premier corps du bloc des <em>j</em>
+     * @param endJ   Corps qui suit le dernier corps du bloc des <em>j</em>
+     * @param axs    Accélérations sur l'axe des X (accumulées)
+     * @param ays    Accélérations sur l'axe des Y (accumulées)
+     * @param azs    Accélérations sur l'axe des Z (accumulées)
+     */
+    private static void accumulateTile(double[] xs, double[] ys, double[] zs, double[] masses, int startI, int endI,
+            int startJ, int endJ, double[] axs, double[] ays, double[] azs) {
+        for (int i = startI; i < endI; i++) {
+            double x = xs[i];
+            double y = ys[i];
+            double z = zs[i];
+            double m = masses[i];
+            double sumX = 0;
+            double sumY = 0;
+            double sumZ = 0;
+            for (int j = startI == startJ ? i + 1 : startJ; j < endJ; j++) {
+                double dx = xs[j] - x; // Distance entre les deux corps
+                double dy = ys[j] - y;
+                double dz = zs[j] - z;
+                double d2 = dx * dx + dy * dy + dz * dz;
+                double inverse = 1 / (d2 * Math.sqrt(d2));
+                double fi = masses[j] * inverse; // Attraction de j sur i
+                double fj = m * inverse; // Attraction de i sur j (sens opposé)
+                sumX += dx * fi;
+                sumY += dy * fi;
+                sumZ += dz * fi;
+                axs[j] -= dx * fj;
+                ays[j] -= dy * fj;
+                azs[j] -= dz * fj;
+            }
+            axs[i] += sumX;
+            ays[i] += sumY;
+            azs[i] += sumZ;
+        }
+    }
+
+    /**
+     * Permet de calculer toutes les accélérations paire par paire sur le groupe
+     * de threads : chaque tâche accumule ses paires dans ses propres
+     * accélérations partielles (aucune synchronisation pendant le calcul), puis
+     * les accélérations partielles sont additionnées dans le stockage. Les
+     * positions d'un stockage qui n'est pas un tableau Java sont d'abord copiées.
+     * 
+     * @param store Stockage contenant tous les corps simulés
+     * @param tile  Nombre de corps par tuile
+     */
+    private void computeAccelerationsInParallel(ParticleStore store, int tile) {
+        int size = store.size();
+        int tasks = this.pool.getParallelism();
+        if (this.partialX.length != tasks || this.partialX[0].length < size) {
+            this.partialX = new double[tasks][size];
+            this.partialY = new double[tasks][size];
+            this.partialZ = new double[tasks][size];
+        }
+        double[] xs;
+        double[] ys;
+        double[] zs;
+        double[] masses;
+        if (store instanceof ArrayParticleStore) {
+            ArrayParticleStore arrays = (ArrayParticleStore) store;
+            xs = arrays.getXPositions();
+            ys = arrays.getYPositions();
+            zs = arrays.getZPositions();
+            masses = arrays.getMasses();
+        } else {
+            if (this.copyX.length < size) {
+                this.copyX = new double[size];
+                this.copyY = new double[size];
+                this.copyZ = new double[size];
+                this.copyMasses = new double[size];
+            }
+            for (int i = 0; i < size; i++) {
+                this.copyX[i] = store.getXPosition(i);
+                this.copyY[i] = store.getYPosition(i);
+                this.copyZ[i] = store.getZPosition(i);
+                this.copyMasses[i] = store.getMass(i);
+            }
+            xs = this.copyX;
+            ys = this.copyY;
+            zs = this.copyZ;
+            masses = this.copyMasses;
+        }
+        PairTask[] pairTasks = new PairTask[tasks];
+        for (int k = 0; k < tasks; k++) {
+            pairTasks[k] = new PairTask(k, tasks, xs, ys, zs, masses, size, tile);
+        }
+        this.pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(pairTasks)));
+        this.pool.invoke(new SumTask(store, 0, size));
+    }
+
+    /**
+     * Permet de calculer toutes les accélérations paire par paire sur un stockage
+     * qui n'est pas un tableau Java (les tuiles ne sont pas utilisées).
+     * 
+     * @param store Stockage contenant tous les corps simulés
+     */
+    private void computeAccelerationsWithAccessors(ParticleStore store) {
+        int size = store.size();
+        store.resetAccelerations();
+        for (int i = 0; i < size; i++) {
+            double x = store.getXPosition(i);
+            double y = store.getYPosition(i);
+            double z = store.getZPosition(i);
+            double m = Constants.G * store.getMass(i);
+            double sumX = 0;
+            double sumY = 0;
+            double sumZ = 0;
+            for (int j = i + 1; j < size; j++) {
+                double dx = store.getXPosition(j) - x;
+                double dy = store.getYPosition(j) - y;
+                double dz = store.getZPosition(j) - z;
+                double d2 = dx * dx + dy * dy + dz * dz;
+                double inverse = 1 / (d2 * Math.sqrt(d2));
+                double fi = Constants.G * store.getMass(j) * inverse;
+                double fj = m * inverse;
+                sumX += dx * fi;
+                sumY += dy * fi;
+                sumZ += dz * fi;
+                store.addAcceleration(j, -dx * fj, -dy * fj, -dz * fj);
+            }
+            store.addAcceleration(i, sumX, sumY, sumZ);
+        }
+    }
+}
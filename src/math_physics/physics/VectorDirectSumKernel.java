@@ -0,0 +1,85 @@
+package math_physics.physics;
+
+import jdk.incubator.vector.*;
+
+/**
+ * Noyau de sommation directe vectoriel : les corps sources sont traités par
+ * paquets de la taille d'un registre SIMD à l'aide de l'API
+ * <em>jdk.incubator.vector</em>. La JVM doit être lancée avec l'option
+ * <code>--add-modules jdk.incubator.vector</code> ; sinon, utiliser
+ * <code>DirectSumKernel.fastest()</code> qui se replie sur le noyau scalaire.
+ * Seul un <code>ArrayParticleStore</code> est vectorisé.
+ */
+public class VectorDirectSumKernel implements DirectSumKernel {
+    /**
+     * Correspond à la taille de registre préférée par le processeur.
+     */
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    /**
+     * Correspond aux formules physiques utilisées pour les stockages qui ne sont
+     * pas des tableaux Java.
+     */
+    private final Formula formula = new Formula();
+
+    @Override
+    public String getName() {
+        return "Vectoriel (" + SPECIES.length() + " x double)";
+    }
+
+    @Override
+    public void computeAcceleration(ParticleStore store, int target) {
+        if (!(store instanceof ArrayParticleStore)) {
+            // Les paquets sont chargés depuis des tableaux Java : les autres stockages
+            // utilisent la boucle scalaire
+            this.formula.accelerationCalculus(store, target);
+            return;
+        }
+        ArrayParticleStore arrays = (ArrayParticleStore) store;
+        double[] xs = arrays.getXPositions();
+        double[] ys = arrays.getYPositions();
+        double[] zs = arrays.getZPositions();
+        double[] masses = arrays.getMasses();
+        double x = xs[target];
+        double y = ys[target];
+        double z = zs[target];
+        DoubleVector sumX = DoubleVector.zero(SPECIES);
+        DoubleVector sumY = DoubleVector.zero(SPECIES);
+        DoubleVector sumZ = DoubleVector.zero(SPECIES);
+        double sx = 0;
+        double sy = 0;
+        double sz = 0;
+        // Le corps lui-même est exclu en découpant la boucle en deux intervalles
+        // autour de sa case ; chacun est traité par paquets vectoriels, puis ses
+        // derniers corps un par un
+        for (int part = 0; part < 2; part++) {
+            int start = part == 0 ? 0 : target + 1;
+            int end = part == 0 ? target : store.size();
+            int i = start;
+            for (int bound = start + SPECIES.loopBound(end - start); i < bound; i += SPECIES.length()) {
+                DoubleVector dx = DoubleVector.fromArray(SPECIES, xs, i).neg().add(x); // Distance entre les corps
+                DoubleVector dy = DoubleVector.fromArray(SPECIES, ys, i).neg().add(y);
+                DoubleVector dz = DoubleVector.fromArray(SPECIES, zs, i).neg().add(z);
+                DoubleVector d2 = dx.mul(dx).add(dy.mul(dy)).add(dz.mul(dz));
+                DoubleVector f = DoubleVector.fromArray(SPECIES, masses, i).div(d2.mul(d2.sqrt()));
+                sumX = dx.fma(f, sumX);
+                sumY = dy.fma(f, sumY);
+                sumZ = dz.fma(f, sumZ);
+            }
+            for (; i < end; i++) { // Derniers corps (moins d'un paquet)
+                double dx = x - xs[i];
+                double dy = y - ys[i];
+                double dz = z - zs[i];
+                double d = Math.sqrt(dx * dx + dy * dy + dz * dz);
+                double f = masses[i] / (d * d * d);
+                sx += dx * f;
+                sy += dy * f;
+                sz += dz * f;
+            }
+        }
+        sx += sumX.reduceLanes(VectorOperators.ADD);
+        sy += sumY.reduceLanes(VectorOperators.ADD);
+        sz += sumZ.reduceLanes(VectorOperators.ADD);
+        store.setAcceleration(target, -Constants.G * sx, -Constants.G * sy, -Constants.G * sz);
+    }
+}
@@ -0,0 +1,49 @@
+package math_physics.physics;
+
+/**
+ * Schéma symplectique de Yoshida d'ordre 4 : composition de trois pas
+ * saute-mouton (« kick-drift-kick ») de durées <em>w1*dt</em>, <em>w0*dt</em> et
+ * <em>w1*dt</em>, avec <em>w1 = 1 / (2 - 2^(1/3))</em> et
+ * <em>w0 = 1 - 2*w1</em> (le pas du milieu remonte le temps). Comme le
+ * saute-mouton, les accélérations de la fin d'un pas servent au début du
+ * suivant : trois calculs des forces par pas, pour une erreur d'ordre 4 qui ne
+ * dérive pas.
+ */
+public class YoshidaIntegrator implements Integrator {
+    /**
+     * Nom du schéma.
+     */
+    public static final String NAME = "Yoshida (ordre 4)";
+
+    /**
+     * Durées relatives des trois pas saute-mouton.
+     */
+    private static final double[] WEIGHTS;
+
+    static {
+        double w1 = 1 / (2 - Math.cbrt(2));
+        WEIGHTS = new double[] { w1, 1 - 2 * w1, w1 };
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void step(Simulator simulator, double deltaTime) {
+        ParticleStore store = simulator.getStore();
+        if (!simulator.getAccelerationsUpToDate()) {
+            // Premier pas, ou corps modifiés depuis le dernier calcul
+            simulator.computeAccelerations();
+        }
+        for (double weight : WEIGHTS) {
+            double subStep = weight * deltaTime;
+            store.kick(subStep / 2);
+            store.drift(subStep);
+            simulator.invalidateAccelerations();
+            simulator.computeAccelerations();
+            store.kick(subStep / 2);
+        }
+    }
+}
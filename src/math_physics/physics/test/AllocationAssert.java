@@ -0,0 +1,135 @@
+package math_physics.physics.test;
+
+import java.lang.management.*;
+import java.util.*;
+
+import math_physics.physics.*;
+
+/**
+ * Classe de test qui vérifie, à l'aide des compteurs d'allocation de la JVM,
+ * qu'une itération de simulation en régime établi ne crée aucun objet par
+ * corps.
+ */
+public class AllocationAssert {
+    /**
+     * Nombre d'itérations de chauffe (laisse le JIT compiler la boucle de
+     * simulation).
+     */
+    private static final int WARMUP = 20;
+
+    /**
+     * Nombre d'itérations mesurées.
+     */
+    private static final int STEPS = 10;
+
+    /**
+     * Permet de récupérer le nombre d'octets alloués par le thread courant.
+     * 
+     * @param bean Interface de gestion des threads de la JVM
+     * @return Nombre d'octets alloués depuis le lancement du thread
+     */
+    private static long allocatedBytes(com.sun.management.ThreadMXBean bean) {
+        return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Teste qu'une itération de la simulation newtonienne basique n'alloue rien
+     * par corps.
+     * 
+     * @param bean Interface de gestion des threads de la JVM
+     * @param N    Nombre de corps simulés
+     */
+    private static void testSimulateAllBodies(com.sun.management.ThreadMXBean bean, int N) {
+        Simulator simulator = new Simulator(N, 10, 1, 100, 5);
+        for (int i = 0; i < WARMUP; i++) {
+            simulator.simulateAllBodies();
+        }
+        long before = allocatedBytes(bean);
+        for (int i = 0; i < STEPS; i++) {
+            simulator.simulateAllBodies();
+        }
+        long allocated = allocatedBytes(bean) - before;
+        // Moins d'un octet par corps et par itération : aucun vecteur n'est créé
+        assert allocated < (long) N * STEPS : "Une itération de simulation ne devrait rien allouer par corps ("
+                + allocated + " octets alloués pour " + N + " corps)";
+    }
+
+    /**
+     * Teste qu'une itération de la simulation par la liste des objets
+     * (<code>GenericObject.simulateAll</code> puis
+     * <code>GenericObject.simulate</code>) n'alloue rien par corps.
+     * 
+     * @param bean Interface de gestion des threads de la JVM
+     * @param N    Nombre de corps simulés
+     */
+    private static void testSimulateAll(com.sun.management.ThreadMXBean bean, int N) {
+        List<GenericObject> bodies = new Simulator(N, 10, 1, 100, 5).getBodies();
+        for (int i = 0; i < WARMUP; i++) {
+            GenericObject.simulateAll(bodies, 1);
+            bodies.get(i % N).simulate(bodies, 1);
+        }
+        long before = allocatedBytes(bean);
+        for (int i = 0; i < STEPS; i++) {
+            GenericObject.simulateAll(bodies, 1);
+            bodies.get(i % N).simulate(bodies, 1);
+        }
+        long allocated = allocatedBytes(bean) - before;
+        assert allocated < (long) N * STEPS : "La simulation par la liste des objets ne devrait rien allouer par corps ("
+                + allocated + " octets alloués pour " + N + " corps)";
+    }
+
+    /**
+     * Teste que réordonner un stockage natif (déplacement des corps par cycles de
+     * la permutation) n'alloue rien par corps.
+     * 
+     * @param bean Interface de gestion des threads de la JVM
+     * @param N    Nombre de corps stockés
+     */
+    private static void testPermute(com.sun.management.ThreadMXBean bean, int N) {
+        ParticleStore heap = new Simulator(N, 10, 1, 100, 5).getStore();
+        int[] order = new int[N];
+        for (int i = 0; i < N; i++) {
+            order[i] = (i + N / 3) % N;
+        }
+        try (SegmentParticleStore store = new SegmentParticleStore(N)) {
+            for (int i = 0; i < N; i++) {
+                store.copyFrom(heap, i);
+            }
+            for (int i = 0; i < WARMUP; i++) {
+                store.permute(order);
+            }
+            long before = allocatedBytes(bean);
+            for (int i = 0; i < STEPS; i++) {
+                store.permute(order);
+            }
+            long allocated = allocatedBytes(bean) - before;
+            // Moins qu'un bit par corps sur toutes les itérations : aucun tableau de
+            // cases placées n'est créé
+            assert allocated < N / 8 : "Réordonner le stockage ne devrait rien allouer par corps (" + allocated
+                    + " octets alloués pour " + N + " corps)";
+        }
+    }
+
+    /**
+     * Méthode principale exécutable qui lance tous les tests.
+     * 
+     * @param args Arguments donnés au fichier
+     */
+    public static void main(String[] args) {
+        System.out.println("Test ==> ALLOCATION");
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (!(threadBean instanceof com.sun.management.ThreadMXBean)) {
+            System.out.println("Compteurs d'allocation indisponibles sur cette JVM : test ignoré");
+            return;
+        }
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) threadBean;
+        if (!bean.isThreadAllocatedMemorySupported() || !bean.isThreadAllocatedMemoryEnabled()) {
+            System.out.println("Compteurs d'allocation indisponibles sur cette JVM : test ignoré");
+            return;
+        }
+        testSimulateAllBodies(bean, 200);
+        testSimulateAllBodies(bean, 800);
+        testSimulateAll(bean, 200);
+        testPermute(bean, 10_000);
+    }
+}
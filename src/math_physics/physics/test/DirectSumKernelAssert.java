@@ -0,0 +1,142 @@
+package math_physics.physics.test;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import math_physics.math.*;
+import math_physics.physics.*;
+
+/**
+ * Classe de test permettant de vérifier que les noyaux de sommation directe
+ * donnent les mêmes accélérations que la formule de référence.
+ */
+public class DirectSumKernelAssert {
+    /**
+     * Tolérance relative acceptée entre deux noyaux (l'ordre des additions change
+     * avec la vectorisation).
+     */
+    private static final double TOLERANCE = 1e-10;
+
+    /**
+     * Permet de créer un simulateur contenant des corps aléatoires.
+     * 
+     * @param N Nombre de corps
+     * @return Simulateur
+     */
+    private static Simulator randomSimulator(int N) {
+        return new Simulator(N, 10, 1, 100, 5);
+    }
+
+    /**
+     * Permet de vérifier qu'un noyau donne, pour chaque corps, la même
+     * accélération que <code>Formula.accelerationCalculus</code>.
+     * 
+     * @param kernel Noyau à tester
+     * @param N      Nombre de corps
+     */
+    private static void testKernel(DirectSumKernel kernel, int N) {
+        Simulator simulator = randomSimulator(N);
+        List<GenericObject> bodies = simulator.getBodies();
+        Formula formula = new Formula();
+        for (int i = 0; i < N; i++) {
+            Vector3D expected = formula.accelerationCalculus(bodies.get(i), bodies);
+            kernel.computeAcceleration(simulator.getStore(), i);
+            Vector3D actual = bodies.get(i).getAcceleration();
+            assert actual.distanceFromOtherVector(expected) <= TOLERANCE * expected.distanceFromOrigin()
+                    : "Le noyau " + kernel.getName() + " s'écarte de la formule pour le corps " + i + " (N = " + N
+                            + ")";
+        }
+    }
+
+    /**
+     * Permet de vérifier qu'un noyau donne, en une seule passe, les mêmes
+     * accélérations pour tous les corps que <code>Formula.accelerationCalculus</code>.
+     * 
+     * @param kernel Noyau à tester
+     * @param N      Nombre de corps
+     */
+    private static void testAllAccelerations(DirectSumKernel kernel, int N) {
+        Simulator simulator = randomSimulator(N);
+        List<GenericObject> bodies = simulator.getBodies();
+        Formula formula = new Formula();
+        kernel.computeAccelerations(simulator.getStore());
+        for (int i = 0; i < N; i++) {
+            Vector3D expected = formula.accelerationCalculus(bodies.get(i), bodies);
+            Vector3D actual = bodies.get(i).getAcceleration();
+            assert actual.distanceFromOtherVector(expected) <= TOLERANCE * expected.distanceFromOrigin()
+                    : "Le noyau " + kernel.getName() + " s'écarte de la formule pour le corps " + i + " (N = " + N
+                            + ")";
+        }
+    }
+
+    /**
+     * Teste que le noyau symétrique, qui calcule les corps par paires, est refusé
+     * par le noyau parallèle corps par corps.
+     */
+    private static void testParallelSymmetricRejected() {
+        boolean raised = false;
+        try {
+            new ParallelDirectSumKernel(new SymmetricDirectSumKernel(), ForkJoinPool.commonPool(), 1);
+        } catch (IllegalArgumentException e) {
+            raised = true;
+        }
+        assert raised : "Le noyau symétrique ne devrait pas être découpé corps par corps";
+    }
+
+    /**
+     * Teste qu'un simulateur donne les mêmes trajectoires avec le noyau le plus
+     * rapide qu'avec le noyau scalaire.
+     */
+    private static void testSimulator() {
+        Simulator scalar = randomSimulator(300);
+        Simulator fastest = new Simulator();
+        for (GenericObject o : scalar.getBodies()) {
+            fastest.addBody(o.getMass(), o.getRadius(), o.getPosition(), o.getVelocity());
+        }
+        fastest.setDirectSumKernel(DirectSumKernel.fastest());
+        for (int step = 0; step < 5; step++) {
+            scalar.simulateAllBodies();
+            fastest.simulateAllBodies();
+        }
+        for (int i = 0; i < scalar.getNumberBody(); i++) {
+            Vector3D expected = scalar.getBodies().get(i).getPosition();
+            Vector3D actual = fastest.getBodies().get(i).getPosition();
+            assert actual.distanceFromOtherVector(expected) <= TOLERANCE * expected.distanceFromOrigin()
+                    : "Les trajectoires divergent avec le noyau " + fastest.getDirectSumKernel().getName();
+        }
+    }
+
+    /**
+     * Méthode principale exécutable qui lance tous les tests.
+     * 
+     * @param args Arguments donnés au fichier
+     */
+    public static void main(String[] args) {
+        System.out.println("Test ==> DIRECTSUMKERNEL");
+        DirectSumKernel fastest = DirectSumKernel.fastest();
+        boolean vector = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+        assert (fastest instanceof ScalarDirectSumKernel) != vector
+                : "Le noyau le plus rapide devrait être vectoriel si et seulement si le module est chargé ("
+                        + fastest.getName() + ")";
+        // Tailles choisies pour ne pas être des multiples de la largeur des registres
+        for (int N : new int[] { 1, 2, 7, 301 }) {
+            testKernel(new ScalarDirectSumKernel(), N);
+            testKernel(fastest, N);
+            testKernel(new SymmetricDirectSumKernel(), N);
+            testAllAccelerations(new ScalarDirectSumKernel(), N);
+            testAllAccelerations(new SymmetricDirectSumKernel(), N);
+            testAllAccelerations(new SymmetricDirectSumKernel(16), N);
+            ForkJoinPool pool = new ForkJoinPool(3);
+            testAllAccelerations(new SymmetricDirectSumKernel(16, pool), N);
+            testAllAccelerations(new SymmetricDirectSumKernel(0, pool), N);
+            pool.shutdown();
+            ParallelDirectSumKernel parallel = new ParallelDirectSumKernel(fastest, 4);
+            testAllAccelerations(parallel, N);
+            parallel.shutdown();
+            testAllAccelerations(new ParallelDirectSumKernel(new ScalarDirectSumKernel(), ForkJoinPool.commonPool(), 1),
+                    N);
+        }
+        testParallelSymmetricRejected();
+        testSimulator();
+    }
+}
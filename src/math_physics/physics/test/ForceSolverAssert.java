@@ -0,0 +1,131 @@
+package math_physics.physics.test;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import math_physics.physics.*;
+
+/**
+ * Classe de test permettant de vérifier le choix de la méthode de calcul des
+ * forces du simulateur.
+ */
+public class ForceSolverAssert {
+    /**
+     * Méthode de test qui inverse l'ordre des corps, compte ses appels et donne à
+     * chaque case une accélération égale à son indice sur l'axe des X.
+     */
+    private static class ReversingSolver implements ForceSolver {
+        /**
+         * Correspond au nombre de calculs des forces.
+         */
+        private int calls = 0;
+
+        /**
+         * Correspond au fait que le dernier calcul a suivi un réordonnancement du
+         * stockage.
+         */
+        private boolean reordered = false;
+
+        @Override
+        public String getName() {
+            return "Inversion";
+        }
+
+        @Override
+        public int[] sortBodies(ParticleStore store, ForkJoinPool pool) {
+            int[] order = new int[store.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = order.length - 1 - i;
+            }
+            return order;
+        }
+
+        @Override
+        public void computeAccelerations(ParticleStore store, boolean reordered, ForkJoinPool pool) {
+            this.reordered = reordered;
+            this.computeAccelerations(store, pool);
+        }
+
+        @Override
+        public void computeAccelerations(ParticleStore store, ForkJoinPool pool) {
+            this.calls++;
+            for (int i = 0; i < store.size(); i++) {
+                store.setAcceleration(i, i, 0, 0);
+            }
+        }
+    }
+
+    /**
+     * Teste que la sommation directe est enregistrée et utilisée par défaut, et
+     * qu'un nom inconnu est refusé.
+     */
+    private static void testDefaultSolver() {
+        Simulator simulator = new Simulator(10, 10, 1, 100, 5);
+        assert simulator.getForceSolver() instanceof DirectSumSolver
+                : "La sommation directe devrait être utilisée par défaut";
+        assert simulator.getForceSolverNames().equals(List.of(DirectSumSolver.NAME))
+                : "Seule la sommation directe devrait être enregistrée";
+
+        DirectSumKernel kernel = DirectSumKernel.fastest();
+        simulator.setDirectSumKernel(kernel);
+        assert ((DirectSumSolver) simulator.getForceSolver()).getKernel() == kernel
+                : "La sommation directe devrait utiliser le noyau du simulateur";
+
+        boolean raised = false;
+        try {
+            simulator.setForceSolver("Inconnue");
+        } catch (IllegalArgumentException e) {
+            raised = true;
+        }
+        assert raised : "Une méthode inconnue devrait être refusée";
+        assert simulator.getForceSolver() instanceof DirectSumSolver : "La méthode ne devrait pas avoir changé";
+    }
+
+    /**
+     * Teste qu'une méthode enregistrée est utilisée une fois choisie, et que
+     * l'ordre qu'elle propose est appliqué à la liste et au stockage.
+     */
+    private static void testCustomSolver() {
+        Simulator simulator = new Simulator(20, 10, 1, 100, 5);
+        List<GenericObject> before = new ArrayList<>(simulator.getBodies());
+        ReversingSolver solver = new ReversingSolver();
+        simulator.registerForceSolver(solver);
+        assert simulator.getForceSolver() instanceof DirectSumSolver
+                : "L'enregistrement ne devrait pas changer la méthode utilisée";
+        simulator.setForceSolver(solver.getName());
+        assert simulator.getForceSolver(solver.getName()) == solver
+                : "La méthode devrait être retrouvée par son nom";
+
+        simulator.simulateAllBodies();
+        assert solver.calls == 1 : "La méthode choisie devrait calculer les forces";
+        assert solver.reordered : "La méthode devrait savoir que le stockage a été réordonné";
+        List<GenericObject> after = simulator.getBodies();
+        for (int i = 0; i < after.size(); i++) {
+            GenericObject body = after.get(i);
+            assert body == before.get(after.size() - 1 - i) : "Les corps devraient être réordonnés";
+            assert body.getAcceleration().getX() == i
+                    : "Le corps " + i + " devrait lire l'accélération de sa nouvelle case";
+        }
+
+        simulator.computeAccelerations(false);
+        assert !solver.reordered : "Sans réordonnancement, la méthode ne devrait pas supposer les corps triés";
+
+        // Une méthode de même nom remplace la précédente, y compris comme méthode
+        // utilisée
+        ReversingSolver replacement = new ReversingSolver();
+        simulator.registerForceSolver(replacement);
+        assert simulator.getForceSolver() == replacement : "La méthode remplacée devrait rester choisie";
+        assert simulator.getForceSolverNames().size() == 2 : "Le nom ne devrait être enregistré qu'une fois";
+    }
+
+    /**
+     * Méthode principale.
+     * 
+     * @param args Arguments passés dans le terminal
+     */
+    public static void main(String[] args) {
+        System.out.println("Test ==> FORCESOLVER");
+        testDefaultSolver();
+        testCustomSolver();
+    }
+}
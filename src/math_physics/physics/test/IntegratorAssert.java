@@ -0,0 +1,359 @@
+package math_physics.physics.test;
+
+import java.util.concurrent.*;
+
+import math_physics.math.*;
+import math_physics.physics.*;
+
+/**
+ * Classe de test permettant de vérifier les schémas d'intégration du
+ * simulateur et les formules qu'ils utilisent (énergie, jerks).
+ */
+public class IntegratorAssert {
+    /**
+     * Nombre de secondes dans une journée.
+     */
+    private static final double DAY = 86_400;
+
+    /**
+     * Méthode de calcul des forces par sommation directe qui compte ses appels.
+     */
+    private static class CountingSolver extends DirectSumSolver {
+        /**
+         * Correspond au nombre de calculs des forces.
+         */
+        private int calls = 0;
+
+        /**
+         * Constructeur de la méthode.
+         */
+        CountingSolver() {
+            super(new ScalarDirectSumKernel());
+        }
+
+        @Override
+        public String getName() {
+            return "Comptage";
+        }
+
+        @Override
+        public void computeAccelerations(ParticleStore store, ForkJoinPool pool) {
+            this.calls++;
+            super.computeAccelerations(store, pool);
+        }
+    }
+
+    /**
+     * Permet de créer un simulateur contenant le Soleil, la Terre et Jupiter sur
+     * des orbites circulaires.
+     * 
+     * @param integrator Schéma d'intégration
+     * @param days       Pas de temps (en jours)
+     * @return Simulateur
+     */
+    private static Simulator solarSystem(Integrator integrator, double days) {
+        Simulator simulator = new Simulator();
+        simulator.addBody("Soleil", Constants.SUN_MASS, 1, new Vector3D(), new Vector3D());
+        double earthVelocity = Math.sqrt(Constants.G * Constants.SUN_MASS / Constants.SUN_EARTH_DISTANCE);
+        simulator.addBody("Terre", Constants.EARTH_MASS, 1, new Vector3D(Constants.SUN_EARTH_DISTANCE, 0, 0),
+                new Vector3D(0, earthVelocity, 0));
+        double jupiterVelocity = Math.sqrt(Constants.G * Constants.SUN_MASS / Constants.SUN_JUPITER_DISTANCE);
+        simulator.addBody("Jupiter", Constants.JUPITER_MASS, 1,
+                new Vector3D(-Constants.SUN_JUPITER_DISTANCE, 0, 0), new Vector3D(0, -jupiterVelocity, 0));
+        simulator.setIntegrator(integrator);
+        simulator.setDeltaTime(days * DAY);
+        return simulator;
+    }
+
+    /**
+     * Permet de simuler dix ans et de renvoyer la plus grande erreur relative sur
+     * l'énergie.
+     * 
+     * @param simulator Simulateur
+     * @return Plus grande erreur relative sur l'énergie
+     */
+    private static double maxEnergyError(Simulator simulator) {
+        double initial = simulator.getTotalEnergy();
+        double maxError = 0;
+        for (double time = 0; time < 3650 * DAY; time += simulator.getDeltaTime()) {
+            simulator.simulateAllBodies();
+            maxError = Math.max(maxError, Math.abs((simulator.getTotalEnergy() - initial) / initial));
+        }
+        return maxError;
+    }
+
+    /**
+     * Teste que les déplacements par vitesses puis par positions donnent le même
+     * résultat que l'intégration d'Euler.
+     */
+    private static void testKickDrift() {
+        ParticleStore euler = new ArrayParticleStore();
+        ParticleStore split = new ArrayParticleStore();
+        for (int i = 0; i < 5; i++) {
+            for (ParticleStore store : new ParticleStore[] { euler, split }) {
+                int slot = store.add(1, 1, i, 2 * i, -i, 0.5, i, 1);
+                store.setAcceleration(slot, i, -1, 0.25);
+            }
+        }
+        euler.integrate(0.1);
+        split.kick(0.1);
+        split.drift(0.1);
+        for (int i = 0; i < 5; i++) {
+            assert euler.getXPosition(i) == split.getXPosition(i) && euler.getYVelocity(i) == split.getYVelocity(i)
+                    : "kick puis drift devraient donner le même déplacement qu'integrate (corps " + i + ")";
+        }
+    }
+
+    /**
+     * Teste que le schéma saute-mouton conserve mieux l'énergie que le schéma
+     * d'Euler, même avec des pas dix fois plus grands.
+     */
+    private static void testEnergyConservation() {
+        double eulerError = maxEnergyError(solarSystem(new EulerIntegrator(), 1));
+        double leapfrogError = maxEnergyError(solarSystem(new LeapfrogIntegrator(), 1));
+        double largeStepError = maxEnergyError(solarSystem(new LeapfrogIntegrator(), 10));
+        assert leapfrogError < eulerError / 100 : "Le saute-mouton devrait mieux conserver l'énergie";
+        assert largeStepError < eulerError
+                : "Le saute-mouton avec des pas dix fois plus grands devrait rester plus précis qu'Euler";
+    }
+
+    /**
+     * Teste que chaque schéma calcule les forces le nombre de fois attendu par
+     * pas, et que le saute-mouton les recalcule lorsque les corps changent.
+     */
+    private static void testForceEvaluations() {
+        Integrator[] integrators = { new EulerIntegrator(), new LeapfrogIntegrator(), new YoshidaIntegrator(),
+                new RungeKuttaIntegrator(), new HermiteIntegrator() };
+        // Les schémas qui réutilisent les accélérations de la fin du pas les
+        // calculent une fois de plus au premier pas
+        int[] expected = { 10, 11, 31, 40, 11 };
+        for (int i = 0; i < integrators.length; i++) {
+            Simulator simulator = solarSystem(integrators[i], 1);
+            CountingSolver solver = new CountingSolver();
+            simulator.registerForceSolver(solver);
+            simulator.setForceSolver(solver.getName());
+            for (int step = 0; step < 10; step++) {
+                simulator.simulateAllBodies();
+            }
+            assert solver.calls == expected[i] && simulator.getForceEvaluations() == expected[i]
+                    : integrators[i].getName() + " devrait calculer les forces " + expected[i] + " fois ("
+                            + solver.calls + ")";
+        }
+
+        Simulator simulator = solarSystem(new LeapfrogIntegrator(), 1);
+        simulator.simulateAllBodies();
+        assert simulator.getAccelerationsUpToDate() : "Les accélérations devraient servir au pas suivant";
+        simulator.addBody(Constants.MARS_MASS, 1, new Vector3D(Constants.SUN_MARS_DISTANCE, 0, 0), new Vector3D());
+        assert !simulator.getAccelerationsUpToDate() : "L'ajout d'un corps devrait invalider les accélérations";
+        simulator.setIntegrator(new EulerIntegrator());
+        simulator.simulateAllBodies();
+        assert !simulator.getAccelerationsUpToDate() : "Euler devrait déplacer les corps après le calcul des forces";
+    }
+
+    /**
+     * Teste que les schémas d'ordre 4 sont bien plus précis que le saute-mouton
+     * pour le même pas, et que leur erreur décroît rapidement avec le pas.
+     */
+    private static void testHighOrder() {
+        double leapfrogError = maxEnergyError(solarSystem(new LeapfrogIntegrator(), 4));
+        for (Integrator integrator : new Integrator[] { new YoshidaIntegrator(), new RungeKuttaIntegrator(),
+                new HermiteIntegrator() }) {
+            double error = maxEnergyError(solarSystem(integrator, 4));
+            double halfStepError = maxEnergyError(solarSystem(integrator, 2));
+            assert error < leapfrogError : integrator.getName() + " devrait être plus précis que le saute-mouton";
+            assert halfStepError < error / 10
+                    : integrator.getName() + " devrait être d'ordre 4 (" + error + " puis " + halfStepError + ")";
+        }
+    }
+
+    /**
+     * Teste que les jerks sont la dérivée des accélérations le long du
+     * mouvement (différence centrée sur des positions décalées selon les
+     * vitesses).
+     */
+    private static void testJerks() {
+        Simulator simulator = solarSystem(new EulerIntegrator(), 1);
+        ParticleStore store = simulator.getStore();
+        int size = store.size();
+        double[] jerksX = new double[size];
+        double[] jerksY = new double[size];
+        double[] jerksZ = new double[size];
+        new Formula().jerks(store, jerksX, jerksY, jerksZ);
+
+        double h = 1_000;
+        double[][] accelerations = new double[2][3 * size];
+        for (int side = 0; side < 2; side++) {
+            double shift = side == 0 ? -h : h;
+            for (int i = 0; i < size; i++) {
+                store.computeNewPosition(i, shift);
+            }
+            simulator.computeAccelerations();
+            for (int i = 0; i < size; i++) {
+                accelerations[side][3 * i] = store.getXAcceleration(i);
+                accelerations[side][3 * i + 1] = store.getYAcceleration(i);
+                accelerations[side][3 * i + 2] = store.getZAcceleration(i);
+                store.computeNewPosition(i, -shift);
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            double[] jerk = { jerksX[i], jerksY[i], jerksZ[i] };
+            double norm = Math.sqrt(jerk[0] * jerk[0] + jerk[1] * jerk[1] + jerk[2] * jerk[2]);
+            for (int axis = 0; axis < 3; axis++) {
+                double expected = (accelerations[1][3 * i + axis] - accelerations[0][3 * i + axis]) / (2 * h);
+                assert Math.abs(jerk[axis] - expected) < 1e-4 * norm
+                        : "Le jerk du corps " + i + " devrait être la dérivée de son accélération (axe " + axis + ")";
+            }
+        }
+    }
+
+    /**
+     * Teste que le schéma saute-mouton est réversible : des pas négatifs ramènent
+     * les corps à leur position de départ.
+     */
+    private static void testReversibility() {
+        Simulator simulator = solarSystem(new LeapfrogIntegrator(), 10);
+        GenericObject earth = simulator.getBodies().get(1);
+        Vector3D start = earth.getPosition();
+        for (int step = 0; step < 100; step++) {
+            simulator.simulateAllBodies();
+        }
+        simulator.setDeltaTime(-simulator.getDeltaTime());
+        for (int step = 0; step < 100; step++) {
+            simulator.simulateAllBodies();
+        }
+        assert earth.getPosition().distanceFromOtherVector(start) < 1e-6 * Constants.SUN_EARTH_DISTANCE
+                : "Le saute-mouton devrait revenir à la position de départ";
+    }
+
+    /**
+     * Teste que le schéma à pas par blocs avec un seul niveau est exactement le
+     * saute-mouton.
+     */
+    private static void testSingleLevelBlocks() {
+        BlockTimestepIntegrator blocks = new BlockTimestepIntegrator();
+        blocks.setMaxLevel(0);
+        Simulator simulator = solarSystem(blocks, 4);
+        Simulator reference = solarSystem(new LeapfrogIntegrator(), 4);
+        for (int step = 0; step < 50; step++) {
+            simulator.simulateAllBodies();
+            reference.simulateAllBodies();
+        }
+        for (int i = 0; i < 3; i++) {
+            assert simulator.getStore().getXPosition(i) == reference.getStore().getXPosition(i)
+                    && simulator.getStore().getYVelocity(i) == reference.getStore().getYVelocity(i)
+                    : "Un seul niveau devrait donner le saute-mouton (corps " + i + ")";
+        }
+    }
+
+    /**
+     * Teste que la Lune, autour de la Terre, avance avec de plus petits pas que
+     * Jupiter, que l'énergie reste conservée et que les accélérations calculées
+     * sont bien moins nombreuses qu'avec le saute-mouton au pas de la Lune.
+     */
+    private static void testBlockTimesteps() {
+        BlockTimestepIntegrator blocks = new BlockTimestepIntegrator();
+        Simulator simulator = solarSystem(blocks, 16);
+        double moonDistance = 3.844e8;
+        double earthVelocity = Math.sqrt(Constants.G * Constants.SUN_MASS / Constants.SUN_EARTH_DISTANCE);
+        double moonVelocity = Math.sqrt(Constants.G * Constants.EARTH_MASS / moonDistance);
+        simulator.addBody("Lune", 7.342e22, 1, new Vector3D(Constants.SUN_EARTH_DISTANCE + moonDistance, 0, 0),
+                new Vector3D(0, earthVelocity + moonVelocity, 0));
+        double error = maxEnergyError(simulator);
+        assert error < 1e-6 : "Les pas par blocs devraient conserver l'énergie (" + error + ")";
+        int moon = simulator.getStore().size() - 1;
+        assert blocks.getLevel(moon) > blocks.getLevel(2) : "La Lune devrait avoir un plus petit pas que Jupiter";
+        assert blocks.getLevel(moon) <= blocks.getMaxLevel() : "Le niveau devrait rester dans les bornes";
+
+        // Saute-mouton de tous les corps au pas de la Lune
+        long steps = Math.round(3650 * DAY / simulator.getDeltaTime());
+        long sharedUpdates = steps * 4 << blocks.getLevel(moon);
+        assert simulator.getAccelerationUpdates() < sharedUpdates / 2
+                : "Les pas par blocs devraient calculer moins d'accélérations (" + simulator.getAccelerationUpdates()
+                        + " contre " + sharedUpdates + ")";
+    }
+
+    /**
+     * Teste qu'un corps isolé, dont l'accélération reste nulle, garde le plus
+     * grand pas au lieu de descendre au plus petit.
+     */
+    private static void testLoneBodyBlocks() {
+        BlockTimestepIntegrator blocks = new BlockTimestepIntegrator();
+        Simulator simulator = new Simulator();
+        simulator.addBody("Soleil", Constants.SUN_MASS, 1, new Vector3D(), new Vector3D(1, 0, 0));
+        simulator.setIntegrator(blocks);
+        simulator.setDeltaTime(DAY);
+        for (int step = 0; step < 3; step++) {
+            simulator.simulateAllBodies();
+        }
+        assert blocks.getLevel(0) == 0 : "Un corps isolé devrait garder le plus grand pas (" + blocks.getLevel(0)
+                + ")";
+        // Le corps part du plus petit pas et remonte d'un niveau par sous-pas au
+        // premier pas, puis calcule les forces une fois par pas
+        int expected = 1 + (blocks.getMaxLevel() + 1) + 2;
+        assert simulator.getForceEvaluations() == expected : "Un corps isolé devrait calculer les forces " + expected
+                + " fois (" + simulator.getForceEvaluations() + ")";
+    }
+
+    /**
+     * Teste que les paramètres invalides du schéma à pas par blocs sont refusés.
+     */
+    private static void testInvalidBlockParameters() {
+        BlockTimestepIntegrator blocks = new BlockTimestepIntegrator();
+        assert blocks.getMaxLevel() == BlockTimestepIntegrator.DEFAULT_MAX_LEVEL
+                && blocks.getAccuracy() == BlockTimestepIntegrator.DEFAULT_ACCURACY
+                : "Les paramètres par défaut devraient être utilisés";
+        for (int level : new int[] { -1, BlockTimestepIntegrator.MAX_LEVEL + 1 }) {
+            boolean raised = false;
+            try {
+                blocks.setMaxLevel(level);
+            } catch (IllegalArgumentException e) {
+                raised = true;
+            }
+            assert raised : "Le nombre de niveaux " + level + " devrait être refusé";
+        }
+        for (double accuracy : new double[] { 0, -1, Double.NaN }) {
+            boolean raised = false;
+            try {
+                blocks.setAccuracy(accuracy);
+            } catch (IllegalArgumentException e) {
+                raised = true;
+            }
+            assert raised : "Le facteur de précision " + accuracy + " devrait être refusé";
+        }
+    }
+
+    /**
+     * Teste que le schéma d'intégration nul est refusé.
+     */
+    private static void testInvalidIntegrator() {
+        Simulator simulator = new Simulator();
+        assert simulator.getIntegrator() instanceof EulerIntegrator : "Euler devrait être utilisé par défaut";
+        boolean raised = false;
+        try {
+            simulator.setIntegrator(null);
+        } catch (IllegalArgumentException e) {
+            raised = true;
+        }
+        assert raised : "Un schéma nul devrait être refusé";
+    }
+
+    /**
+     * Méthode principale.
+     * 
+     * @param args Arguments passés dans le terminal
+     */
+    public static void main(String[] args) {
+        System.out.println("Test ==> INTEGRATOR");
+        testKickDrift();
+        testEnergyConservation();
+        testForceEvaluations();
+        testHighOrder();
+        testJerks();
+        testReversibility();
+        testSingleLevelBlocks();
+        testBlockTimesteps();
+        testLoneBodyBlocks();
+        testInvalidBlockParameters();
+        testInvalidIntegrator();
+    }
+}
@@ -0,0 +1,139 @@
+package math_physics.physics.test;
+
+import java.util.*;
+
+import math_physics.math.*;
+import math_physics.physics.*;
+
+/**
+ * Classe de test permettant de vérifier que le stockage des corps et les objets
+ * qui en sont des vues restent cohérents.
+ */
+public class ParticleStoreAssert {
+    /**
+     * Teste l'ajout, l'agrandissement et le retrait de corps dans le stockage.
+     */
+    private static void testAddRemove() {
+        ParticleStore store = new ArrayParticleStore(1);
+        for (int i = 0; i < 5; i++) {
+            assert store.add(i + 1, 1, i, 2 * i, 3 * i, 0, 0, 0) == i : "La case retournée n'est pas la bonne";
+        }
+        assert store.size() == 5 && store.capacity() >= 5 : "Le stockage aurait dû s'agrandir";
+        store.remove(1);
+        assert store.size() == 4 : "Le corps n'a pas été retiré";
+        assert store.getMass(1) == 3 && store.getXPosition(1) == 2 && store.getZPosition(3) == 12
+                : "L'ordre des corps n'a pas été conservé";
+    }
+
+    /**
+     * Teste que les objets d'un simulateur sont bien des vues sur son stockage,
+     * y compris après le retrait d'un corps.
+     */
+    private static void testSimulatorViews() {
+        Simulator simulator = new Simulator();
+        MacroObject a = new MacroObject(10, 1, new Vector3D(1, 0, 0), new Vector3D());
+        MacroObject b = new MacroObject(20, 1, new Vector3D(0, 2, 0), new Vector3D());
+        MacroObject c = new MacroObject(30, 1, new Vector3D(0, 0, 3), new Vector3D(1, 1, 1));
+        simulator.addBody(a);
+        simulator.addBody(b);
+        simulator.addBody(c);
+        assert c.getStore() == simulator.getStore() && c.getSlot() == 2 : "Le corps n'est pas dans le stockage";
+        c.setXPosition(5);
+        assert simulator.getStore().getXPosition(2) == 5 : "La vue n'écrit pas dans le stockage";
+
+        simulator.removeBody(b);
+        assert simulator.getNumberBody() == 2 && simulator.getStore().size() == 2 : "Le corps n'a pas été retiré";
+        assert c.getSlot() == 1 && c.getMass() == 30 && c.getXPosition() == 5 : "Les cases n'ont pas été décalées";
+        assert b.getStore() != simulator.getStore() && b.getMass() == 20 && b.getYPosition() == 2
+                : "Le corps retiré a perdu son état";
+
+        simulator.simulateAllBodies();
+        assert a.getXPosition() != 1 && c.getXVelocity() != 1 : "La simulation n'a pas mis à jour les vues";
+        assert b.getYPosition() == 2 : "Le corps retiré ne devrait plus être simulé";
+    }
+
+    /**
+     * Teste que la simulation sur le stockage donne le même résultat que la
+     * simulation en deux phases de la liste d'objets.
+     */
+    private static void testSameResult() {
+        Simulator simulator = new Simulator(50, 10, 1, 100, 5);
+        List<GenericObject> copies = new ArrayList<>();
+        for (GenericObject o : simulator.getBodies()) {
+            copies.add(new MacroObject(o.getMass(), o.getRadius(), o.getPosition(), o.getVelocity()));
+        }
+        for (int step = 0; step < 5; step++) {
+            simulator.simulateAllBodies();
+            GenericObject.simulateAll(copies, 1);
+        }
+        for (int i = 0; i < copies.size(); i++) {
+            Vector3D position = simulator.getBodies().get(i).getPosition();
+            assert position.distanceFromOtherVector(copies.get(i).getPosition()) < 1e-9
+                    : "La simulation sur le stockage diffère de la simulation objet par objet";
+        }
+    }
+
+    /**
+     * Teste que le résultat d'un pas de temps ne dépend pas de l'ordre des corps
+     * dans le simulateur.
+     */
+    private static void testOrderIndependence() {
+        Simulator forward = new Simulator(50, 10, 1, 100, 5);
+        Simulator backward = new Simulator();
+        List<GenericObject> bodies = forward.getBodies();
+        for (int i = bodies.size() - 1; i >= 0; i--) {
+            GenericObject o = bodies.get(i);
+            backward.addBody(o.getMass(), o.getRadius(), o.getPosition(), o.getVelocity());
+        }
+        forward.setDirectSumKernel(new SymmetricDirectSumKernel());
+        backward.setDirectSumKernel(new SymmetricDirectSumKernel());
+        for (int step = 0; step < 5; step++) {
+            forward.simulateAllBodies();
+            backward.simulateAllBodies();
+        }
+        int last = bodies.size() - 1;
+        for (int i = 0; i <= last; i++) {
+            Vector3D expected = bodies.get(i).getPosition();
+            Vector3D actual = backward.getBodies().get(last - i).getPosition();
+            assert actual.distanceFromOtherVector(expected) <= 1e-10 * expected.distanceFromOrigin()
+                    : "Le résultat dépend de l'ordre des corps";
+        }
+    }
+
+    /**
+     * Teste que réordonner les corps d'un simulateur déplace à la fois les objets
+     * de la liste et leur état dans le stockage.
+     */
+    private static void testReorder() {
+        Simulator simulator = new Simulator(20, 10, 1, 100, 5);
+        List<GenericObject> before = new ArrayList<>(simulator.getBodies());
+        List<Vector3D> positions = new ArrayList<>();
+        for (GenericObject o : before) {
+            positions.add(o.getPosition());
+        }
+        int[] order = new int[before.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = (7 * i + 3) % order.length; // 7 et 20 sont premiers entre eux
+        }
+        simulator.reorderBodies(order);
+        for (int i = 0; i < order.length; i++) {
+            GenericObject o = simulator.getBodies().get(i);
+            assert o == before.get(order[i]) && o.getSlot() == i : "La liste n'a pas été réordonnée";
+            assert o.getPosition().equals(positions.get(order[i])) : "Le stockage n'a pas été réordonné";
+        }
+    }
+
+    /**
+     * Méthode principale exécutable qui lance tous les tests.
+     * 
+     * @param args Arguments donnés au fichier
+     */
+    public static void main(String[] args) {
+        System.out.println("Test ==> PARTICLESTORE");
+        testAddRemove();
+        testSimulatorViews();
+        testSameResult();
+        testOrderIndependence();
+        testReorder();
+    }
+}
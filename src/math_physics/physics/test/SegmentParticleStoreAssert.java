@@ -0,0 +1,137 @@
+package math_physics.physics.test;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.concurrent.*;
+
+import math_physics.math.*;
+import math_physics.physics.*;
+
+/**
+ * Classe de test permettant de vérifier le stockage des corps hors du tas
+ * (mémoire native et fichier projeté).
+ */
+public class SegmentParticleStoreAssert {
+    /**
+     * Teste l'ajout, l'agrandissement et le retrait de corps dans un stockage
+     * natif.
+     */
+    private static void testNative() {
+        try (SegmentParticleStore store = new SegmentParticleStore(2)) {
+            for (int i = 0; i < 5; i++) {
+                store.add(i + 1, 1, i, 2 * i, 3 * i, -i, 0, 0);
+            }
+            assert store.size() == 5 && store.capacity() >= 5 : "Le stockage aurait dû s'agrandir";
+            assert store.getMass(4) == 5 && store.getZPosition(4) == 12 && store.getXVelocity(3) == -3
+                    : "Les corps ont été perdus lors de l'agrandissement";
+            store.remove(1);
+            assert store.size() == 4 : "Le corps n'a pas été retiré";
+            assert store.getMass(1) == 3 && store.getXPosition(1) == 2 && store.getZPosition(3) == 12
+                    : "L'ordre des corps n'a pas été conservé";
+            store.permute(new int[] { 3, 2, 1, 0 });
+            assert store.getMass(0) == 5 && store.getMass(3) == 1 && store.getZPosition(0) == 12
+                    : "Les corps n'ont pas été réordonnés";
+            store.addAcceleration(0, 1, 2, 3);
+            store.resetAccelerations();
+            assert store.getYAcceleration(0) == 0 : "Les accélérations n'ont pas été remises à 0";
+        }
+    }
+
+    /**
+     * Teste qu'un simulateur donne les mêmes trajectoires avec un stockage natif
+     * qu'avec un stockage sur le tas.
+     */
+    private static void testSimulator() {
+        Simulator heap = new Simulator(100, 10, 1, 100, 5);
+        Simulator offHeap = new Simulator();
+        for (GenericObject o : heap.getBodies()) {
+            offHeap.addBody(o.getMass(), o.getRadius(), o.getPosition(), o.getVelocity());
+        }
+        try (SegmentParticleStore store = new SegmentParticleStore()) {
+            offHeap.setStore(store);
+            assert offHeap.getBodies().get(99).getStore() == store : "Les corps n'ont pas été déplacés";
+            for (int step = 0; step < 5; step++) {
+                heap.simulateAllBodies();
+                offHeap.simulateAllBodies();
+            }
+            for (int i = 0; i < heap.getNumberBody(); i++) {
+                Vector3D expected = heap.getBodies().get(i).getPosition();
+                assert offHeap.getBodies().get(i).getPosition().equals(expected)
+                        : "Les trajectoires diffèrent avec le stockage natif";
+            }
+        }
+    }
+
+    /**
+     * Teste que le noyau symétrique, séquentiel ou parallèle, donne les mêmes
+     * accélérations sur un stockage natif que sur un stockage sur le tas.
+     */
+    private static void testSymmetricKernel() {
+        Simulator heap = new Simulator(50, 10, 1, 100, 5);
+        try (SegmentParticleStore store = new SegmentParticleStore()) {
+            for (int i = 0; i < heap.getNumberBody(); i++) {
+                store.copyFrom(heap.getStore(), i);
+            }
+            new SymmetricDirectSumKernel().computeAccelerations(heap.getStore());
+            ForkJoinPool pool = new ForkJoinPool(2);
+            for (DirectSumKernel kernel : new DirectSumKernel[] { new SymmetricDirectSumKernel(),
+                    new SymmetricDirectSumKernel(8, pool) }) {
+                kernel.computeAccelerations(store);
+                for (int i = 0; i < heap.getNumberBody(); i++) {
+                    Vector3D expected = heap.getBodies().get(i).getAcceleration();
+                    Vector3D actual = new Vector3D(store.getXAcceleration(i), store.getYAcceleration(i),
+                            store.getZAcceleration(i));
+                    assert actual.distanceFromOtherVector(expected) <= 1e-10 * expected.distanceFromOrigin()
+                            : "Le noyau " + kernel.getName() + " diffère avec le stockage natif";
+                }
+            }
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Teste qu'un stockage projeté peut être agrandi, intégré puis rouvert.
+     * 
+     * @throws IOException Levé lorsque le fichier temporaire ne peut pas être
+     *                     utilisé
+     */
+    private static void testMapped() throws IOException {
+        Path file = Files.createTempFile("particles", ".bin");
+        Files.delete(file); // Le stockage crée lui-même le fichier
+        try {
+            try (SegmentParticleStore store = new SegmentParticleStore(file, 2)) {
+                assert store.isMapped() : "Le stockage devrait être projeté";
+                for (int i = 0; i < 10; i++) {
+                    store.add(i + 1, 1, i, 0, 0, 0, 0, 0);
+                }
+                store.setVelocity(9, 1, 0, 0);
+                store.integrate(1); // Les positions passent dans le second tampon
+            }
+            try (SegmentParticleStore store = new SegmentParticleStore(file, 2)) {
+                assert store.size() == 10 && store.capacity() >= 10 : "Le fichier n'a pas été rouvert";
+                assert store.getMass(9) == 10 && store.getXPosition(9) == 10 : "Le contenu du fichier a été perdu";
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Méthode principale exécutable qui lance tous les tests.
+     * 
+     * @param args Arguments donnés au fichier
+     * @throws IOException Levé lorsque le fichier temporaire ne peut pas être
+     *                     utilisé
+     */
+    public static void main(String[] args) throws IOException {
+        System.out.println("Test ==> SEGMENTPARTICLESTORE");
+        if (ModuleLayer.boot().findModule("jdk.incubator.foreign").isEmpty()) {
+            System.out.println("Module jdk.incubator.foreign indisponible : test ignoré");
+            return;
+        }
+        testNative();
+        testSimulator();
+        testSymmetricKernel();
+        testMapped();
+    }
+}
@@ -20,8 +20,9 @@ public class ToInfinite {
         GenericObject test = new Particule(1e4, 10, new Vector3D(500, 300, -200), new Vector3D(100, -50000, 0));
         list.add(test);
 
-        // Test d'un objet partant vers l'infini
-        Vector3D initialPositionOfTest = test.getPosition();
+        // Test d'un objet partant vers l'infini (copie : la position est mise à jour
+        // sur place)
+        Vector3D initialPositionOfTest = test.getPosition().copy();
         for (int i = 0; i < 100000; i++) {
             test.simulate(list, 3600 * 24 * 365);
         }
@@ -109,114 +109,6 @@ public class Body extends MacroObject {
         return this.sphere;
     }
 
-    /**
-     * Permet de récupérer la position de l'objet sur l'axe des abscisses.
-     * 
-     * @return Position sur l'axe des X
-     */
-    public double getXPosition() {
-        return this.getPosition().getX();
-    }
-
-    /**
-     * Permet de récupérer la position de l'objet sur l'axe des ordonnées.
-     * 
-     * @return Position sur l'axe des Y
-     */
-    public double getYPosition() {
-        return this.getPosition().getY();
-    }
-
-    /**
-     * Permet de récupérer la position de l'objet sur l'axe de la profondeur.
-     * 
-     * @return Position sur l'axe des Z
-     */
-    public double getZPosition() {
-        return this.getPosition().getZ();
-    }
-
-    /**
-     * Permet de remplacer la position de l'objet sur l'axe des abscisses.
-     * 
-     * @param newValue Nouvelle valeur
-     */
-    public void setXPosition(double newValue) {
-        this.position.setX(newValue);
-    }
-
-    /**
-     * Permet de remplacer la position de l'objet sur l'axe des ordonnées.
-     * 
-     * @param newValue Nouvelle valeur
-     */
-    public void setYPosition(double newValue) {
-        this.position.setY(newValue);
-    }
-
-    /**
-     * Permet de remplacer la position de l'objet sur l'axe de la profondeur.
-     * 
-     * @param newValue Nouvelle valeur
-     */
-    public void setZPosition(double newValue) {
-        this.position.setZ(newValue);
-    }
-
-    /**
-     * Permet de récupérer la vélocité de l'objet sur l'axe des abscisses.
-     * 
-     * @return Vélocité sur l'axe des X
-     */
-    public double getXVelocity() {
-        return this.getVelocity().getX();
-    }
-
-    /**
-     * Permet de récupérer la vélocité de l'objet sur l'axe des ordonnées.
-     * 
-     * @return Vélocité sur l'axe des Y
-     */
-    public double getYVelocity() {
-        return this.getVelocity().getY();
-    }
-
-    /**
-     * Permet de récupérer la vélocité de l'objet sur l'axe de la profondeur.
-     * 
-     * @return Vélocité sur l'axe des Z
-     */
-    public double getZVelocity() {
-        return this.getVelocity().getZ();
-    }
-
-    /**
-     * Permet de remplacer la vélocité de l'objet sur l'axe des abscisses.
-     * 
-     * @param newValue Nouvelle valeur
-     */
-    public void setXVelocity(double newValue) {
-        this.velocity.setX(newValue);
-    }
-
-    /**
-     * Permet de remplacer la vélocité de l'objet sur l'axe des ordonnées.
-     * 
-     * @param newValue Nouvelle valeur
-     */
-    public void setYVelocity(double newValue) {
-        this.velocity.setY(newValue);
-    }
-
-    /**
-     * Permet de remplacer la vélocité de l'objet sur l'axe de la profondeur.
-     * 
-     * @param newValue Nouvelle valeur
-     */
-    public void setZVelocity(double newValue) {
-        this.velocity.setZ(newValue);
-    }
-
     /**
      * Permet de récupérer tous les attributs importants du corps dans une chaîne de
      * caractères. Organisé comme ceci :
@@ -235,18 +127,18 @@ public class Body extends MacroObject {
         String nameFormated = this.name.replace(" ", "%20");
         String colorString = "(" + this.color.getRed() + "," + this.color.getGreen() + "," + this.color.getBlue() + ","
                 + this.color.getOpacity() + ")";
-        return nameFormated + " " + this.mass + " " + this.radius + " " + this.position + " " + this.velocity + " "
-                + colorString;
+        return nameFormated + " " + this.getMass() + " " + this.getRadius() + " " + this.getPosition() + " "
+                + this.getVelocity() + " " + colorString;
     }
 
     /**
      * Permet de mettre à jour la position et le rayon de la sphère.
      */
-    private void move() {
+    public void move() {
         sphere.setTranslateX(this.getXPosition());
         sphere.setTranslateY(this.getYPosition());
         sphere.setTranslateZ(this.getZPosition());
-        sphere.setRadius(this.radius);
+        sphere.setRadius(this.getRadius());
     }
 
     /**
@@ -1,6 +1,7 @@
 package nbody;
 
 import java.util.*;
+import java.util.concurrent.*;
 
 import javafx.scene.paint.*;
 import javafx.scene.shape.*;
@@ -10,16 +11,18 @@ import math_physics.physics.*;
 import barnes_hut.*;
 
 /**
- * Classe simulant N corps intéragissant gravitationnellement (utilisation de la
- * simulation de Barnes-Hut possible).
+ * Classe simulant N corps intéragissant gravitationnellement. En plus de la
+ * sommation directe, les méthodes de Barnes-Hut (utilisée par défaut),
+ * multipolaire rapide, particule-maillage et arbre-maillage sont enregistrées
+ * et peuvent être choisies par leur nom (voir
+ * <code>Simulator.setForceSolver</code>).
  */
 public class NBodySimulator extends Simulator {
     /**
-     * Correspond au type de simulation à utiliser. false : utilisation de la
-     * simulation newtonienne basique (précise mais lente). true : utilisation de la
-     * simulation de Barnes-Hut (rapide mais moins précise).
+     * Correspond au nom de la dernière méthode rapide (autre que la sommation
+     * directe) choisie, rétablie par <code>setUseBarnesHutSimulation</code>.
      */
-    private boolean useBarnesHutSimulation = true;
+    private String fastSolverName = BarnesHutSolver.NAME;
 
     /**
      * Distance maximale du centre de la simulation.
@@ -32,10 +35,52 @@ public class NBodySimulator extends Simulator {
      */
     private double theta = 0.5;
 
+    /**
+     * Correspond au nombre de threads utilisés pour la sommation directe et pour
+     * l'arbre de Barnes-Hut (1 : calcul séquentiel).
+     */
+    private int parallelism = 1;
+
+    /**
+     * Correspond au groupe de threads du simulateur (<em>null</em> pour un calcul
+     * séquentiel).
+     */
+    private ForkJoinPool pool = null;
+
+    /**
+     * Correspond à l'arbre de Barnes-Hut, dont la réserve de noeuds est
+     * réutilisée à chaque itération.
+     */
+    private final LinearOctree tree = new LinearOctree();
+
+    /**
+     * Correspond à la méthode de Barnes-Hut, qui utilise l'arbre du simulateur.
+     */
+    private final BarnesHutSolver barnesHut = new BarnesHutSolver(this.tree);
+
+    /**
+     * Correspond à la méthode multipolaire rapide, dont les tableaux sont
+     * réutilisés à chaque itération.
+     */
+    private final FastMultipoleMethod fastMultipole = new FastMultipoleMethod();
+
+    /**
+     * Correspond à la méthode particule-maillage, dont la grille est réutilisée à
+     * chaque itération.
+     */
+    private final ParticleMesh particleMesh = new ParticleMesh();
+
+    /**
+     * Correspond à la méthode hybride arbre-maillage, dont la grille et l'arbre
+     * sont réutilisés à chaque itération.
+     */
+    private final TreeParticleMesh treeParticleMesh = new TreeParticleMesh();
+
     /**
      * Constructeur de la classe NBodySimulator.
      */
     public NBodySimulator() {
+        this.registerForceSolvers();
     }
 
     /**
@@ -51,6 +96,7 @@ public class NBodySimulator extends Simulator {
      */
     public NBodySimulator(int numberBodyInitial, double massMax, double radius, double maxDistance, double maxVelocity,
             Color color) {
+        this.registerForceSolvers();
         if (maxDistance < 0) { // Si la distance est négative (impossible en mathématiques)
             maxDistance *= -1; // On prend son opposé
         }
@@ -61,6 +107,53 @@ public class NBodySimulator extends Simulator {
         }
     }
 
+    /**
+     * Permet d'enregistrer les méthodes rapides de calcul des forces et de
+     * choisir celle de Barnes-Hut.
+     */
+    private void registerForceSolvers() {
+        this.tree.setTheta(this.theta);
+        this.treeParticleMesh.setTheta(this.theta);
+        this.registerForceSolver(this.barnesHut);
+        this.registerForceSolver(this.fastMultipole);
+        this.registerForceSolver(this.particleMesh);
+        this.registerForceSolver(this.treeParticleMesh);
+        this.setForceSolver(BarnesHutSolver.NAME);
+    }
+
+    /**
+     * Permet de choisir la méthode de calcul des forces utilisée à partir du pas
+     * suivant. Une méthode rapide choisie est retenue pour être rétablie par
+     * <code>setUseBarnesHutSimulation</code>.
+     * 
+     * @param name Nom d'une méthode enregistrée
+     * @throws IllegalArgumentException Levé lorsqu'aucune méthode enregistrée n'a
+     *                                  ce nom
+     */
+    @Override
+    public void setForceSolver(String name) throws IllegalArgumentException {
+        super.setForceSolver(name);
+        if (!DirectSumSolver.NAME.equals(name)) {
+            this.fastSolverName = name;
+        }
+    }
+
+    /**
+     * Permet de choisir une méthode de calcul des forces si elle est demandée, ou
+     * de revenir à la méthode de Barnes-Hut si elle ne l'est plus alors qu'elle
+     * est utilisée.
+     * 
+     * @param solver   Méthode concernée
+     * @param newValue true pour utiliser la méthode
+     */
+    private void selectForceSolver(ForceSolver solver, boolean newValue) {
+        if (newValue) {
+            this.setForceSolver(solver.getName());
+        } else if (this.getForceSolver() == solver) {
+            this.setForceSolver(BarnesHutSolver.NAME);
+        }
+    }
+
     /**
      * Permet de récupérer la valeur de la distance maximale.
      * 
@@ -82,19 +175,21 @@ public class NBodySimulator extends Simulator {
     /**
      * Permet de savoir quel type de simulation est en cours d'utilisation.
      * 
-     * @return Booléen représentant si la simulation de Barnes-Hut est utilisée
+     * @return Booléen représentant si une simulation rapide (Barnes-Hut ou une
+     *         autre méthode que la sommation directe) est utilisée
      */
     public boolean getUseBarnesHutSimulation() {
-        return this.useBarnesHutSimulation;
+        return !DirectSumSolver.NAME.equals(this.getForceSolver().getName());
     }
 
     /**
      * Permet de changer manuellement le type de simulation en cours d'utilisation.
      * 
-     * @param newValue true : simulation de Barnes-Hut, false : simulation basique
+     * @param newValue true : dernière simulation rapide choisie (Barnes-Hut par
+     *                 défaut), false : simulation basique
      */
     public void setUseBarnesHutSimulation(boolean newValue) {
-        this.useBarnesHutSimulation = newValue;
+        this.setForceSolver(newValue ? this.fastSolverName : DirectSumSolver.NAME);
     }
 
     /**
@@ -102,7 +197,7 @@ public class NBodySimulator extends Simulator {
      * d'utilisation.
      */
     public void toggleUseBarnesHutSimulation() {
-        this.useBarnesHutSimulation = !this.useBarnesHutSimulation;
+        this.setUseBarnesHutSimulation(!this.getUseBarnesHutSimulation());
     }
 
     /**
@@ -122,6 +217,351 @@ public class NBodySimulator extends Simulator {
      */
     public void setTheta(double newTheta) {
         this.theta = newTheta;
+        this.tree.setTheta(newTheta);
+        this.treeParticleMesh.setTheta(newTheta);
+    }
+
+    /**
+     * Permet de récupérer le critère d'ouverture des noeuds de l'arbre de
+     * Barnes-Hut.
+     * 
+     * @return Critère d'ouverture
+     */
+    public OpeningCriterion getOpeningCriterion() {
+        return this.tree.getOpeningCriterion();
+    }
+
+    /**
+     * Permet de choisir le critère d'ouverture des noeuds de l'arbre de
+     * Barnes-Hut.
+     * 
+     * @param newCriterion Nouveau critère d'ouverture
+     */
+    public void setOpeningCriterion(OpeningCriterion newCriterion) {
+        this.tree.setOpeningCriterion(newCriterion);
+    }
+
+    /**
+     * Permet de savoir si l'arbre de Barnes-Hut utilise la correction
+     * quadripolaire.
+     * 
+     * @return Booléen : true si la correction quadripolaire est utilisée
+     */
+    public boolean getUseQuadrupole() {
+        return this.tree.getUseQuadrupole();
+    }
+
+    /**
+     * Permet de choisir si l'arbre de Barnes-Hut utilise la correction
+     * quadripolaire (elle permet d'augmenter Théta pour la même précision).
+     * 
+     * @param newValue true pour utiliser la correction quadripolaire
+     */
+    public void setUseQuadrupole(boolean newValue) {
+        this.tree.setUseQuadrupole(newValue);
+    }
+
+    /**
+     * Permet de savoir si les forces de Barnes-Hut sont calculées par groupes.
+     * 
+     * @return Booléen : true si l'arbre est parcouru une fois par feuille
+     */
+    public boolean getUseGroups() {
+        return this.tree.getUseGroups();
+    }
+
+    /**
+     * Permet de choisir si les forces de Barnes-Hut sont calculées par groupes :
+     * l'arbre est parcouru une fois pour tous les corps d'une feuille, et la liste
+     * d'interactions obtenue est évaluée pour chacun d'eux.
+     * 
+     * @param newValue true pour calculer les forces par groupes
+     */
+    public void setUseGroups(boolean newValue) {
+        this.tree.setUseGroups(newValue);
+    }
+
+    /**
+     * Permet de savoir si l'arbre de Barnes-Hut est réajusté d'un pas à l'autre.
+     * 
+     * @return Booléen : true si l'arbre est réajusté, false s'il est reconstruit
+     *         à chaque pas
+     */
+    public boolean getIncrementalTree() {
+        return this.barnesHut.getIncremental();
+    }
+
+    /**
+     * Permet de choisir si l'arbre de Barnes-Hut est réajusté d'un pas à l'autre
+     * (seuls les corps sortis de leur feuille sont déplacés) au lieu d'être
+     * reconstruit à chaque pas. Il est tout de même reconstruit lorsque trop de
+     * corps ont changé de feuille.
+     * 
+     * @param newValue true pour réajuster l'arbre
+     */
+    public void setIncrementalTree(boolean newValue) {
+        this.barnesHut.setIncremental(newValue);
+    }
+
+    /**
+     * Permet de savoir si la simulation utilise la méthode multipolaire rapide.
+     * 
+     * @return Booléen : true pour la méthode multipolaire
+     */
+    public boolean getUseFastMultipole() {
+        return this.getForceSolver() == this.fastMultipole;
+    }
+
+    /**
+     * Permet de choisir si la simulation utilise la méthode multipolaire rapide
+     * (développements d'ordre choisi échangés entre noeuds éloignés). Sans elle,
+     * la simulation revient à l'arbre de Barnes-Hut si elle l'utilisait.
+     * 
+     * @param newValue true pour la méthode multipolaire
+     */
+    public void setUseFastMultipole(boolean newValue) {
+        this.selectForceSolver(this.fastMultipole, newValue);
+    }
+
+    /**
+     * Permet de récupérer l'ordre des développements de la méthode multipolaire
+     * rapide.
+     * 
+     * @return Ordre des développements
+     */
+    public int getMultipoleOrder() {
+        return this.fastMultipole.getOrder();
+    }
+
+    /**
+     * Permet de remplacer l'ordre des développements de la méthode multipolaire
+     * rapide.
+     * 
+     * @param newOrder Nouvel ordre des développements
+     * @throws IllegalArgumentException Levé lorsque l'ordre n'est pas entre 1 et
+     *                                  <em>FastMultipoleMethod.MAX_ORDER</em>
+     */
+    public void setMultipoleOrder(int newOrder) throws IllegalArgumentException {
+        this.fastMultipole.setOrder(newOrder);
+    }
+
+    /**
+     * Permet de savoir si la simulation utilise la méthode particule-maillage.
+     * 
+     * @return Booléen : true pour la méthode particule-maillage
+     */
+    public boolean getUseParticleMesh() {
+        return this.getForceSolver() == this.particleMesh;
+    }
+
+    /**
+     * Permet de choisir si la simulation utilise la méthode particule-maillage
+     * (attractions calculées sur une grille par transformée de Fourier, adaptée
+     * aux densités presque uniformes). Sans elle, la simulation revient à
+     * l'arbre de Barnes-Hut si elle l'utilisait.
+     * 
+     * @param newValue true pour la méthode particule-maillage
+     */
+    public void setUseParticleMesh(boolean newValue) {
+        this.selectForceSolver(this.particleMesh, newValue);
+    }
+
+    /**
+     * Permet de récupérer le nombre de cellules par côté de la grille de la
+     * méthode particule-maillage.
+     * 
+     * @return Nombre de cellules par côté
+     */
+    public int getMeshSize() {
+        return this.particleMesh.getGridSize();
+    }
+
+    /**
+     * Permet de remplacer le nombre de cellules par côté de la grille de la
+     * méthode particule-maillage.
+     * 
+     * @param newSize Nouveau nombre de cellules par côté
+     * @throws IllegalArgumentException Levé lorsque le nombre n'est pas une
+     *                                  puissance de 2 comprise entre
+     *                                  <em>ParticleMesh.MIN_GRID_SIZE</em> et
+     *                                  <em>ParticleMesh.MAX_GRID_SIZE</em>
+     */
+    public void setMeshSize(int newSize) throws IllegalArgumentException {
+        this.particleMesh.setGridSize(newSize);
+        this.treeParticleMesh.setGridSize(newSize);
+    }
+
+    /**
+     * Permet de récupérer le schéma de répartition de la masse sur la grille de
+     * la méthode particule-maillage.
+     * 
+     * @return Schéma de répartition
+     */
+    public MassAssignment getMassAssignment() {
+        return this.particleMesh.getMassAssignment();
+    }
+
+    /**
+     * Permet de choisir le schéma de répartition de la masse sur la grille de la
+     * méthode particule-maillage.
+     * 
+     * @param newAssignment Nouveau schéma de répartition
+     */
+    public void setMassAssignment(MassAssignment newAssignment) {
+        this.particleMesh.setMassAssignment(newAssignment);
+        this.treeParticleMesh.setMassAssignment(newAssignment);
+    }
+
+    /**
+     * Permet de savoir si la simulation utilise la méthode hybride
+     * arbre-maillage.
+     * 
+     * @return Booléen : true pour la méthode hybride
+     */
+    public boolean getUseTreeParticleMesh() {
+        return this.getForceSolver() == this.treeParticleMesh;
+    }
+
+    /**
+     * Permet de choisir si la simulation utilise la méthode hybride
+     * arbre-maillage (partie à longue portée de l'attraction sur une grille,
+     * partie à courte portée par l'arbre). La grille a la taille choisie par
+     * <code>setMeshSize</code> et l'arbre le Théta de la simulation. Sans elle,
+     * la simulation revient à l'arbre de Barnes-Hut si elle l'utilisait.
+     * 
+     * @param newValue true pour la méthode hybride
+     */
+    public void setUseTreeParticleMesh(boolean newValue) {
+        this.selectForceSolver(this.treeParticleMesh, newValue);
+    }
+
+    /**
+     * Permet de récupérer l'échelle de séparation des forces de la méthode
+     * hybride arbre-maillage.
+     * 
+     * @return Échelle de séparation, en cellules de la grille
+     */
+    public double getSplitScale() {
+        return this.treeParticleMesh.getSplitScale();
+    }
+
+    /**
+     * Permet de remplacer l'échelle de séparation des forces de la méthode
+     * hybride arbre-maillage.
+     * 
+     * @param newScale Nouvelle échelle de séparation, en cellules de la grille
+     * @throws IllegalArgumentException Levé lorsque l'échelle n'est pas
+     *                                  strictement positive
+     */
+    public void setSplitScale(double newScale) throws IllegalArgumentException {
+        this.treeParticleMesh.setSplitScale(newScale);
+    }
+
+    /**
+     * Permet de récupérer la marge ajoutée autour des corps dans la boîte de la
+     * racine de l'arbre de Barnes-Hut.
+     * 
+     * @return Marge (fraction de la taille de la boîte de chaque côté)
+     */
+    public double getBoxPadding() {
+        return this.tree.getPadding();
+    }
+
+    /**
+     * Permet de remplacer la marge ajoutée autour des corps dans la boîte de la
+     * racine de l'arbre de Barnes-Hut.
+     * 
+     * @param newPadding Nouvelle marge (fraction de la taille de la boîte de
+     *                   chaque côté)
+     * @throws IllegalArgumentException Levé lorsque la marge est négative
+     */
+    public void setBoxPadding(double newPadding) throws IllegalArgumentException {
+        this.tree.setPadding(newPadding);
+    }
+
+    /**
+     * Permet de récupérer le nombre de rayons quadratiques moyens au-delà duquel
+     * un corps échappé n'agrandit plus la boîte de la racine.
+     * 
+     * @return Nombre de rayons
+     */
+    public double getEscapeFactor() {
+        return this.tree.getEscapeFactor();
+    }
+
+    /**
+     * Permet de remplacer le nombre de rayons quadratiques moyens au-delà duquel
+     * un corps échappé n'agrandit plus la boîte de la racine (ses attractions
+     * sont alors sommées directement).
+     * 
+     * @param newFactor Nouveau nombre de rayons (infini pour toujours englober
+     *                  tous les corps)
+     * @throws IllegalArgumentException Levé lorsque le nombre est inférieur à 1
+     */
+    public void setEscapeFactor(double newFactor) throws IllegalArgumentException {
+        this.tree.setEscapeFactor(newFactor);
+    }
+
+    /**
+     * Permet de récupérer le nombre de threads utilisés pour la sommation directe
+     * et pour l'arbre de Barnes-Hut.
+     * 
+     * @return Nombre de threads
+     */
+    public int getParallelism() {
+        return this.parallelism;
+    }
+
+    /**
+     * Permet de changer le nombre de threads utilisés pour la sommation directe
+     * et pour l'arbre de Barnes-Hut. Au-delà d'un thread, le simulateur crée son
+     * propre <code>ForkJoinPool</code> et le noyau courant est exécuté par un
+     * noyau parallèle (ou reçoit le groupe de threads s'il est symétrique).
+     * 
+     * @param newParallelism Nouveau nombre de threads
+     * @throws IllegalArgumentException Levé lorsque le nombre de threads n'est pas
+     *                                  strictement positif
+     */
+    public void setParallelism(int newParallelism) throws IllegalArgumentException {
+        if (newParallelism < 1) {
+            throw new IllegalArgumentException("Le nombre de threads doit être strictement positif !");
+        }
+        DirectSumKernel kernel = this.directSumKernel;
+        if (kernel instanceof ParallelDirectSumKernel) {
+            kernel = ((ParallelDirectSumKernel) kernel).getKernel();
+        } else if (kernel instanceof SymmetricDirectSumKernel
+                && ((SymmetricDirectSumKernel) kernel).getPool() == this.pool) {
+            // Noyau symétrique qui utilisait le groupe de threads du simulateur
+            kernel = new SymmetricDirectSumKernel(((SymmetricDirectSumKernel) kernel).getTileSize());
+        }
+        if (this.pool != null) {
+            this.pool.shutdown();
+        }
+        this.pool = newParallelism == 1 ? null : new ForkJoinPool(newParallelism);
+        this.parallelism = newParallelism;
+        this.setDirectSumKernel(kernel);
+    }
+
+    /**
+     * Permet de changer le noyau de sommation directe. Si le simulateur utilise
+     * plusieurs threads, le noyau est exécuté par un noyau parallèle sur le
+     * groupe de threads du simulateur (un noyau déjà parallèle est utilisé tel
+     * quel). Le noyau symétrique, qui calcule les corps par paires, n'est pas
+     * découpé corps par corps : il reçoit le groupe de threads du simulateur
+     * (sauf s'il a déjà le sien).
+     * 
+     * @param newKernel Nouveau noyau
+     */
+    public void setDirectSumKernel(DirectSumKernel newKernel) {
+        if (newKernel instanceof SymmetricDirectSumKernel) {
+            SymmetricDirectSumKernel symmetric = (SymmetricDirectSumKernel) newKernel;
+            if (this.pool != null && symmetric.getPool() == null) {
+                newKernel = new SymmetricDirectSumKernel(symmetric.getTileSize(), this.pool);
+            }
+        } else if (this.pool != null && !(newKernel instanceof ParallelDirectSumKernel)) {
+            newKernel = new ParallelDirectSumKernel(newKernel, this.pool, ParallelDirectSumKernel.DEFAULT_GRAIN);
+        }
+        super.setDirectSumKernel(newKernel);
     }
 
     /**
@@ -163,8 +603,7 @@ public class NBodySimulator extends Simulator {
      * @param bodyToAdd Corps à ajouter à la liste
      */
     public void addBody(Body bodyToAdd) {
-        this.bodies.add(bodyToAdd);
-        this.numberBody++;
+        super.addBody(bodyToAdd);
     }
 
     /**
@@ -173,8 +612,9 @@ public class NBodySimulator extends Simulator {
      * @param bodiesToAdd Collection de corps à ajouter à la liste
      */
     public void addBodies(Collection<Body> bodiesToAdd) {
-        this.bodies.addAll(bodiesToAdd);
-        this.numberBody += bodiesToAdd.size();
+        for (Body body : bodiesToAdd) {
+            this.addBody(body);
+        }
     }
 
     /**
@@ -212,34 +652,34 @@ public class NBodySimulator extends Simulator {
      */
     public Sphere removeBody(Body instance) {
         Sphere sphere = instance.getSphere();
-        this.bodies.remove(instance);
-        this.numberBody--;
+        super.removeBody(instance);
         return sphere;
     }
 
+    @Override
+    protected ForkJoinPool getPool() {
+        return this.pool;
+    }
+
     /**
-     * Permet de simuler toutes les intéractions des objets.
+     * Permet de simuler toutes les intéractions des objets avec la méthode de
+     * calcul des forces choisie, puis de déplacer les sphères.
      */
+    @Override
     public void simulateAllBodies() {
-        if (!this.useBarnesHutSimulation) {
-            // Simule tous les objets
-            for (GenericObject body : this.bodies) {
-                body.simulate(this.bodies, this.deltaTime);
-            }
-        } else {
-            Octal oct = new Octal(this.origin, maxDistance * 4, maxDistance * 4, maxDistance * 4);
-            BHTree tree = new BHTree(oct);
-            tree.setTheta(this.theta);
-
-            // Construction des noeuds l'arbre de Barnes-Hut
-            for (GenericObject body : this.bodies) {
-                tree.insertion(body);
-            }
-            // Mise à jour de la force, de l'accélération, de la vitesse et de la position
-            for (GenericObject body : this.bodies) {
-                body.resetForce();
-                tree.updateForceAboutObject(body);
-                body.simulate(this.deltaTime);
+        super.simulateAllBodies();
+        this.moveSpheres();
+    }
+
+    /**
+     * Permet de mettre à jour les sphères de tous les corps à partir de leurs
+     * nouvelles positions.
+     */
+    private void moveSpheres() {
+        for (int i = 0, size = this.bodies.size(); i < size; i++) {
+            GenericObject object = this.bodies.get(i);
+            if (object instanceof Body) {
+                ((Body) object).move();
             }
         }
     }